@@ -4,13 +4,15 @@ import com.github.tmarwen.micronaut.microstream.application.model.ChatGraph;
 import com.github.tmarwen.micronaut.microstream.application.model.Message;
 import com.github.tmarwen.micronaut.microstream.application.model.Thread;
 import com.github.tmarwen.micronaut.microstream.application.model.User;
-import graphql.GraphQL;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphConcurrencyStrategy;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphStorer;
 import io.micronaut.context.ApplicationContext;
 import io.micronaut.runtime.Micronaut;
 import one.microstream.storage.types.EmbeddedStorageManager;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class Application {
@@ -24,24 +26,30 @@ public class Application {
         ApplicationContext context = Micronaut.run(Application.class, args);
         // Retrieve storageManager bean
         EmbeddedStorageManager storageManager = context.getBean(EmbeddedStorageManager.class);
+        GraphStorer graphStorer = context.getBean(GraphStorer.class);
+        GraphConcurrencyStrategy concurrencyStrategy = context.getBean(GraphConcurrencyStrategy.class);
         // Retrieve root entity
         ChatGraph root = (ChatGraph) storageManager.root();
         // Create a conversation thread
         Thread conversation = thread();
-        root.getThreads().add(conversation);
         // Create the first Micronaut-MicroStream user ever
         User user = user();
-        conversation.getMembers().add(user);
-        // Here goes the first conversation message
-        Message message = message("MicroStream is cool!", user, conversation);
-        conversation.getMessages().add(message);
-        // And the second message
-        Message anotherMessage = message("MicroStream is cool!", user, conversation);
-        conversation.getMessages().add(anotherMessage);
-        // Add the user to the store
-        root.getUsers().add(user);
-        // Save everything
-        storageManager.storeAll(root);
+        // Mutate the live graph excluding concurrent GraphQL readers of the changed aggregates
+        concurrencyStrategy.write(Arrays.asList(root, conversation), () -> {
+            root.getThreads().add(conversation);
+            conversation.getMembers().add(user);
+            // Here goes the first conversation message
+            Message message = message("MicroStream is cool!", user, conversation);
+            conversation.getMessages().add(message);
+            // And the second message
+            Message anotherMessage = message("MicroStream is cool!", user, conversation);
+            conversation.getMessages().add(anotherMessage);
+            // Add the user to the store
+            root.getUsers().add(user);
+            return null;
+        });
+        // Save everything (and keep the graph indexes up to date)
+        graphStorer.store(root);
         System.out.println(storageManager.root());
     }
 
@@ -1,5 +1,8 @@
 package com.github.tmarwen.micronaut.microstream.application.model;
 
+import com.github.tmarwen.micronaut.microstream.annotation.Indexed;
+import com.github.tmarwen.micronaut.microstream.annotation.RangeIndexed;
+
 import java.time.Instant;
 
 /**
@@ -7,6 +10,7 @@ import java.time.Instant;
  *
  * @since 1.0.0
  */
+@Indexed
 public class Message {
 
     private Long id;
@@ -17,6 +21,7 @@ public class Message {
 
     private Thread thread;
 
+    @RangeIndexed
     private Instant createdAt;
 
     public Message(Long id, String content, User author, Thread thread, Instant createdAt) {
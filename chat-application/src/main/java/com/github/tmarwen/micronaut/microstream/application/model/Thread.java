@@ -1,5 +1,8 @@
 package com.github.tmarwen.micronaut.microstream.application.model;
 
+import com.github.tmarwen.micronaut.microstream.annotation.Indexed;
+import com.github.tmarwen.micronaut.microstream.annotation.RangeIndexed;
+
 import java.time.Instant;
 import java.util.List;
 
@@ -8,12 +11,14 @@ import java.util.List;
  *
  * @since 1.0.0
  */
+@Indexed
 public class Thread {
 
     private Long id;
 
     private String name;
 
+    @RangeIndexed
     private Instant createdAt;
 
     private List<User> members;
@@ -1,5 +1,8 @@
 package com.github.tmarwen.micronaut.microstream.application.model;
 
+import com.github.tmarwen.micronaut.microstream.annotation.Indexed;
+import com.github.tmarwen.micronaut.microstream.annotation.RangeIndexed;
+
 import java.time.Instant;
 
 /**
@@ -7,6 +10,7 @@ import java.time.Instant;
  *
  * @since 1.0.0
  */
+@Indexed
 public class User {
 
     private Long id;
@@ -15,6 +19,7 @@ public class User {
 
     private String email;
 
+    @RangeIndexed
     private Instant createdAt;
 
     public User(Long id, String username, String email, Instant createdAt) {
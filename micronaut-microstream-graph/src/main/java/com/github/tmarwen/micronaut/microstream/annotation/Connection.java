@@ -0,0 +1,22 @@
+package com.github.tmarwen.micronaut.microstream.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Annotation marker for {@code MicroStream} graph list properties to be exposed as
+ * cursor-paginated Relay connections instead of plain GraphQL lists.
+ *
+ * <p>Can be declared on either the property field or its getter.
+ *
+ * @since 1.0.0
+ */
+@Documented
+@Retention(RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface Connection {
+}
@@ -0,0 +1,28 @@
+package com.github.tmarwen.micronaut.microstream.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Annotation marker for {@code MicroStream} graph types to be indexed by their {@code id}
+ * property.
+ *
+ * <p>Indexed types are exposed through {@code xxxById(id:)} root query fields resolved in
+ * constant time. The {@code id} property must be of an integral type.
+ *
+ * @since 1.0.0
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Indexed {
+
+    /**
+     * The indexed property name.
+     */
+    String ID_PROPERTY = "id";
+}
@@ -0,0 +1,25 @@
+package com.github.tmarwen.micronaut.microstream.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Annotation marker for {@code MicroStream} graph {@link java.time.Instant} properties to be
+ * range indexed.
+ *
+ * <p>Lists of the declaring type get {@code since} and {@code until} arguments resolved
+ * through a sorted index seek. At most one property per type can be range indexed and its
+ * value is expected not to change once the instance is part of a list, as with creation
+ * timestamps.
+ *
+ * @since 1.0.0
+ */
+@Documented
+@Retention(RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface RangeIndexed {
+}
@@ -11,6 +11,10 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
  * Configuration annotation for {@code MicroStream} storage manager allowing to
  * inject custom configuration upon compile-time.
  *
+ * <p>Binds a {@link Root} type to a named storage manager, configured under
+ * {@code microstream.storages.<name>}. It can be declared on the root type itself or on any
+ * other type. Root types not bound to a named storage manager are held by the default one.
+ *
  * @since 1.0.0
  */
 @Documented
@@ -23,6 +27,23 @@ public @interface StorageManager {
      */
     String ROOT_MEMBER = "root";
 
+    /**
+     * Name member key.
+     */
+    String NAME_MEMBER = "name";
+
+    /**
+     * The name of the default storage manager.
+     */
+    String DEFAULT_NAME = "default";
+
+    /**
+     * The name of the storage manager, also used as the GraphQL query field exposing its root.
+     *
+     * @return the storage manager name
+     */
+    String name() default DEFAULT_NAME;
+
     /**
      * The class type of the root entity.
      *
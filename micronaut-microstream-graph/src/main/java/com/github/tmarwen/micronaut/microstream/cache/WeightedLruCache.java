@@ -0,0 +1,199 @@
+package com.github.tmarwen.micronaut.microstream.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * A thread-safe least recently used cache bounded by the total weight of its entries.
+ *
+ * <p>Entries heavier than the whole cache capacity are never cached. Values are computed
+ * outside of the cache lock, so that concurrent misses on the same key may compute it twice,
+ * the last computed value being kept.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @since 1.0.0
+ */
+public class WeightedLruCache<K, V> {
+
+    /**
+     * The entries in access order.
+     */
+    private final LinkedHashMap<K, Weighted<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The maximum total weight.
+     */
+    private final long maximumWeight;
+
+    /**
+     * Computes the weight of an entry.
+     */
+    private final ToLongBiFunction<K, V> weigher;
+
+    /**
+     * The current total weight.
+     */
+    private long weight;
+
+    /**
+     * The lookups count finding an entry.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * The lookups count finding no entry.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * The evicted entries count.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    public WeightedLruCache(long maximumWeight, ToLongBiFunction<K, V> weigher) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("Maximum weight must not be negative, got " + maximumWeight);
+        }
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns the value cached for the given key.
+     *
+     * @param key the key
+     * @return the cached value or {@code null}
+     */
+    public V get(K key) {
+        final Weighted<V> entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Returns the value cached for the given key, computing and caching it if absent.
+     *
+     * @param key             the key
+     * @param mappingFunction computes the value to cache, a {@code null} value is not cached
+     * @return the cached or computed value
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        final V cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final V value = mappingFunction.apply(key);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Caches the given value, evicting the least recently used entries beyond capacity.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void put(K key, V value) {
+        put(key, value, weigher.applyAsLong(key, value));
+    }
+
+    /**
+     * Caches the given value with the given weight, evicting the least recently used entries
+     * beyond capacity.
+     *
+     * @param key         the key
+     * @param value       the value
+     * @param entryWeight the entry weight
+     */
+    public void put(K key, V value, long entryWeight) {
+        synchronized (entries) {
+            final Weighted<V> previous = entries.remove(key);
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            if (entryWeight > maximumWeight) {
+                return;
+            }
+            entries.put(key, new Weighted<>(value, entryWeight));
+            weight += entryWeight;
+            final Iterator<Map.Entry<K, Weighted<V>>> eldest = entries.entrySet().iterator();
+            while (weight > maximumWeight && eldest.hasNext()) {
+                weight -= eldest.next().getValue().weight;
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Removes all the cached entries.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            weight = 0;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return the current total weight of the cached entries
+     */
+    public long weight() {
+        synchronized (entries) {
+            return weight;
+        }
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * A cached value along with its weight.
+     *
+     * @param <V> the value type
+     */
+    private static final class Weighted<V> {
+
+        private final V value;
+
+        private final long weight;
+
+        Weighted(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.tmarwen.micronaut.microstream.configuration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+/**
+ * Continuous backup and restore configuration.
+ *
+ * @since 1.0.0
+ */
+@ConfigurationProperties(BackupConfigurationProperties.PREFIX)
+public class BackupConfigurationProperties {
+
+    public static final String PREFIX = MicroStreamConfigurationProperties.PREFIX + ".backup";
+
+    private String directory;
+
+    private boolean restore;
+
+    private int restoreThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * @return the directory every storage write is mirrored to, {@code null} to disable the backup
+     */
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return whether the storage directory is restored from the backup directory upon startup
+     */
+    public boolean isRestore() {
+        return restore;
+    }
+
+    public void setRestore(boolean restore) {
+        this.restore = restore;
+    }
+
+    /**
+     * @return the number of files restored in parallel
+     */
+    public int getRestoreThreads() {
+        return restoreThreads;
+    }
+
+    public void setRestoreThreads(int restoreThreads) {
+        this.restoreThreads = restoreThreads;
+    }
+}
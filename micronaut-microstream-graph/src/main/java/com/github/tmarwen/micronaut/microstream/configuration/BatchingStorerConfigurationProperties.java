@@ -0,0 +1,70 @@
+package com.github.tmarwen.micronaut.microstream.configuration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Write-behind batching storer configuration.
+ *
+ * @since 1.0.0
+ */
+@ConfigurationProperties(BatchingStorerConfigurationProperties.PREFIX)
+public class BatchingStorerConfigurationProperties {
+
+    public static final String PREFIX = MicroStreamConfigurationProperties.PREFIX + ".batching";
+
+    /**
+     * The default maximum number of objects per commit.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+
+    /**
+     * The default time window after which a partial batch is committed.
+     */
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(10);
+
+    /**
+     * The default pending store requests capacity.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+    private Duration flushInterval = DEFAULT_FLUSH_INTERVAL;
+
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    /**
+     * @return the number of pending objects triggering a commit
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * @return the maximum time an object waits for its commit once queued
+     */
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * @return the number of pending store requests beyond which callers are blocked
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+}
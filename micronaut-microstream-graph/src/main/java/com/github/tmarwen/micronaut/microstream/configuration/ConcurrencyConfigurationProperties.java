@@ -0,0 +1,56 @@
+package com.github.tmarwen.micronaut.microstream.configuration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+/**
+ * Graph concurrency control configuration.
+ *
+ * @since 1.0.0
+ */
+@ConfigurationProperties(ConcurrencyConfigurationProperties.PREFIX)
+public class ConcurrencyConfigurationProperties {
+
+    public static final String PREFIX = MicroStreamConfigurationProperties.PREFIX + ".concurrency";
+
+    private Strategy strategy = Strategy.STRIPED;
+
+    private int stripes = Runtime.getRuntime().availableProcessors() * 4;
+
+    /**
+     * @return the concurrency control strategy
+     */
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * @return the number of lock stripes of the striped strategy
+     */
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+
+    /**
+     * Graph concurrency control strategies.
+     */
+    public enum Strategy {
+
+        /**
+         * Per-aggregate striped locks with optimistic reads.
+         */
+        STRIPED,
+
+        /**
+         * A single graph-wide read/write lock.
+         */
+        GLOBAL
+    }
+}
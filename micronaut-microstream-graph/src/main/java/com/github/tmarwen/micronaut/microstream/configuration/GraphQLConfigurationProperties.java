@@ -0,0 +1,374 @@
+package com.github.tmarwen.micronaut.microstream.configuration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.convert.format.ReadableBytes;
+
+import java.time.Duration;
+
+/**
+ * MicroStream GraphQL schema configuration.
+ *
+ * @since 1.0.0
+ */
+@ConfigurationProperties(GraphQLConfigurationProperties.PREFIX)
+public class GraphQLConfigurationProperties {
+
+    public static final String PREFIX = MicroStreamConfigurationProperties.PREFIX + ".graphql";
+
+    /**
+     * The default connection page size.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    /**
+     * The default maximum connection page size.
+     */
+    public static final int DEFAULT_MAX_PAGE_SIZE = 500;
+
+    /**
+     * The default maximum data loader batch size.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+
+    /**
+     * The default maximum weight of the parsed document cache, in query characters.
+     */
+    public static final long DEFAULT_DOCUMENT_CACHE_MAX_WEIGHT = 1_000_000L;
+
+    /**
+     * The default maximum weight of the query result cache, in serialized result characters.
+     */
+    public static final long DEFAULT_RESULT_CACHE_MAX_WEIGHT = 16L * 1024 * 1024;
+
+    /**
+     * The default maximum query depth.
+     */
+    public static final int DEFAULT_MAX_QUERY_DEPTH = 15;
+
+    /**
+     * The default maximum estimated query cost.
+     */
+    public static final int DEFAULT_MAX_QUERY_COMPLEXITY = 100_000;
+
+    /**
+     * The default maximum number of graph instances sampled to estimate list sizes.
+     */
+    public static final int DEFAULT_COST_SAMPLE_SIZE = 10_000;
+
+    /**
+     * The default interval between two list size samplings.
+     */
+    public static final Duration DEFAULT_COST_SAMPLING_INTERVAL = Duration.ofMinutes(1);
+
+    /**
+     * The default queue capacity of the fetch thread pool.
+     */
+    public static final int DEFAULT_FETCH_QUEUE_CAPACITY = 1000;
+
+    /**
+     * The default number of events buffered per subscriber.
+     */
+    public static final int DEFAULT_SUBSCRIPTION_BUFFER_SIZE = 256;
+
+    /**
+     * The default ratio of the requests whose fields are measured.
+     */
+    public static final double DEFAULT_METRICS_SAMPLE_RATE = 0.1;
+
+    private int defaultPageSize = DEFAULT_PAGE_SIZE;
+
+    private int maxPageSize = DEFAULT_MAX_PAGE_SIZE;
+
+    private boolean batchLoading = true;
+
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+    private boolean releaseLazyReferences = true;
+
+    private boolean mutations = true;
+
+    private long documentCacheMaxWeight = DEFAULT_DOCUMENT_CACHE_MAX_WEIGHT;
+
+    private boolean persistedQueries = true;
+
+    private boolean resultCache;
+
+    private long resultCacheMaxWeight = DEFAULT_RESULT_CACHE_MAX_WEIGHT;
+
+    private int maxQueryDepth = DEFAULT_MAX_QUERY_DEPTH;
+
+    private int maxQueryComplexity = DEFAULT_MAX_QUERY_COMPLEXITY;
+
+    private int costSampleSize = DEFAULT_COST_SAMPLE_SIZE;
+
+    private Duration costSamplingInterval = DEFAULT_COST_SAMPLING_INTERVAL;
+
+    private FetchExecution fetchExecution = FetchExecution.SYNC;
+
+    private int fetchThreads = Runtime.getRuntime().availableProcessors() * 2;
+
+    private int fetchQueueCapacity = DEFAULT_FETCH_QUEUE_CAPACITY;
+
+    private boolean subscriptions = true;
+
+    private int subscriptionBufferSize = DEFAULT_SUBSCRIPTION_BUFFER_SIZE;
+
+    private boolean metrics = true;
+
+    private double metricsSampleRate = DEFAULT_METRICS_SAMPLE_RATE;
+
+    /**
+     * @return the page size of connections queried without {@code first} nor {@code last}
+     */
+    public int getDefaultPageSize() {
+        return defaultPageSize;
+    }
+
+    public void setDefaultPageSize(int defaultPageSize) {
+        this.defaultPageSize = defaultPageSize;
+    }
+
+    /**
+     * @return the upper bound of the {@code first} and {@code last} connection arguments
+     */
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    public void setMaxPageSize(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * @return whether object-valued fields are resolved through per-request data loaders
+     */
+    public boolean isBatchLoading() {
+        return batchLoading;
+    }
+
+    public void setBatchLoading(boolean batchLoading) {
+        this.batchLoading = batchLoading;
+    }
+
+    /**
+     * @return the maximum number of sources resolved by a single data loader batch
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * @return whether the lazy references loaded by a request are cleared upon its completion
+     */
+    public boolean isReleaseLazyReferences() {
+        return releaseLazyReferences;
+    }
+
+    public void setReleaseLazyReferences(boolean releaseLazyReferences) {
+        this.releaseLazyReferences = releaseLazyReferences;
+    }
+
+    /**
+     * @return whether the create, update and delete mutations of the graph types are exposed
+     */
+    public boolean isMutations() {
+        return mutations;
+    }
+
+    public void setMutations(boolean mutations) {
+        this.mutations = mutations;
+    }
+
+    /**
+     * @return the maximum total length of the queries whose parsed and validated document is cached, {@code 0}
+     * disables the cache; the query length only approximates the memory held by its document
+     */
+    public long getDocumentCacheMaxWeight() {
+        return documentCacheMaxWeight;
+    }
+
+    public void setDocumentCacheMaxWeight(long documentCacheMaxWeight) {
+        this.documentCacheMaxWeight = documentCacheMaxWeight;
+    }
+
+    /**
+     * @return whether automatic persisted queries, sent as their SHA-256 hash, are supported
+     */
+    public boolean isPersistedQueries() {
+        return persistedQueries;
+    }
+
+    public void setPersistedQueries(boolean persistedQueries) {
+        this.persistedQueries = persistedQueries;
+    }
+
+    /**
+     * @return whether query results are cached until the next storage commit
+     */
+    public boolean isResultCache() {
+        return resultCache;
+    }
+
+    public void setResultCache(boolean resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * @return the maximum total size of the cached query results, in serialized characters
+     */
+    public long getResultCacheMaxWeight() {
+        return resultCacheMaxWeight;
+    }
+
+    public void setResultCacheMaxWeight(@ReadableBytes long resultCacheMaxWeight) {
+        this.resultCacheMaxWeight = resultCacheMaxWeight;
+    }
+
+    /**
+     * @return the maximum depth of the executed queries, {@code 0} for no limit
+     */
+    public int getMaxQueryDepth() {
+        return maxQueryDepth;
+    }
+
+    public void setMaxQueryDepth(int maxQueryDepth) {
+        this.maxQueryDepth = maxQueryDepth;
+    }
+
+    /**
+     * @return the maximum estimated cost of the executed queries, {@code 0} for no limit
+     */
+    public int getMaxQueryComplexity() {
+        return maxQueryComplexity;
+    }
+
+    public void setMaxQueryComplexity(int maxQueryComplexity) {
+        this.maxQueryComplexity = maxQueryComplexity;
+    }
+
+    /**
+     * @return the maximum number of graph instances of each storage sampled to estimate the list field sizes
+     */
+    public int getCostSampleSize() {
+        return costSampleSize;
+    }
+
+    public void setCostSampleSize(int costSampleSize) {
+        this.costSampleSize = costSampleSize;
+    }
+
+    /**
+     * @return the interval between two background samplings of the list field sizes
+     */
+    public Duration getCostSamplingInterval() {
+        return costSamplingInterval;
+    }
+
+    public void setCostSamplingInterval(Duration costSamplingInterval) {
+        this.costSamplingInterval = costSamplingInterval;
+    }
+
+    /**
+     * @return how the list field data fetchers are run
+     */
+    public FetchExecution getFetchExecution() {
+        return fetchExecution;
+    }
+
+    public void setFetchExecution(FetchExecution fetchExecution) {
+        this.fetchExecution = fetchExecution;
+    }
+
+    /**
+     * @return the number of threads of the fetch thread pool
+     */
+    public int getFetchThreads() {
+        return fetchThreads;
+    }
+
+    public void setFetchThreads(int fetchThreads) {
+        this.fetchThreads = fetchThreads;
+    }
+
+    /**
+     * @return the number of fetches queued by the fetch thread pool before further fetches fail
+     * their field
+     */
+    public int getFetchQueueCapacity() {
+        return fetchQueueCapacity;
+    }
+
+    public void setFetchQueueCapacity(int fetchQueueCapacity) {
+        this.fetchQueueCapacity = fetchQueueCapacity;
+    }
+
+    /**
+     * @return whether the subscriptions to the indexed types additions are exposed
+     */
+    public boolean isSubscriptions() {
+        return subscriptions;
+    }
+
+    public void setSubscriptions(boolean subscriptions) {
+        this.subscriptions = subscriptions;
+    }
+
+    /**
+     * @return the number of events buffered for a slow subscriber before the oldest ones are dropped
+     */
+    public int getSubscriptionBufferSize() {
+        return subscriptionBufferSize;
+    }
+
+    public void setSubscriptionBufferSize(int subscriptionBufferSize) {
+        this.subscriptionBufferSize = subscriptionBufferSize;
+    }
+
+    /**
+     * @return whether GraphQL operations and fields are measured, when a meter registry is available
+     */
+    public boolean isMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(boolean metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return the ratio, between {@code 0} and {@code 1}, of the requests whose fields are measured
+     */
+    public double getMetricsSampleRate() {
+        return metricsSampleRate;
+    }
+
+    public void setMetricsSampleRate(double metricsSampleRate) {
+        this.metricsSampleRate = metricsSampleRate;
+    }
+
+    /**
+     * List field data fetchers execution modes.
+     */
+    public enum FetchExecution {
+
+        /**
+         * Fetchers run on the thread executing the request.
+         */
+        SYNC,
+
+        /**
+         * Fetchers run asynchronously on a bounded thread pool.
+         */
+        POOL,
+
+        /**
+         * Fetchers run asynchronously on virtual threads, falling back to the bounded thread
+         * pool on runtimes without virtual threads.
+         */
+        VIRTUAL
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.tmarwen.micronaut.microstream.configuration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scheduled housekeeping configuration.
+ *
+ * @since 1.0.0
+ */
+@ConfigurationProperties(HousekeepingConfigurationProperties.PREFIX)
+public class HousekeepingConfigurationProperties {
+
+    public static final String PREFIX = MicroStreamConfigurationProperties.PREFIX + ".housekeeping";
+
+    /**
+     * The default interval between two housekeeping passes.
+     */
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(1);
+
+    /**
+     * The default time budget of a pass without load.
+     */
+    public static final Duration DEFAULT_TIME_BUDGET = Duration.ofMillis(50);
+
+    /**
+     * The default time budget of a pass at peak load.
+     */
+    public static final Duration DEFAULT_MINIMUM_TIME_BUDGET = Duration.ofMillis(1);
+
+    /**
+     * The default time budget of a pass within off-peak windows.
+     */
+    public static final Duration DEFAULT_OFF_PEAK_TIME_BUDGET = Duration.ofMillis(500);
+
+    /**
+     * The default number of in-flight requests considered as peak load.
+     */
+    public static final int DEFAULT_PEAK_REQUESTS = 64;
+
+    private boolean enabled;
+
+    private Duration interval = DEFAULT_INTERVAL;
+
+    private Duration timeBudget = DEFAULT_TIME_BUDGET;
+
+    private Duration minimumTimeBudget = DEFAULT_MINIMUM_TIME_BUDGET;
+
+    private Duration offPeakTimeBudget = DEFAULT_OFF_PEAK_TIME_BUDGET;
+
+    private List<String> offPeakWindows = new ArrayList<>();
+
+    private int peakRequests = DEFAULT_PEAK_REQUESTS;
+
+    /**
+     * @return whether housekeeping passes are scheduled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return the delay between two housekeeping passes
+     */
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    /**
+     * @return the time budget of a pass without load, shrinking as the request load grows
+     */
+    public Duration getTimeBudget() {
+        return timeBudget;
+    }
+
+    public void setTimeBudget(Duration timeBudget) {
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * @return the time budget of a pass at peak load
+     */
+    public Duration getMinimumTimeBudget() {
+        return minimumTimeBudget;
+    }
+
+    public void setMinimumTimeBudget(Duration minimumTimeBudget) {
+        this.minimumTimeBudget = minimumTimeBudget;
+    }
+
+    /**
+     * @return the time budget of a pass within off-peak windows, whatever the load
+     */
+    public Duration getOffPeakTimeBudget() {
+        return offPeakTimeBudget;
+    }
+
+    public void setOffPeakTimeBudget(Duration offPeakTimeBudget) {
+        this.offPeakTimeBudget = offPeakTimeBudget;
+    }
+
+    /**
+     * @return the off-peak windows, as {@code HH:mm-HH:mm} local time ranges
+     */
+    public List<String> getOffPeakWindows() {
+        return offPeakWindows;
+    }
+
+    public void setOffPeakWindows(List<String> offPeakWindows) {
+        this.offPeakWindows = offPeakWindows;
+    }
+
+    /**
+     * @return the number of in-flight requests at which passes get the minimum time budget
+     */
+    public int getPeakRequests() {
+        return peakRequests;
+    }
+
+    public void setPeakRequests(int peakRequests) {
+        this.peakRequests = peakRequests;
+    }
+}
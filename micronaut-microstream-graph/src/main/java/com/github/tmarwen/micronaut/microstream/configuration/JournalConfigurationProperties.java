@@ -0,0 +1,85 @@
+package com.github.tmarwen.micronaut.microstream.configuration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+/**
+ * Change-data-capture journal configuration.
+ *
+ * @since 1.0.0
+ */
+@ConfigurationProperties(JournalConfigurationProperties.PREFIX)
+public class JournalConfigurationProperties {
+
+    public static final String PREFIX = MicroStreamConfigurationProperties.PREFIX + ".journal";
+
+    /**
+     * The default size of a journal segment file.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private boolean enabled;
+
+    private String directory;
+
+    private int segmentSize = DEFAULT_SEGMENT_SIZE;
+
+    private int retainedSegments;
+
+    private boolean sync;
+
+    /**
+     * @return whether the committed graph changes are journaled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return the journal directory, {@code <storage-directory>-journal} if not set
+     */
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the size of a memory-mapped journal segment file, in bytes
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * @return the number of most recent journal segment files retained, older ones being deleted, {@code 0} to
+     * retain them all
+     */
+    public int getRetainedSegments() {
+        return retainedSegments;
+    }
+
+    public void setRetainedSegments(int retainedSegments) {
+        this.retainedSegments = retainedSegments;
+    }
+
+    /**
+     * @return whether each journal record is forced to disk before the commit completes
+     */
+    public boolean isSync() {
+        return sync;
+    }
+
+    public void setSync(boolean sync) {
+        this.sync = sync;
+    }
+}
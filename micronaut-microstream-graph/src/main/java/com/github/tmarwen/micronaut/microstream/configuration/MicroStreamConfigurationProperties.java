@@ -1,9 +1,15 @@
 package com.github.tmarwen.micronaut.microstream.configuration;
 
 import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.convert.format.ReadableBytes;
+
+import java.time.Duration;
 
 /**
- * MicroStreamConfiguration
+ * MicroStream storage engine configuration.
+ *
+ * <p>Defaults mirror the MicroStream ones so that an unconfigured application behaves as
+ * with {@code EmbeddedStorage.start(root)}.
  *
  * @since 1.0.0
  */
@@ -11,4 +17,166 @@ import io.micronaut.context.annotation.ConfigurationProperties;
 public class MicroStreamConfigurationProperties {
 
     public static final String PREFIX = "microstream";
+
+    /**
+     * The default storage directory.
+     */
+    public static final String DEFAULT_STORAGE_DIRECTORY = "storage";
+
+    /**
+     * The default number of storage channels.
+     */
+    public static final int DEFAULT_CHANNEL_COUNT = 1;
+
+    /**
+     * The default data file minimum size, in bytes.
+     */
+    public static final int DEFAULT_DATA_FILE_MINIMUM_SIZE = 1024 * 1024;
+
+    /**
+     * The default data file maximum size, in bytes.
+     */
+    public static final int DEFAULT_DATA_FILE_MAXIMUM_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * The default ratio of live data under which a data file gets dissolved.
+     */
+    public static final double DEFAULT_DATA_FILE_DISSOLVE_RATIO = 0.75;
+
+    /**
+     * The default entity cache timeout.
+     */
+    public static final Duration DEFAULT_ENTITY_CACHE_TIMEOUT = Duration.ofDays(1);
+
+    /**
+     * The default entity cache threshold.
+     */
+    public static final long DEFAULT_ENTITY_CACHE_THRESHOLD = 1_000_000_000L;
+
+    /**
+     * The default housekeeping interval.
+     */
+    public static final Duration DEFAULT_HOUSEKEEPING_INTERVAL = Duration.ofSeconds(1);
+
+    /**
+     * The default housekeeping time budget.
+     */
+    public static final Duration DEFAULT_HOUSEKEEPING_TIME_BUDGET = Duration.ofMillis(10);
+
+    private String storageDirectory = DEFAULT_STORAGE_DIRECTORY;
+
+    private int channelCount = DEFAULT_CHANNEL_COUNT;
+
+    private int dataFileMinimumSize = DEFAULT_DATA_FILE_MINIMUM_SIZE;
+
+    private int dataFileMaximumSize = DEFAULT_DATA_FILE_MAXIMUM_SIZE;
+
+    private double dataFileDissolveRatio = DEFAULT_DATA_FILE_DISSOLVE_RATIO;
+
+    private Duration entityCacheTimeout = DEFAULT_ENTITY_CACHE_TIMEOUT;
+
+    private long entityCacheThreshold = DEFAULT_ENTITY_CACHE_THRESHOLD;
+
+    private Duration housekeepingInterval = DEFAULT_HOUSEKEEPING_INTERVAL;
+
+    private Duration housekeepingTimeBudget = DEFAULT_HOUSEKEEPING_TIME_BUDGET;
+
+    /**
+     * @return the directory holding the storage channel files
+     */
+    public String getStorageDirectory() {
+        return storageDirectory;
+    }
+
+    public void setStorageDirectory(String storageDirectory) {
+        this.storageDirectory = storageDirectory;
+    }
+
+    /**
+     * @return the number of storage channels, a power of two; each channel is served by its own thread
+     */
+    public int getChannelCount() {
+        return channelCount;
+    }
+
+    public void setChannelCount(int channelCount) {
+        this.channelCount = channelCount;
+    }
+
+    /**
+     * @return the size under which data files are merged during housekeeping
+     */
+    public int getDataFileMinimumSize() {
+        return dataFileMinimumSize;
+    }
+
+    public void setDataFileMinimumSize(@ReadableBytes int dataFileMinimumSize) {
+        this.dataFileMinimumSize = dataFileMinimumSize;
+    }
+
+    /**
+     * @return the size beyond which data files are split during housekeeping
+     */
+    public int getDataFileMaximumSize() {
+        return dataFileMaximumSize;
+    }
+
+    public void setDataFileMaximumSize(@ReadableBytes int dataFileMaximumSize) {
+        this.dataFileMaximumSize = dataFileMaximumSize;
+    }
+
+    /**
+     * @return the ratio of live data under which a data file is dissolved during housekeeping
+     */
+    public double getDataFileDissolveRatio() {
+        return dataFileDissolveRatio;
+    }
+
+    public void setDataFileDissolveRatio(double dataFileDissolveRatio) {
+        this.dataFileDissolveRatio = dataFileDissolveRatio;
+    }
+
+    /**
+     * @return the time after which unused entity data is evicted from the cache
+     */
+    public Duration getEntityCacheTimeout() {
+        return entityCacheTimeout;
+    }
+
+    public void setEntityCacheTimeout(Duration entityCacheTimeout) {
+        this.entityCacheTimeout = entityCacheTimeout;
+    }
+
+    /**
+     * @return the entity cache weight beyond which entity data eviction gets more aggressive
+     */
+    public long getEntityCacheThreshold() {
+        return entityCacheThreshold;
+    }
+
+    public void setEntityCacheThreshold(long entityCacheThreshold) {
+        this.entityCacheThreshold = entityCacheThreshold;
+    }
+
+    /**
+     * @return the interval between housekeeping runs
+     */
+    public Duration getHousekeepingInterval() {
+        return housekeepingInterval;
+    }
+
+    public void setHousekeepingInterval(Duration housekeepingInterval) {
+        this.housekeepingInterval = housekeepingInterval;
+    }
+
+    /**
+     * @return the time budget of each housekeeping run
+     */
+    public Duration getHousekeepingTimeBudget() {
+        return housekeepingTimeBudget;
+    }
+
+    public void setHousekeepingTimeBudget(Duration housekeepingTimeBudget) {
+        this.housekeepingTimeBudget = housekeepingTimeBudget;
+    }
 }
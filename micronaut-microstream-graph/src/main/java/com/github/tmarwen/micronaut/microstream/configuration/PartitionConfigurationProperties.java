@@ -0,0 +1,49 @@
+package com.github.tmarwen.micronaut.microstream.configuration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Partitioning of the default root graph across several local storages.
+ *
+ * @since 1.0.0
+ */
+@ConfigurationProperties(PartitionConfigurationProperties.PREFIX)
+public class PartitionConfigurationProperties {
+
+    public static final String PREFIX = MicroStreamConfigurationProperties.PREFIX + ".partitions";
+
+    /**
+     * The default number of partitions.
+     */
+    public static final int DEFAULT_COUNT = 1;
+
+    private int count = DEFAULT_COUNT;
+
+    private List<String> fields = new ArrayList<>();
+
+    /**
+     * @return the number of storages the root graph is partitioned across, {@code 1} to disable partitioning
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    /**
+     * @return the root list fields whose elements are partitioned by identifier, all the root lists
+     * of indexed types if empty
+     */
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public void setFields(List<String> fields) {
+        this.fields = fields;
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.tmarwen.micronaut.microstream.configuration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Read-only replica configuration.
+ *
+ * @since 1.0.0
+ */
+@ConfigurationProperties(ReplicaConfigurationProperties.PREFIX)
+public class ReplicaConfigurationProperties {
+
+    public static final String PREFIX = MicroStreamConfigurationProperties.PREFIX + ".replica";
+
+    /**
+     * The default interval between two polls of the primary journal.
+     */
+    public static final Duration DEFAULT_POLL_INTERVAL = Duration.ofMillis(100);
+
+    /**
+     * The default replication lag beyond which the replica reports itself unhealthy.
+     */
+    public static final Duration DEFAULT_MAX_LAG = Duration.ofSeconds(10);
+
+    /**
+     * The default maximum number of journal records applied at once.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private boolean enabled;
+
+    private String journalDirectory;
+
+    private String snapshotDirectory;
+
+    private long sequence;
+
+    private Duration pollInterval = DEFAULT_POLL_INTERVAL;
+
+    private Duration maxLag = DEFAULT_MAX_LAG;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * @return whether this application is a read-only replica replaying the primary change journal
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return the change journal directory of the primary
+     */
+    public String getJournalDirectory() {
+        return journalDirectory;
+    }
+
+    public void setJournalDirectory(String journalDirectory) {
+        this.journalDirectory = journalDirectory;
+    }
+
+    /**
+     * @return the copy of the primary storage the empty storage directory is bootstrapped from,
+     * {@code null} if the storage directory already holds it
+     */
+    public String getSnapshotDirectory() {
+        return snapshotDirectory;
+    }
+
+    public void setSnapshotDirectory(String snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
+    /**
+     * @return the sequence of the last journal record the snapshot holds, {@code 0} to replay the whole journal
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    /**
+     * @return the interval between two polls of the primary journal
+     */
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * @return the replication lag beyond which the replica reports itself unhealthy
+     */
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    /**
+     * @return the maximum number of journal records applied within a single exclusive graph write
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+}
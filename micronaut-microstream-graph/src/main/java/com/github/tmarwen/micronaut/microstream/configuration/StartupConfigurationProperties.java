@@ -0,0 +1,41 @@
+package com.github.tmarwen.micronaut.microstream.configuration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+/**
+ * Storage and graph startup configuration.
+ *
+ * @since 1.0.0
+ */
+@ConfigurationProperties(StartupConfigurationProperties.PREFIX)
+public class StartupConfigurationProperties {
+
+    public static final String PREFIX = MicroStreamConfigurationProperties.PREFIX + ".startup";
+
+    private boolean background;
+
+    private boolean warmUp = true;
+
+    /**
+     * @return whether the storage and the graph are loaded in the background once the
+     * application started, instead of before it completes its startup
+     */
+    public boolean isBackground() {
+        return background;
+    }
+
+    public void setBackground(boolean background) {
+        this.background = background;
+    }
+
+    /**
+     * @return whether the query fields are executed once upon startup
+     */
+    public boolean isWarmUp() {
+        return warmUp;
+    }
+
+    public void setWarmUp(boolean warmUp) {
+        this.warmUp = warmUp;
+    }
+}
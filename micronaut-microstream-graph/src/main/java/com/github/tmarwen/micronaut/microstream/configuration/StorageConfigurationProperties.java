@@ -0,0 +1,63 @@
+package com.github.tmarwen.micronaut.microstream.configuration;
+
+import io.micronaut.context.annotation.EachProperty;
+import io.micronaut.context.annotation.Parameter;
+
+/**
+ * Configuration of a named MicroStream storage manager, holding the
+ * {@link com.github.tmarwen.micronaut.microstream.annotation.Root} type bound to it through
+ * {@link com.github.tmarwen.micronaut.microstream.annotation.StorageManager}.
+ *
+ * <p>Each named storage manager has its own directory and channels, hence its own I/O and
+ * housekeeping threads; the other storage engine settings are the default storage manager ones.
+ *
+ * @since 1.0.0
+ */
+@EachProperty(StorageConfigurationProperties.PREFIX)
+public class StorageConfigurationProperties {
+
+    public static final String PREFIX = MicroStreamConfigurationProperties.PREFIX + ".storages";
+
+    /**
+     * The storage manager name.
+     */
+    private final String name;
+
+    private String storageDirectory;
+
+    private int channelCount = MicroStreamConfigurationProperties.DEFAULT_CHANNEL_COUNT;
+
+    public StorageConfigurationProperties(@Parameter String name) {
+        this.name = name;
+        this.storageDirectory = MicroStreamConfigurationProperties.DEFAULT_STORAGE_DIRECTORY + "-" + name;
+    }
+
+    /**
+     * @return the storage manager name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the directory holding the storage channel files, {@code storage-<name>} by default
+     */
+    public String getStorageDirectory() {
+        return storageDirectory;
+    }
+
+    public void setStorageDirectory(String storageDirectory) {
+        this.storageDirectory = storageDirectory;
+    }
+
+    /**
+     * @return the number of storage channels, a power of two; each channel is served by its own thread
+     */
+    public int getChannelCount() {
+        return channelCount;
+    }
+
+    public void setChannelCount(int channelCount) {
+        this.channelCount = channelCount;
+    }
+}
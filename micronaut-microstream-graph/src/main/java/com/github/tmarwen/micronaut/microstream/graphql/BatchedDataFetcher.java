@@ -0,0 +1,52 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import org.dataloader.DataLoader;
+
+/**
+ * A {@link DataFetcher} deferring the field resolution to the request {@link DataLoader}
+ * registered under the field coordinates.
+ *
+ * <p>Falls back to the delegate fetcher when executed without data loader registry.
+ *
+ * @since 1.0.0
+ */
+public class BatchedDataFetcher implements DataFetcher<Object> {
+
+    /**
+     * The data loader name.
+     */
+    private final String dataLoaderName;
+
+    /**
+     * The fetcher used when no data loader is registered.
+     */
+    private final DataFetcher<?> delegate;
+
+    public BatchedDataFetcher(String dataLoaderName, DataFetcher<?> delegate) {
+        this.dataLoaderName = dataLoaderName;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Object get(DataFetchingEnvironment environment) throws Exception {
+        final DataLoader<Object, Object> dataLoader = environment.getDataLoader(dataLoaderName);
+        if (dataLoader == null) {
+            return delegate.get(environment);
+        }
+        // the request context is handed over to the batch loader as key context
+        return dataLoader.load(environment.getSource(), environment.getContext());
+    }
+
+    /**
+     * Returns the data loader name of the given field coordinates.
+     *
+     * @param typeName  the declaring GraphQL type name
+     * @param fieldName the field name
+     * @return the data loader name
+     */
+    static String dataLoaderName(String typeName, String fieldName) {
+        return typeName + "." + fieldName;
+    }
+}
@@ -0,0 +1,406 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.annotation.Indexed;
+import com.github.tmarwen.micronaut.microstream.index.GraphIndexes;
+import com.github.tmarwen.micronaut.microstream.index.HashIndex;
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.model.GraphType;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphUnitOfWork;
+import io.micronaut.core.beans.BeanIntrospection;
+import io.micronaut.core.beans.BeanProperty;
+import io.micronaut.core.convert.ConversionService;
+import io.micronaut.core.type.Argument;
+import one.microstream.reference.Lazy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binds GraphQL mutation input values to the properties of a graph type, based on its
+ * {@link BeanIntrospection}.
+ *
+ * <p>Scalar properties are bound from input fields of the same name, converted to the property
+ * type. References to {@link Indexed} types are bound by identifier, from {@code <property>Id}
+ * input fields for single references and {@code <property>Ids} input fields for lists, among
+ * the indexed instances and the ones created within the request {@link GraphUnitOfWork}.
+ *
+ * @param <B> the bean type
+ * @since 1.0.0
+ */
+class BeanInputBinder<B> {
+
+    /**
+     * The single reference input field suffix.
+     */
+    static final String ID_SUFFIX = "Id";
+
+    /**
+     * The reference list input field suffix.
+     */
+    static final String IDS_SUFFIX = "Ids";
+
+    /**
+     * The bound graph type.
+     */
+    private final GraphType<B> type;
+
+    /**
+     * The bean introspection of the bound type.
+     */
+    private final BeanIntrospection<B> introspection;
+
+    /**
+     * The graph indexes resolving the references.
+     */
+    private final GraphIndexes graphIndexes;
+
+    /**
+     * The bindable fields by input field name.
+     */
+    private final Map<String, GraphField<B, ?>> inputFields = new LinkedHashMap<>();
+
+    BeanInputBinder(GraphType<B> type, GraphIndexes graphIndexes) {
+        this.type = type;
+        this.introspection = BeanIntrospection.getIntrospection(type.getBeanType());
+        this.graphIndexes = graphIndexes;
+        for (GraphField<B, ?> field : type.getFields()) {
+            if (field.getKind() == GraphField.Kind.SCALAR) {
+                inputFields.put(field.getName(), field);
+            } else if (graphIndexes.getIndex(field.getTypeName()).isPresent()) {
+                inputFields.put(field.getName() + (field.isList() ? IDS_SUFFIX : ID_SUFFIX), field);
+            }
+        }
+    }
+
+    /**
+     * Returns the bindable fields by input field name.
+     *
+     * @return the input fields
+     */
+    Map<String, GraphField<B, ?>> getInputFields() {
+        return inputFields;
+    }
+
+    /**
+     * Instantiates a bean from the given input. The identifier of an indexed type, allocated
+     * if none is given, is reserved until the given unit of work is committed, the new bean
+     * being registered in it.
+     *
+     * @param input      the input values
+     * @param unitOfWork the request unit of work
+     * @return the new bean
+     * @throws IllegalArgumentException if the given identifier is already used
+     */
+    B create(Map<String, Object> input, GraphUnitOfWork unitOfWork) {
+        final Map<String, Object> values = convert(input, unitOfWork);
+        if (!type.isIndexed()) {
+            return instantiate(values);
+        }
+        final HashIndex<B> index = graphIndexes.getIndex(type.getBeanType())
+                .orElseThrow(() -> new IllegalStateException("No index for type " + type.getName()));
+        final Object id = values.get(Indexed.ID_PROPERTY);
+        final long reservedId;
+        if (id == null) {
+            reservedId = index.nextId();
+            values.put(Indexed.ID_PROPERTY, convert(property(Indexed.ID_PROPERTY), reservedId));
+        } else {
+            reservedId = ((Number) id).longValue();
+            if (!index.reserve(reservedId)) {
+                throw new IllegalArgumentException(type.getName() + " with identifier '" + id + "' already exists");
+            }
+        }
+        final B bean;
+        try {
+            bean = instantiate(values);
+        } catch (RuntimeException e) {
+            index.release(reservedId);
+            throw e;
+        }
+        unitOfWork.create(type.getBeanType(), reservedId, bean, () -> index.release(reservedId));
+        return bean;
+    }
+
+    /**
+     * Instantiates a bean from the given property values.
+     *
+     * @param values the property values by property name, consumed
+     * @return the new bean
+     */
+    private B instantiate(Map<String, Object> values) {
+        final Argument<?>[] constructorArguments = introspection.getConstructorArguments();
+        final Object[] arguments = new Object[constructorArguments.length];
+        for (int i = 0; i < constructorArguments.length; i++) {
+            final Argument<?> argument = constructorArguments[i];
+            arguments[i] = values.containsKey(argument.getName())
+                    ? values.remove(argument.getName())
+                    : defaultValue(argument);
+        }
+        final B bean = introspection.instantiate(arguments);
+        values.forEach((name, value) -> write(bean, name, value));
+        // leave no null collection behind, they are appended to when attaching children
+        for (BeanProperty<B, Object> property : introspection.getBeanProperties()) {
+            if (!property.isReadOnly() && property.get(bean) == null) {
+                final Object defaultValue = defaultValue(property.asArgument());
+                if (defaultValue != null) {
+                    property.set(bean, defaultValue);
+                }
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Updates the given bean with the given input values.
+     *
+     * @param bean       the bean to update
+     * @param input      the input values
+     * @param unitOfWork the request unit of work
+     * @throws IllegalArgumentException if the input changes the identifier of an indexed type
+     */
+    void update(B bean, Map<String, Object> input, GraphUnitOfWork unitOfWork) {
+        // the identifier keys the index and the journaled changes
+        if (type.isIndexed() && input.containsKey(Indexed.ID_PROPERTY)) {
+            throw new IllegalArgumentException("Property '" + Indexed.ID_PROPERTY + "' of type " + type.getName()
+                    + " cannot be updated");
+        }
+        convert(input, unitOfWork).forEach((name, value) -> write(bean, name, value));
+    }
+
+    /**
+     * Returns whether the given input changes object references.
+     *
+     * @param input the input values
+     * @return {@code true} if a reference is changed
+     */
+    boolean changesReferences(Map<String, Object> input) {
+        return input.keySet().stream()
+                .map(inputFields::get)
+                .anyMatch(field -> field != null && field.getKind() == GraphField.Kind.OBJECT);
+    }
+
+    /**
+     * Resolves the instances referenced by the given input.
+     *
+     * @param input      the input values
+     * @param unitOfWork the request unit of work
+     * @return the referenced instances
+     */
+    List<Object> references(Map<String, Object> input, GraphUnitOfWork unitOfWork) {
+        final List<Object> references = new ArrayList<>();
+        input.forEach((name, value) -> {
+            final GraphField<B, ?> field = inputFields.get(name);
+            if (field != null && field.getKind() == GraphField.Kind.OBJECT && value != null) {
+                final Object resolved = resolve(field, value, unitOfWork);
+                if (field.isList()) {
+                    references.addAll((Collection<?>) resolved);
+                } else {
+                    references.add(resolved);
+                }
+            }
+        });
+        return references;
+    }
+
+    /**
+     * Converts the given input values to property values.
+     *
+     * @param input      the input values
+     * @param unitOfWork the request unit of work
+     * @return the property values by property name
+     */
+    private Map<String, Object> convert(Map<String, Object> input, GraphUnitOfWork unitOfWork) {
+        final Map<String, Object> values = new LinkedHashMap<>();
+        input.forEach((name, value) -> {
+            final GraphField<B, ?> field = inputFields.get(name);
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown input field '" + name + "' for type " + type.getName());
+            }
+            final BeanProperty<B, Object> property = property(field.getName());
+            if (field.getKind() == GraphField.Kind.OBJECT) {
+                values.put(field.getName(), wrap(property, resolve(field, value, unitOfWork)));
+            } else {
+                values.put(field.getName(), convert(property, value));
+            }
+        });
+        return values;
+    }
+
+    /**
+     * Resolves the referenced instances of the given identifiers.
+     *
+     * @param field      the reference field
+     * @param value      the identifier or identifiers list
+     * @param unitOfWork the request unit of work
+     * @return the referenced instance or instances
+     */
+    private Object resolve(GraphField<B, ?> field, Object value, GraphUnitOfWork unitOfWork) {
+        if (value == null) {
+            return null;
+        }
+        final HashIndex<?> index = graphIndexes.getIndex(field.getTypeName())
+                .orElseThrow(() -> new IllegalStateException("No index for type " + field.getTypeName()));
+        if (!field.isList()) {
+            return lookup(index, value, unitOfWork);
+        }
+        final List<Object> instances = new ArrayList<>();
+        for (Object id : (Collection<?>) value) {
+            instances.add(lookup(index, id, unitOfWork));
+        }
+        return instances;
+    }
+
+    /**
+     * Looks up the instance identified by the given identifier, among the indexed instances
+     * and the ones created within the given unit of work.
+     *
+     * @param index      the index of the referenced type
+     * @param id         the identifier
+     * @param unitOfWork the request unit of work
+     * @param <T>        the referenced bean type
+     * @return the instance
+     */
+    static <T> T lookup(HashIndex<T> index, Object id, GraphUnitOfWork unitOfWork) {
+        final long key;
+        try {
+            key = Long.parseLong(String.valueOf(id));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid identifier '" + id + "'", e);
+        }
+        final Class<T> beanType = index.getType().getBeanType();
+        T instance = index.get(key);
+        if (instance == null) {
+            instance = beanType.cast(unitOfWork.created(beanType, key));
+        }
+        if (instance == null) {
+            throw new IllegalArgumentException("No " + index.getType().getName() + " with identifier '" + id + "'");
+        }
+        return instance;
+    }
+
+    /**
+     * Converts the given scalar input value to the type of the given property.
+     *
+     * @param property the bean property
+     * @param value    the input value
+     * @return the property value
+     */
+    private Object convert(BeanProperty<B, Object> property, Object value) {
+        if (value == null) {
+            return null;
+        }
+        final Argument<?> argument = subjectArgument(property);
+        final Object converted;
+        if (value instanceof Collection && argument.isContainerType()) {
+            final Argument<?> elementArgument = argument.getFirstTypeParameter().orElse(Argument.OBJECT_ARGUMENT);
+            final List<Object> elements = new ArrayList<>();
+            for (Object element : (Collection<?>) value) {
+                elements.add(element == null ? null : convertValue(element, elementArgument));
+            }
+            converted = elements;
+        } else {
+            converted = convertValue(value, argument);
+        }
+        return wrap(property, converted);
+    }
+
+    /**
+     * Converts the given value to the given type.
+     *
+     * @param value    the value
+     * @param argument the target type
+     * @return the converted value
+     */
+    private static Object convertValue(Object value, Argument<?> argument) {
+        return ConversionService.SHARED.convert(value, argument)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Cannot convert '" + value + "' to " + argument.getType().getSimpleName()));
+    }
+
+    /**
+     * Adapts the given value to the container type of the given property, wrapping it in a
+     * {@link Lazy} reference if the property is lazy.
+     *
+     * @param property the bean property
+     * @param value    the value
+     * @return the property value
+     */
+    private Object wrap(BeanProperty<B, Object> property, Object value) {
+        Object wrapped = value;
+        if (value instanceof List && Set.class.isAssignableFrom(subjectArgument(property).getType())) {
+            wrapped = new LinkedHashSet<>((List<?>) value);
+        }
+        if (wrapped != null && Lazy.class.equals(property.getType())) {
+            wrapped = Lazy.Reference(wrapped);
+        }
+        return wrapped;
+    }
+
+    /**
+     * Returns the default value of a property absent from the input, i.e. an empty mutable
+     * collection for collection properties.
+     *
+     * @param argument the property or constructor argument
+     * @return the default value or {@code null}
+     */
+    private static Object defaultValue(Argument<?> argument) {
+        Argument<?> subject = argument;
+        final boolean lazy = Lazy.class.equals(argument.getType());
+        if (lazy) {
+            subject = argument.getFirstTypeParameter().orElse(Argument.OBJECT_ARGUMENT);
+        }
+        final Object value;
+        if (subject.getType().isAssignableFrom(ArrayList.class)) {
+            value = new ArrayList<>();
+        } else if (subject.getType().isAssignableFrom(LinkedHashSet.class)) {
+            value = new LinkedHashSet<>();
+        } else {
+            return null;
+        }
+        return lazy ? Lazy.Reference(value) : value;
+    }
+
+    /**
+     * Writes the given value to the property of the given name.
+     *
+     * @param bean  the bean
+     * @param name  the property name
+     * @param value the property value
+     */
+    private void write(B bean, String name, Object value) {
+        final BeanProperty<B, Object> property = property(name);
+        if (property.isReadOnly()) {
+            throw new IllegalArgumentException("Property '" + name + "' of type " + type.getName() + " is read-only");
+        }
+        property.set(bean, value);
+    }
+
+    /**
+     * Returns the introspected property of the given name.
+     *
+     * @param name the property name
+     * @return the bean property
+     */
+    private BeanProperty<B, Object> property(String name) {
+        return introspection.getProperty(name).orElseThrow(() ->
+                new IllegalStateException("No introspected property '" + name + "' for type " + type.getName()));
+    }
+
+    /**
+     * Returns the type argument of the given property, unwrapping lazy references.
+     *
+     * @param property the bean property
+     * @return the property subject type argument
+     */
+    private static Argument<?> subjectArgument(BeanProperty<?, Object> property) {
+        final Argument<?> argument = property.asArgument();
+        if (Lazy.class.equals(argument.getType())) {
+            return argument.getFirstTypeParameter().orElse(Argument.OBJECT_ARGUMENT);
+        }
+        return argument;
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.configuration.GraphQLConfigurationProperties;
+import graphql.ExecutionResult;
+import io.micronaut.configuration.graphql.GraphQLExecutionResultHandler;
+import io.micronaut.configuration.graphql.GraphQLJsonSerializer;
+import io.micronaut.context.annotation.Primary;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.async.publisher.Publishers;
+import org.reactivestreams.Publisher;
+
+import javax.inject.Singleton;
+
+/**
+ * A {@link GraphQLExecutionResultHandler} writing the results served by the
+ * {@link CachingGraphQLInvocation} as is and caching the serialized form of the cacheable ones.
+ *
+ * @since 1.0.0
+ */
+@Primary
+@Singleton
+@Requires(property = GraphQLConfigurationProperties.PREFIX + ".result-cache", value = "true")
+public class CachingExecutionResultHandler implements GraphQLExecutionResultHandler {
+
+    /**
+     * The result serializer.
+     */
+    private final GraphQLJsonSerializer jsonSerializer;
+
+    /**
+     * The result cache.
+     */
+    private final QueryResultCache resultCache;
+
+    public CachingExecutionResultHandler(GraphQLJsonSerializer jsonSerializer, QueryResultCache resultCache) {
+        this.jsonSerializer = jsonSerializer;
+        this.resultCache = resultCache;
+    }
+
+    @Override
+    public Publisher<String> handleExecutionResult(Publisher<ExecutionResult> executionResultPublisher) {
+        return Publishers.map(executionResultPublisher, result -> {
+            if (result instanceof CachingGraphQLInvocation.CachedResult) {
+                return ((CachingGraphQLInvocation.CachedResult) result).getJson();
+            }
+            final String json = jsonSerializer.serialize(result.toSpecification());
+            if (result instanceof CachingGraphQLInvocation.CacheableResult) {
+                final CachingGraphQLInvocation.CacheableResult cacheable = (CachingGraphQLInvocation.CacheableResult) result;
+                resultCache.put(cacheable.getKey(), cacheable.getVersion(), json);
+            }
+            return json;
+        });
+    }
+}
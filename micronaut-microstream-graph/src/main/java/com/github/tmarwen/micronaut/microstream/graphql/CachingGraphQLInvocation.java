@@ -0,0 +1,251 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.configuration.GraphQLConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphVersion;
+import graphql.ExecutionResult;
+import graphql.GraphQLError;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.language.Document;
+import graphql.language.NodeUtil;
+import graphql.language.OperationDefinition;
+import graphql.parser.Parser;
+import io.micronaut.configuration.graphql.DefaultGraphQLInvocation;
+import io.micronaut.configuration.graphql.GraphQLInvocation;
+import io.micronaut.configuration.graphql.GraphQLInvocationData;
+import io.micronaut.configuration.graphql.GraphQLJsonSerializer;
+import io.micronaut.context.annotation.Primary;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpRequest;
+import org.reactivestreams.Publisher;
+
+import javax.inject.Singleton;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link GraphQLInvocation} answering repeated queries from the {@link QueryResultCache}
+ * as long as the graph was not committed to since they were first executed.
+ *
+ * <p>Results are keyed by query text, operation name and variables. Only successful
+ * {@code query} operations are cached: mutations, subscriptions and results with errors always
+ * go through the {@link DefaultGraphQLInvocation}. Queries sent as a persisted query hash only
+ * are not cached either.
+ *
+ * <p>Cached results are written as is by the {@link CachingExecutionResultHandler}; other
+ * consumers of the invocation get them deserialized upon first access.
+ *
+ * @since 1.0.0
+ */
+@Primary
+@Singleton
+@Requires(property = GraphQLConfigurationProperties.PREFIX + ".result-cache", value = "true")
+public class CachingGraphQLInvocation implements GraphQLInvocation {
+
+    /**
+     * Separates the query key components.
+     */
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    /**
+     * The default invocation.
+     */
+    private final DefaultGraphQLInvocation delegate;
+
+    /**
+     * The result cache.
+     */
+    private final QueryResultCache resultCache;
+
+    /**
+     * The parsed document cache, used to resolve the executed operation type.
+     */
+    private final CachingPreparsedDocumentProvider documentProvider;
+
+    /**
+     * The variables serializer.
+     */
+    private final GraphQLJsonSerializer jsonSerializer;
+
+    /**
+     * The graph version.
+     */
+    private final GraphVersion graphVersion;
+
+    public CachingGraphQLInvocation(DefaultGraphQLInvocation delegate,
+                                    QueryResultCache resultCache,
+                                    CachingPreparsedDocumentProvider documentProvider,
+                                    GraphQLJsonSerializer jsonSerializer,
+                                    GraphVersion graphVersion) {
+        this.delegate = delegate;
+        this.resultCache = resultCache;
+        this.documentProvider = documentProvider;
+        this.jsonSerializer = jsonSerializer;
+        this.graphVersion = graphVersion;
+    }
+
+    @Override
+    public Publisher<ExecutionResult> invoke(GraphQLInvocationData invocationData, HttpRequest httpRequest) {
+        final String query = invocationData.getQuery();
+        if (query == null || query.isEmpty() || !isQuery(query, invocationData.getOperationName())) {
+            return delegate.invoke(invocationData, httpRequest);
+        }
+        final String key = key(invocationData);
+        final String cached = resultCache.get(key);
+        if (cached != null) {
+            return Publishers.just(new CachedResult(cached, jsonSerializer));
+        }
+        // read before executing: a commit during the execution makes the result stale
+        final long version = graphVersion.current();
+        return Publishers.map(
+                delegate.invoke(invocationData, httpRequest),
+                result -> result.getErrors().isEmpty() ? new CacheableResult(result, key, version) : result
+        );
+    }
+
+    /**
+     * Returns whether the given operation of the given query is a {@code query} operation.
+     *
+     * @param query         the query text
+     * @param operationName the executed operation name or {@code null}
+     * @return {@code true} if the operation is a query
+     */
+    private boolean isQuery(String query, String operationName) {
+        try {
+            final PreparsedDocumentEntry entry = documentProvider.getDocuments().get(query);
+            final Document document = entry != null ? entry.getDocument() : new Parser().parseDocument(query);
+            final OperationDefinition operation = NodeUtil.getOperation(document, operationName).operationDefinition;
+            return operation.getOperation() == OperationDefinition.Operation.QUERY;
+        } catch (RuntimeException e) {
+            // invalid queries are reported by the execution
+            return false;
+        }
+    }
+
+    /**
+     * Builds the cache key of the given invocation.
+     *
+     * @param invocationData the invocation data
+     * @return the query key
+     */
+    private String key(GraphQLInvocationData invocationData) {
+        final StringBuilder key = new StringBuilder(invocationData.getQuery()).append(KEY_SEPARATOR);
+        if (invocationData.getOperationName() != null) {
+            key.append(invocationData.getOperationName());
+        }
+        key.append(KEY_SEPARATOR);
+        final Map<String, Object> variables = invocationData.getVariables();
+        if (variables != null && !variables.isEmpty()) {
+            key.append(jsonSerializer.serialize(variables));
+        }
+        return key.toString();
+    }
+
+    /**
+     * A result served from the cache in its serialized form, deserialized upon first access
+     * to its data.
+     */
+    static final class CachedResult implements ExecutionResult {
+
+        private final String json;
+
+        private final GraphQLJsonSerializer jsonSerializer;
+
+        private volatile Map<String, Object> specification;
+
+        CachedResult(String json, GraphQLJsonSerializer jsonSerializer) {
+            this.json = json;
+            this.jsonSerializer = jsonSerializer;
+        }
+
+        String getJson() {
+            return json;
+        }
+
+        @Override
+        public List<GraphQLError> getErrors() {
+            // only results without errors are cached
+            return Collections.emptyList();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getData() {
+            return (T) toSpecification().get("data");
+        }
+
+        @Override
+        public boolean isDataPresent() {
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map<Object, Object> getExtensions() {
+            return (Map<Object, Object>) toSpecification().get("extensions");
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map<String, Object> toSpecification() {
+            Map<String, Object> current = specification;
+            if (current == null) {
+                current = Collections.unmodifiableMap(jsonSerializer.deserialize(json, Map.class));
+                specification = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * An executed result to be cached once serialized.
+     */
+    static final class CacheableResult implements ExecutionResult {
+
+        private final ExecutionResult result;
+
+        private final String key;
+
+        private final long version;
+
+        CacheableResult(ExecutionResult result, String key, long version) {
+            this.result = result;
+            this.key = key;
+            this.version = version;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        long getVersion() {
+            return version;
+        }
+
+        @Override
+        public List<GraphQLError> getErrors() {
+            return result.getErrors();
+        }
+
+        @Override
+        public <T> T getData() {
+            return result.getData();
+        }
+
+        @Override
+        public boolean isDataPresent() {
+            return result.isDataPresent();
+        }
+
+        @Override
+        public Map<Object, Object> getExtensions() {
+            return result.getExtensions();
+        }
+
+        @Override
+        public Map<String, Object> toSpecification() {
+            return result.toSpecification();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.cache.WeightedLruCache;
+import com.github.tmarwen.micronaut.microstream.configuration.GraphQLConfigurationProperties;
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+
+import javax.inject.Singleton;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.Function;
+
+/**
+ * A {@link PreparsedDocumentProvider} caching the parsed and validated documents of the
+ * executed queries within a {@link WeightedLruCache} bounded by the total query length.
+ *
+ * <p>The query length is an approximation of the document footprint: the parsed AST and its
+ * validation state are several times larger than the query text, and grow with its
+ * selections rather than with its whitespace or argument literals. The cache bound is thus a
+ * bound on the cached query text, to be sized with that ratio in mind.
+ *
+ * <p>Automatic persisted queries are supported following the Apollo protocol: a client sends
+ * the SHA-256 hash of a query within the {@code persistedQuery} request extension, along with
+ * the query text only if the server answered {@code PersistedQueryNotFound}. Persisted
+ * documents share the cache of the plain ones.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+public class CachingPreparsedDocumentProvider implements PreparsedDocumentProvider, PersistedQueryCache {
+
+    /**
+     * The cache key prefix of the persisted query documents.
+     */
+    private static final String HASH_KEY_PREFIX = "sha256:";
+
+    /**
+     * The cached documents, by query text or prefixed query hash.
+     */
+    private final WeightedLruCache<String, PreparsedDocumentEntry> documents;
+
+    /**
+     * The persisted queries support, {@code null} if disabled.
+     */
+    private final PersistedQuerySupport persistedQuerySupport;
+
+    public CachingPreparsedDocumentProvider(GraphQLConfigurationProperties configuration) {
+        this.documents = new WeightedLruCache<>(
+                configuration.getDocumentCacheMaxWeight(),
+                // approximation of the document footprint, see the class documentation
+                (query, entry) -> query.length()
+        );
+        this.persistedQuerySupport = configuration.isPersistedQueries() ? new ApolloPersistedQuerySupport(this) : null;
+    }
+
+    @Override
+    public PreparsedDocumentEntry getDocument(ExecutionInput executionInput,
+                                              Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        final Function<ExecutionInput, PreparsedDocumentEntry> cachingFunction = input -> {
+            final PreparsedDocumentEntry cached = documents.get(input.getQuery());
+            if (cached != null) {
+                return cached;
+            }
+            final PreparsedDocumentEntry entry = parseAndValidateFunction.apply(input);
+            if (!entry.hasErrors()) {
+                documents.put(input.getQuery(), entry);
+            }
+            return entry;
+        };
+        if (persistedQuerySupport != null) {
+            return persistedQuerySupport.getDocument(executionInput, cachingFunction);
+        }
+        return cachingFunction.apply(executionInput);
+    }
+
+    @Override
+    public PreparsedDocumentEntry getPersistedQueryDocument(Object persistedQueryId,
+                                                            ExecutionInput executionInput,
+                                                            PersistedQueryCacheMiss onCacheMiss)
+            throws PersistedQueryNotFound {
+        final String key = HASH_KEY_PREFIX + persistedQueryId;
+        final PreparsedDocumentEntry cached = documents.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final String query = executionInput.getQuery();
+        if (query == null || query.isEmpty() || PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query)) {
+            throw new PersistedQueryNotFound(persistedQueryId);
+        }
+        // never let a client register a query under the hash of another one
+        if (!sha256(query).equalsIgnoreCase(String.valueOf(persistedQueryId))) {
+            return new PreparsedDocumentEntry(GraphqlErrorBuilder.newError()
+                    .message("PersistedQueryIdInvalid")
+                    .build());
+        }
+        final PreparsedDocumentEntry entry = onCacheMiss.apply(query);
+        if (!entry.hasErrors()) {
+            documents.put(key, entry, query.length());
+        }
+        return entry;
+    }
+
+    /**
+     * Returns the document cache.
+     *
+     * @return the document cache
+     */
+    public WeightedLruCache<String, PreparsedDocumentEntry> getDocuments() {
+        return documents;
+    }
+
+    /**
+     * Computes the hexadecimal SHA-256 hash of the given query.
+     *
+     * @param query the query text
+     * @return the query hash
+     */
+    private static String sha256(String query) {
+        try {
+            final byte[] hash = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
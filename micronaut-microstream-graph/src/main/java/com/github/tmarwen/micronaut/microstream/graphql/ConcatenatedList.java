@@ -0,0 +1,66 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only view of the concatenation of several lists, in order.
+ *
+ * <p>Used to expose the elements of a partitioned root list field without copying those of
+ * each partition: paginating the view only reads the elements of the requested page. The
+ * sizes of the lists are retained upon creation.
+ *
+ * @param <E> the element type
+ * @since 1.0.0
+ */
+final class ConcatenatedList<E> extends AbstractList<E> implements RandomAccess {
+
+    /**
+     * The concatenated lists.
+     */
+    private final List<? extends List<? extends E>> lists;
+
+    /**
+     * The index of the first element of each list within the view.
+     */
+    private final int[] offsets;
+
+    /**
+     * The view size.
+     */
+    private final int size;
+
+    ConcatenatedList(List<? extends List<? extends E>> lists) {
+        this.lists = lists;
+        this.offsets = new int[lists.size()];
+        int size = 0;
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = size;
+            size += lists.get(i).size();
+        }
+        this.size = size;
+    }
+
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        int list = Arrays.binarySearch(offsets, index);
+        if (list < 0) {
+            list = -list - 2;
+        }
+        // skip the empty lists sharing the offset of the next one
+        while (list + 1 < offsets.length && offsets[list + 1] == index) {
+            list++;
+        }
+        return lists.get(list).get(index - offsets[list]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
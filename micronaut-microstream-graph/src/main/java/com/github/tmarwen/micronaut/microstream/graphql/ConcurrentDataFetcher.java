@@ -0,0 +1,99 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.runtime.GraphConcurrencyStrategy;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * A {@link DataFetcher} running its delegate as a read of the source aggregate as per the
+ * {@link GraphConcurrencyStrategy}.
+ *
+ * <p>Collections are copied within the read so that graphql-java never iterates a live
+ * graph list concurrently modified by a writer.
+ *
+ * <p>Lazy references are loaded by the loader, if any, before entering the read section: an
+ * optimistic read may be run more than once, and a locked one would hold writers back for
+ * the duration of the storage load. The delegate then reads the loaded references.
+ *
+ * @since 1.0.0
+ */
+public class ConcurrentDataFetcher implements DataFetcher<Object> {
+
+    /**
+     * The delegate fetcher.
+     */
+    private final DataFetcher<?> delegate;
+
+    /**
+     * Loads the lazy references read by the delegate, may be {@code null}.
+     */
+    private final DataFetcher<?> loader;
+
+    /**
+     * The graph concurrency strategy.
+     */
+    private final GraphConcurrencyStrategy concurrencyStrategy;
+
+    /**
+     * The aggregate of the fields without source, i.e. the root fields, may be {@code null}.
+     */
+    private final Object rootAggregate;
+
+    public ConcurrentDataFetcher(DataFetcher<?> delegate,
+                                 DataFetcher<?> loader,
+                                 GraphConcurrencyStrategy concurrencyStrategy,
+                                 Object rootAggregate) {
+        this.delegate = delegate;
+        this.loader = loader;
+        this.concurrencyStrategy = concurrencyStrategy;
+        this.rootAggregate = rootAggregate;
+    }
+
+    @Override
+    public Object get(DataFetchingEnvironment environment) throws Exception {
+        if (loader != null) {
+            loader.get(environment);
+        }
+        final Object source = environment.getSource();
+        final Object aggregate = source != null ? source : rootAggregate;
+        try {
+            return concurrencyStrategy.read(aggregate, () -> {
+                try {
+                    return snapshot(delegate.get(environment));
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new FetchException(e);
+                }
+            });
+        } catch (FetchException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    /**
+     * Copies the given value if it is a collection.
+     *
+     * @param value the fetched value
+     * @return the value or its copy
+     */
+    private static Object snapshot(Object value) {
+        if (value instanceof Collection) {
+            return new ArrayList<>((Collection<?>) value);
+        }
+        return value;
+    }
+
+    /**
+     * Carries a checked delegate exception out of the read section.
+     */
+    private static final class FetchException extends RuntimeException {
+
+        FetchException(Exception cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.configuration.GraphQLConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
+import com.github.tmarwen.micronaut.microstream.model.GraphType;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphPartitions;
+import com.github.tmarwen.micronaut.microstream.runtime.NamedStorage;
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.runtime.http.scope.RequestScope;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderOptions;
+import org.dataloader.DataLoaderRegistry;
+
+import java.util.List;
+
+/**
+ * Factory of the per-request {@link DataLoaderRegistry} batching the resolution of the
+ * object-valued graph fields.
+ *
+ * @since 1.0.0
+ */
+@Factory
+@Requires(property = GraphQLConfigurationProperties.PREFIX + ".batch-loading", notEquals = "false")
+public class DataLoaderRegistryFactory {
+
+    /**
+     * The GraphQL schema configuration.
+     */
+    private final GraphQLConfigurationProperties configuration;
+
+    public DataLoaderRegistryFactory(GraphQLConfigurationProperties configuration) {
+        this.configuration = configuration;
+    }
+
+    @Bean
+    @RequestScope
+    public DataLoaderRegistry dataLoaderRegistry(GraphModel graphModel,
+                                                 EmbeddedStorageManager storageManager,
+                                                 GraphPartitions partitions,
+                                                 List<NamedStorage> namedStorages) {
+        final DataLoaderRegistry registry = new DataLoaderRegistry();
+        final DataLoaderOptions options = DataLoaderOptions.newOptions()
+                .setMaxBatchSize(configuration.getMaxBatchSize());
+        // a batch may span several partitions, lazy references are not prefetched then
+        final EmbeddedStorageManager prefetchStorageManager = partitions.isPartitioned() ? null : storageManager;
+        for (GraphType<?> graphType : graphModel.getTypes()) {
+            if (!graphType.isRoot()) {
+                register(registry, graphType, prefetchStorageManager, options);
+            }
+        }
+        // the roots of the named storage managers are resolved as any other object
+        for (NamedStorage namedStorage : namedStorages) {
+            for (GraphType<?> graphType : namedStorage.getGraphModel().getTypes()) {
+                register(registry, graphType, namedStorage.getStorageManager(), options);
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * Registers a data loader for each batched field of the given type.
+     *
+     * @param registry       the data loader registry
+     * @param graphType      the graph type
+     * @param storageManager the storage manager holding the sources, {@code null} if several
+     * @param options        the data loader options
+     * @param <B>            the bean type
+     */
+    private <B> void register(DataLoaderRegistry registry,
+                              GraphType<B> graphType,
+                              EmbeddedStorageManager storageManager,
+                              DataLoaderOptions options) {
+        for (GraphField<B, ?> field : graphType.getFields()) {
+            if (isBatched(field)) {
+                registry.register(
+                        BatchedDataFetcher.dataLoaderName(graphType.getName(), field.getName()),
+                        DataLoader.newDataLoader(new FieldBatchLoader<>(field, storageManager), options)
+                );
+            }
+        }
+    }
+
+    /**
+     * Returns whether the given field is resolved through a data loader.
+     *
+     * @param field the graph field
+     * @return {@code true} if batched
+     */
+    static boolean isBatched(GraphField<?, ?> field) {
+        return field.getKind() == GraphField.Kind.OBJECT && !field.isList();
+    }
+}
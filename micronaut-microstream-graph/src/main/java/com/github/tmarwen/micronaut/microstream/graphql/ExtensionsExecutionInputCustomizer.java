@@ -0,0 +1,93 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tmarwen.micronaut.microstream.configuration.GraphQLConfigurationProperties;
+import graphql.ExecutionInput;
+import io.micronaut.configuration.graphql.DefaultGraphQLExecutionInputCustomizer;
+import io.micronaut.configuration.graphql.GraphQLExecutionInputCustomizer;
+import io.micronaut.context.annotation.Replaces;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A {@link GraphQLExecutionInputCustomizer} passing the GraphQL request {@code extensions},
+ * such as the automatic persisted query hash, over to the execution input.
+ *
+ * <p>Extensions are read from the {@code extensions} query parameter of {@code GET} requests
+ * and from the JSON body of {@code POST} requests.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+@Replaces(DefaultGraphQLExecutionInputCustomizer.class)
+@Requires(property = GraphQLConfigurationProperties.PREFIX + ".persisted-queries", notEquals = "false")
+public class ExtensionsExecutionInputCustomizer implements GraphQLExecutionInputCustomizer {
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExtensionsExecutionInputCustomizer.class);
+
+    /**
+     * The extensions request member name.
+     */
+    private static final String EXTENSIONS = "extensions";
+
+    /**
+     * The JSON mapper.
+     */
+    private final ObjectMapper objectMapper;
+
+    public ExtensionsExecutionInputCustomizer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Publisher<ExecutionInput> customize(ExecutionInput executionInput, HttpRequest httpRequest) {
+        final Optional<JsonNode> extensions = extensions(httpRequest);
+        if (!extensions.isPresent() || !extensions.get().isObject()) {
+            return Publishers.just(executionInput);
+        }
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> values = objectMapper.convertValue(extensions.get(), Map.class);
+        return Publishers.just(executionInput.transform(builder -> builder.extensions(values)));
+    }
+
+    /**
+     * Reads the extensions of the given GraphQL request.
+     *
+     * @param httpRequest the HTTP request
+     * @return the extensions JSON node, if any
+     */
+    private Optional<JsonNode> extensions(HttpRequest<?> httpRequest) {
+        try {
+            if (httpRequest.getMethod() == HttpMethod.GET) {
+                final Optional<String> parameter = httpRequest.getParameters().getFirst(EXTENSIONS);
+                if (parameter.isPresent()) {
+                    return Optional.of(objectMapper.readTree(parameter.get()));
+                }
+                return Optional.empty();
+            }
+            final Optional<String> body = httpRequest.getBody(String.class);
+            if (body.isPresent()) {
+                return Optional.ofNullable(objectMapper.readTree(body.get()).get(EXTENSIONS));
+            }
+        } catch (IOException e) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Ignoring unreadable GraphQL request extensions: {}", e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.configuration.GraphQLConfigurationProperties;
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Requires;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory of the executor running the list field data fetchers asynchronously, off the
+ * thread executing the request. A saturated pool rejects further fetches, which fail their
+ * field: fetches never fall back to the requesting thread, possibly an event loop.
+ *
+ * @since 1.0.0
+ */
+@Factory
+public class FetchExecutorFactory {
+
+    /**
+     * The fetch executor bean name.
+     */
+    public static final String FETCH_EXECUTOR = "microstream-fetch";
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(FetchExecutorFactory.class);
+
+    @Bean(preDestroy = "shutdown")
+    @Singleton
+    @Named(FETCH_EXECUTOR)
+    @Requires(property = GraphQLConfigurationProperties.PREFIX + ".fetch-execution", pattern = "(?i)pool|virtual")
+    public ExecutorService fetchExecutor(GraphQLConfigurationProperties configuration) {
+        if (configuration.getFetchExecution() == GraphQLConfigurationProperties.FetchExecution.VIRTUAL) {
+            try {
+                // looked up reflectively as long as older runtimes are supported
+                final ExecutorService executor = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("GraphQL list fields fetched on virtual threads");
+                }
+                return executor;
+            } catch (ReflectiveOperationException e) {
+                LOGGER.warn("Virtual threads are not supported by this runtime, falling back to a thread pool");
+            }
+        }
+        if (configuration.getFetchThreads() < 1) {
+            throw new IllegalArgumentException("Fetch threads count must be positive, got " + configuration.getFetchThreads());
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("GraphQL list fields fetched on a pool of {} thread(s)", configuration.getFetchThreads());
+        }
+        final int queueCapacity = Math.max(1, configuration.getFetchQueueCapacity());
+        return new ThreadPoolExecutor(
+                configuration.getFetchThreads(),
+                configuration.getFetchThreads(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new FetchThreadFactory(),
+                (runnable, executor) -> {
+                    throw new RejectedExecutionException("Too many pending fetches, the fetch queue holds "
+                            + queueCapacity + " fetch(es)");
+                }
+        );
+    }
+
+    /**
+     * Creates named daemon fetch threads.
+     */
+    private static final class FetchThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, FETCH_EXECUTOR + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.runtime.LazyReferences;
+import com.github.tmarwen.micronaut.microstream.runtime.LazyTracker;
+import one.microstream.reference.Lazy;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import org.dataloader.BatchLoaderEnvironment;
+import org.dataloader.BatchLoaderWithContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A {@link BatchLoaderWithContext} resolving an object-valued graph field for a batch of
+ * source beans.
+ *
+ * <p>The raw field values are read first, then the unloaded {@link Lazy} references among
+ * them are loaded within a single storage request before being unwrapped, unless the sources
+ * may be held by several storages. The loaded references are tracked by the request
+ * {@link LazyTracker}, if any.
+ *
+ * @param <B> the declaring bean type
+ * @since 1.0.0
+ */
+public class FieldBatchLoader<B> implements BatchLoaderWithContext<B, Object> {
+
+    /**
+     * The batched graph field.
+     */
+    private final GraphField<B, ?> field;
+
+    /**
+     * The storage manager holding the sources, {@code null} if they may be held by several
+     * storages, in which case references are loaded one by one.
+     */
+    private final EmbeddedStorageManager storageManager;
+
+    public FieldBatchLoader(GraphField<B, ?> field, EmbeddedStorageManager storageManager) {
+        this.field = field;
+        this.storageManager = storageManager;
+    }
+
+    @Override
+    public CompletionStage<List<Object>> load(List<B> sources, BatchLoaderEnvironment environment) {
+        final List<Object> values = new ArrayList<>(sources.size());
+        for (B source : sources) {
+            values.add(field.reference(source));
+        }
+        if (field.isLazy()) {
+            track(values, environment);
+        }
+        if (storageManager == null) {
+            // object identifiers are only unique within a storage
+            values.replaceAll(LazyReferences::unwrap);
+            return CompletableFuture.completedFuture(values);
+        }
+        // hold the prefetched instances until the references are resolved
+        final List<Object> prefetched = LazyReferences.prefetch(storageManager, values);
+        values.replaceAll(LazyReferences::unwrap);
+        prefetched.clear();
+        return CompletableFuture.completedFuture(values);
+    }
+
+    /**
+     * Tracks the unloaded lazy references among the given values with the request tracker.
+     *
+     * @param values      the raw field values
+     * @param environment the batch loader environment holding the request contexts
+     */
+    private static void track(List<Object> values, BatchLoaderEnvironment environment) {
+        final LazyTracker tracker = environment.getKeyContexts().values().stream()
+                .map(LazyTracker::of)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+        if (tracker == null) {
+            return;
+        }
+        for (Object value : values) {
+            if (value instanceof Lazy && !((Lazy<?>) value).isLoaded()) {
+                tracker.track((Lazy<?>) value);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.index.GraphChangeEvent;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.reactivex.Flowable;
+import io.reactivex.processors.FlowableProcessor;
+import io.reactivex.processors.PublishProcessor;
+
+import javax.inject.Singleton;
+
+/**
+ * Relays the instances added to the graph, as per the {@link GraphChangeEvent}s, to the
+ * reactive streams of the GraphQL subscriptions.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+public class GraphChangePublisher implements ApplicationEventListener<GraphChangeEvent> {
+
+    /**
+     * The added instances, serialized as concurrent commits may publish concurrently.
+     */
+    private final FlowableProcessor<Object> added = PublishProcessor.create().toSerialized();
+
+    @Override
+    public void onApplicationEvent(GraphChangeEvent event) {
+        if (added.hasSubscribers()) {
+            event.getAdded().forEach(added::onNext);
+        }
+    }
+
+    /**
+     * Returns the hot stream of the instances of the given type added to the graph from now on.
+     * Subscribers must not request less than they are sent, e.g. by buffering.
+     *
+     * @param type the bean type
+     * @param <B>  the bean type
+     * @return the added instances
+     */
+    public <B> Flowable<B> added(Class<B> type) {
+        return added.ofType(type);
+    }
+}
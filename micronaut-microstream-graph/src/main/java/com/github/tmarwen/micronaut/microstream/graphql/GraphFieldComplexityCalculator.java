@@ -0,0 +1,116 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.configuration.GraphQLConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
+import com.github.tmarwen.micronaut.microstream.model.GraphType;
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.FieldComplexityEnvironment;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimates the cost of a field as {@code 1} plus the cost of its selection, multiplied by the
+ * expected number of elements for list fields.
+ *
+ * <p>Paginated connections are expected to return the requested {@code first} or {@code last}
+ * page size, or the default one, while plain lists are expected to be as large as the
+ * largest one sampled by the {@link ListSizeSampler}. The fields of the named storage graphs
+ * are estimated alike.
+ *
+ * @since 1.0.0
+ */
+class GraphFieldComplexityCalculator implements FieldComplexityCalculator {
+
+    /**
+     * The graph fields by {@code Type.field} GraphQL coordinates.
+     */
+    private final Map<String, GraphField<?, ?>> fields = new HashMap<>();
+
+    /**
+     * The graph type names by GraphQL type name, when they differ.
+     */
+    private final Map<String, String> typeNames = new HashMap<>();
+
+    /**
+     * The list sizes sampler.
+     */
+    private final ListSizeSampler listSizeSampler;
+
+    /**
+     * The GraphQL schema configuration.
+     */
+    private final GraphQLConfigurationProperties configuration;
+
+    GraphFieldComplexityCalculator(GraphModel graphModel,
+                                   List<GraphModel> namedGraphModels,
+                                   ListSizeSampler listSizeSampler,
+                                   GraphQLConfigurationProperties configuration) {
+        this.listSizeSampler = listSizeSampler;
+        this.configuration = configuration;
+        for (GraphType<?> type : graphModel.getTypes()) {
+            // the root fields are exposed on the query type
+            register(type.isRoot() ? GraphQLFactory.QUERY_TYPE : type.getName(), type);
+        }
+        // the named storage roots are exposed as types of their own
+        namedGraphModels.forEach(namedGraphModel -> namedGraphModel.getTypes()
+                .forEach(type -> register(type.getName(), type)));
+    }
+
+    /**
+     * Registers the fields of the given graph type under the given GraphQL type name.
+     *
+     * @param typeName the GraphQL type name
+     * @param type     the graph type
+     */
+    private void register(String typeName, GraphType<?> type) {
+        typeNames.put(typeName, type.getName());
+        type.getFields().forEach(field -> fields.put(typeName + '.' + field.getName(), field));
+    }
+
+    @Override
+    public int calculate(FieldComplexityEnvironment environment, int childComplexity) {
+        final String typeName = environment.getParentType().getName();
+        final GraphField<?, ?> field = fields.get(typeName + '.' + environment.getField().getName());
+        if (field == null || !field.isList()) {
+            return saturatedCost(1, childComplexity);
+        }
+        final long size = field.isConnection()
+                ? pageSize(environment)
+                : listSizeSampler.estimate(typeNames.get(typeName), field.getName());
+        return saturatedCost(size, childComplexity);
+    }
+
+    /**
+     * Returns the page size requested from a connection field.
+     *
+     * @param environment the field complexity environment
+     * @return the expected page size
+     */
+    private int pageSize(FieldComplexityEnvironment environment) {
+        final Map<String, Object> arguments = environment.getArguments();
+        final Object first = arguments.get("first");
+        final Object last = arguments.get("last");
+        int pageSize = configuration.getDefaultPageSize();
+        if (first instanceof Number || last instanceof Number) {
+            pageSize = Math.max(
+                    first instanceof Number ? ((Number) first).intValue() : 0,
+                    last instanceof Number ? ((Number) last).intValue() : 0
+            );
+        }
+        return Math.max(1, Math.min(pageSize, configuration.getMaxPageSize()));
+    }
+
+    /**
+     * Computes {@code size * (1 + childComplexity)}, saturated to {@link Integer#MAX_VALUE}.
+     *
+     * @param size            the expected number of elements
+     * @param childComplexity the cost of the field selection
+     * @return the field cost
+     */
+    private static int saturatedCost(long size, int childComplexity) {
+        return (int) Math.min(Integer.MAX_VALUE, size * (1L + childComplexity));
+    }
+}
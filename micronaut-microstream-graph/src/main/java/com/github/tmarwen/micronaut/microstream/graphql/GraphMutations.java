@@ -0,0 +1,465 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.index.GraphIndexes;
+import com.github.tmarwen.micronaut.microstream.index.HashIndex;
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
+import com.github.tmarwen.micronaut.microstream.model.GraphType;
+import com.github.tmarwen.micronaut.microstream.model.GraphWalker;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphConcurrencyStrategy;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphPartitions;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphStorer;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphUnitOfWork;
+import graphql.Scalars;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.GraphQLInputObjectField;
+import graphql.schema.GraphQLInputObjectType;
+import graphql.schema.GraphQLInputType;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLNonNull;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLTypeReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static graphql.schema.GraphQLFieldDefinition.newFieldDefinition;
+
+/**
+ * Builds the {@code create}, {@code update} and {@code delete} mutations of the graph types.
+ *
+ * <p>Every non-root type gets a {@code createXxx(input:)} mutation while
+ * {@code updateXxx(id:, input:)} and {@code deleteXxx(id:)} are limited to indexed types,
+ * the only ones addressable by identifier. Instances are attached to (or detached from) the
+ * root lists of their type and the lists of their type held by the instances they reference,
+ * e.g. a new message is appended to the messages of its thread. References held by other
+ * instances to a deleted one are left untouched.
+ *
+ * <p>Changes are registered within the request {@link GraphUnitOfWork}, committed at once
+ * when the request completes. Instances created by the request are addressable by identifier
+ * before the commit, their identifiers being reserved in the indexes meanwhile. Each mutation
+ * runs as a write of the root lists of the mutated type, the mutated instance and the
+ * instances it references, before and after the mutation, as per the
+ * {@link GraphConcurrencyStrategy}. The root lists are guarded by their root field, as read
+ * by the root query fields, so that mutations of distinct types do not contend on the root.
+ *
+ * <p>When the root graph is {@link GraphPartitions partitioned}, instances are attached to the
+ * root lists of the partition they are routed to, their root field remaining the aggregate
+ * guarding the lists of all the partitions.
+ *
+ * @since 1.0.0
+ */
+class GraphMutations {
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphMutations.class);
+
+    /**
+     * The identifier argument name.
+     */
+    private static final String ID_ARGUMENT = "id";
+
+    /**
+     * The input argument name.
+     */
+    private static final String INPUT_ARGUMENT = "input";
+
+    /**
+     * The input types name suffix.
+     */
+    private static final String INPUT_SUFFIX = "Input";
+
+    /**
+     * The graph model.
+     */
+    private final GraphModel graphModel;
+
+    /**
+     * The graph indexes.
+     */
+    private final GraphIndexes graphIndexes;
+
+    /**
+     * The graph walker resolving instance types.
+     */
+    private final GraphWalker graphWalker;
+
+    /**
+     * The root graph partitions.
+     */
+    private final GraphPartitions partitions;
+
+    /**
+     * The storer committing changes made outside of a request unit of work.
+     */
+    private final GraphStorer graphStorer;
+
+    /**
+     * The graph concurrency strategy.
+     */
+    private final GraphConcurrencyStrategy concurrencyStrategy;
+
+    GraphMutations(GraphModel graphModel,
+                   GraphIndexes graphIndexes,
+                   GraphWalker graphWalker,
+                   GraphPartitions partitions,
+                   GraphStorer graphStorer,
+                   GraphConcurrencyStrategy concurrencyStrategy) {
+        this.graphModel = graphModel;
+        this.graphIndexes = graphIndexes;
+        this.graphWalker = graphWalker;
+        this.partitions = partitions;
+        this.graphStorer = graphStorer;
+        this.concurrencyStrategy = concurrencyStrategy;
+    }
+
+    /**
+     * Declares the mutations of all the graph types.
+     *
+     * @param mutationBuilder     the GraphQL mutation type builder
+     * @param codeRegistryBuilder the GraphQL code registry builder
+     * @param mutationType        the GraphQL mutation type name
+     * @return the declared input types
+     */
+    Collection<GraphQLInputObjectType> process(GraphQLObjectType.Builder mutationBuilder,
+                                               GraphQLCodeRegistry.Builder codeRegistryBuilder,
+                                               String mutationType) {
+        final List<GraphQLInputObjectType> inputTypes = new ArrayList<>();
+        for (GraphType<?> graphType : graphModel.getTypes()) {
+            if (!graphType.isRoot()) {
+                inputTypes.add(processType(graphType, mutationBuilder, codeRegistryBuilder, mutationType));
+            }
+        }
+        return inputTypes;
+    }
+
+    /**
+     * Declares the mutations of the given graph type.
+     *
+     * @param graphType           the graph type
+     * @param mutationBuilder     the GraphQL mutation type builder
+     * @param codeRegistryBuilder the GraphQL code registry builder
+     * @param mutationType        the GraphQL mutation type name
+     * @param <B>                 the bean type
+     * @return the input type of the graph type
+     */
+    private <B> GraphQLInputObjectType processType(GraphType<B> graphType,
+                                                   GraphQLObjectType.Builder mutationBuilder,
+                                                   GraphQLCodeRegistry.Builder codeRegistryBuilder,
+                                                   String mutationType) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Processing mutations of {}", graphType.getBeanType());
+        }
+        final BeanInputBinder<B> binder = new BeanInputBinder<>(graphType, graphIndexes);
+        final GraphQLInputObjectType inputType = toInputType(graphType, binder);
+        final String typeName = graphType.getName();
+        final GraphQLArgument inputArgument = GraphQLArgument.newArgument()
+                .name(INPUT_ARGUMENT)
+                .type(GraphQLNonNull.nonNull(GraphQLTypeReference.typeRef(inputType.getName())))
+                .build();
+        final GraphQLArgument idArgument = GraphQLArgument.newArgument()
+                .name(ID_ARGUMENT)
+                .type(GraphQLNonNull.nonNull(Scalars.GraphQLID))
+                .build();
+        mutationBuilder.field(newFieldDefinition()
+                .name("create" + typeName)
+                .argument(inputArgument)
+                .type(GraphQLTypeReference.typeRef(typeName)));
+        codeRegistryBuilder.dataFetcher(
+                FieldCoordinates.coordinates(mutationType, "create" + typeName),
+                (DataFetcher<?>) environment -> inUnitOfWork(environment, unitOfWork -> {
+                    final Map<String, Object> input = environment.getArgument(INPUT_ARGUMENT);
+                    final List<Object> aggregates = binder.references(input, unitOfWork);
+                    aggregates.addAll(rootListAggregates(graphType));
+                    return concurrencyStrategy.write(aggregates, () -> {
+                        final B instance = binder.create(input, unitOfWork);
+                        attach(graphType, instance, unitOfWork);
+                        unitOfWork.store(instance);
+                        return instance;
+                    });
+                })
+        );
+        final HashIndex<B> index = graphIndexes.getIndex(graphType.getBeanType()).orElse(null);
+        if (index == null) {
+            return inputType;
+        }
+        mutationBuilder.field(newFieldDefinition()
+                .name("update" + typeName)
+                .argument(idArgument)
+                .argument(inputArgument)
+                .type(GraphQLTypeReference.typeRef(typeName)));
+        codeRegistryBuilder.dataFetcher(
+                FieldCoordinates.coordinates(mutationType, "update" + typeName),
+                (DataFetcher<?>) environment -> inUnitOfWork(environment, unitOfWork -> {
+                    final B instance = BeanInputBinder.lookup(index, environment.getArgument(ID_ARGUMENT), unitOfWork);
+                    final Map<String, Object> input = environment.getArgument(INPUT_ARGUMENT);
+                    final List<Object> aggregates = binder.references(input, unitOfWork);
+                    aggregates.addAll(aggregates(graphType, instance));
+                    return concurrencyStrategy.write(aggregates, () -> {
+                        final boolean reparent = binder.changesReferences(input);
+                        if (reparent) {
+                            detachFromReferences(graphType, instance, unitOfWork);
+                        }
+                        binder.update(instance, input, unitOfWork);
+                        if (reparent) {
+                            attachToReferences(graphType, instance, unitOfWork);
+                        }
+                        unitOfWork.store(instance);
+                        return instance;
+                    });
+                })
+        );
+        mutationBuilder.field(newFieldDefinition()
+                .name("delete" + typeName)
+                .argument(idArgument)
+                .type(GraphQLTypeReference.typeRef(typeName)));
+        codeRegistryBuilder.dataFetcher(
+                FieldCoordinates.coordinates(mutationType, "delete" + typeName),
+                (DataFetcher<?>) environment -> inUnitOfWork(environment, unitOfWork -> {
+                    final B instance = BeanInputBinder.lookup(index, environment.getArgument(ID_ARGUMENT), unitOfWork);
+                    return concurrencyStrategy.write(aggregates(graphType, instance), () -> {
+                        detach(graphType, instance, unitOfWork);
+                        unitOfWork.remove(instance);
+                        return instance;
+                    });
+                })
+        );
+        return inputType;
+    }
+
+    /**
+     * Builds the GraphQL input type of the given graph type.
+     *
+     * @param graphType the graph type
+     * @param binder    the graph type input binder
+     * @param <B>       the bean type
+     * @return the GraphQL input type
+     */
+    private <B> GraphQLInputObjectType toInputType(GraphType<B> graphType, BeanInputBinder<B> binder) {
+        final GraphQLInputObjectType.Builder inputBuilder = GraphQLInputObjectType.newInputObject()
+                .name(graphType.getName() + INPUT_SUFFIX);
+        binder.getInputFields().forEach((name, field) -> {
+            final GraphQLInputType elementType = field.getKind() == GraphField.Kind.OBJECT
+                    ? Scalars.GraphQLID
+                    : GraphQLFactory.scalarType(field.getTypeName());
+            inputBuilder.field(GraphQLInputObjectField.newInputObjectField()
+                    .name(name)
+                    .type(field.isList() ? GraphQLList.list(GraphQLNonNull.nonNull(elementType)) : elementType));
+        });
+        return inputBuilder.build();
+    }
+
+    /**
+     * Runs the given mutation within the request unit of work, or within its own one
+     * committed right away when executed outside of a request.
+     *
+     * @param environment the data fetching environment
+     * @param mutation    the mutation
+     * @return the mutation result
+     */
+    private Object inUnitOfWork(DataFetchingEnvironment environment, Function<GraphUnitOfWork, Object> mutation) {
+        final GraphUnitOfWork requestUnitOfWork = GraphUnitOfWork.of(environment.getContext());
+        if (requestUnitOfWork != null) {
+            return mutation.apply(requestUnitOfWork);
+        }
+        final GraphUnitOfWork unitOfWork = new GraphUnitOfWork();
+        final Object result = mutation.apply(unitOfWork);
+        unitOfWork.commit(graphStorer);
+        return result;
+    }
+
+    /**
+     * Returns the aggregates mutated along with the given instance: the root lists of its
+     * type, the instance itself and the instances it references.
+     *
+     * @param graphType the instance graph type
+     * @param instance  the graph instance
+     * @param <B>       the bean type
+     * @return the aggregates
+     */
+    private <B> List<Object> aggregates(GraphType<B> graphType, B instance) {
+        final List<Object> aggregates = rootListAggregates(graphType);
+        aggregates.add(instance);
+        for (GraphField<B, ?> field : graphType.getFields()) {
+            if (field.getKind() == GraphField.Kind.OBJECT && !field.isList()) {
+                final Object referenced = field.read(instance);
+                if (referenced != null) {
+                    aggregates.add(referenced);
+                }
+            }
+        }
+        return aggregates;
+    }
+
+    /**
+     * Returns the aggregates guarding the root lists holding instances of the given type,
+     * i.e. the root fields of these lists.
+     *
+     * @param graphType the element graph type
+     * @return the root list aggregates
+     */
+    private List<Object> rootListAggregates(GraphType<?> graphType) {
+        final List<Object> aggregates = new ArrayList<>();
+        for (GraphField<?, ?> field : graphModel.getRoot().getFields()) {
+            if (field.isList() && field.getKind() == GraphField.Kind.OBJECT
+                    && field.getTypeName().equals(graphType.getName())) {
+                aggregates.add(field);
+            }
+        }
+        return aggregates;
+    }
+
+    /**
+     * Attaches the given instance to the root lists of its type and to the lists of its
+     * type held by the instances it references.
+     *
+     * @param graphType  the instance graph type
+     * @param instance   the graph instance
+     * @param unitOfWork the unit of work registering the changed lists
+     * @param <B>        the bean type
+     */
+    private <B> void attach(GraphType<B> graphType, B instance, GraphUnitOfWork unitOfWork) {
+        // a new instance cannot be held by any list yet
+        forEachRootList(graphType, instance, list -> {
+            list.add(instance);
+            unitOfWork.store(list);
+        });
+        attachToReferences(graphType, instance, unitOfWork);
+    }
+
+    /**
+     * Detaches the given instance from the root lists of its type and from the lists of its
+     * type held by the instances it references.
+     *
+     * @param graphType  the instance graph type
+     * @param instance   the graph instance
+     * @param unitOfWork the unit of work registering the changed lists
+     * @param <B>        the bean type
+     */
+    private <B> void detach(GraphType<B> graphType, B instance, GraphUnitOfWork unitOfWork) {
+        forEachRootList(graphType, instance, list -> {
+            if (list.removeIf(element -> element == instance)) {
+                unitOfWork.store(list);
+            }
+        });
+        detachFromReferences(graphType, instance, unitOfWork);
+    }
+
+    /**
+     * Appends the given instance to the lists of its type held by the instances it references.
+     * The instance must be new or {@link #detachFromReferences detached} from them beforehand.
+     *
+     * @param graphType  the instance graph type
+     * @param instance   the graph instance
+     * @param unitOfWork the unit of work registering the changed lists
+     * @param <B>        the bean type
+     */
+    private <B> void attachToReferences(GraphType<B> graphType, B instance, GraphUnitOfWork unitOfWork) {
+        forEachReferencingList(graphType, instance, list -> {
+            list.add(instance);
+            unitOfWork.store(list);
+        });
+    }
+
+    /**
+     * Removes the given instance from the lists of its type held by the instances it references.
+     *
+     * @param graphType  the instance graph type
+     * @param instance   the graph instance
+     * @param unitOfWork the unit of work registering the changed lists
+     * @param <B>        the bean type
+     */
+    private <B> void detachFromReferences(GraphType<B> graphType, B instance, GraphUnitOfWork unitOfWork) {
+        forEachReferencingList(graphType, instance, list -> {
+            if (list.removeIf(element -> element == instance)) {
+                unitOfWork.store(list);
+            }
+        });
+    }
+
+    /**
+     * Applies the given action to the root lists holding instances of the given type, within
+     * the partition the given instance is routed to.
+     *
+     * @param graphType the element graph type
+     * @param instance  the graph instance
+     * @param action    the action
+     */
+    private void forEachRootList(GraphType<?> graphType, Object instance, Consumer<Collection<Object>> action) {
+        graphModel.getTypes().stream()
+                .filter(GraphType::isRoot)
+                .findFirst()
+                .ifPresent(rootType -> forEachList(rootType, partitions.rootOf(instance), graphType, action));
+    }
+
+    /**
+     * Applies the given action once to each list of the given type held by the instances the
+     * given instance references.
+     *
+     * @param graphType the instance graph type
+     * @param instance  the graph instance
+     * @param action    the action
+     * @param <B>       the bean type
+     */
+    private <B> void forEachReferencingList(GraphType<B> graphType,
+                                            B instance,
+                                            Consumer<Collection<Object>> action) {
+        // several properties may reference the same instance
+        final Set<Object> lists = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (GraphField<B, ?> field : graphType.getFields()) {
+            if (field.getKind() == GraphField.Kind.OBJECT && !field.isList()) {
+                final Object referenced = field.read(instance);
+                final GraphType<?> referencedType = graphWalker.typeOf(referenced);
+                if (referencedType != null) {
+                    forEachList(referencedType, referenced, graphType, list -> {
+                        if (lists.add(list)) {
+                            action.accept(list);
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the given action to the lists of elements of the given type held by the given
+     * instance.
+     *
+     * @param ownerType   the owner graph type
+     * @param owner       the owner instance
+     * @param elementType the list element graph type
+     * @param action      the action
+     * @param <O>         the owner bean type
+     */
+    @SuppressWarnings("unchecked")
+    private <O> void forEachList(GraphType<O> ownerType,
+                                 Object owner,
+                                 GraphType<?> elementType,
+                                 Consumer<Collection<Object>> action) {
+        final O bean = ownerType.getBeanType().cast(owner);
+        for (GraphField<O, ?> field : ownerType.getFields()) {
+            if (field.isList() && field.getKind() == GraphField.Kind.OBJECT
+                    && field.getTypeName().equals(elementType.getName())) {
+                final Object list = field.read(bean);
+                if (list instanceof Collection) {
+                    action.accept((Collection<Object>) list);
+                }
+            }
+        }
+    }
+}
@@ -1,40 +1,72 @@
 package com.github.tmarwen.micronaut.microstream.graphql;
 
-import com.github.tmarwen.micronaut.microstream.annotation.Root;
+import com.github.tmarwen.micronaut.microstream.configuration.GraphQLConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.configuration.ReplicaConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.index.GraphIndexes;
+import com.github.tmarwen.micronaut.microstream.index.HashIndex;
+import com.github.tmarwen.micronaut.microstream.index.RangeIndexes;
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
+import com.github.tmarwen.micronaut.microstream.model.GraphType;
+import com.github.tmarwen.micronaut.microstream.model.GraphWalker;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphConcurrencyStrategy;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphPartitions;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphStorer;
+import com.github.tmarwen.micronaut.microstream.runtime.NamedStorage;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import graphql.GraphQL;
 import graphql.Scalars;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.relay.Relay;
+import graphql.schema.AsyncDataFetcher;
 import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLArgument;
 import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.GraphQLFieldDefinition;
 import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLNonNull;
 import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLOutputType;
+import graphql.schema.GraphQLScalarType;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.GraphQLTypeReference;
-import graphql.schema.idl.RuntimeWiring;
-import io.micronaut.context.ApplicationContext;
 import io.micronaut.context.annotation.Bean;
 import io.micronaut.context.annotation.Factory;
-import io.micronaut.core.beans.BeanIntrospection;
-import io.micronaut.core.beans.BeanIntrospector;
-import io.micronaut.core.beans.BeanProperty;
-import io.micronaut.core.type.Argument;
+import io.micronaut.core.naming.NameUtils;
 import one.microstream.storage.types.EmbeddedStorageManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.inject.Named;
 import javax.inject.Singleton;
-import java.math.BigDecimal;
-import java.math.BigInteger;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 import static graphql.schema.GraphQLCodeRegistry.newCodeRegistry;
 import static graphql.schema.GraphQLFieldDefinition.newFieldDefinition;
 import static graphql.schema.GraphQLObjectType.newObject;
 
 /**
- * GraphQL bean factory providing schema introspection based on MicroStream graph.
+ * GraphQL bean factory providing the schema of the MicroStream graph.
+ *
+ * <p>The schema is assembled from the compile-time generated {@link GraphModel}: type
+ * resolution and scalar mapping are already done and each field is resolved by its own
+ * generated {@link DataFetcher}.
  *
  * @since 1.0.0
  */
@@ -46,177 +78,574 @@ public class GraphQLFactory {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(GraphQLFactory.class);
 
+    /**
+     * The GraphQL query type name.
+     */
+    static final String QUERY_TYPE = "Query";
+
+    /**
+     * The GraphQL mutation type name.
+     */
+    private static final String MUTATION_TYPE = "Mutation";
+
+    /**
+     * The GraphQL subscription type name.
+     */
+    private static final String SUBSCRIPTION_TYPE = "Subscription";
+
+    /**
+     * The identifier argument name of the indexed lookup fields.
+     */
+    private static final String ID_ARGUMENT = "id";
+
+    /**
+     * Relay connection schema helper.
+     */
+    private static final Relay RELAY = new Relay();
+
+    /**
+     * Mapping of scalar type names to GraphQL scalar types.
+     */
+    private static final Map<String, GraphQLScalarType> SCALAR_TYPES = new HashMap<>() {{
+        this.put(Scalars.GraphQLID.getName(), Scalars.GraphQLID);
+        this.put(Scalars.GraphQLBoolean.getName(), Scalars.GraphQLBoolean);
+        this.put(Scalars.GraphQLByte.getName(), Scalars.GraphQLByte);
+        this.put(Scalars.GraphQLInt.getName(), Scalars.GraphQLInt);
+        this.put(Scalars.GraphQLShort.getName(), Scalars.GraphQLShort);
+        this.put(Scalars.GraphQLBigInteger.getName(), Scalars.GraphQLBigInteger);
+        this.put(Scalars.GraphQLBigDecimal.getName(), Scalars.GraphQLBigDecimal);
+        this.put(Scalars.GraphQLFloat.getName(), Scalars.GraphQLFloat);
+        this.put(Scalars.GraphQLChar.getName(), Scalars.GraphQLChar);
+        this.put(Scalars.GraphQLString.getName(), Scalars.GraphQLString);
+    }};
+
+    /**
+     * The GraphQL schema configuration.
+     */
+    private final GraphQLConfigurationProperties configuration;
+
+    /**
+     * The graph lists range indexes.
+     */
+    private final RangeIndexes rangeIndexes;
+
+    /**
+     * The graph concurrency strategy.
+     */
+    private final GraphConcurrencyStrategy concurrencyStrategy;
+
+    /**
+     * The executor of the list field data fetchers, {@code null} to fetch synchronously.
+     */
+    private final ExecutorService fetchExecutor;
+
+    public GraphQLFactory(GraphQLConfigurationProperties configuration,
+                          RangeIndexes rangeIndexes,
+                          GraphConcurrencyStrategy concurrencyStrategy,
+                          @Nullable @Named(FetchExecutorFactory.FETCH_EXECUTOR) ExecutorService fetchExecutor) {
+        this.configuration = configuration;
+        this.rangeIndexes = rangeIndexes;
+        this.concurrencyStrategy = concurrencyStrategy;
+        this.fetchExecutor = fetchExecutor;
+    }
+
     @Bean
     @Singleton
-    public GraphQL graphQL(EmbeddedStorageManager storageManager) {
-        // Process types introspections
-        final Set<Class<?>> processedTypes = new HashSet<>();
-        // Create the runtime wiring builder and pass it through
-        RuntimeWiring.Builder runtimeWiringBuilder = RuntimeWiring.newRuntimeWiring();
-        GraphQLObjectType.Builder queryBuilder = newObject().name("Query");
+    public GraphQL graphQL(EmbeddedStorageManager storageManager,
+                           GraphPartitions partitions,
+                           GraphModel graphModel,
+                           GraphIndexes graphIndexes,
+                           GraphWalker graphWalker,
+                           GraphStorer graphStorer,
+                           ReplicaConfigurationProperties replicaConfiguration,
+                           PreparsedDocumentProvider preparsedDocumentProvider,
+                           GraphChangePublisher changePublisher,
+                           List<NamedStorage> namedStorages,
+                           List<Instrumentation> instrumentations) {
+        GraphQLObjectType.Builder queryBuilder = newObject().name(QUERY_TYPE);
         GraphQLCodeRegistry.Builder codeRegistryBuilder = newCodeRegistry();
-        BeanIntrospector.SHARED.findIntrospections(Root.class)
-                .stream()
-                .findFirst()
-                .ifPresent(rootIntrospection ->
-                        processType(
-                                rootIntrospection,
-                                queryBuilder,
-                                codeRegistryBuilder,
-                                processedTypes,
-                                storageManager
-                        )
-                );
+        GraphQLSchema.Builder schemaBuilder = GraphQLSchema.newSchema();
+        for (GraphType<?> graphType : graphModel.getTypes()) {
+            if (graphType.isRoot()) {
+                processRootType(graphType, queryBuilder, codeRegistryBuilder, storageManager, partitions, graphModel);
+            } else {
+                schemaBuilder.additionalType(processType(graphType, codeRegistryBuilder, graphModel));
+            }
+        }
+        // Expose the indexed types lookups
+        graphIndexes.getIndexes().forEach(index -> processIndex(index, queryBuilder, codeRegistryBuilder));
+        // Expose the roots of the named storage managers under namespaced query fields
+        final List<GraphModel> graphModels = new ArrayList<>();
+        graphModels.add(graphModel);
+        final Set<String> typeNames = new HashSet<>();
+        final Set<String> queryFieldNames = new HashSet<>();
+        typeNames.add(QUERY_TYPE);
+        graphModel.getTypes().stream().filter(graphType -> !graphType.isRoot())
+                .forEach(graphType -> typeNames.add(graphType.getName()));
+        graphModel.getRoot().getFields().forEach(field -> queryFieldNames.add(field.getName()));
+        graphIndexes.getIndexes().forEach(index -> queryFieldNames.add(lookupFieldName(index)));
+        for (NamedStorage namedStorage : namedStorages) {
+            checkNames(namedStorage, typeNames, queryFieldNames);
+            processNamedStorage(namedStorage, queryBuilder, codeRegistryBuilder, schemaBuilder);
+            graphModels.add(namedStorage.getGraphModel());
+        }
+        // Declare the connection types of paginated list fields
+        final Set<String> connectionTypes = new HashSet<>();
+        graphModels.stream()
+                .flatMap(model -> model.getTypes().stream())
+                .flatMap(graphType -> graphType.getFields().stream())
+                .filter(GraphField::isConnection)
+                .filter(field -> connectionTypes.add(field.getTypeName()))
+                .forEach(field -> {
+                    GraphQLObjectType edgeType = RELAY.edgeType(
+                            field.getTypeName(),
+                            toElementType(field),
+                            null,
+                            Collections.emptyList()
+                    );
+                    schemaBuilder.additionalType(RELAY.connectionType(
+                            field.getTypeName(),
+                            edgeType,
+                            Collections.emptyList()
+                    ));
+                });
+        // Expose the graph types mutations, but on read-only replicas
+        if (configuration.isMutations() && !replicaConfiguration.isEnabled()) {
+            GraphQLObjectType.Builder mutationBuilder = newObject().name(MUTATION_TYPE);
+            new GraphMutations(graphModel, graphIndexes, graphWalker, partitions, graphStorer, concurrencyStrategy)
+                    .process(mutationBuilder, codeRegistryBuilder, MUTATION_TYPE)
+                    .forEach(schemaBuilder::additionalType);
+            GraphQLObjectType mutationType = mutationBuilder.build();
+            if (!mutationType.getFieldDefinitions().isEmpty()) {
+                schemaBuilder.mutation(mutationType);
+            }
+        }
+        // Expose the indexed graph types subscriptions
+        if (configuration.isSubscriptions()) {
+            GraphQLObjectType.Builder subscriptionBuilder = newObject().name(SUBSCRIPTION_TYPE);
+            new GraphSubscriptions(graphModel, graphIndexes, changePublisher, configuration.getSubscriptionBufferSize())
+                    .process(subscriptionBuilder, codeRegistryBuilder, SUBSCRIPTION_TYPE);
+            GraphQLObjectType subscriptionType = subscriptionBuilder.build();
+            if (!subscriptionType.getFieldDefinitions().isEmpty()) {
+                schemaBuilder.subscription(subscriptionType);
+            }
+        }
         // Create the executable schema with root query builder
-        GraphQLSchema graphQLSchema = GraphQLSchema.newSchema()
+        GraphQLSchema graphQLSchema = schemaBuilder
                 .query(queryBuilder)
                 .codeRegistry(codeRegistryBuilder.build())
                 .build();
-        return GraphQL.newGraphQL(graphQLSchema).build();
+        GraphQL.Builder graphQLBuilder = GraphQL.newGraphQL(graphQLSchema)
+                .preparsedDocumentProvider(preparsedDocumentProvider);
+        if (!instrumentations.isEmpty()) {
+            graphQLBuilder.instrumentation(new ChainedInstrumentation(instrumentations));
+        }
+        return graphQLBuilder.build();
     }
 
     /**
-     * Processes the given {@code introspection} to the respective GraphQL type.
+     * Exposes the root type fields as {@code Query} fields. The partitioned root lists are
+     * gathered from the roots of all the partitions.
      *
-     * @param introspection       the bean introspection
-     * @param typeBuilder         the GraphQL type builder
-     * @param codeRegistryBuilder the GraphQL runtime wiring builder
-     * @param processedTypes      a caching set of all processed types
+     * @param rootType            the root graph type
+     * @param queryBuilder        the GraphQL query type builder
+     * @param codeRegistryBuilder the GraphQL code registry builder
+     * @param storageManager      the storage manager holding the root entity
+     * @param partitions          the root graph partitions
+     * @param graphModel          the graph model
+     * @param <B>                 the root type
      */
-    private void processType(BeanIntrospection<Object> introspection,
-                             GraphQLObjectType.Builder typeBuilder,
-                             GraphQLCodeRegistry.Builder codeRegistryBuilder,
-                             Set<Class<?>> processedTypes,
-                             EmbeddedStorageManager storageManager) {
-        final Class<?> beanType = introspection.getBeanType();
-        if (processedTypes.contains(beanType)) {
-            return;
-        }
-        // avoid infinite loops
-        processedTypes.add(beanType);
+    private <B> void processRootType(GraphType<B> rootType,
+                                     GraphQLObjectType.Builder queryBuilder,
+                                     GraphQLCodeRegistry.Builder codeRegistryBuilder,
+                                     EmbeddedStorageManager storageManager,
+                                     GraphPartitions partitions,
+                                     GraphModel graphModel) {
         if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Processing {}", beanType);
-        }
-        // process type
-        introspection.getBeanProperties()
-                .forEach(beanProperty -> {
-                            // retrieve element type if the field is an iterable
-                            Class<Object> elementType;
-                            final boolean isArray;
-                            String propertyName = beanProperty.getName();
-                            if (beanProperty.asArgument().isContainerType()) {
-                                elementType = (Class<Object>) beanProperty.asArgument().getFirstTypeVariable()
-                                        .map(Argument::getType)
-                                        .orElseThrow(() -> new IllegalStateException(
-                                                "Cannot retrieve argument type for field ["
-                                                        + propertyName + "] within [" + beanType + "]")
-                                        );
-                                isArray = true;
-                            } else {
-                                elementType = beanProperty.getType();
-                                isArray = false;
-                            }
-                            // Process if the current field type if it is an introspected type
-                            BeanIntrospector.SHARED.findIntrospection(elementType)
-                                    .ifPresentOrElse(propertyIntrospection -> {
-                                                GraphQLOutputType elementGraphQLType;
-                                                if (processedTypes.contains(elementType)) {
-                                                    elementGraphQLType =
-                                                            GraphQLTypeReference.typeRef(asTypeName(elementType));
-                                                } else {
-                                                    GraphQLObjectType.Builder propertyTypeBuilder = newObject()
-                                                            .name(asTypeName(elementType));
-                                                    processType(
-                                                            propertyIntrospection,
-                                                            propertyTypeBuilder,
-                                                            codeRegistryBuilder,
-                                                            processedTypes,
-                                                            storageManager
-                                                    );
-                                                    elementGraphQLType = propertyTypeBuilder.build();
-
-                                                }
-                                                typeBuilder.field(
-                                                        newFieldDefinition().name(propertyName).type(
-                                                                isArray ? GraphQLList.list(elementGraphQLType)
-                                                                        : elementGraphQLType
-                                                        )
-                                                );
-                                            },
-                                            () ->
-                                                    typeBuilder.field(
-                                                            newFieldDefinition()
-                                                                    .name(propertyName)
-                                                                    .type(
-                                                                            toScalarType(
-                                                                                    propertyName,
-                                                                                    beanProperty.getType(),
-                                                                                    isArray)
-                                                                    )
-                                                    )
-
-                                    );
-                            // Add data fetcher for field
-                    if (introspection.hasStereotype(Root.class)) {
-                        codeRegistryBuilder.dataFetcher(
-                                FieldCoordinates.coordinates("Query", propertyName),
-                                (DataFetcher<Object>) environment -> beanProperty.get(storageManager.root())
-                        );
+            LOGGER.debug("Processing root {}", rootType.getBeanType());
+        }
+        for (GraphField<B, ?> field : rootType.getFields()) {
+            queryBuilder.field(toFieldDefinition(field, graphModel));
+            final DataFetcher<?> dataFetcher;
+            final DataFetcher<?> loader;
+            if (partitions.isPartitioned(field)) {
+                // range queries are resolved by the index of each partition list
+                final List<DataFetcher<?>> partitionDataFetchers = new ArrayList<>();
+                for (EmbeddedStorageManager partition : partitions.getStorageManagers()) {
+                    partitionDataFetchers.add(environment ->
+                            field.read(rootType.getBeanType().cast(partition.root()), environment));
+                }
+                final List<DataFetcher<?>> rangeDataFetchers = new ArrayList<>();
+                for (DataFetcher<?> partitionDataFetcher : partitionDataFetchers) {
+                    rangeDataFetchers.add(range(field, partitionDataFetcher, graphModel));
+                }
+                dataFetcher = paginate(field, environment -> gather(rangeDataFetchers, environment));
+                loader = environment -> {
+                    for (DataFetcher<?> partitionDataFetcher : partitionDataFetchers) {
+                        partitionDataFetcher.get(environment);
                     }
-                            codeRegistryBuilder.dataFetcher(
-                                    FieldCoordinates.coordinates(asTypeName(beanType), propertyName),
-                                    (DataFetcher<?>) environment -> beanProperty.get(environment.getSource())
-                            );
-                        }
-                );
+                    return null;
+                };
+            } else {
+                loader = environment -> field.read(rootType.getBeanType().cast(storageManager.root()), environment);
+                dataFetcher = toDataFetcher(field, loader, graphModel);
+            }
+            // the root lists are guarded by their field rather than by the root, as by the mutations
+            codeRegistryBuilder.dataFetcher(
+                    FieldCoordinates.coordinates(QUERY_TYPE, field.getName()),
+                    guard(field, dataFetcher, loader, field)
+            );
+        }
+    }
+
+    /**
+     * Gathers the elements of a partitioned root list field from all the partitions, in
+     * partition order, as a view of the partition lists.
+     *
+     * @param partitionDataFetchers the data fetchers of the field elements of each partition
+     * @param environment           the data fetching environment
+     * @return the elements of all the partitions
+     * @throws Exception if a partition fetch fails
+     */
+    private static List<Object> gather(List<DataFetcher<?>> partitionDataFetchers,
+                                       DataFetchingEnvironment environment) throws Exception {
+        final List<List<?>> partitionElements = new ArrayList<>(partitionDataFetchers.size());
+        for (DataFetcher<?> partitionDataFetcher : partitionDataFetchers) {
+            final Object value = partitionDataFetcher.get(environment);
+            if (value instanceof List) {
+                partitionElements.add((List<?>) value);
+            } else if (value != null) {
+                partitionElements.add(new ArrayList<>((Collection<?>) value));
+            }
+        }
+        return new ConcatenatedList<>(partitionElements);
+    }
+
+    /**
+     * Exposes the root of the given named storage manager as a query field of the storage
+     * manager name, along with its graph types and their indexed lookups.
+     *
+     * @param namedStorage        the named storage manager
+     * @param queryBuilder        the GraphQL query type builder
+     * @param codeRegistryBuilder the GraphQL code registry builder
+     * @param schemaBuilder       the GraphQL schema builder
+     */
+    private void processNamedStorage(NamedStorage namedStorage,
+                                     GraphQLObjectType.Builder queryBuilder,
+                                     GraphQLCodeRegistry.Builder codeRegistryBuilder,
+                                     GraphQLSchema.Builder schemaBuilder) {
+        final GraphModel graphModel = namedStorage.getGraphModel();
+        final EmbeddedStorageManager storageManager = namedStorage.getStorageManager();
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Processing root {} of storage manager '{}'", graphModel.getRootType(), namedStorage.getName());
+        }
+        // the root is resolved as any other object, its list fields being guarded by itself
+        for (GraphType<?> graphType : graphModel.getTypes()) {
+            schemaBuilder.additionalType(processType(graphType, codeRegistryBuilder, graphModel));
+        }
+        queryBuilder.field(newFieldDefinition()
+                .name(namedStorage.getName())
+                .type(GraphQLTypeReference.typeRef(graphModel.getRoot().getName()))
+        );
+        codeRegistryBuilder.dataFetcher(
+                FieldCoordinates.coordinates(QUERY_TYPE, namedStorage.getName()),
+                (DataFetcher<?>) environment -> storageManager.root()
+        );
+        namedStorage.getGraphIndexes().getIndexes()
+                .forEach(index -> processIndex(index, queryBuilder, codeRegistryBuilder));
     }
 
     /**
-     * Converts the bean type to the appropriate GraphQL schema type name.
+     * Verifies that the GraphQL types and query fields of the given named storage manager do not
+     * collide with the ones already declared, all the storages sharing a single schema.
      *
-     * @param beanType the bean type
-     * @return the schema type name
+     * @param namedStorage    the named storage manager
+     * @param typeNames       the declared GraphQL type names, the named storage ones are added to
+     * @param queryFieldNames the declared query field names, the named storage ones are added to
+     * @throws IllegalStateException if a type or a query field is already declared
      */
-    private String asTypeName(Class<?> beanType) {
-        return beanType.getSimpleName();
+    private static void checkNames(NamedStorage namedStorage, Set<String> typeNames, Set<String> queryFieldNames) {
+        final String name = namedStorage.getName();
+        if (!queryFieldNames.add(name)) {
+            throw new IllegalStateException("MicroStream storage manager '" + name
+                    + "' conflicts with the query field of the same name");
+        }
+        for (GraphType<?> graphType : namedStorage.getGraphModel().getTypes()) {
+            if (!typeNames.add(graphType.getName())) {
+                throw new IllegalStateException("Type " + graphType.getName() + " of MicroStream storage manager '"
+                        + name + "' conflicts with the type of the same name of another storage manager, "
+                        + "rename one of them");
+            }
+        }
+        for (HashIndex<?> index : namedStorage.getGraphIndexes().getIndexes()) {
+            if (!queryFieldNames.add(lookupFieldName(index))) {
+                throw new IllegalStateException("Lookup query field " + lookupFieldName(index)
+                        + " of MicroStream storage manager '" + name + "' conflicts with the query field of the "
+                        + "same name, rename type " + index.getType().getName());
+            }
+        }
     }
 
     /**
-     * Converts a JVM type to its GraphQL appropriate type.
+     * @param index the identifier index
+     * @return the name of the {@code xxxById(id:)} query field of the given index
+     */
+    private static String lookupFieldName(HashIndex<?> index) {
+        return NameUtils.decapitalize(index.getType().getName()) + "ById";
+    }
+
+    /**
+     * Exposes the given identifier index as a {@code xxxById(id:)} query field.
      *
-     * @param name    the field name
-     * @param type    the field JVM type
-     * @param isArray if the field is an array
-     * @return the GraphQL scalar type
+     * @param index               the identifier index
+     * @param queryBuilder        the GraphQL query type builder
+     * @param codeRegistryBuilder the GraphQL code registry builder
      */
-    private GraphQLOutputType toScalarType(final String name, final Class<?> type, boolean isArray) {
-        final GraphQLOutputType elementType;
-        if ("id".equals(name)) {
-            elementType = Scalars.GraphQLID;
-        } else if (Boolean.class == type || boolean.class == type) {
-            elementType = Scalars.GraphQLBoolean;
-        } else if (Byte.class == type || byte.class == type) {
-            elementType = Scalars.GraphQLByte;
-        } else if (Integer.class == type || int.class == type) {
-            elementType = Scalars.GraphQLInt;
-        } else if (Short.class == type || short.class == type) {
-            elementType = Scalars.GraphQLShort;
-        } else if (BigInteger.class == type) {
-            elementType = Scalars.GraphQLBigInteger;
-        } else if (BigDecimal.class == type) {
-            elementType = Scalars.GraphQLBigDecimal;
-        } else if (Double.class == type || Float.class == type || float.class == type) {
-            elementType = Scalars.GraphQLFloat;
-        } else if (Character.class == type || char.class == type) {
-            elementType = Scalars.GraphQLChar;
+    private void processIndex(HashIndex<?> index,
+                              GraphQLObjectType.Builder queryBuilder,
+                              GraphQLCodeRegistry.Builder codeRegistryBuilder) {
+        final String typeName = index.getType().getName();
+        final String fieldName = lookupFieldName(index);
+        queryBuilder.field(newFieldDefinition()
+                .name(fieldName)
+                .argument(GraphQLArgument.newArgument()
+                        .name(ID_ARGUMENT)
+                        .type(GraphQLNonNull.nonNull(Scalars.GraphQLID)))
+                .type(GraphQLTypeReference.typeRef(typeName))
+        );
+        codeRegistryBuilder.dataFetcher(
+                FieldCoordinates.coordinates(QUERY_TYPE, fieldName),
+                (DataFetcher<?>) environment -> index.get(parseId(environment.getArgument(ID_ARGUMENT)))
+        );
+    }
+
+    /**
+     * Parses the given GraphQL {@code ID} argument value to an index key.
+     *
+     * @param id the identifier argument value
+     * @return the index key
+     */
+    static long parseId(Object id) {
+        try {
+            return Long.parseLong(String.valueOf(id));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid identifier '" + id + "'", e);
+        }
+    }
+
+    /**
+     * Processes the given {@code graphType} to the respective GraphQL type.
+     *
+     * @param graphType           the generated graph type
+     * @param codeRegistryBuilder the GraphQL code registry builder
+     * @param graphModel          the graph model
+     * @param <B>                 the bean type
+     * @return the GraphQL object type
+     */
+    private <B> GraphQLObjectType processType(GraphType<B> graphType,
+                                              GraphQLCodeRegistry.Builder codeRegistryBuilder,
+                                              GraphModel graphModel) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Processing {}", graphType.getBeanType());
+        }
+        GraphQLObjectType.Builder typeBuilder = newObject().name(graphType.getName());
+        for (GraphField<B, ?> field : graphType.getFields()) {
+            typeBuilder.field(toFieldDefinition(field, graphModel));
+            final DataFetcher<?> dataFetcher;
+            if (configuration.isBatchLoading() && DataLoaderRegistryFactory.isBatched(field)) {
+                dataFetcher = new BatchedDataFetcher(
+                        BatchedDataFetcher.dataLoaderName(graphType.getName(), field.getName()),
+                        field
+                );
+            } else {
+                dataFetcher = guard(field, toDataFetcher(field, field, graphModel), field, null);
+            }
+            codeRegistryBuilder.dataFetcher(
+                    FieldCoordinates.coordinates(graphType.getName(), field.getName()),
+                    dataFetcher
+            );
+        }
+        return typeBuilder.build();
+    }
+
+    /**
+     * Converts a graph field to its GraphQL field definition.
+     *
+     * @param field      the graph field
+     * @param graphModel the graph model
+     * @return the GraphQL field definition
+     */
+    private GraphQLFieldDefinition toFieldDefinition(GraphField<?, ?> field, GraphModel graphModel) {
+        GraphQLFieldDefinition.Builder fieldBuilder = newFieldDefinition().name(field.getName());
+        if (rangeField(field, graphModel).isPresent()) {
+            fieldBuilder.argument(GraphQLArgument.newArgument()
+                    .name(RangeDataFetcher.SINCE_ARGUMENT)
+                    .description("Inclusive ISO-8601 lower bound of the range indexed property")
+                    .type(Scalars.GraphQLString))
+                    .argument(GraphQLArgument.newArgument()
+                            .name(RangeDataFetcher.UNTIL_ARGUMENT)
+                            .description("Inclusive ISO-8601 upper bound of the range indexed property")
+                            .type(Scalars.GraphQLString));
+        }
+        if (field.isConnection()) {
+            fieldBuilder.type(GraphQLTypeReference.typeRef(field.getTypeName() + "Connection"))
+                    .arguments(RELAY.getConnectionFieldArguments());
         } else {
-            elementType = Scalars.GraphQLString;
+            fieldBuilder.type(toOutputType(field));
+        }
+        return fieldBuilder.build();
+    }
+
+    /**
+     * Returns the data fetcher resolving the given field through the given {@code delegate}.
+     *
+     * @param field      the graph field
+     * @param delegate   the data fetcher resolving the raw field value
+     * @param graphModel the graph model
+     * @return the field data fetcher
+     */
+    private DataFetcher<?> toDataFetcher(GraphField<?, ?> field, DataFetcher<?> delegate, GraphModel graphModel) {
+        return paginate(field, range(field, delegate, graphModel));
+    }
+
+    /**
+     * Applies the range arguments of the given field, if any, to the list resolved by the
+     * given {@code delegate}.
+     *
+     * @param field      the graph field
+     * @param delegate   the data fetcher resolving the raw field value
+     * @param graphModel the graph model
+     * @return the range data fetcher or the delegate
+     */
+    private DataFetcher<?> range(GraphField<?, ?> field, DataFetcher<?> delegate, GraphModel graphModel) {
+        final Optional<? extends GraphField<?, Instant>> rangeField = rangeField(field, graphModel);
+        if (rangeField.isPresent()) {
+            return new RangeDataFetcher<>(delegate, rangeIndexes, rangeField.get());
+        }
+        return delegate;
+    }
+
+    /**
+     * Exposes the list resolved by the given {@code delegate} as a connection, if the given
+     * field is one.
+     *
+     * @param field    the graph field
+     * @param delegate the data fetcher resolving the field list
+     * @return the connection data fetcher or the delegate
+     */
+    private DataFetcher<?> paginate(GraphField<?, ?> field, DataFetcher<?> delegate) {
+        if (field.isConnection()) {
+            return new ListConnectionDataFetcher<>(
+                    delegate,
+                    configuration.getDefaultPageSize(),
+                    configuration.getMaxPageSize()
+            );
         }
+        return delegate;
+    }
+
+    /**
+     * Guards the given list field data fetcher against concurrent graph writers. Single
+     * valued fields are read atomically and are left unguarded. Guarded fetchers are run on
+     * the fetch executor, if any, so that waiting for the graph lock or loading lazy
+     * references never blocks the request thread. Lazy lists are loaded by the given
+     * {@code loader} ahead of the read section.
+     *
+     * @param field         the graph field
+     * @param dataFetcher   the field data fetcher
+     * @param loader        the data fetcher reading the raw field value
+     * @param rootAggregate the aggregate of the root fields, {@code null} for other fields
+     * @return the guarded data fetcher
+     */
+    private DataFetcher<?> guard(GraphField<?, ?> field,
+                                 DataFetcher<?> dataFetcher,
+                                 DataFetcher<?> loader,
+                                 Object rootAggregate) {
+        if (!field.isList()) {
+            return dataFetcher;
+        }
+        final DataFetcher<?> guarded = new ConcurrentDataFetcher(
+                dataFetcher,
+                field.isLazy() ? loader : null,
+                concurrencyStrategy,
+                rootAggregate
+        );
+        return fetchExecutor == null ? guarded : async(guarded);
+    }
+
+    /**
+     * Runs the given data fetcher on the fetch executor. Fetches rejected by a saturated
+     * executor fail their field with a failed future instead of running on the request thread.
+     *
+     * @param dataFetcher the data fetcher
+     * @return the asynchronous data fetcher
+     */
+    private DataFetcher<?> async(DataFetcher<?> dataFetcher) {
+        final DataFetcher<?> async = AsyncDataFetcher.async(dataFetcher, fetchExecutor);
+        return environment -> {
+            try {
+                return async.get(environment);
+            } catch (RejectedExecutionException e) {
+                final CompletableFuture<Object> rejected = new CompletableFuture<>();
+                rejected.completeExceptionally(e);
+                return rejected;
+            }
+        };
+    }
+
+    /**
+     * Returns the range indexed property of the elements of the given list field.
+     *
+     * @param field      the graph field
+     * @param graphModel the graph model
+     * @return the range indexed element property, if any
+     */
+    private Optional<? extends GraphField<?, Instant>> rangeField(GraphField<?, ?> field, GraphModel graphModel) {
+        if (!field.isList() || field.getKind() != GraphField.Kind.OBJECT) {
+            return Optional.empty();
+        }
+        return graphModel.getTypes().stream()
+                .filter(graphType -> graphType.getName().equals(field.getTypeName()))
+                .findFirst()
+                .flatMap(GraphType::getRangeField);
+    }
+
+    /**
+     * Converts a graph field to its GraphQL appropriate output type.
+     *
+     * @param field the graph field
+     * @return the GraphQL output type
+     */
+    private GraphQLOutputType toOutputType(GraphField<?, ?> field) {
+        final GraphQLOutputType elementType = toElementType(field);
         // wrap in a list if it's a container type
-        if (isArray) {
+        if (field.isList()) {
             return GraphQLList.list(elementType);
         } else {
             return elementType;
         }
     }
+
+    /**
+     * Converts a graph field to the GraphQL type of its value or list elements.
+     *
+     * @param field the graph field
+     * @return the GraphQL element type
+     */
+    private GraphQLOutputType toElementType(GraphField<?, ?> field) {
+        if (field.getKind() == GraphField.Kind.OBJECT) {
+            return GraphQLTypeReference.typeRef(field.getTypeName());
+        }
+        return scalarType(field.getTypeName());
+    }
+
+    /**
+     * Returns the GraphQL scalar type of the given name.
+     *
+     * @param typeName the scalar type name
+     * @return the GraphQL scalar type, {@code String} if unknown
+     */
+    static GraphQLScalarType scalarType(String typeName) {
+        return SCALAR_TYPES.getOrDefault(typeName, Scalars.GraphQLString);
+    }
 }
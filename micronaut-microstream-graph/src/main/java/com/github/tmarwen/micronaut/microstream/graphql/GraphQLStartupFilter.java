@@ -0,0 +1,54 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.configuration.StartupConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.runtime.StorageStartup;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import org.reactivestreams.Publisher;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rejects the GraphQL requests with a {@code 503 Service Unavailable} status while the
+ * {@link StorageStartup} runs in the background, instead of serving them against a storage
+ * and a graph still being loaded.
+ *
+ * @since 1.0.0
+ */
+@Filter({"${graphql.path:/graphql}", "${graphql.graphql-ws.path:/graphql-ws}"})
+@Requires(property = StartupConfigurationProperties.PREFIX + ".background", value = "true")
+public class GraphQLStartupFilter implements HttpServerFilter {
+
+    /**
+     * The storage startup.
+     */
+    private final StorageStartup storageStartup;
+
+    public GraphQLStartupFilter(StorageStartup storageStartup) {
+        this.storageStartup = storageStartup;
+    }
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+        if (storageStartup.isReady()) {
+            return chain.proceed(request);
+        }
+        final String message = storageStartup.getFailure() == null
+                ? "MicroStream storage is starting"
+                : "MicroStream storage startup failed";
+        final Map<String, List<Map<String, String>>> body = Collections.singletonMap(
+                "errors",
+                Collections.singletonList(Collections.singletonMap("message", message))
+        );
+        return Publishers.<MutableHttpResponse<?>>just(HttpResponse.status(HttpStatus.SERVICE_UNAVAILABLE).body(body));
+    }
+}
@@ -0,0 +1,181 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.configuration.StartupConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.index.GraphIndexes;
+import com.github.tmarwen.micronaut.microstream.runtime.StartupTask;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.DataFetcherResult;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Requires;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Factory of the {@link StartupTask}s building the graph indexes and the GraphQL schema, then
+ * warming up the query data fetchers, during the
+ * {@link com.github.tmarwen.micronaut.microstream.runtime.StorageStartup}.
+ *
+ * @since 1.0.0
+ */
+@Factory
+public class GraphQLStartupTasks {
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphQLStartupTasks.class);
+
+    /**
+     * The page size argument of the connection fields.
+     */
+    private static final String FIRST_ARGUMENT = "first";
+
+    @Bean
+    @Singleton
+    @Named("indexes")
+    public StartupTask indexesStartupTask(Provider<GraphIndexes> graphIndexes) {
+        return StartupTask.of("indexes", 100, graphIndexes::get);
+    }
+
+    @Bean
+    @Singleton
+    @Named("schema")
+    public StartupTask schemaStartupTask(Provider<GraphQL> graphQL) {
+        return StartupTask.of("schema", 200, graphQL::get);
+    }
+
+    @Bean
+    @Singleton
+    @Named("warm-up")
+    @Requires(property = StartupConfigurationProperties.PREFIX + ".warm-up", notEquals = "false")
+    public StartupTask warmUpStartupTask(Provider<GraphQL> graphQL) {
+        return StartupTask.of("warm-up", 300, () -> warmUp(graphQL.get()));
+    }
+
+    /**
+     * Executes once the query fields without required arguments, selecting the leaf fields of
+     * their type, so that the data fetchers, the execution strategy and the loaded part of the
+     * graph are warm when the first request comes in. Fetched lists are cut down to their
+     * first element: the warm-up runs each fetcher code path once instead of the whole graph.
+     *
+     * @param graphQL the GraphQL instance
+     */
+    private static void warmUp(GraphQL graphQL) {
+        final GraphQLObjectType queryType = graphQL.getGraphQLSchema().getQueryType();
+        final StringBuilder query = new StringBuilder("query WarmUp {");
+        for (GraphQLFieldDefinition field : queryType.getFieldDefinitions()) {
+            if (!hasRequiredArguments(field)) {
+                query.append(' ').append(field.getName());
+                appendPaging(query, field);
+                appendSelection(query, field.getType());
+            }
+        }
+        query.append(" }");
+        // the request instrumentations, e.g. the query limits, are replaced for the warm-up
+        final ExecutionResult result = graphQL
+                .transform(builder -> builder.instrumentation(new WarmUpInstrumentation()))
+                .execute(query.toString());
+        if (!result.getErrors().isEmpty() && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("MicroStream GraphQL warm-up query completed with errors: {}", result.getErrors());
+        }
+    }
+
+    /**
+     * Appends the leaf fields selection of the given type, if not a leaf type itself.
+     *
+     * @param query the query
+     * @param type  the field type
+     */
+    private static void appendSelection(StringBuilder query, GraphQLType type) {
+        final GraphQLType unwrapped = GraphQLTypeUtil.unwrapAll(type);
+        if (!(unwrapped instanceof GraphQLFieldsContainer)) {
+            return;
+        }
+        query.append(" { __typename");
+        for (GraphQLFieldDefinition field : ((GraphQLFieldsContainer) unwrapped).getFieldDefinitions()) {
+            if (GraphQLTypeUtil.isLeaf(GraphQLTypeUtil.unwrapAll(field.getType())) && !hasRequiredArguments(field)) {
+                query.append(' ').append(field.getName());
+            }
+        }
+        query.append(" }");
+    }
+
+    /**
+     * Limits connection fields to their first element.
+     *
+     * @param query the query
+     * @param field the connection field
+     */
+    private static void appendPaging(StringBuilder query, GraphQLFieldDefinition field) {
+        if (field.getArgument(FIRST_ARGUMENT) != null) {
+            query.append('(').append(FIRST_ARGUMENT).append(": 1)");
+        }
+    }
+
+    /**
+     * @param field the field definition
+     * @return whether the field has non-null arguments without default value
+     */
+    private static boolean hasRequiredArguments(GraphQLFieldDefinition field) {
+        for (GraphQLArgument argument : field.getArguments()) {
+            if (GraphQLTypeUtil.isNonNull(argument.getType()) && argument.getDefaultValue() == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cuts the fetched lists down to their first element.
+     */
+    private static final class WarmUpInstrumentation extends SimpleInstrumentation {
+
+        @Override
+        public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+                                                    InstrumentationFieldFetchParameters parameters) {
+            return environment -> first(dataFetcher.get(environment));
+        }
+
+        /**
+         * Returns the given fetched value, lists being cut down to their first element.
+         *
+         * @param value the fetched value, possibly asynchronous
+         * @return the value to complete
+         */
+        private static Object first(Object value) {
+            if (value instanceof CompletionStage) {
+                return ((CompletionStage<?>) value).thenApply(WarmUpInstrumentation::first);
+            }
+            if (value instanceof DataFetcherResult) {
+                final DataFetcherResult<?> result = (DataFetcherResult<?>) value;
+                return DataFetcherResult.newResult()
+                        .data(first(result.getData()))
+                        .errors(result.getErrors())
+                        .localContext(result.getLocalContext())
+                        .build();
+            }
+            if (value instanceof Collection && ((Collection<?>) value).size() > 1) {
+                return Collections.singletonList(((Collection<?>) value).iterator().next());
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.index.GraphIndexes;
+import com.github.tmarwen.micronaut.microstream.index.HashIndex;
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
+import com.github.tmarwen.micronaut.microstream.model.GraphType;
+import graphql.Scalars;
+import graphql.schema.DataFetcher;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLTypeReference;
+import io.micronaut.core.naming.NameUtils;
+import io.reactivex.BackpressureOverflowStrategy;
+import io.reactivex.schedulers.Schedulers;
+import one.microstream.reference.Lazy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static graphql.schema.GraphQLFieldDefinition.newFieldDefinition;
+
+/**
+ * Builds the {@code xxxAdded} subscriptions of the indexed graph types.
+ *
+ * <p>A subscription emits the instances of its type added to the graph by storage commits,
+ * optionally filtered on the identifiers of the indexed instances they reference, e.g.
+ * {@code messageAdded(threadId:)}. Each subscriber buffers the instances it is not ready to
+ * receive yet, conflating bursts beyond the buffer capacity to the most recent instances: at most
+ * the buffer capacity plus the instance being delivered are held per subscriber.
+ *
+ * @since 1.0.0
+ */
+class GraphSubscriptions {
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphSubscriptions.class);
+
+    /**
+     * The subscription fields name suffix.
+     */
+    private static final String ADDED_SUFFIX = "Added";
+
+    /**
+     * The reference filter arguments name suffix.
+     */
+    private static final String ID_SUFFIX = "Id";
+
+    /**
+     * The graph model.
+     */
+    private final GraphModel graphModel;
+
+    /**
+     * The graph indexes.
+     */
+    private final GraphIndexes graphIndexes;
+
+    /**
+     * The graph change publisher.
+     */
+    private final GraphChangePublisher changePublisher;
+
+    /**
+     * The number of events buffered per subscriber.
+     */
+    private final int bufferSize;
+
+    GraphSubscriptions(GraphModel graphModel,
+                       GraphIndexes graphIndexes,
+                       GraphChangePublisher changePublisher,
+                       int bufferSize) {
+        this.graphModel = graphModel;
+        this.graphIndexes = graphIndexes;
+        this.changePublisher = changePublisher;
+        this.bufferSize = Math.max(1, bufferSize);
+    }
+
+    /**
+     * Declares the subscriptions of all the indexed graph types.
+     *
+     * @param subscriptionBuilder the GraphQL subscription type builder
+     * @param codeRegistryBuilder the GraphQL code registry builder
+     * @param subscriptionType    the GraphQL subscription type name
+     */
+    void process(GraphQLObjectType.Builder subscriptionBuilder,
+                 GraphQLCodeRegistry.Builder codeRegistryBuilder,
+                 String subscriptionType) {
+        for (GraphType<?> graphType : graphModel.getTypes()) {
+            if (graphType.isIndexed() && !graphType.isRoot()) {
+                processType(graphType, subscriptionBuilder, codeRegistryBuilder, subscriptionType);
+            }
+        }
+    }
+
+    /**
+     * Declares the subscription of the given graph type.
+     *
+     * @param graphType           the graph type
+     * @param subscriptionBuilder the GraphQL subscription type builder
+     * @param codeRegistryBuilder the GraphQL code registry builder
+     * @param subscriptionType    the GraphQL subscription type name
+     * @param <B>                 the bean type
+     */
+    private <B> void processType(GraphType<B> graphType,
+                                 GraphQLObjectType.Builder subscriptionBuilder,
+                                 GraphQLCodeRegistry.Builder codeRegistryBuilder,
+                                 String subscriptionType) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Processing subscriptions of {}", graphType.getBeanType());
+        }
+        final String fieldName = NameUtils.decapitalize(graphType.getName()) + ADDED_SUFFIX;
+        final GraphQLFieldDefinition.Builder fieldBuilder = newFieldDefinition()
+                .name(fieldName)
+                .type(GraphQLTypeReference.typeRef(graphType.getName()));
+        final List<ReferenceFilter<B>> filters = new ArrayList<>();
+        for (GraphField<B, ?> field : graphType.getFields()) {
+            if (field.getKind() != GraphField.Kind.OBJECT || field.isList()) {
+                continue;
+            }
+            graphIndexes.getIndex(field.getTypeName()).ifPresent(index -> {
+                final ReferenceFilter<B> filter = new ReferenceFilter<>(field, index);
+                filters.add(filter);
+                fieldBuilder.argument(GraphQLArgument.newArgument()
+                        .name(filter.argument)
+                        .type(Scalars.GraphQLID));
+            });
+        }
+        subscriptionBuilder.field(fieldBuilder);
+        codeRegistryBuilder.dataFetcher(
+                FieldCoordinates.coordinates(subscriptionType, fieldName),
+                (DataFetcher<?>) environment -> {
+                    final List<ReferenceFilter<B>> applied = new ArrayList<>();
+                    final List<Long> ids = new ArrayList<>();
+                    for (ReferenceFilter<B> filter : filters) {
+                        final Object id = environment.getArgument(filter.argument);
+                        if (id != null) {
+                            applied.add(filter);
+                            ids.add(GraphQLFactory.parseId(id));
+                        }
+                    }
+                    return changePublisher.added(graphType.getBeanType())
+                            .filter(instance -> {
+                                for (int i = 0; i < applied.size(); i++) {
+                                    if (!applied.get(i).matches(instance, ids.get(i))) {
+                                        return false;
+                                    }
+                                }
+                                return true;
+                            })
+                            .onBackpressureBuffer(bufferSize, null, BackpressureOverflowStrategy.DROP_OLDEST)
+                            // resolved off the committing thread, which holds the graph read locks, prefetching
+                            // a single instance so that the buffer above bounds the instances held per subscriber
+                            .observeOn(Schedulers.io(), false, 1);
+                }
+        );
+    }
+
+    /**
+     * Filters the instances of a graph type on the identifier of an indexed instance they
+     * reference.
+     *
+     * @param <B> the bean type
+     */
+    private static final class ReferenceFilter<B> {
+
+        /**
+         * The reference field.
+         */
+        private final GraphField<B, ?> field;
+
+        /**
+         * The index of the referenced type.
+         */
+        private final HashIndex<?> index;
+
+        /**
+         * The filter argument name.
+         */
+        private final String argument;
+
+        ReferenceFilter(GraphField<B, ?> field, HashIndex<?> index) {
+            this.field = field;
+            this.index = index;
+            this.argument = field.getName() + ID_SUFFIX;
+        }
+
+        /**
+         * Returns whether the given instance references the instance with the given identifier.
+         * Unloaded lazy references never match.
+         *
+         * @param instance the graph instance
+         * @param id       the referenced instance identifier
+         * @return {@code true} if the instance matches
+         */
+        boolean matches(B instance, long id) {
+            Object reference = field.reference(instance);
+            if (reference instanceof Lazy) {
+                reference = ((Lazy<?>) reference).peek();
+            }
+            final Long referenceId = reference == null ? null : idOf(index, reference);
+            return referenceId != null && referenceId == id;
+        }
+
+        /**
+         * Reads the identifier of the given indexed instance.
+         *
+         * @param index    the index of the instance type
+         * @param instance the indexed instance
+         * @param <R>      the indexed bean type
+         * @return the identifier or {@code null}
+         */
+        private static <R> Long idOf(HashIndex<R> index, Object instance) {
+            final Class<R> type = index.getType().getBeanType();
+            if (!type.isInstance(instance)) {
+                return null;
+            }
+            final Object id = index.getType().getIdField().read(type.cast(instance));
+            return id == null ? null : ((Number) id).longValue();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.configuration.GraphQLConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.runtime.LazyTracker;
+import graphql.ExecutionResult;
+import graphql.GraphQLContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.order.Ordered;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Instrumentation clearing the MicroStream lazy references loaded while executing a request
+ * once its result is complete, so that resident memory stays bounded by the working set of
+ * the in-flight requests.
+ *
+ * <p>This instrumentation comes last so that the request changes are committed before the
+ * references they went through are cleared.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+@Requires(property = GraphQLConfigurationProperties.PREFIX + ".release-lazy-references", notEquals = "false")
+public class LazyReleaseInstrumentation extends SimpleInstrumentation implements Ordered {
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LazyReleaseInstrumentation.class);
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters) {
+        final Object context = parameters.getContext();
+        if (context instanceof GraphQLContext) {
+            LazyTracker.bind((GraphQLContext) context);
+        }
+        return super.beginExecution(parameters);
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> instrumentExecutionResult(ExecutionResult executionResult,
+                                                                        InstrumentationExecutionParameters parameters) {
+        final LazyTracker tracker = LazyTracker.of(parameters.getContext());
+        if (tracker != null) {
+            final int released = tracker.release();
+            if (released > 0 && LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Released {} lazy reference(s) loaded by request", released);
+            }
+        }
+        return super.instrumentExecutionResult(executionResult, parameters);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,167 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import graphql.relay.Connection;
+import graphql.relay.ConnectionCursor;
+import graphql.relay.DefaultConnection;
+import graphql.relay.DefaultConnectionCursor;
+import graphql.relay.DefaultEdge;
+import graphql.relay.DefaultPageInfo;
+import graphql.relay.Edge;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link DataFetcher} exposing a graph list property as a Relay {@link Connection}.
+ *
+ * <p>Cursors are opaque encodings of the element index and pages are resolved as
+ * {@link List#subList(int, int)} views of the underlying graph list so that the work done
+ * per request scales with the page size rather than with the collection size.
+ *
+ * @param <T> the list element type
+ * @since 1.0.0
+ */
+public class ListConnectionDataFetcher<T> implements DataFetcher<Connection<T>> {
+
+    /**
+     * The plain text cursor prefix.
+     */
+    private static final String CURSOR_PREFIX = "microstream:";
+
+    /**
+     * The delegate fetcher resolving the full list.
+     */
+    private final DataFetcher<?> delegate;
+
+    /**
+     * The page size applied when neither {@code first} nor {@code last} is given.
+     */
+    private final int defaultPageSize;
+
+    /**
+     * The upper bound of the requested page size.
+     */
+    private final int maxPageSize;
+
+    public ListConnectionDataFetcher(DataFetcher<?> delegate, int defaultPageSize, int maxPageSize) {
+        this.delegate = delegate;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Connection<T> get(DataFetchingEnvironment environment) throws Exception {
+        final Object value = delegate.get(environment);
+        if (value == null) {
+            return null;
+        }
+        final List<T> elements = asList((Collection<T>) value);
+        final int size = elements.size();
+        int start = 0;
+        int end = size;
+        final String after = environment.getArgument("after");
+        if (after != null) {
+            start = Math.max(start, decode(after) + 1);
+        }
+        final String before = environment.getArgument("before");
+        if (before != null) {
+            end = Math.min(end, decode(before));
+        }
+        final Integer first = environment.getArgument("first");
+        final Integer last = environment.getArgument("last");
+        if (first != null) {
+            end = Math.min(end, start + pageSize(first, "first"));
+        }
+        if (last != null) {
+            start = Math.max(start, end - pageSize(last, "last"));
+        }
+        if (first == null && last == null) {
+            end = Math.min(end, start + defaultPageSize);
+        }
+        if (start >= end) {
+            return new DefaultConnection<>(
+                    Collections.emptyList(),
+                    new DefaultPageInfo(null, null, start > 0, end < size)
+            );
+        }
+        final List<T> page = elements.subList(start, end);
+        final List<Edge<T>> edges = new ArrayList<>(page.size());
+        int index = start;
+        for (T element : page) {
+            edges.add(new DefaultEdge<>(element, encode(index++)));
+        }
+        return new DefaultConnection<>(
+                edges,
+                new DefaultPageInfo(
+                        edges.get(0).getCursor(),
+                        edges.get(edges.size() - 1).getCursor(),
+                        start > 0,
+                        end < size
+                )
+        );
+    }
+
+    /**
+     * Validates and bounds the requested page size.
+     *
+     * @param requested the requested page size
+     * @param argument  the argument name
+     * @return the effective page size
+     */
+    private int pageSize(int requested, String argument) {
+        if (requested < 0) {
+            throw new IllegalArgumentException("Argument '" + argument + "' must be non-negative");
+        }
+        return Math.min(requested, maxPageSize);
+    }
+
+    /**
+     * Returns the given collection as a {@link List}, copying it only if it is not one already.
+     *
+     * @param collection the graph collection
+     * @return the list of elements
+     */
+    private List<T> asList(Collection<T> collection) {
+        if (collection instanceof List) {
+            return (List<T>) collection;
+        }
+        return new ArrayList<>(collection);
+    }
+
+    /**
+     * Encodes the given element index to an opaque cursor.
+     *
+     * @param index the element index
+     * @return the cursor
+     */
+    static ConnectionCursor encode(int index) {
+        return new DefaultConnectionCursor(
+                Base64.getEncoder().encodeToString((CURSOR_PREFIX + index).getBytes(StandardCharsets.UTF_8))
+        );
+    }
+
+    /**
+     * Decodes the element index from the given opaque cursor.
+     *
+     * @param cursor the cursor
+     * @return the element index
+     */
+    static int decode(String cursor) {
+        try {
+            final String value = new String(Base64.getDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid connection cursor '" + cursor + "'");
+            }
+            return Integer.parseInt(value.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid connection cursor '" + cursor + "'", e);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.configuration.GraphQLConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.model.GraphType;
+import com.github.tmarwen.micronaut.microstream.model.GraphWalker;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphVersion;
+import com.github.tmarwen.micronaut.microstream.runtime.NamedStorage;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.TaskScheduler;
+import one.microstream.reference.Lazy;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Estimates the size of the graph list fields from a sample of the live graph, walked from
+ * its root, and from the root of each named storage, up to a bounded number of instances.
+ *
+ * <p>The largest sampled size of each list field is retained. The graph is sampled once upon
+ * creation, then again in the background, on the Micronaut scheduler, at each sampling
+ * interval if it was committed to since: lookups never sample and always use the last sampled
+ * sizes.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+public class ListSizeSampler {
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ListSizeSampler.class);
+
+    /**
+     * The graph walker.
+     */
+    private final GraphWalker graphWalker;
+
+    /**
+     * The storage manager holding the root entity.
+     */
+    private final EmbeddedStorageManager storageManager;
+
+    /**
+     * The named storages.
+     */
+    private final List<NamedStorage> namedStorages;
+
+    /**
+     * The graph version.
+     */
+    private final GraphVersion graphVersion;
+
+    /**
+     * The maximum number of sampled instances of each storage.
+     */
+    private final int sampleSize;
+
+    /**
+     * The scheduled samplings.
+     */
+    private final ScheduledFuture<?> schedule;
+
+    /**
+     * The largest sampled size of each list field, by {@code Type.field} key.
+     */
+    private volatile Map<String, Integer> sizes = Collections.emptyMap();
+
+    /**
+     * The largest sampled size of any list field.
+     */
+    private volatile int largestSize = 1;
+
+    /**
+     * The graph version at last sampling.
+     */
+    private long sampledVersion = -1;
+
+    public ListSizeSampler(GraphWalker graphWalker,
+                           EmbeddedStorageManager storageManager,
+                           List<NamedStorage> namedStorages,
+                           GraphVersion graphVersion,
+                           GraphQLConfigurationProperties configuration,
+                           @Named(TaskExecutors.SCHEDULED) TaskScheduler taskScheduler) {
+        this.graphWalker = graphWalker;
+        this.storageManager = storageManager;
+        this.namedStorages = namedStorages;
+        this.graphVersion = graphVersion;
+        this.sampleSize = configuration.getCostSampleSize();
+        refresh();
+        this.schedule = taskScheduler.scheduleWithFixedDelay(
+                configuration.getCostSamplingInterval(),
+                configuration.getCostSamplingInterval(),
+                this::refresh
+        );
+    }
+
+    /**
+     * Returns the estimated size of the given list field. Fields absent from the sample are
+     * estimated to the largest sampled size of any list.
+     *
+     * @param typeName  the graph type name
+     * @param fieldName the list field name
+     * @return the estimated list size, at least {@code 1}
+     */
+    public int estimate(String typeName, String fieldName) {
+        final Integer size = sizes.get(typeName + '.' + fieldName);
+        return size == null ? largestSize : Math.max(size, 1);
+    }
+
+    @PreDestroy
+    void close() {
+        schedule.cancel(false);
+    }
+
+    /**
+     * Samples the graph again if it changed since the last sampling.
+     */
+    private void refresh() {
+        final long version = graphVersion.current();
+        if (version == sampledVersion) {
+            return;
+        }
+        try {
+            sample();
+            sampledVersion = version;
+        } catch (RuntimeException e) {
+            // keep the previous sizes, sampled again at the next interval
+            LOGGER.warn("List field sizes sampling failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Walks the graph of each storage from its root, recording the list field sizes of up to
+     * {@link #sampleSize} instances of each one.
+     */
+    private void sample() {
+        final long start = System.nanoTime();
+        final Map<String, Integer> sampled = new HashMap<>();
+        sample(graphWalker, storageManager.root(), sampled);
+        for (NamedStorage namedStorage : namedStorages) {
+            sample(namedStorage.getGraphWalker(), namedStorage.getStorageManager().root(), sampled);
+        }
+        sizes = sampled;
+        largestSize = Math.max(1, sampled.values().stream().mapToInt(Integer::intValue).max().orElse(1));
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Sampled {} list field size(s) in {} ms", sampled.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Walks a graph from the given root, recording the list field sizes of up to
+     * {@link #sampleSize} instances. The sizes are read from the lists themselves, of which only a
+     * prefix within the sample size is walked. The graph is not locked: concurrent commits only
+     * skew the sample.
+     *
+     * @param walker  the graph walker
+     * @param root    the graph root, possibly {@code null}
+     * @param sampled the sampled sizes
+     */
+    private void sample(GraphWalker walker, Object root, Map<String, Integer> sampled) {
+        if (root == null) {
+            return;
+        }
+        walker.walk(
+                Collections.singletonList(root),
+                (type, instance) -> record(sampled, type, instance),
+                (type, instance) -> true,
+                sampleSize
+        );
+    }
+
+    /**
+     * Records the sizes of the loaded list fields of the given instance.
+     *
+     * @param sampled  the sampled sizes
+     * @param type     the instance graph type
+     * @param instance the graph instance
+     * @param <B>      the bean type
+     */
+    private static <B> void record(Map<String, Integer> sampled, GraphType<B> type, Object instance) {
+        final B bean = type.getBeanType().cast(instance);
+        for (GraphField<B, ?> field : type.getFields()) {
+            if (!field.isList()) {
+                continue;
+            }
+            Object value = field.reference(bean);
+            if (value instanceof Lazy) {
+                value = ((Lazy<?>) value).peek();
+            }
+            if (value instanceof Collection) {
+                sampled.merge(type.getName() + '.' + field.getName(), ((Collection<?>) value).size(), Math::max);
+            }
+        }
+    }
+}
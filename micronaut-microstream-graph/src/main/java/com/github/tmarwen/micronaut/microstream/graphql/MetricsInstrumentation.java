@@ -0,0 +1,240 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.configuration.GraphQLConfigurationProperties;
+import graphql.ExecutionResult;
+import graphql.execution.DataFetcherResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationValidationParameters;
+import graphql.language.Document;
+import graphql.relay.Connection;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLTypeUtil;
+import graphql.validation.ValidationError;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.context.annotation.Requires;
+
+import javax.inject.Singleton;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Instrumentation publishing GraphQL metrics as Micrometer meters:
+ * <ul>
+ * <li>{@code microstream.graphql.operation}, the parse, validate and execute timings of
+ * every request, tagged by {@code phase};</li>
+ * <li>{@code microstream.graphql.field}, the fetch timings of the fields, tagged by
+ * {@code type} and {@code field}, whose count is the fetch count;</li>
+ * <li>{@code microstream.graphql.field.size}, the sizes of the lists and connection pages
+ * returned by list fields.</li>
+ * </ul>
+ *
+ * <p>Fields are only measured for a sample of the requests. Meters are resolved once per
+ * field definition and non-sampled requests allocate nothing per field.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+@Requires(classes = MeterRegistry.class)
+@Requires(beans = MeterRegistry.class)
+@Requires(property = GraphQLConfigurationProperties.PREFIX + ".metrics", notEquals = "false")
+public class MetricsInstrumentation extends SimpleInstrumentation {
+
+    /**
+     * The operation timings meter name.
+     */
+    public static final String OPERATION_METER = "microstream.graphql.operation";
+
+    /**
+     * The field timings meter name.
+     */
+    public static final String FIELD_METER = "microstream.graphql.field";
+
+    /**
+     * The list field sizes meter name.
+     */
+    public static final String FIELD_SIZE_METER = "microstream.graphql.field.size";
+
+    /**
+     * The meter registry.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The ratio of the requests whose fields are measured.
+     */
+    private final double sampleRate;
+
+    /**
+     * The parse phase timer.
+     */
+    private final Timer parseTimer;
+
+    /**
+     * The validate phase timer.
+     */
+    private final Timer validateTimer;
+
+    /**
+     * The execute phase timer.
+     */
+    private final Timer executeTimer;
+
+    /**
+     * The field meters by field definition, which are distinct per type.
+     */
+    private final Map<GraphQLFieldDefinition, FieldMeters> fieldMeters = new ConcurrentHashMap<>();
+
+    public MetricsInstrumentation(MeterRegistry meterRegistry, GraphQLConfigurationProperties configuration) {
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = configuration.getMetricsSampleRate();
+        this.parseTimer = operationTimer("parse");
+        this.validateTimer = operationTimer("validate");
+        this.executeTimer = operationTimer("execute");
+    }
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate
+                ? SampledState.SAMPLED
+                : SampledState.NOT_SAMPLED;
+    }
+
+    @Override
+    public InstrumentationContext<Document> beginParse(InstrumentationExecutionParameters parameters) {
+        return timed(parseTimer);
+    }
+
+    @Override
+    public InstrumentationContext<List<ValidationError>> beginValidation(InstrumentationValidationParameters parameters) {
+        return timed(validateTimer);
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters) {
+        return timed(executeTimer);
+    }
+
+    @Override
+    public InstrumentationContext<Object> beginFieldFetch(InstrumentationFieldFetchParameters parameters) {
+        if (parameters.getInstrumentationState() != SampledState.SAMPLED) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        final GraphQLFieldDefinition field = parameters.getField();
+        final FieldMeters meters = fieldMeters.computeIfAbsent(
+                field,
+                definition -> new FieldMeters(GraphQLTypeUtil.simplePrint(parameters.getEnvironment().getParentType()), definition)
+        );
+        final long start = System.nanoTime();
+        return SimpleInstrumentationContext.whenCompleted((result, throwable) -> {
+            meters.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            final int size = sizeOf(result);
+            if (size >= 0) {
+                meters.sizes().record(size);
+            }
+        });
+    }
+
+    /**
+     * Returns a context recording its duration on the given timer.
+     *
+     * @param timer the timer
+     * @param <T>   the context result type
+     * @return the timed context
+     */
+    private static <T> InstrumentationContext<T> timed(Timer timer) {
+        final long start = System.nanoTime();
+        return SimpleInstrumentationContext.whenCompleted(
+                (result, throwable) -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS)
+        );
+    }
+
+    /**
+     * Returns the number of elements of the given fetched value.
+     *
+     * @param value the fetched value
+     * @return the number of elements or {@code -1} if not a list nor a connection
+     */
+    private static int sizeOf(Object value) {
+        if (value instanceof DataFetcherResult) {
+            value = ((DataFetcherResult<?>) value).getData();
+        }
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).size();
+        }
+        if (value instanceof Connection) {
+            return ((Connection<?>) value).getEdges().size();
+        }
+        return -1;
+    }
+
+    /**
+     * Creates the timer of the given operation phase.
+     *
+     * @param phase the operation phase
+     * @return the phase timer
+     */
+    private Timer operationTimer(String phase) {
+        return Timer.builder(OPERATION_METER)
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a request fields are measured.
+     */
+    private enum SampledState implements InstrumentationState {
+        SAMPLED,
+        NOT_SAMPLED
+    }
+
+    /**
+     * The meters of a field.
+     */
+    private final class FieldMeters {
+
+        private final String type;
+
+        private final String field;
+
+        private final Timer timer;
+
+        /**
+         * The sizes summary, only registered for fields returning lists.
+         */
+        private volatile DistributionSummary sizes;
+
+        FieldMeters(String type, GraphQLFieldDefinition definition) {
+            this.type = type;
+            this.field = definition.getName();
+            this.timer = Timer.builder(FIELD_METER)
+                    .tag("type", type)
+                    .tag("field", field)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+
+        DistributionSummary sizes() {
+            if (sizes == null) {
+                sizes = DistributionSummary.builder(FIELD_SIZE_METER)
+                        .tag("type", type)
+                        .tag("field", field)
+                        .register(meterRegistry);
+            }
+            return sizes;
+        }
+    }
+}
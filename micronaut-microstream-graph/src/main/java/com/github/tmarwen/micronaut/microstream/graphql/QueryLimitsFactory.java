@@ -0,0 +1,49 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.configuration.GraphQLConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
+import com.github.tmarwen.micronaut.microstream.runtime.NamedStorage;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Requires;
+
+import javax.inject.Singleton;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Factory of the instrumentations rejecting, before execution, the queries deeper or
+ * estimated more expensive than configured.
+ *
+ * @since 1.0.0
+ */
+@Factory
+public class QueryLimitsFactory {
+
+    @Bean
+    @Singleton
+    @Requires(property = GraphQLConfigurationProperties.PREFIX + ".max-query-depth", notEquals = "0")
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(GraphQLConfigurationProperties configuration) {
+        return new MaxQueryDepthInstrumentation(configuration.getMaxQueryDepth());
+    }
+
+    @Bean
+    @Singleton
+    @Requires(property = GraphQLConfigurationProperties.PREFIX + ".max-query-complexity", notEquals = "0")
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(GraphQLConfigurationProperties configuration,
+                                                                               GraphModel graphModel,
+                                                                               List<NamedStorage> namedStorages,
+                                                                               ListSizeSampler listSizeSampler) {
+        return new MaxQueryComplexityInstrumentation(
+                configuration.getMaxQueryComplexity(),
+                new GraphFieldComplexityCalculator(
+                        graphModel,
+                        namedStorages.stream().map(NamedStorage::getGraphModel).collect(Collectors.toList()),
+                        listSizeSampler,
+                        configuration
+                )
+        );
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.cache.WeightedLruCache;
+import com.github.tmarwen.micronaut.microstream.configuration.GraphQLConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphVersion;
+import io.micronaut.context.annotation.Requires;
+
+import javax.inject.Singleton;
+
+/**
+ * Cache of the serialized results of GraphQL queries, tagged with the {@link GraphVersion}
+ * they were computed at.
+ *
+ * <p>A cached result is only served while the graph version is unchanged, that is until the
+ * next storage commit; stale entries are left for the least recently used eviction to reclaim.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+@Requires(property = GraphQLConfigurationProperties.PREFIX + ".result-cache", value = "true")
+public class QueryResultCache {
+
+    /**
+     * The cached results, by query key.
+     */
+    private final WeightedLruCache<String, Entry> results;
+
+    /**
+     * The graph version.
+     */
+    private final GraphVersion graphVersion;
+
+    public QueryResultCache(GraphQLConfigurationProperties configuration, GraphVersion graphVersion) {
+        this.results = new WeightedLruCache<>(
+                configuration.getResultCacheMaxWeight(),
+                (key, entry) -> key.length() + entry.json.length()
+        );
+        this.graphVersion = graphVersion;
+    }
+
+    /**
+     * Returns the serialized result cached for the given key at the current graph version.
+     *
+     * @param key the query key
+     * @return the serialized result or {@code null}
+     */
+    public String get(String key) {
+        final Entry entry = results.get(key);
+        return entry != null && entry.version == graphVersion.current() ? entry.json : null;
+    }
+
+    /**
+     * Caches the given serialized result computed at the given graph version, unless the
+     * graph changed since.
+     *
+     * @param key     the query key
+     * @param version the graph version the result was computed at
+     * @param json    the serialized result
+     */
+    public void put(String key, long version, String json) {
+        if (version == graphVersion.current()) {
+            results.put(key, new Entry(version, json));
+        }
+    }
+
+    /**
+     * Returns the underlying cache.
+     *
+     * @return the result cache
+     */
+    public WeightedLruCache<String, ?> getResults() {
+        return results;
+    }
+
+    /**
+     * A serialized result along with its graph version.
+     */
+    private static final class Entry {
+
+        private final long version;
+
+        private final String json;
+
+        Entry(long version, String json) {
+            this.version = version;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.index.RangeIndexes;
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link DataFetcher} filtering a graph list by the {@code since} and {@code until} bounds
+ * of its elements range indexed property.
+ *
+ * @param <T> the list element type
+ * @since 1.0.0
+ */
+public class RangeDataFetcher<T> implements DataFetcher<Object> {
+
+    /**
+     * The lower bound argument name.
+     */
+    static final String SINCE_ARGUMENT = "since";
+
+    /**
+     * The upper bound argument name.
+     */
+    static final String UNTIL_ARGUMENT = "until";
+
+    /**
+     * The delegate fetcher resolving the full list.
+     */
+    private final DataFetcher<?> delegate;
+
+    /**
+     * The range indexes registry.
+     */
+    private final RangeIndexes rangeIndexes;
+
+    /**
+     * The range indexed property of the list elements.
+     */
+    private final GraphField<T, Instant> keyField;
+
+    public RangeDataFetcher(DataFetcher<?> delegate, RangeIndexes rangeIndexes, GraphField<T, Instant> keyField) {
+        this.delegate = delegate;
+        this.rangeIndexes = rangeIndexes;
+        this.keyField = keyField;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object get(DataFetchingEnvironment environment) throws Exception {
+        final Object value = delegate.get(environment);
+        final Instant since = parse(environment.getArgument(SINCE_ARGUMENT), SINCE_ARGUMENT);
+        final Instant until = parse(environment.getArgument(UNTIL_ARGUMENT), UNTIL_ARGUMENT);
+        if (value == null || (since == null && until == null)) {
+            return value;
+        }
+        if (value instanceof List) {
+            return rangeIndexes.range((List<T>) value, keyField, since, until);
+        }
+        // unindexable collection, fall back to a scan
+        return ((Collection<T>) value).stream()
+                .filter(element -> {
+                    final Instant key = element == null ? null : keyField.read(element);
+                    return key != null
+                            && (since == null || !key.isBefore(since))
+                            && (until == null || !key.isAfter(until));
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Parses an ISO-8601 instant argument.
+     *
+     * @param value    the argument value
+     * @param argument the argument name
+     * @return the instant or {@code null}
+     */
+    private static Instant parse(String value, String argument) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Argument '" + argument + "' must be an ISO-8601 instant", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.runtime.RequestLoad;
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+
+import javax.inject.Singleton;
+
+/**
+ * Instrumentation recording the GraphQL requests in flight in the {@link RequestLoad}.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+public class RequestLoadInstrumentation extends SimpleInstrumentation {
+
+    /**
+     * The request load.
+     */
+    private final RequestLoad requestLoad;
+
+    public RequestLoadInstrumentation(RequestLoad requestLoad) {
+        this.requestLoad = requestLoad;
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters) {
+        requestLoad.enter();
+        return SimpleInstrumentationContext.whenCompleted((result, throwable) -> requestLoad.exit());
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.runtime.GraphStorer;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphUnitOfWork;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphQLContext;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Instrumentation binding a {@link GraphUnitOfWork} to each GraphQL request and committing
+ * it once the request completes, so that all the changes of a mutation request are persisted
+ * within a single storer commit.
+ *
+ * <p>Changes are committed even if some mutation fields failed: they were already applied
+ * to the live graph, which must not diverge from the storage.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+public class UnitOfWorkInstrumentation extends SimpleInstrumentation {
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnitOfWorkInstrumentation.class);
+
+    /**
+     * The graph storer.
+     */
+    private final GraphStorer graphStorer;
+
+    public UnitOfWorkInstrumentation(GraphStorer graphStorer) {
+        this.graphStorer = graphStorer;
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters) {
+        final Object context = parameters.getContext();
+        if (context instanceof GraphQLContext) {
+            GraphUnitOfWork.bind((GraphQLContext) context);
+        }
+        return super.beginExecution(parameters);
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> instrumentExecutionResult(ExecutionResult executionResult,
+                                                                        InstrumentationExecutionParameters parameters) {
+        final GraphUnitOfWork unitOfWork = GraphUnitOfWork.of(parameters.getContext());
+        if (unitOfWork == null || unitOfWork.isEmpty()) {
+            return super.instrumentExecutionResult(executionResult, parameters);
+        }
+        try {
+            unitOfWork.commit(graphStorer);
+        } catch (RuntimeException e) {
+            LOGGER.error("Error committing GraphQL request changes to MicroStream storage", e);
+            return CompletableFuture.completedFuture(ExecutionResultImpl.newExecutionResult()
+                    .from(executionResult)
+                    .addError(GraphqlErrorBuilder.newError()
+                            .message("Error committing changes: " + e.getMessage())
+                            .build())
+                    .build());
+        }
+        return super.instrumentExecutionResult(executionResult, parameters);
+    }
+}
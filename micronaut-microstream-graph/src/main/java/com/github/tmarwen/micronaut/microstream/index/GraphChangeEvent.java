@@ -0,0 +1,55 @@
+package com.github.tmarwen.micronaut.microstream.index;
+
+import io.micronaut.context.event.ApplicationEvent;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Event published by the {@link GraphIndexes} once a storage commit added instances of
+ * {@link com.github.tmarwen.micronaut.microstream.annotation.Indexed} types to the graph, or
+ * removed some from it.
+ *
+ * @since 1.0.0
+ */
+public class GraphChangeEvent extends ApplicationEvent {
+
+    /**
+     * The instances added to the graph.
+     */
+    private final List<Object> added;
+
+    /**
+     * The instances removed from the graph.
+     */
+    private final List<Object> removed;
+
+    public GraphChangeEvent(GraphIndexes graphIndexes, List<Object> added, List<Object> removed) {
+        super(graphIndexes);
+        this.added = Collections.unmodifiableList(added);
+        this.removed = Collections.unmodifiableList(removed);
+    }
+
+    @Override
+    public GraphIndexes getSource() {
+        return (GraphIndexes) super.getSource();
+    }
+
+    /**
+     * Returns the indexed instances added to the graph by the commit, in walk order.
+     *
+     * @return the added instances
+     */
+    public List<Object> getAdded() {
+        return added;
+    }
+
+    /**
+     * Returns the indexed instances removed from the graph by the commit.
+     *
+     * @return the removed instances
+     */
+    public List<Object> getRemoved() {
+        return removed;
+    }
+}
@@ -0,0 +1,238 @@
+package com.github.tmarwen.micronaut.microstream.index;
+
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
+import com.github.tmarwen.micronaut.microstream.model.GraphType;
+import com.github.tmarwen.micronaut.microstream.model.GraphWalker;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphPartitions;
+import com.github.tmarwen.micronaut.microstream.runtime.StorageCommitEvent;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Registry of the {@link HashIndex} of each {@link com.github.tmarwen.micronaut.microstream.annotation.Indexed}
+ * graph type.
+ *
+ * <p>The indexes are rebuilt from the graph root, or from the roots of all the
+ * {@link GraphPartitions}, upon creation, during the
+ * {@link com.github.tmarwen.micronaut.microstream.runtime.StorageStartup}, then kept up to date on each
+ * {@link StorageCommitEvent}: stored objects are walked down to the instances which are not
+ * yet indexed, mirroring MicroStream lazy storing semantics, and removed objects are
+ * unindexed. Instances already indexed under their identifier, such as most elements of a
+ * stored list, are neither indexed again nor walked. Unloaded {@link one.microstream.reference.Lazy} references are not walked so that
+ * indexing does not pull the whole graph in memory: the instances only reachable through them
+ * are indexed when they get stored.
+ *
+ * <p>Only the commits of the storage manager holding the indexed graph are handled: each
+ * {@link com.github.tmarwen.micronaut.microstream.runtime.NamedStorage} has its own indexes.
+ *
+ * <p>A {@link GraphChangeEvent} is published for each commit adding instances to, or removing
+ * instances from, the indexes.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+public class GraphIndexes implements ApplicationEventListener<StorageCommitEvent> {
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphIndexes.class);
+
+    /**
+     * The indexes by graph type name.
+     */
+    private final Map<String, HashIndex<?>> indexes = new LinkedHashMap<>();
+
+    /**
+     * The indexes by bean type.
+     */
+    private final Map<Class<?>, HashIndex<?>> indexesByType = new LinkedHashMap<>();
+
+    /**
+     * The storage manager holding the indexed graph.
+     */
+    private final EmbeddedStorageManager storageManager;
+
+    /**
+     * The graph walker.
+     */
+    private final GraphWalker graphWalker;
+
+    /**
+     * Publishes the graph change events.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    public GraphIndexes(EmbeddedStorageManager storageManager,
+                        GraphModel graphModel,
+                        GraphWalker graphWalker,
+                        ApplicationEventPublisher eventPublisher) {
+        this(storageManager, Collections.singletonList(storageManager.root()), graphModel, graphWalker, eventPublisher);
+    }
+
+    @Inject
+    public GraphIndexes(EmbeddedStorageManager storageManager,
+                        GraphPartitions partitions,
+                        GraphModel graphModel,
+                        GraphWalker graphWalker,
+                        ApplicationEventPublisher eventPublisher) {
+        this(storageManager, partitions.getRoots(), graphModel, graphWalker, eventPublisher);
+    }
+
+    private GraphIndexes(EmbeddedStorageManager storageManager,
+                         List<Object> roots,
+                         GraphModel graphModel,
+                         GraphWalker graphWalker,
+                         ApplicationEventPublisher eventPublisher) {
+        this.storageManager = storageManager;
+        this.graphWalker = graphWalker;
+        this.eventPublisher = eventPublisher;
+        for (GraphType<?> type : graphModel.getTypes()) {
+            if (type.isIndexed()) {
+                final HashIndex<?> index = new HashIndex<>(type);
+                indexes.put(type.getName(), index);
+                indexesByType.put(type.getBeanType(), index);
+            }
+        }
+        rebuild(roots);
+    }
+
+    /**
+     * Returns the index of the graph type with the given {@code name}.
+     *
+     * @param name the graph type name
+     * @return the index, if the type is indexed
+     */
+    public Optional<HashIndex<?>> getIndex(String name) {
+        return Optional.ofNullable(indexes.get(name));
+    }
+
+    /**
+     * Returns the index of the given bean type.
+     *
+     * @param type the bean type
+     * @param <B>  the bean type
+     * @return the index, if the type is indexed
+     */
+    @SuppressWarnings("unchecked")
+    public <B> Optional<HashIndex<B>> getIndex(Class<B> type) {
+        return Optional.ofNullable((HashIndex<B>) indexesByType.get(type));
+    }
+
+    /**
+     * Returns all the indexes.
+     *
+     * @return the indexes
+     */
+    public Collection<HashIndex<?>> getIndexes() {
+        return Collections.unmodifiableCollection(indexes.values());
+    }
+
+    @Override
+    public void onApplicationEvent(StorageCommitEvent event) {
+        if (indexes.isEmpty() || event.getSource() != storageManager) {
+            return;
+        }
+        final List<Object> removed = new ArrayList<>();
+        for (Object instance : event.getRemoved()) {
+            if (unindex(instance)) {
+                removed.add(instance);
+            }
+        }
+        // explicitly stored instances are always walked, referenced ones only if not yet indexed
+        final Set<Object> stored = Collections.newSetFromMap(new IdentityHashMap<>());
+        stored.addAll(event.getObjects());
+        final List<Object> added = new ArrayList<>();
+        graphWalker.walk(
+                event.getObjects(),
+                (type, instance) -> {
+                    if (index(type, instance)) {
+                        added.add(instance);
+                    }
+                },
+                (type, instance) -> stored.contains(instance) || !isIndexed(instance)
+        );
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            eventPublisher.publishEvent(new GraphChangeEvent(this, added, removed));
+        }
+    }
+
+    /**
+     * Rebuilds all the indexes from the given graph {@code roots}.
+     *
+     * @param roots the graph root entities
+     */
+    private void rebuild(List<Object> roots) {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        final long start = System.nanoTime();
+        indexes.values().forEach(HashIndex::clear);
+        // null roots are skipped by the walker
+        graphWalker.walk(roots, this::index, (type, instance) -> true);
+        if (LOGGER.isDebugEnabled()) {
+            indexes.values().forEach(index ->
+                    LOGGER.debug("Index of {} rebuilt with {} instance(s)", index.getType().getName(), index.size())
+            );
+            LOGGER.debug("MicroStream graph indexes rebuilt in {} ms", (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Indexes the given graph instance if its type is indexed and it is not indexed yet under
+     * its current identifier.
+     *
+     * @param type     the graph type
+     * @param instance the graph instance
+     * @return {@code true} if the instance was not indexed yet
+     */
+    @SuppressWarnings("unchecked")
+    private boolean index(GraphType<?> type, Object instance) {
+        final HashIndex<Object> index = (HashIndex<Object>) indexesByType.get(type.getBeanType());
+        // the elements of stored lists are mostly indexed already, checked by optimistic reads
+        if (index == null || index.contains(instance)) {
+            return false;
+        }
+        // instances without identifier are not indexed
+        return index.put(instance) != instance && index.contains(instance);
+    }
+
+    /**
+     * Removes the given graph instance from the index of its type, if any.
+     *
+     * @param instance the removed graph instance
+     * @return {@code true} if the instance was indexed
+     */
+    @SuppressWarnings("unchecked")
+    private boolean unindex(Object instance) {
+        final HashIndex<Object> index = (HashIndex<Object>) indexesByType.get(instance.getClass());
+        return index != null && index.remove(instance);
+    }
+
+    /**
+     * Returns whether the given instance is already indexed.
+     *
+     * @param instance the graph instance
+     * @return {@code true} if indexed
+     */
+    @SuppressWarnings("unchecked")
+    private boolean isIndexed(Object instance) {
+        final HashIndex<Object> index = (HashIndex<Object>) indexesByType.get(instance.getClass());
+        return index != null && index.contains(instance);
+    }
+}
@@ -0,0 +1,218 @@
+package com.github.tmarwen.micronaut.microstream.index;
+
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.model.GraphType;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Identifier hash index of the instances of an {@link com.github.tmarwen.micronaut.microstream.annotation.Indexed}
+ * graph type.
+ *
+ * <p>Lookups are lock-free optimistic reads validated against concurrent index updates.
+ * Identifiers of instances created but not committed yet are {@link #reserve(long) reserved}
+ * until they are indexed, so that concurrent creations cannot claim the same identifier.
+ *
+ * @param <B> the indexed bean type
+ * @since 1.0.0
+ */
+public final class HashIndex<B> {
+
+    /**
+     * The indexed graph type.
+     */
+    private final GraphType<B> type;
+
+    /**
+     * The identifier field of the indexed type.
+     */
+    private final GraphField<B, ?> idField;
+
+    /**
+     * The instances by identifier.
+     */
+    private final LongObjectHashMap<B> instances = new LongObjectHashMap<>();
+
+    /**
+     * The identifiers reserved by pending creations.
+     */
+    private final LongObjectHashMap<Boolean> reserved = new LongObjectHashMap<>();
+
+    /**
+     * Guards the index updates and reservations.
+     */
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * The highest identifier indexed or allocated so far.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    HashIndex(GraphType<B> type) {
+        this.type = type;
+        this.idField = type.getIdField();
+    }
+
+    public GraphType<B> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the instance identified by the given {@code id}.
+     *
+     * @param id the instance identifier
+     * @return the indexed instance or {@code null}
+     */
+    public B get(long id) {
+        final long stamp = lock.tryOptimisticRead();
+        B instance = instances.get(id);
+        if (!lock.validate(stamp)) {
+            final long readStamp = lock.readLock();
+            try {
+                instance = instances.get(id);
+            } finally {
+                lock.unlockRead(readStamp);
+            }
+        }
+        // guard against instances whose identifier changed since they were indexed
+        if (instance != null) {
+            final Long currentId = idOf(instance);
+            if (currentId == null || currentId != id) {
+                return null;
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns whether the given instance is the one currently indexed under its identifier.
+     *
+     * @param instance the graph instance
+     * @return {@code true} if the instance is indexed
+     */
+    public boolean contains(B instance) {
+        final Long id = idOf(instance);
+        return id != null && get(id) == instance;
+    }
+
+    /**
+     * Indexes the given {@code instance}, replacing any instance with the same identifier.
+     *
+     * @param instance the graph instance
+     * @return the previously indexed instance with the same identifier or {@code null}
+     */
+    public B put(B instance) {
+        final Long id = idOf(instance);
+        if (id == null) {
+            return null;
+        }
+        sequence.accumulateAndGet(id, Math::max);
+        final long stamp = lock.writeLock();
+        try {
+            return instances.put(id, instance);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the given {@code instance} from the index.
+     *
+     * @param instance the graph instance
+     * @return {@code true} if the instance was indexed
+     */
+    public boolean remove(B instance) {
+        final Long id = idOf(instance);
+        if (id == null) {
+            return false;
+        }
+        final long stamp = lock.writeLock();
+        try {
+            if (instances.get(id) != instance) {
+                return false;
+            }
+            instances.remove(id);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes all the indexed instances.
+     */
+    void clear() {
+        final long stamp = lock.writeLock();
+        try {
+            instances.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Reserves the given identifier for an instance to be indexed, advancing the identifier
+     * sequence past it. The reservation holds until {@link #release(long) released}.
+     *
+     * @param id the identifier
+     * @return {@code false} if the identifier is already indexed or reserved
+     */
+    public boolean reserve(long id) {
+        final long stamp = lock.writeLock();
+        try {
+            if (instances.get(id) != null || reserved.get(id) != null) {
+                return false;
+            }
+            reserved.put(id, Boolean.TRUE);
+            sequence.accumulateAndGet(id, Math::max);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Releases the given identifier reservation, once the instance is indexed or its
+     * creation discarded.
+     *
+     * @param id the reserved identifier
+     */
+    public void release(long id) {
+        final long stamp = lock.writeLock();
+        try {
+            reserved.remove(id);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Allocates and {@link #reserve(long) reserves} an identifier greater than all the
+     * identifiers indexed or reserved so far.
+     *
+     * @return the allocated identifier
+     */
+    public long nextId() {
+        long id;
+        do {
+            id = sequence.incrementAndGet();
+        } while (!reserve(id));
+        return id;
+    }
+
+    public int size() {
+        return instances.size();
+    }
+
+    /**
+     * Reads the identifier of the given instance.
+     *
+     * @param instance the graph instance
+     * @return the instance identifier or {@code null} if not set
+     */
+    private Long idOf(B instance) {
+        final Object id = idField.read(instance);
+        return id == null ? null : ((Number) id).longValue();
+    }
+}
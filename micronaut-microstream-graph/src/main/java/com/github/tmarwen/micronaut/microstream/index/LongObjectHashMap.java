@@ -0,0 +1,235 @@
+package com.github.tmarwen.micronaut.microstream.index;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map with primitive {@code long} keys.
+ *
+ * <p>Keys are stored unboxed in a flat array and collisions are resolved by linear probing,
+ * so lookups do not allocate. Removals use backward shift deletion, hence no tombstones.
+ * This map is not thread-safe.
+ *
+ * @param <V> the value type
+ * @since 1.0.0
+ */
+final class LongObjectHashMap<V> {
+
+    /**
+     * The default initial capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * The maximum fill ratio before the tables get resized.
+     */
+    private static final float LOAD_FACTOR = 0.6f;
+
+    /**
+     * The keys table.
+     */
+    private long[] keys;
+
+    /**
+     * The values table, a {@code null} value marks a free slot.
+     */
+    private Object[] values;
+
+    /**
+     * The number of mappings.
+     */
+    private int size;
+
+    /**
+     * The size beyond which the tables get resized.
+     */
+    private int threshold;
+
+    LongObjectHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    LongObjectHashMap(int expectedSize) {
+        allocate(tableSize(expectedSize));
+    }
+
+    /**
+     * Returns the value mapped to the given {@code key}.
+     *
+     * <p>Probing is bounded by the table length so that a lookup racing with a writer
+     * always terminates, possibly with an inconsistent result the caller has to validate.
+     *
+     * @param key the key
+     * @return the mapped value or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        final long[] keys = this.keys;
+        final Object[] values = this.values;
+        final int mask = Math.min(keys.length, values.length) - 1;
+        int slot = slot(key, mask);
+        for (int probes = 0; probes <= mask; probes++) {
+            final Object value = values[slot];
+            if (value == null) {
+                return null;
+            }
+            if (keys[slot] == key) {
+                return (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Maps the given {@code value} to the given {@code key}.
+     *
+     * @param key   the key
+     * @param value the value, must not be {@code null}
+     * @return the previously mapped value or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        final int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                final V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > threshold) {
+            resize(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the mapping of the given {@code key}.
+     *
+     * @param key the key
+     * @return the removed value or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        final int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                final V previous = (V) values[slot];
+                shiftBack(slot, mask);
+                size--;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Removes all the mappings.
+     */
+    void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Fills the freed {@code slot} with the following entries of its probe sequence.
+     *
+     * @param slot the freed slot
+     * @param mask the table mask
+     */
+    private void shiftBack(int slot, int mask) {
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (values[next] != null) {
+            final int ideal = slot(keys[next], mask);
+            // move the entry back if its ideal slot is not between the free slot and itself
+            if (((next - ideal) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[free] = null;
+    }
+
+    /**
+     * Rehashes all mappings in tables of the given capacity.
+     *
+     * @param capacity the new capacity, a power of two
+     */
+    private void resize(int capacity) {
+        final long[] oldKeys = keys;
+        final Object[] oldValues = values;
+        final long[] newKeys = new long[capacity];
+        final Object[] newValues = new Object[capacity];
+        final int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i], mask);
+                while (newValues[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                newKeys[slot] = oldKeys[i];
+                newValues[slot] = oldValues[i];
+            }
+        }
+        // publish the keys first: readers bound their probes by the smallest table
+        keys = newKeys;
+        values = newValues;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Allocates empty tables of the given capacity.
+     *
+     * @param capacity the capacity, a power of two
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Returns the power of two table size holding the expected number of mappings.
+     *
+     * @param expectedSize the expected number of mappings
+     * @return the table size
+     */
+    private static int tableSize(int expectedSize) {
+        final int minimum = Math.max(DEFAULT_CAPACITY, (int) Math.ceil(expectedSize / LOAD_FACTOR));
+        return Integer.highestOneBit(minimum - 1) << 1;
+    }
+
+    /**
+     * Returns the home slot of the given {@code key}.
+     *
+     * @param key  the key
+     * @param mask the table mask
+     * @return the slot index
+     */
+    private static int slot(long key, int mask) {
+        // murmur3 finalizer to spread sequential identifiers
+        long hash = key;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb34fa5ec8e53L;
+        hash ^= hash >>> 33;
+        return (int) hash & mask;
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.tmarwen.micronaut.microstream.index;
+
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.runtime.StorageCommitEvent;
+import io.micronaut.context.event.ApplicationEventListener;
+
+import javax.inject.Singleton;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the sorted range indexes of graph lists whose elements declare a
+ * {@link com.github.tmarwen.micronaut.microstream.annotation.RangeIndexed} property.
+ *
+ * <p>Indexes are built upon first range query of a list and weakly bound to it so that they
+ * do not outlive the graph list they index. Lists stored through the
+ * {@link com.github.tmarwen.micronaut.microstream.runtime.GraphStorer} get their index
+ * verified upon next query.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+public class RangeIndexes implements ApplicationEventListener<StorageCommitEvent> {
+
+    /**
+     * The list indexes by list identity.
+     */
+    private final Map<ListKey, SortedListIndex<?>> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * The queue of reclaimed graph lists.
+     */
+    private final ReferenceQueue<List<?>> reclaimed = new ReferenceQueue<>();
+
+    /**
+     * Returns the elements of the given {@code list} whose key is within the given bounds.
+     *
+     * @param list     the graph list
+     * @param keyField the range indexed property of the list elements
+     * @param since    the inclusive lower bound or {@code null}
+     * @param until    the inclusive upper bound or {@code null}
+     * @param <T>      the element type
+     * @return a view of the matching elements in key order
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> range(List<T> list, GraphField<T, Instant> keyField, Instant since, Instant until) {
+        expungeReclaimed();
+        final SortedListIndex<T> index = (SortedListIndex<T>) indexes.computeIfAbsent(
+                new ListKey(list, reclaimed),
+                key -> new SortedListIndex<>(keyField)
+        );
+        return index.range(list, since, until);
+    }
+
+    @Override
+    public void onApplicationEvent(StorageCommitEvent event) {
+        for (Object stored : event.getObjects()) {
+            if (stored instanceof List) {
+                final SortedListIndex<?> index = indexes.get(new ListKey((List<?>) stored, null));
+                if (index != null) {
+                    index.invalidate();
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the indexes of the reclaimed graph lists.
+     */
+    private void expungeReclaimed() {
+        Reference<? extends List<?>> reference;
+        while ((reference = reclaimed.poll()) != null) {
+            indexes.remove(reference);
+        }
+    }
+
+    /**
+     * Weak identity key of a graph list.
+     */
+    private static final class ListKey extends WeakReference<List<?>> {
+
+        private final int hash;
+
+        ListKey(List<?> list, ReferenceQueue<List<?>> queue) {
+            super(list, queue);
+            this.hash = System.identityHashCode(list);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ListKey)) {
+                return false;
+            }
+            final List<?> list = get();
+            return list != null && list == ((ListKey) other).get();
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.github.tmarwen.micronaut.microstream.index;
+
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+
+import java.lang.ref.WeakReference;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Sorted index of the positions of a graph list elements by their epoch-nanos key.
+ *
+ * <p>Keys and positions are held in flat primitive arrays and range queries are resolved by
+ * binary search, returning a view over the graph list. Elements appended to the list since
+ * the last refresh are merged incrementally; any other change triggers a full rebuild.
+ *
+ * @param <T> the list element type
+ * @since 1.0.0
+ */
+final class SortedListIndex<T> {
+
+    /**
+     * The key property of the list elements.
+     */
+    private final GraphField<T, Instant> keyField;
+
+    /**
+     * The last indexed element, used to detect non-append changes.
+     */
+    private WeakReference<T> lastElement = new WeakReference<>(null);
+
+    /**
+     * The sorted element keys.
+     */
+    private long[] keys = new long[0];
+
+    /**
+     * The element positions in the list, in key order.
+     */
+    private int[] positions = new int[0];
+
+    /**
+     * The number of indexed elements, elements without key are not indexed.
+     */
+    private int size;
+
+    /**
+     * The list length upon last refresh.
+     */
+    private int listLength;
+
+    /**
+     * Whether the list was stored since the last refresh, forcing a rebuild unless it was
+     * appended to.
+     */
+    private boolean stale;
+
+    SortedListIndex(GraphField<T, Instant> keyField) {
+        this.keyField = keyField;
+    }
+
+    /**
+     * Marks this index for verification upon next query.
+     */
+    synchronized void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Returns the elements of the given {@code list} whose key is within the given bounds,
+     * in key order.
+     *
+     * @param list  the indexed list
+     * @param since the inclusive lower bound or {@code null}
+     * @param until the inclusive upper bound or {@code null}
+     * @return a view of the matching elements
+     */
+    synchronized List<T> range(List<T> list, Instant since, Instant until) {
+        refresh(list);
+        final int from = since == null ? 0 : lowerBound(epochNanos(since));
+        final int to = until == null ? size : upperBound(epochNanos(until));
+        if (from >= to) {
+            return Collections.emptyList();
+        }
+        return new RangeView<>(list, positions, from, to);
+    }
+
+    /**
+     * Brings this index up to date with the given {@code list}.
+     *
+     * @param list the indexed list
+     */
+    private void refresh(List<T> list) {
+        final int listSize = list.size();
+        // a grown list with an unchanged tail element is assumed to have been appended to
+        final boolean appended = listSize > listLength
+                && (listLength == 0 || list.get(listLength - 1) == lastElement.get());
+        if (appended) {
+            merge(list, listLength, listSize);
+        } else if (listSize != listLength || stale) {
+            // rebuild in new arrays, views handed out so far keep the previous ones
+            keys = new long[0];
+            positions = new int[0];
+            size = 0;
+            merge(list, 0, listSize);
+        }
+        stale = false;
+        listLength = listSize;
+        lastElement = new WeakReference<>(listSize == 0 ? null : list.get(listSize - 1));
+    }
+
+    /**
+     * Merges the elements of the given {@code list} between {@code from} and {@code to}
+     * in the index.
+     *
+     * @param list the indexed list
+     * @param from the first element position (inclusive)
+     * @param to   the last element position (exclusive)
+     */
+    private void merge(List<T> list, int from, int to) {
+        final int count = to - from;
+        final long[] newKeys = new long[count];
+        final int[] newPositions = new int[count];
+        int added = 0;
+        for (int position = from; position < to; position++) {
+            final T element = list.get(position);
+            final Instant key = element == null ? null : keyField.read(element);
+            if (key != null) {
+                newKeys[added] = epochNanos(key);
+                newPositions[added++] = position;
+            }
+        }
+        sort(newKeys, newPositions, 0, added - 1);
+        // in-place append when the new keys all sort after the indexed ones: the ranges of the
+        // views handed out so far are left untouched
+        final boolean inPlace = size > 0
+                && size + added <= keys.length
+                && (added == 0 || keys[size - 1] <= newKeys[0]);
+        if (inPlace) {
+            System.arraycopy(newKeys, 0, keys, size, added);
+            System.arraycopy(newPositions, 0, positions, size, added);
+        } else {
+            final int capacity = (size + added) * 3 / 2;
+            final long[] mergedKeys = new long[capacity];
+            final int[] mergedPositions = new int[capacity];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < size || j < added) {
+                if (j >= added || (i < size && keys[i] <= newKeys[j])) {
+                    mergedKeys[k] = keys[i];
+                    mergedPositions[k++] = positions[i++];
+                } else {
+                    mergedKeys[k] = newKeys[j];
+                    mergedPositions[k++] = newPositions[j++];
+                }
+            }
+            keys = mergedKeys;
+            positions = mergedPositions;
+        }
+        size += added;
+    }
+
+    /**
+     * Returns the index of the first key greater than or equal to the given one.
+     *
+     * @param key the searched key
+     * @return the lower bound index
+     */
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (keys[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first key strictly greater than the given one.
+     *
+     * @param key the searched key
+     * @return the upper bound index
+     */
+    private int upperBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (keys[middle] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Sorts the given parallel arrays by key, keeping equal keys in position order.
+     *
+     * @param keys      the keys
+     * @param positions the positions
+     * @param low       the first index (inclusive)
+     * @param high      the last index (inclusive)
+     */
+    private static void sort(long[] keys, int[] positions, int low, int high) {
+        while (high - low > 16) {
+            final int middle = (low + high) >>> 1;
+            final long pivotKey = keys[middle];
+            final int pivotPosition = positions[middle];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (compare(keys, positions, i, pivotKey, pivotPosition) < 0) {
+                    i++;
+                }
+                while (compare(keys, positions, j, pivotKey, pivotPosition) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(keys, positions, i++, j--);
+                }
+            }
+            // recurse on the smaller partition to bound the stack depth
+            if (j - low < high - i) {
+                sort(keys, positions, low, j);
+                low = i;
+            } else {
+                sort(keys, positions, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            for (int j = i; j > low && compare(keys, positions, j - 1, keys[j], positions[j]) > 0; j--) {
+                swap(keys, positions, j, j - 1);
+            }
+        }
+    }
+
+    /**
+     * Compares the entry at the given index to the given key and position.
+     */
+    private static int compare(long[] keys, int[] positions, int index, long key, int position) {
+        final int byKey = Long.compare(keys[index], key);
+        return byKey != 0 ? byKey : Integer.compare(positions[index], position);
+    }
+
+    /**
+     * Swaps the entries at the given indexes.
+     */
+    private static void swap(long[] keys, int[] positions, int i, int j) {
+        final long key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        final int position = positions[i];
+        positions[i] = positions[j];
+        positions[j] = position;
+    }
+
+    /**
+     * Converts the given instant to its saturated epoch nanoseconds.
+     *
+     * @param instant the instant
+     * @return the epoch nanoseconds
+     */
+    static long epochNanos(Instant instant) {
+        try {
+            return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+        } catch (ArithmeticException e) {
+            return instant.getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * A read-only view of a graph list range in key order.
+     *
+     * @param <T> the element type
+     */
+    private static final class RangeView<T> extends AbstractList<T> implements RandomAccess {
+
+        private final List<T> list;
+        private final int[] positions;
+        private final int from;
+        private final int to;
+
+        RangeView(List<T> list, int[] positions, int from, int to) {
+            this.list = list;
+            // the positions array may be appended to in-place, the viewed range never changes
+            this.positions = positions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return list.get(positions[from + index]);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public Object[] toArray() {
+            return Arrays.stream(positions, from, to).mapToObj(list::get).toArray();
+        }
+    }
+}
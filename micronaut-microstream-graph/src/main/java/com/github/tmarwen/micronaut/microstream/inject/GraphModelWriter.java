@@ -0,0 +1,313 @@
+package com.github.tmarwen.micronaut.microstream.inject;
+
+import com.github.tmarwen.micronaut.microstream.annotation.Connection;
+import com.github.tmarwen.micronaut.microstream.annotation.Indexed;
+import com.github.tmarwen.micronaut.microstream.annotation.RangeIndexed;
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
+import com.github.tmarwen.micronaut.microstream.model.GraphType;
+import io.micronaut.core.naming.NameUtils;
+import io.micronaut.inject.ast.ClassElement;
+import io.micronaut.inject.ast.PropertyElement;
+import io.micronaut.inject.visitor.VisitorContext;
+import io.micronaut.inject.writer.GeneratedFile;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Writes the Java source of the {@link GraphModel} describing a MicroStream graph.
+ *
+ * <p>The generated model holds one {@link GraphField} subclass per bean property with
+ * direct getter invocations and the GraphQL type names resolved at compile time.
+ *
+ * @since 1.0.0
+ */
+final class GraphModelWriter {
+
+    /**
+     * The generated graph model class name suffix.
+     */
+    static final String MODEL_SUFFIX = "$GraphModel";
+
+    /**
+     * The MicroStream lazy reference type name.
+     */
+    static final String LAZY_TYPE = "one.microstream.reference.Lazy";
+
+    /**
+     * The lazy reference tracker type name.
+     */
+    private static final String LAZY_TRACKER_TYPE = "com.github.tmarwen.micronaut.microstream.runtime.LazyTracker";
+
+    /**
+     * Mapping of JVM scalar types to their GraphQL scalar type names.
+     */
+    private static final Map<String, String> SCALAR_TYPES = new HashMap<>() {{
+        this.put(boolean.class.getName(), "Boolean");
+        this.put(Boolean.class.getName(), "Boolean");
+        this.put(byte.class.getName(), "Byte");
+        this.put(Byte.class.getName(), "Byte");
+        this.put(int.class.getName(), "Int");
+        this.put(Integer.class.getName(), "Int");
+        this.put(short.class.getName(), "Short");
+        this.put(Short.class.getName(), "Short");
+        this.put(java.math.BigInteger.class.getName(), "BigInteger");
+        this.put(java.math.BigDecimal.class.getName(), "BigDecimal");
+        this.put(double.class.getName(), "Float");
+        this.put(Double.class.getName(), "Float");
+        this.put(float.class.getName(), "Float");
+        this.put(Float.class.getName(), "Float");
+        this.put(char.class.getName(), "Char");
+        this.put(Character.class.getName(), "Char");
+    }};
+
+    /**
+     * Mapping of primitive types to their wrapper types.
+     */
+    private static final Map<String, String> BOXED_TYPES = new HashMap<>() {{
+        this.put(boolean.class.getName(), Boolean.class.getName());
+        this.put(byte.class.getName(), Byte.class.getName());
+        this.put(char.class.getName(), Character.class.getName());
+        this.put(short.class.getName(), Short.class.getName());
+        this.put(int.class.getName(), Integer.class.getName());
+        this.put(long.class.getName(), Long.class.getName());
+        this.put(float.class.getName(), Float.class.getName());
+        this.put(double.class.getName(), Double.class.getName());
+    }};
+
+    /**
+     * The graph root type.
+     */
+    private final ClassElement root;
+
+    /**
+     * All the graph types, the root type included.
+     */
+    private final List<ClassElement> types;
+
+    /**
+     * Predicate telling whether a type is a graph type.
+     */
+    private final Predicate<ClassElement> graphTypePredicate;
+
+    GraphModelWriter(ClassElement root,
+                     List<ClassElement> types,
+                     Predicate<ClassElement> graphTypePredicate) {
+        this.root = root;
+        this.types = types;
+        this.graphTypePredicate = graphTypePredicate;
+    }
+
+    /**
+     * Writes the graph model source file and registers it as a {@link GraphModel} service.
+     *
+     * @param context the visitor context
+     */
+    void write(VisitorContext context) {
+        final String packageName = root.getPackageName();
+        final String simpleName = "$" + root.getSimpleName() + MODEL_SUFFIX;
+        final Optional<GeneratedFile> generatedFile = context.visitGeneratedSourceFile(packageName, simpleName);
+        if (!generatedFile.isPresent()) {
+            context.fail("Cannot generate MicroStream graph model for root type.", root);
+            return;
+        }
+        try (Writer writer = generatedFile.get().openWriter()) {
+            writer.write(source(packageName, simpleName));
+        } catch (IOException e) {
+            context.fail("Error writing MicroStream graph model: " + e.getMessage(), root);
+            return;
+        }
+        context.visitServiceDescriptor(GraphModel.class, packageName + "." + simpleName);
+    }
+
+    /**
+     * Builds the graph model source code.
+     *
+     * @param packageName the generated class package
+     * @param simpleName  the generated class simple name
+     * @return the Java source
+     */
+    private String source(String packageName, String simpleName) {
+        final StringBuilder source = new StringBuilder();
+        final List<String> typeDeclarations = new ArrayList<>();
+        final StringBuilder fieldClasses = new StringBuilder();
+        for (ClassElement type : types) {
+            final List<String> fieldInstances = new ArrayList<>();
+            for (PropertyElement property : type.getBeanProperties()) {
+                final String fieldClass = type.getSimpleName() + "_" + property.getName();
+                fieldInstances.add("new " + fieldClass + "()");
+                writeField(fieldClasses, type, property, fieldClass);
+            }
+            typeDeclarations.add("new GraphType<>(\"" + type.getSimpleName() + "\", "
+                    + type.getCanonicalName() + ".class, "
+                    + type.getName().equals(root.getName()) + ", "
+                    + type.hasAnnotation(Indexed.class) + ", "
+                    + "Arrays.<GraphField<" + type.getCanonicalName() + ", ?>>asList("
+                    + String.join(", ", fieldInstances) + "))");
+        }
+        source.append("package ").append(packageName).append(";\n\n")
+                .append("import ").append(GraphField.class.getName()).append(";\n")
+                .append("import ").append(GraphModel.class.getName()).append(";\n")
+                .append("import ").append(GraphType.class.getName()).append(";\n")
+                .append("import graphql.schema.DataFetchingEnvironment;\n\n")
+                .append("import java.util.Arrays;\n")
+                .append("import java.util.List;\n\n")
+                .append("public final class ").append(simpleName).append(" implements GraphModel {\n\n")
+                .append("    private final List<GraphType<?>> types = Arrays.<GraphType<?>>asList(\n            ")
+                .append(String.join(",\n            ", typeDeclarations))
+                .append("\n    );\n\n")
+                .append("    @Override\n")
+                .append("    public Class<?> getRootType() {\n")
+                .append("        return ").append(root.getCanonicalName()).append(".class;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public List<GraphType<?>> getTypes() {\n")
+                .append("        return types;\n")
+                .append("    }\n")
+                .append(fieldClasses)
+                .append("}\n");
+        return source.toString();
+    }
+
+    /**
+     * Writes the strongly typed {@link GraphField} class for the given {@code property}.
+     *
+     * @param out        the source output
+     * @param type       the declaring type
+     * @param property   the bean property
+     * @param fieldClass the generated field class name
+     */
+    private void writeField(StringBuilder out, ClassElement type, PropertyElement property, String fieldClass) {
+        final boolean lazy = isLazy(property.getType());
+        final ClassElement propertyType = subjectType(property.getType());
+        final boolean list = propertyType.isIterable() && !propertyType.isArray();
+        final ClassElement elementType = list ? propertyType.getFirstTypeArgument().orElse(null) : propertyType;
+        final boolean object = elementType != null && graphTypePredicate.test(elementType);
+        final String typeName;
+        if (object) {
+            typeName = elementType.getSimpleName();
+        } else {
+            typeName = scalarTypeName(property.getName(), elementType);
+        }
+        final boolean connection = list && property.hasAnnotation(Connection.class);
+        final boolean rangeIndexed = !list && property.hasAnnotation(RangeIndexed.class);
+        final String beanType = type.getCanonicalName();
+        final String valueType = sourceTypeName(propertyType);
+        final String getter = getterName(property);
+        out.append("\n    static final class ").append(fieldClass)
+                .append(" extends GraphField<").append(beanType).append(", ").append(valueType).append("> {\n\n")
+                .append("        ").append(fieldClass).append("() {\n")
+                .append("            super(\"").append(property.getName()).append("\", \"").append(typeName)
+                .append("\", GraphField.Kind.").append(object ? "OBJECT" : "SCALAR")
+                .append(", ").append(list).append(", ").append(connection)
+                .append(", ").append(rangeIndexed).append(", ").append(lazy).append(");\n")
+                .append("        }\n\n")
+                .append("        @Override\n")
+                .append("        public ").append(valueType).append(" read(").append(beanType).append(" bean) {\n");
+        if (lazy) {
+            out.append("            return ").append(LAZY_TYPE).append(".get(bean.").append(getter).append("());\n")
+                    .append("        }\n\n")
+                    .append("        @Override\n")
+                    .append("        public ").append(valueType).append(" read(").append(beanType)
+                    .append(" bean, DataFetchingEnvironment environment) {\n")
+                    .append("            return ").append(LAZY_TRACKER_TYPE).append(".resolve(environment, bean.")
+                    .append(getter).append("());\n")
+                    .append("        }\n\n")
+                    .append("        @Override\n")
+                    .append("        public Object reference(").append(beanType).append(" bean) {\n")
+                    .append("            return bean.").append(getter).append("();\n");
+        } else {
+            out.append("            return bean.").append(getter).append("();\n");
+        }
+        out.append("        }\n\n")
+                .append("        @Override\n")
+                .append("        public ").append(valueType).append(" get(DataFetchingEnvironment environment) {\n")
+                .append("            final ").append(beanType).append(" source = environment.getSource();\n");
+        if (lazy) {
+            out.append("            return ").append(LAZY_TRACKER_TYPE).append(".resolve(environment, source.")
+                    .append(getter).append("());\n");
+        } else {
+            out.append("            return source.").append(getter).append("();\n");
+        }
+        out.append("        }\n")
+                .append("    }\n");
+    }
+
+    /**
+     * Returns whether the given type is a MicroStream lazy reference.
+     *
+     * @param type the type
+     * @return {@code true} if the type is a lazy reference
+     */
+    static boolean isLazy(ClassElement type) {
+        return type != null && LAZY_TYPE.equals(type.getName());
+    }
+
+    /**
+     * Returns the subject type of the given lazy reference type, or the type itself if it
+     * is not a lazy reference.
+     *
+     * @param type the type
+     * @return the subject type
+     */
+    static ClassElement subjectType(ClassElement type) {
+        if (isLazy(type)) {
+            return type.getFirstTypeArgument().orElse(type);
+        }
+        return type;
+    }
+
+    /**
+     * Resolves the GraphQL scalar type name of a property.
+     *
+     * @param name the property name
+     * @param type the property (or property element) type
+     * @return the GraphQL scalar type name
+     */
+    private String scalarTypeName(String name, ClassElement type) {
+        if ("id".equals(name)) {
+            return "ID";
+        }
+        if (type == null) {
+            return "String";
+        }
+        return SCALAR_TYPES.getOrDefault(type.getName(), "String");
+    }
+
+    /**
+     * Returns the source code representation of the given type, boxing primitives.
+     *
+     * @param type the type
+     * @return the source type name
+     */
+    private String sourceTypeName(ClassElement type) {
+        if (type.isPrimitive() && !type.isArray()) {
+            return BOXED_TYPES.getOrDefault(type.getName(), type.getName());
+        }
+        final Optional<ClassElement> typeArgument = type.getFirstTypeArgument();
+        if (type.isIterable() && !type.isArray() && typeArgument.isPresent()) {
+            return type.getCanonicalName() + "<" + sourceTypeName(typeArgument.get()) + ">";
+        }
+        return type.getCanonicalName();
+    }
+
+    /**
+     * Resolves the getter method name of the given property.
+     *
+     * @param property the bean property
+     * @return the getter method name
+     */
+    private String getterName(PropertyElement property) {
+        final ClassElement type = property.getType();
+        final String prefix = type.isPrimitive() && !type.isArray() && boolean.class.getName().equals(type.getName())
+                ? "is" : "get";
+        return prefix + NameUtils.capitalize(property.getName());
+    }
+}
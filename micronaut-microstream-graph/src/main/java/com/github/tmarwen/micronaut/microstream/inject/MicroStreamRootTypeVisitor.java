@@ -1,25 +1,46 @@
 package com.github.tmarwen.micronaut.microstream.inject;
 
+import com.github.tmarwen.micronaut.microstream.annotation.Indexed;
+import com.github.tmarwen.micronaut.microstream.annotation.RangeIndexed;
 import com.github.tmarwen.micronaut.microstream.annotation.Root;
+import com.github.tmarwen.micronaut.microstream.annotation.StorageManager;
 import io.micronaut.inject.ast.ClassElement;
+import io.micronaut.inject.ast.PropertyElement;
 import io.micronaut.inject.beans.visitor.IntrospectedTypeElementVisitor;
 import io.micronaut.inject.visitor.TypeElementVisitor;
 import io.micronaut.inject.visitor.VisitorContext;
 
+import java.time.Instant;
 import java.time.temporal.Temporal;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static com.github.tmarwen.micronaut.microstream.annotation.StorageManager.NAME_MEMBER;
+import static com.github.tmarwen.micronaut.microstream.annotation.StorageManager.ROOT_MEMBER;
 
 /**
  * A {@link TypeElementVisitor} that marks MicroStream graph types for bean introspection.
  *
+ * <p>A graph model is generated for each {@link Root} type as soon as its graph is visited, so
+ * that the generated source is compiled within a following processing round. The
+ * {@link StorageManager} annotated types are registered as services, resolving the storage
+ * manager holding each root at runtime. Each storage manager holds a single root, the graphs
+ * of distinct roots must not share any type and graph types must have distinct simple names,
+ * which are their GraphQL type names.
+ *
  * @since 1.0.0
  */
-public class MicroStreamRootTypeVisitor implements TypeElementVisitor<Root, Object> {
+public class MicroStreamRootTypeVisitor implements TypeElementVisitor<Object, Object> {
 
     /**
      * A list of Java wrapper types.
@@ -37,65 +58,223 @@ public class MicroStreamRootTypeVisitor implements TypeElementVisitor<Root, Obje
     }};
 
     /**
-     * A flag marking root type processing state.
+     * The types allowed for {@link Indexed} identifier properties.
+     */
+    private static final Set<String> INDEX_KEY_TYPES = new HashSet<>(Arrays.asList(
+            long.class.getName(),
+            Long.class.getName(),
+            int.class.getName(),
+            Integer.class.getName()
+    ));
+
+    /**
+     * The valid storage manager names, usable as GraphQL field names.
      */
-    private boolean marked;
+    private static final Pattern STORAGE_NAME = Pattern.compile("[_A-Za-z][_0-9A-Za-z]*");
 
     /**
-     * Cache for processed types.
+     * Cache for processed types, mapped to the root type they are reachable from.
      */
     private final Map<String, ClassElement> writtenTypes = new ConcurrentHashMap<>();
 
+    /**
+     * The visited root types by name.
+     */
+    private final Map<String, ClassElement> roots = new LinkedHashMap<>();
+
+    /**
+     * The graph types of each root in visiting order, by root type name.
+     */
+    private final Map<String, List<ClassElement>> graphTypes = new HashMap<>();
+
+    /**
+     * The {@link StorageManager} annotated types by bound root type name.
+     */
+    private final Map<String, ClassElement> storageManagers = new HashMap<>();
+
+    /**
+     * The graph types by simple name.
+     */
+    private final Map<String, ClassElement> typeNames = new HashMap<>();
+
     @Override
     public void start(VisitorContext visitorContext) {
-        this.marked = false;
+        this.writtenTypes.clear();
+        this.roots.clear();
+        this.graphTypes.clear();
+        this.storageManagers.clear();
+        this.typeNames.clear();
     }
 
     @Override
     public void visitClass(ClassElement element, VisitorContext context) {
-        if (!marked) {
+        if (element.hasAnnotation(StorageManager.class)) {
+            bindStorageManager(element, context);
+        }
+        if (element.hasAnnotation(Root.class) && !roots.containsKey(element.getName())) {
             context.info("Marking MicroStream graph types for introspection. Root: [" + element.getName() + "]");
-            visitClassElement(element, context);
+            roots.put(element.getName(), element);
+            graphTypes.put(element.getName(), new ArrayList<>());
+            visitClassElement(element, element, context);
             context.info("MicroStream graph types marked for introspection");
-            marked = true;
-        } else {
-            context.fail("Only one @Root type is allowed.", element);
+            new GraphModelWriter(element, graphTypes.get(element.getName()), this::isGraphType).write(context);
+            context.info("MicroStream graph model generated for root [" + element.getName() + "]");
+        }
+    }
+
+    @Override
+    public void finish(VisitorContext context) {
+        storageManagers.forEach((rootName, storageManager) -> {
+            if (!roots.containsKey(rootName)) {
+                context.fail("@StorageManager root type " + rootName + " must be annotated with @Root.", storageManager);
+            }
+        });
+        final Map<String, ClassElement> rootsByStorage = new HashMap<>();
+        for (ClassElement root : roots.values()) {
+            final String storageName = Optional.ofNullable(storageManagers.get(root.getName()))
+                    .flatMap(storageManager -> storageManager.stringValue(StorageManager.class, NAME_MEMBER))
+                    .orElse(StorageManager.DEFAULT_NAME);
+            final ClassElement other = rootsByStorage.putIfAbsent(storageName, root);
+            if (other != null) {
+                context.fail("Only one @Root type is allowed per storage manager, '" + storageName
+                        + "' already holds " + other.getName() + ".", root);
+            }
         }
     }
 
+    /**
+     * Binds the root type referenced by the given {@link StorageManager} annotated type to
+     * the named storage manager.
+     *
+     * @param element the storage manager annotated type
+     * @param context the visitor context
+     */
+    private void bindStorageManager(ClassElement element, VisitorContext context) {
+        final Optional<String> root = element.stringValue(StorageManager.class, ROOT_MEMBER);
+        final String name = element.stringValue(StorageManager.class, NAME_MEMBER).orElse(StorageManager.DEFAULT_NAME);
+        if (!root.isPresent()) {
+            context.fail("@StorageManager must declare its root type.", element);
+            return;
+        }
+        if (!STORAGE_NAME.matcher(name).matches()) {
+            context.fail("@StorageManager name '" + name + "' must be a valid GraphQL name.", element);
+            return;
+        }
+        final ClassElement previous = storageManagers.put(root.get(), element);
+        if (previous != null && !previous.getName().equals(element.getName())) {
+            context.fail("Root type " + root.get() + " is already bound to a storage manager by "
+                    + previous.getName() + ".", element);
+            return;
+        }
+        context.visitServiceDescriptor(StorageManager.class, element.getName());
+    }
+
     /**
      * Visits the given {@code element} and all its bean properties recursively for
      * introspection generation.
      *
+     * @param root    the root type the element is reachable from
      * @param element the declaring parent type
      * @param context the visitor context
      */
-    private void visitClassElement(ClassElement element, VisitorContext context) {
+    private void visitClassElement(ClassElement root, ClassElement element, VisitorContext context) {
+        if (element == null) {
+            return;
+        }
         // element already processed (or being processed)
-        if (element == null || writtenTypes.containsKey(element.getName())) {
+        final ClassElement owner = writtenTypes.get(element.getName());
+        if (owner != null) {
+            if (!owner.getName().equals(root.getName())) {
+                context.fail("Graph type " + element.getName() + " is reachable from both " + owner.getName()
+                        + " and " + root.getName() + " roots, storage manager graphs must be disjoint.", element);
+            }
             return;
         }
         // mark the type as written to avoid infinite loops
-        writtenTypes.put(element.getName(), element);
+        writtenTypes.put(element.getName(), root);
+        final ClassElement homonym = typeNames.putIfAbsent(element.getSimpleName(), element);
+        if (homonym != null) {
+            context.fail("Graph types " + homonym.getName() + " and " + element.getName() + " share the simple name "
+                    + element.getSimpleName() + ", graph types must have distinct simple names.", element);
+            return;
+        }
+        graphTypes.get(root.getName()).add(element);
         // visit the root type first
         IntrospectedTypeElementVisitor introspectedTypeElementVisitor = new IntrospectedTypeElementVisitor();
         introspectedTypeElementVisitor.visitClass(new IntrospectedDelegatingClassElement(element), context);
+        if (element.hasAnnotation(Indexed.class)) {
+            checkIndexed(element, context);
+        }
+        checkRangeIndexed(element, context);
         // recurse through all bean properties
         element.getBeanProperties().forEach(propertyElement -> {
-            ClassElement type = propertyElement.getType();
+            // lazy references are transparent, only their subject is part of the graph
+            if (GraphModelWriter.isLazy(propertyElement.getType())
+                    && !propertyElement.getType().getFirstTypeArgument().isPresent()) {
+                context.fail("Lazy property must declare its referenced type.", propertyElement);
+                return;
+            }
+            ClassElement type = GraphModelWriter.subjectType(propertyElement.getType());
             ClassElement concreteType;
             if (type.isIterable()) {
                 concreteType = type.getFirstTypeArgument().orElse(null);
             } else {
                 concreteType = type;
             }
-            if (isBean(concreteType)) {
-                visitClassElement(concreteType, context);
+            if (isGraphType(concreteType)) {
+                visitClassElement(root, concreteType, context);
             }
         });
         introspectedTypeElementVisitor.finish(context);
     }
 
+    /**
+     * Checks that the given {@link Indexed} type declares an integral identifier property.
+     *
+     * @param element the indexed type
+     * @param context the visitor context
+     */
+    private void checkIndexed(ClassElement element, VisitorContext context) {
+        final boolean validId = element.getBeanProperties().stream()
+                .filter(property -> Indexed.ID_PROPERTY.equals(property.getName()))
+                .map(property -> property.getType().getName())
+                .anyMatch(INDEX_KEY_TYPES::contains);
+        if (!validId) {
+            context.fail("@Indexed type must declare an '" + Indexed.ID_PROPERTY
+                    + "' property of type long, int or their wrappers.", element);
+        }
+    }
+
+    /**
+     * Checks that the {@link RangeIndexed} property of the given type, if any, is unique and
+     * of {@link Instant} type.
+     *
+     * @param element the graph type
+     * @param context the visitor context
+     */
+    private void checkRangeIndexed(ClassElement element, VisitorContext context) {
+        final List<PropertyElement> rangeProperties = element.getBeanProperties().stream()
+                .filter(property -> property.hasAnnotation(RangeIndexed.class))
+                .collect(Collectors.toList());
+        if (rangeProperties.size() > 1) {
+            context.fail("Only one @RangeIndexed property is allowed per type.", element);
+        }
+        rangeProperties.stream()
+                .filter(property -> !Instant.class.getName().equals(property.getType().getName()))
+                .forEach(property -> context.fail("@RangeIndexed property must be of type "
+                        + Instant.class.getName() + ".", property));
+    }
+
+    /**
+     * Returns whether the given type is part of the graph model, i.e. a POJO bean.
+     *
+     * @param type the type to check, may be {@code null} for unresolved type arguments
+     * @return {@code true} if the given type is a graph type
+     */
+    private boolean isGraphType(final ClassElement type) {
+        return type != null && !type.isIterable() && !GraphModelWriter.isLazy(type) && isBean(type);
+    }
+
     /**
      * Returns whether the given type is considered a POJO bean.
      *
@@ -151,7 +330,7 @@ public class MicroStreamRootTypeVisitor implements TypeElementVisitor<Root, Obje
 
     @Override
     public Set<String> getSupportedAnnotationNames() {
-        return Collections.singleton(Root.class.getName());
+        return new HashSet<>(Arrays.asList(Root.class.getName(), StorageManager.class.getName()));
     }
 
     @Override
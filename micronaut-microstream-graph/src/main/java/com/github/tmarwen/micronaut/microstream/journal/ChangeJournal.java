@@ -0,0 +1,601 @@
+package com.github.tmarwen.micronaut.microstream.journal;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.github.tmarwen.micronaut.microstream.configuration.JournalConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.configuration.MicroStreamConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.model.GraphType;
+import com.github.tmarwen.micronaut.microstream.model.GraphWalker;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphPartitions;
+import com.github.tmarwen.micronaut.microstream.runtime.StorageCommitEvent;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.ApplicationEventListener;
+import one.microstream.reference.Lazy;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Change-data-capture journal of the graph changes committed through the
+ * {@link com.github.tmarwen.micronaut.microstream.runtime.GraphStorer}, appended to memory-mapped
+ * segment files next to the storage so that readers outside of the JVM can tail it with a
+ * {@link JournalCursor}.
+ *
+ * <p>Each commit is recorded as a JSON document listing the changed objects by partition and
+ * MicroStream object identifier:
+ * <pre>
+ * {"timestamp":1618317000000,"changes":[
+ *   {"op":"store","partition":0,"objectId":1000000000000001234,"type":"Message","fields":{"text":"Hi","thread":1000000000000000042}},
+ *   {"op":"store","partition":0,"objectId":1000000000000000051,"type":"List","appended":[1000000000000001234]},
+ *   {"op":"remove","partition":0,"objectId":1000000000000000999,"type":"Message"}]}
+ * </pre>
+ * Only the fields whose value changed since they were last journaled are recorded, as per the
+ * {@link GraphType} fields compiled from the bean introspections: scalar values as is,
+ * references and lists by object identifier. Lists are objects of their own, recorded with all
+ * their elements or only the appended ones. The changes of a record are to be applied as a
+ * whole: a change may reference the objects created by a later one, such as a list journaled
+ * before the new objects it holds.
+ *
+ * <p>A 64-bit hash of each field value last journaled is held in memory, along with the size
+ * and hash of each list, seeded upon creation by walking the graph. Only the explicitly stored
+ * instances and the ones they newly reference are compared with them upon commit. A new
+ * journal starts with a baseline of the whole loaded graph, in records of at most
+ * {@value #BASELINE_CHUNK} changes. Unloaded {@link Lazy} references are not walked, the
+ * instances only reachable through them are journaled when they get stored.
+ *
+ * <p>Records are appended once the storage commit succeeded, so the journal falls behind the
+ * storage when the application stops in between or when a record cannot be appended. The
+ * latter is logged without failing the commit, and the {@value #OPEN_MARKER} marker file of the
+ * journal directory, only deleted once closed up to date, tells the former upon opening. Either
+ * way the whole loaded graph is journaled again as a catch-up baseline, before the next commit
+ * or upon opening: applying the stored objects, lists holding all their elements, overwrites
+ * the missed changes, including the detachment of the removed objects.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+@Requires(property = JournalConfigurationProperties.PREFIX + ".enabled", value = "true")
+public class ChangeJournal implements ApplicationEventListener<StorageCommitEvent> {
+
+    /**
+     * The type name of the journaled lists.
+     */
+    public static final String LIST_TYPE = "List";
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeJournal.class);
+
+    /**
+     * The shared JSON factory, thread-safe once configured.
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * The maximum number of changes of a baseline record.
+     */
+    private static final int BASELINE_CHUNK = 1024;
+
+    /**
+     * The name of the marker file telling that the journal is open or fell behind the storage.
+     */
+    private static final String OPEN_MARKER = "journal.open";
+
+    /**
+     * The hash of the {@code null} values.
+     */
+    private static final long NULL_HASH = 0x9e3779b97f4a7c15L;
+
+    /**
+     * The storage manager whose commits are journaled.
+     */
+    private final EmbeddedStorageManager storageManager;
+
+    /**
+     * The root graph partitions, resolving the object identifiers.
+     */
+    private final GraphPartitions partitions;
+
+    /**
+     * The graph walker.
+     */
+    private final GraphWalker graphWalker;
+
+    /**
+     * The journal directory.
+     */
+    private final Path directory;
+
+    /**
+     * The journal segment files.
+     */
+    private final JournalFile file;
+
+    /**
+     * Whether each record is forced to disk.
+     */
+    private final boolean sync;
+
+    /**
+     * The hashes of the field values last journaled of the graph instances of each partition,
+     * by object identifier.
+     */
+    private final List<Map<Long, long[]>> states = new ArrayList<>();
+
+    /**
+     * The size and hash of the lists last journaled of each partition, by object identifier.
+     */
+    private final List<Map<Long, long[]>> lists = new ArrayList<>();
+
+    /**
+     * Whether a record failed to be appended since the journal was last seeded.
+     */
+    private boolean behind;
+
+    public ChangeJournal(EmbeddedStorageManager storageManager,
+                         GraphPartitions partitions,
+                         GraphWalker graphWalker,
+                         MicroStreamConfigurationProperties storageConfiguration,
+                         JournalConfigurationProperties configuration) {
+        this.storageManager = storageManager;
+        this.partitions = partitions;
+        this.graphWalker = graphWalker;
+        this.directory = Paths.get(configuration.getDirectory() != null
+                ? configuration.getDirectory()
+                : storageConfiguration.getStorageDirectory() + "-journal");
+        this.sync = configuration.isSync();
+        final boolean unclosed;
+        try {
+            this.file = new JournalFile(directory, configuration.getSegmentSize(),
+                    configuration.getRetainedSegments());
+            final Path marker = directory.resolve(OPEN_MARKER);
+            unclosed = Files.exists(marker);
+            if (!unclosed) {
+                Files.createFile(marker);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open MicroStream change journal in '" + directory + "'", e);
+        }
+        for (int partition = 0; partition < partitions.getCount(); partition++) {
+            states.add(new HashMap<>());
+            lists.add(new HashMap<>());
+        }
+        if (unclosed && file.getLastSequence() > 0) {
+            LOGGER.warn("MicroStream change journal in '{}' was not closed, it may miss the last commits "
+                    + "and gets caught up with the storage", directory);
+        }
+        seed(unclosed || file.getLastSequence() == 0);
+    }
+
+    /**
+     * @return the journal directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return the sequence of the last journaled record, {@code 0} if none
+     */
+    public synchronized long getLastSequence() {
+        return file.getLastSequence();
+    }
+
+    /**
+     * Opens a cursor on this journal, positioned after the given record sequence.
+     *
+     * @param sequence the sequence of the last handled record, {@code 0} to read the journal from its start
+     * @return the journal cursor
+     * @throws IOException if the journal cannot be read
+     */
+    public JournalCursor cursor(long sequence) throws IOException {
+        return new JournalCursor(directory, sequence);
+    }
+
+    @Override
+    public synchronized void onApplicationEvent(StorageCommitEvent event) {
+        if (event.getSource() != storageManager) {
+            return;
+        }
+        if (behind) {
+            // the whole graph, this commit included, is journaled again
+            seed(true);
+            return;
+        }
+        final List<Change> changes = new ArrayList<>();
+        for (Object instance : event.getRemoved()) {
+            final GraphType<?> type = graphWalker.typeOf(instance);
+            final int partition = partitions.holderOf(instance);
+            if (type != null && partition >= 0) {
+                final long objectId = partitions.objectIdOf(partition, instance);
+                states.get(partition).remove(objectId);
+                changes.add(new Change("remove", partition, objectId, type.getName()));
+            }
+        }
+        for (Object instance : event.getObjects()) {
+            if (instance instanceof Collection) {
+                final int partition = partitions.holderOf(instance);
+                if (partition >= 0) {
+                    journalList(changes, partition, partitions.objectIdOf(partition, instance), (Collection<?>) instance);
+                }
+            }
+        }
+        // explicitly stored instances are always journaled and walked, referenced ones only if not
+        // yet journaled: the already journaled elements of a stored list are neither diffed nor walked
+        final Set<Object> stored = Collections.newSetFromMap(new IdentityHashMap<>());
+        stored.addAll(event.getObjects());
+        graphWalker.walk(
+                event.getObjects(),
+                // journaled while deciding whether to descend, so that skipped instances are not visited
+                (type, instance) -> { },
+                (type, instance) -> {
+                    if (!stored.contains(instance) && isJournaled(instance)) {
+                        return false;
+                    }
+                    journalObject(changes, type, instance);
+                    return true;
+                }
+        );
+        append(changes);
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        file.close();
+        if (!behind) {
+            try {
+                Files.deleteIfExists(directory.resolve(OPEN_MARKER));
+            } catch (IOException e) {
+                LOGGER.warn("Cannot delete the marker file of MicroStream change journal in '{}'", directory, e);
+            }
+        }
+    }
+
+    /**
+     * Seeds the journaled states from the graph, optionally appending them as a baseline.
+     *
+     * @param baseline whether the whole loaded graph is appended
+     */
+    private synchronized void seed(boolean baseline) {
+        final long start = System.nanoTime();
+        behind = false;
+        states.forEach(Map::clear);
+        lists.forEach(Map::clear);
+        final List<Change> changes = new ArrayList<>();
+        graphWalker.walk(
+                partitions.getRoots(),
+                (type, instance) -> {
+                    journalObject(changes, type, instance);
+                    if (changes.size() >= BASELINE_CHUNK) {
+                        flush(changes, baseline);
+                    }
+                },
+                (type, instance) -> true
+        );
+        flush(changes, baseline);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("MicroStream change journal seeded with {} object(s){} in {} ms",
+                    states.stream().mapToInt(Map::size).sum(), baseline ? " as baseline" : "",
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Appends the given changes if required, then clears them.
+     *
+     * @param changes the changes
+     * @param append  whether the changes are appended
+     */
+    private void flush(List<Change> changes, boolean append) {
+        if (append) {
+            append(changes);
+        }
+        changes.clear();
+    }
+
+    /**
+     * Journals the fields of the given graph instance which changed since last journaled.
+     *
+     * @param changes  the changes to append
+     * @param type     the instance graph type
+     * @param instance the graph instance
+     * @param <B>      the bean type
+     */
+    private <B> void journalObject(List<Change> changes, GraphType<B> type, Object instance) {
+        final int partition = partitions.holderOf(instance);
+        if (partition < 0) {
+            return;
+        }
+        final long objectId = partitions.objectIdOf(partition, instance);
+        final B bean = type.getBeanType().cast(instance);
+        final List<GraphField<B, ?>> fields = type.getFields();
+        final long[] hashes = new long[fields.size()];
+        final long[] previous = states.get(partition).put(objectId, hashes);
+        final Map<String, Object> delta = new LinkedHashMap<>();
+        for (int i = 0; i < hashes.length; i++) {
+            final Object value = value(changes, partition, fields.get(i), bean);
+            hashes[i] = hash(value);
+            if (previous == null || previous.length != hashes.length || previous[i] != hashes[i]) {
+                delta.put(fields.get(i).getName(), value);
+            }
+        }
+        if (previous == null || !delta.isEmpty()) {
+            changes.add(new Change("store", partition, objectId, type.getName()).fields(delta));
+        }
+    }
+
+    /**
+     * Returns the journaled value of the given field: the scalar value itself or the object
+     * identifier of the referenced object or list. Lists not journaled yet are journaled along.
+     *
+     * @param changes   the changes to append
+     * @param partition the partition holding the bean
+     * @param field     the graph field
+     * @param bean      the declaring bean instance
+     * @param <B>       the bean type
+     * @return the journaled value
+     */
+    private <B> Object value(List<Change> changes, int partition, GraphField<B, ?> field, B bean) {
+        if (field.getKind() == GraphField.Kind.SCALAR) {
+            return field.read(bean);
+        }
+        final Object reference = field.reference(bean);
+        // unloaded lazy references are identified without being loaded
+        final Object target = reference instanceof Lazy ? ((Lazy<?>) reference).peek() : reference;
+        long objectId = reference instanceof Lazy.Default ? ((Lazy.Default<?>) reference).objectId() : 0;
+        if (objectId <= 0 && target != null) {
+            objectId = partitions.objectIdOf(partition, target);
+        }
+        if (objectId <= 0) {
+            return null;
+        }
+        if (target instanceof Collection && !lists.get(partition).containsKey(objectId)) {
+            journalList(changes, partition, objectId, (Collection<?>) target);
+        }
+        return objectId;
+    }
+
+    /**
+     * Journals the elements of the given list if it changed since last journaled, only the
+     * appended ones if it was appended to.
+     *
+     * @param changes   the changes to append
+     * @param partition the partition holding the list
+     * @param objectId  the list object identifier
+     * @param list      the list
+     */
+    private void journalList(List<Change> changes, int partition, long objectId, Collection<?> list) {
+        // the size and hash of the list when last journaled
+        final long[] state = lists.get(partition).get(objectId);
+        final long[] elements = new long[list.size()];
+        boolean appended = state != null && state[0] <= elements.length;
+        long hash = 1;
+        int size = 0;
+        for (Object element : list) {
+            if (size == elements.length) {
+                // concurrently grown
+                break;
+            }
+            elements[size] = element == null ? 0 : partitions.objectIdOf(partition, element);
+            hash = 31 * hash + elements[size++];
+            if (appended && size == state[0] && hash != state[1]) {
+                appended = false;
+            }
+        }
+        lists.get(partition).put(objectId, new long[]{size, hash});
+        if (state != null && state[0] == size && state[1] == hash) {
+            return;
+        }
+        final Change change = new Change("store", partition, objectId, LIST_TYPE);
+        changes.add(appended
+                ? change.elements(Arrays.copyOfRange(elements, (int) state[0], size), true)
+                : change.elements(Arrays.copyOf(elements, size), false));
+    }
+
+    /**
+     * Returns whether the given instance is already journaled.
+     *
+     * @param instance the graph instance
+     * @return {@code true} if journaled
+     */
+    private boolean isJournaled(Object instance) {
+        final int partition = partitions.holderOf(instance);
+        return partition >= 0 && states.get(partition).containsKey(partitions.objectIdOf(partition, instance));
+    }
+
+    /**
+     * Appends a record holding the given changes, if any, then clears them. A failure leaves the
+     * journal behind the storage, the whole graph being journaled again upon next commit.
+     *
+     * @param changes the changes
+     */
+    private void append(List<Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(buffer, JsonEncoding.UTF8)) {
+                generator.writeStartObject();
+                generator.writeNumberField("timestamp", System.currentTimeMillis());
+                generator.writeArrayFieldStart("changes");
+                for (Change change : changes) {
+                    change.write(generator);
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            final long sequence = file.append(buffer.toByteArray());
+            if (sync) {
+                file.force();
+            }
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Journaled {} change(s) as record {}", changes.size(), sequence);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            behind = true;
+            LOGGER.error("Cannot append to MicroStream change journal in '{}', the whole graph is journaled again "
+                    + "upon next commit", directory, e);
+        }
+        changes.clear();
+    }
+
+    /**
+     * Returns a 64-bit hash of the given journaled value, telling its changes apart without
+     * holding it.
+     *
+     * @param value the scalar value, list of scalar values or object identifier
+     * @return the value hash
+     */
+    private static long hash(Object value) {
+        if (value == null) {
+            return NULL_HASH;
+        }
+        if (value instanceof Boolean) {
+            return mix((Boolean) value ? 1 : 2);
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return mix(((Number) value).longValue());
+        }
+        if (value instanceof Float || value instanceof Double) {
+            return mix(Double.doubleToLongBits(((Number) value).doubleValue()));
+        }
+        long hash = 1;
+        if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                hash = 31 * hash + hash(element);
+            }
+            return mix(hash);
+        }
+        // strings, enums, instants, big numbers... by their journaled text
+        final String text = value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Spreads the bits of the given hash, as the SplitMix64 finalizer.
+     *
+     * @param hash the hash
+     * @return the mixed hash
+     */
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+
+    /**
+     * Writes the given journaled value.
+     *
+     * @param generator the JSON generator
+     * @param value     the scalar value, list of scalar values or object identifier
+     * @throws IOException if the value cannot be written
+     */
+    private static void writeValue(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            generator.writeNumber(((Number) value).longValue());
+        } else if (value instanceof Float || value instanceof Double) {
+            generator.writeNumber(((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal) {
+            generator.writeNumber((BigDecimal) value);
+        } else if (value instanceof BigInteger) {
+            generator.writeNumber((BigInteger) value);
+        } else if (value instanceof Collection) {
+            generator.writeStartArray();
+            for (Object element : (Collection<?>) value) {
+                writeValue(generator, element);
+            }
+            generator.writeEndArray();
+        } else {
+            // strings, enums, instants...
+            generator.writeString(value.toString());
+        }
+    }
+
+    /**
+     * A journaled object change.
+     */
+    private static final class Change {
+
+        private final String op;
+        private final int partition;
+        private final long objectId;
+        private final String type;
+        private Map<String, Object> fields;
+        private long[] elements;
+        private boolean appended;
+
+        Change(String op, int partition, long objectId, String type) {
+            this.op = op;
+            this.partition = partition;
+            this.objectId = objectId;
+            this.type = type;
+        }
+
+        Change fields(Map<String, Object> fields) {
+            this.fields = fields;
+            return this;
+        }
+
+        Change elements(long[] elements, boolean appended) {
+            this.elements = elements;
+            this.appended = appended;
+            return this;
+        }
+
+        void write(JsonGenerator generator) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("op", op);
+            generator.writeNumberField("partition", partition);
+            generator.writeNumberField("objectId", objectId);
+            generator.writeStringField("type", type);
+            if (fields != null) {
+                generator.writeObjectFieldStart("fields");
+                for (Map.Entry<String, Object> field : fields.entrySet()) {
+                    generator.writeFieldName(field.getKey());
+                    writeValue(generator, field.getValue());
+                }
+                generator.writeEndObject();
+            }
+            if (elements != null) {
+                generator.writeArrayFieldStart(appended ? "appended" : "elements");
+                for (long element : elements) {
+                    generator.writeNumber(element);
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.github.tmarwen.micronaut.microstream.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Tails the {@link ChangeJournal} segments of a directory, record after record.
+ *
+ * <p>A cursor only depends on the journal files, it can be used within another process than
+ * the one writing the journal. It is positioned by record sequence: a reader persisting the
+ * sequence of the last record it handled resumes from it with a new cursor, as long as the
+ * segment holding the next record is still retained by the journal. Cursors are not thread-safe.
+ *
+ * @since 1.0.0
+ */
+public final class JournalCursor implements Closeable {
+
+    /**
+     * The journal directory.
+     */
+    private final Path directory;
+
+    /**
+     * The sequence of the last read record.
+     */
+    private long sequence;
+
+    /**
+     * The segment being read, positioned on the next record, {@code null} until found.
+     */
+    private MappedByteBuffer segment;
+
+    /**
+     * Creates a cursor positioned after the given record sequence.
+     *
+     * @param directory the journal directory
+     * @param sequence  the sequence of the last handled record, {@code 0} to read the journal from its start
+     * @throws IOException if the journal cannot be read
+     */
+    public JournalCursor(Path directory, long sequence) throws IOException {
+        this.directory = directory;
+        this.sequence = sequence;
+        locate();
+    }
+
+    /**
+     * @return the sequence of the last read record
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Reads the next record, if already written.
+     *
+     * @return the next record or {@code null} if none yet
+     * @throws IOException           if the next segment cannot be read
+     * @throws IllegalStateException if the segment holding the next record was deleted by the journal retention
+     */
+    public JournalRecord next() throws IOException {
+        while (true) {
+            if (segment == null && !locate()) {
+                return null;
+            }
+            final int length = length();
+            if (length == JournalFile.END_OF_SEGMENT) {
+                if (!open(sequence + 1)) {
+                    checkRetained();
+                    return null;
+                }
+                continue;
+            }
+            if (length == 0) {
+                // a segment followed by another one is ended, even if the writer stopped before marking it
+                if (!open(sequence + 1)) {
+                    return null;
+                }
+                continue;
+            }
+            final int position = segment.position();
+            final long recordSequence = segment.getLong(position + Integer.BYTES);
+            final byte[] payload = new byte[length];
+            segment.position(position + JournalFile.HEADER_SIZE);
+            segment.get(payload);
+            if (recordSequence <= sequence) {
+                // handled already
+                continue;
+            }
+            sequence = recordSequence;
+            return new JournalRecord(recordSequence, payload);
+        }
+    }
+
+    @Override
+    public void close() {
+        segment = null;
+    }
+
+    /**
+     * Positions this cursor within the last segment starting at or before the next record.
+     *
+     * @return {@code false} if the journal has no segment yet
+     * @throws IOException           if the journal cannot be read
+     * @throws IllegalStateException if the segment holding the next record was deleted by the journal retention
+     */
+    private boolean locate() throws IOException {
+        Path located = null;
+        for (Path candidate : JournalFile.segments(directory)) {
+            if (located == null || JournalFile.firstSequence(candidate) <= sequence + 1) {
+                located = candidate;
+            }
+        }
+        if (located == null) {
+            return false;
+        }
+        checkRetained(JournalFile.firstSequence(located));
+        segment = JournalFile.map(located, FileChannel.MapMode.READ_ONLY, Files.size(located));
+        // skip the records already handled without reading them
+        long next;
+        while ((next = peekSequence()) > 0 && next <= sequence) {
+            skip();
+        }
+        return true;
+    }
+
+    /**
+     * Checks that the segment holding the next record was not deleted, once the journal went on
+     * in a segment this cursor did not find.
+     *
+     * @throws IOException           if the journal cannot be read
+     * @throws IllegalStateException if the segment holding the next record was deleted by the journal retention
+     */
+    private void checkRetained() throws IOException {
+        final List<Path> segments = JournalFile.segments(directory);
+        if (!segments.isEmpty()) {
+            checkRetained(JournalFile.firstSequence(segments.get(0)));
+        }
+    }
+
+    /**
+     * Checks that the next record is held by the first retained segment or a following one.
+     *
+     * @param firstRetained the first record sequence of the first retained segment
+     * @throws IllegalStateException if the segment holding the next record was deleted by the journal retention
+     */
+    private void checkRetained(long firstRetained) {
+        if (firstRetained > sequence + 1) {
+            throw new IllegalStateException("MicroStream journal records " + (sequence + 1) + " to "
+                    + (firstRetained - 1) + " were deleted from '" + directory + "' by the segment retention");
+        }
+    }
+
+    /**
+     * Reads the payload length of the next record.
+     *
+     * @return the payload length, {@code 0} if not written yet or {@link JournalFile#END_OF_SEGMENT}
+     */
+    private int length() {
+        final int position = segment.position();
+        if (segment.capacity() - position < JournalFile.HEADER_SIZE) {
+            return JournalFile.END_OF_SEGMENT;
+        }
+        final int length = segment.getInt(position);
+        // see the record fully written once its length is
+        VarHandle.acquireFence();
+        return length;
+    }
+
+    /**
+     * Returns the sequence of the next record.
+     *
+     * @return the record sequence, {@code 0} if there is no next record in the segment
+     */
+    private long peekSequence() {
+        final int length = length();
+        return length <= 0 ? 0 : segment.getLong(segment.position() + Integer.BYTES);
+    }
+
+    /**
+     * Skips the next record.
+     */
+    private void skip() {
+        final int position = segment.position();
+        segment.position(position + JournalFile.HEADER_SIZE + segment.getInt(position));
+    }
+
+    /**
+     * Opens the segment starting with the record of the given sequence.
+     *
+     * @param firstSequence the first record sequence
+     * @return {@code false} if the segment does not exist yet
+     * @throws IOException if the segment cannot be read
+     */
+    private boolean open(long firstSequence) throws IOException {
+        final Path path = directory.resolve(JournalFile.segmentName(firstSequence));
+        if (!Files.exists(path)) {
+            return false;
+        }
+        segment = JournalFile.map(path, FileChannel.MapMode.READ_ONLY, Files.size(path));
+        return true;
+    }
+}
@@ -0,0 +1,334 @@
+package com.github.tmarwen.micronaut.microstream.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal made of memory-mapped segment files.
+ *
+ * <p>Each segment is named after the sequence of its first record and preallocated to the
+ * segment size. A record is made of its payload length, its sequence and its payload. The
+ * length is written last so that concurrent readers never see a partial record: a zero length
+ * marks the end of the written records and {@link #END_OF_SEGMENT} tells that the records go
+ * on in the next segment. A segment followed by another one is ended as well, even if the writer
+ * stopped before marking it. Only the given number of most recent segments are retained, if
+ * positive. This class is not thread-safe.
+ *
+ * @since 1.0.0
+ */
+final class JournalFile implements Closeable {
+
+    /**
+     * The segment file name suffix.
+     */
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    /**
+     * The size of a record header: its payload length then its sequence.
+     */
+    static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    /**
+     * The length marking the end of a segment.
+     */
+    static final int END_OF_SEGMENT = -1;
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalFile.class);
+
+    /**
+     * The prefix of the segment files being created.
+     */
+    private static final String TEMPORARY_PREFIX = "segment";
+
+    /**
+     * The suffix of the segment files being created.
+     */
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    /**
+     * The journal directory.
+     */
+    private final Path directory;
+
+    /**
+     * The segment size, in bytes.
+     */
+    private final int segmentSize;
+
+    /**
+     * The number of retained segments, {@code 0} to retain them all.
+     */
+    private final int retainedSegments;
+
+    /**
+     * The current segment, positioned after its last record, {@code null} if the journal is empty.
+     */
+    private MappedByteBuffer segment;
+
+    /**
+     * The sequence of the last appended record, {@code 0} if none.
+     */
+    private long lastSequence;
+
+    JournalFile(Path directory, int segmentSize, int retainedSegments) throws IOException {
+        if (segmentSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("MicroStream journal segment size must be greater than "
+                    + HEADER_SIZE + " bytes, got " + segmentSize);
+        }
+        if (retainedSegments < 0) {
+            throw new IllegalArgumentException("MicroStream journal retained segments count must not be negative, got "
+                    + retainedSegments);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.retainedSegments = retainedSegments;
+        deleteTemporaries();
+        final List<Path> segments = segments(directory);
+        if (!segments.isEmpty()) {
+            final Path last = segments.get(segments.size() - 1);
+            segment = map(last, FileChannel.MapMode.READ_WRITE, Files.size(last));
+            final long recovered = recover(segment);
+            lastSequence = recovered > 0 ? recovered : firstSequence(last) - 1;
+            if (segments.size() > 1) {
+                // the writer may have stopped between creating the last segment and ending the previous one
+                seal(segments.get(segments.size() - 2));
+            }
+        }
+    }
+
+    /**
+     * @return the sequence of the last appended record, {@code 0} if none
+     */
+    long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Appends a record holding the given payload.
+     *
+     * @param payload the non-empty record payload
+     * @return the record sequence
+     * @throws IOException if a new segment cannot be created
+     */
+    long append(byte[] payload) throws IOException {
+        final int recordSize = HEADER_SIZE + payload.length;
+        if (segment == null || segment.remaining() < recordSize) {
+            roll(recordSize);
+        }
+        final int position = segment.position();
+        final long sequence = lastSequence + 1;
+        segment.putLong(position + Integer.BYTES, sequence);
+        segment.position(position + HEADER_SIZE);
+        segment.put(payload);
+        // publish the record once fully written
+        VarHandle.releaseFence();
+        segment.putInt(position, payload.length);
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Forces the current segment content to disk.
+     */
+    void force() {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+        segment = null;
+    }
+
+    /**
+     * Positions the given segment after its last record, or at its end if marked as ended.
+     *
+     * @param segment the segment
+     * @return the sequence of the last record of the segment, {@code 0} if none
+     */
+    private static long recover(MappedByteBuffer segment) {
+        long last = 0;
+        int position = 0;
+        while (segment.capacity() - position >= HEADER_SIZE) {
+            final int length = segment.getInt(position);
+            if (length == END_OF_SEGMENT) {
+                position = segment.capacity();
+                break;
+            }
+            if (length <= 0) {
+                break;
+            }
+            last = segment.getLong(position + Integer.BYTES);
+            position += HEADER_SIZE + length;
+        }
+        segment.position(Math.min(position, segment.capacity()));
+        return last;
+    }
+
+    /**
+     * Marks the given segment as ended, if not yet.
+     *
+     * @param path the segment file
+     * @throws IOException if the segment cannot be written
+     */
+    private static void seal(Path path) throws IOException {
+        final MappedByteBuffer ended = map(path, FileChannel.MapMode.READ_WRITE, Files.size(path));
+        recover(ended);
+        if (ended.hasRemaining()) {
+            end(ended);
+        }
+    }
+
+    /**
+     * Marks the given segment as ended after its last record and forces it to disk.
+     *
+     * @param segment the segment, positioned after its last record
+     */
+    private static void end(MappedByteBuffer segment) {
+        if (segment.remaining() >= Integer.BYTES) {
+            segment.putInt(segment.position(), END_OF_SEGMENT);
+        }
+        segment.position(segment.capacity());
+        segment.force();
+    }
+
+    /**
+     * Moves on to a new segment large enough for a record of the given size. The current
+     * segment is marked as ended before the new one is published under its final name, so that
+     * a segment is never followed by another one without being ended.
+     *
+     * @param recordSize the size of the record to append
+     * @throws IOException if the segment cannot be created
+     */
+    private void roll(int recordSize) throws IOException {
+        final int size = Math.max(segmentSize, recordSize);
+        final Path path = directory.resolve(segmentName(lastSequence + 1));
+        final Path temporary = Files.createTempFile(directory, TEMPORARY_PREFIX, TEMPORARY_SUFFIX);
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                // preallocate the zeroed segment
+                channel.write(ByteBuffer.wrap(new byte[1]), size - 1L);
+            }
+            if (segment != null) {
+                end(segment);
+            }
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        segment = map(path, FileChannel.MapMode.READ_WRITE, size);
+        if (retainedSegments > 0) {
+            retain();
+        }
+    }
+
+    /**
+     * Deletes the oldest segments beyond the retained ones.
+     *
+     * @throws IOException if the segments cannot be listed or deleted
+     */
+    private void retain() throws IOException {
+        final List<Path> segments = segments(directory);
+        for (Path expired : segments.subList(0, Math.max(0, segments.size() - retainedSegments))) {
+            Files.deleteIfExists(expired);
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Deleted expired MicroStream journal segment '{}'", expired);
+            }
+        }
+    }
+
+    /**
+     * Deletes the segment files whose creation was interrupted.
+     *
+     * @throws IOException if the journal directory cannot be listed
+     */
+    private void deleteTemporaries() throws IOException {
+        final List<Path> temporaries;
+        try (Stream<Path> files = Files.list(directory)) {
+            temporaries = files.filter(file -> file.getFileName().toString().startsWith(TEMPORARY_PREFIX)
+                    && file.getFileName().toString().endsWith(TEMPORARY_SUFFIX))
+                    .collect(Collectors.toList());
+        }
+        for (Path temporary : temporaries) {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Lists the segments of the given journal directory, in sequence order.
+     *
+     * @param directory the journal directory
+     * @return the segment files
+     * @throws IOException if the directory cannot be listed
+     */
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Returns the name of the segment starting with the record of the given sequence.
+     *
+     * @param firstSequence the first record sequence
+     * @return the segment file name
+     */
+    static String segmentName(long firstSequence) {
+        // zero padded so that segments sort by name
+        return String.format("%020d%s", firstSequence, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Returns the sequence of the first record of the given segment.
+     *
+     * @param segment the segment file
+     * @return the first record sequence
+     */
+    static long firstSequence(Path segment) {
+        final String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Maps the given segment file in memory.
+     *
+     * @param segment the segment file
+     * @param mode    the mapping mode
+     * @param size    the mapped size
+     * @return the mapped segment
+     * @throws IOException if the segment cannot be mapped
+     */
+    static MappedByteBuffer map(Path segment, FileChannel.MapMode mode, long size) throws IOException {
+        final StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[]{StandardOpenOption.READ}
+                : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE};
+        // the mapping outlives the channel
+        try (FileChannel channel = FileChannel.open(segment, options)) {
+            return channel.map(mode, 0, size);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.tmarwen.micronaut.microstream.journal;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A record of the {@link ChangeJournal}: the changes of a storage commit, as a UTF-8 JSON
+ * document.
+ *
+ * @since 1.0.0
+ */
+public final class JournalRecord {
+
+    /**
+     * The record sequence.
+     */
+    private final long sequence;
+
+    /**
+     * The JSON payload.
+     */
+    private final byte[] payload;
+
+    JournalRecord(long sequence, byte[] payload) {
+        this.sequence = sequence;
+        this.payload = payload;
+    }
+
+    /**
+     * @return the record sequence, starting at {@code 1} and increasing by {@code 1} from one record to the next
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return the UTF-8 JSON payload
+     */
+    public byte[] getPayload() {
+        return payload.clone();
+    }
+
+    /**
+     * @return the JSON payload
+     */
+    public String getJson() {
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return sequence + " " + getJson();
+    }
+}
@@ -0,0 +1,712 @@
+package com.github.tmarwen.micronaut.microstream.journal;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tmarwen.micronaut.microstream.configuration.ReplicaConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
+import com.github.tmarwen.micronaut.microstream.model.GraphType;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphConcurrencyStrategy;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphPartitions;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphVersion;
+import com.github.tmarwen.micronaut.microstream.runtime.StorageCommitEvent;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import io.micronaut.core.beans.BeanIntrospection;
+import io.micronaut.core.beans.BeanProperty;
+import io.micronaut.core.convert.ConversionService;
+import io.micronaut.core.type.Argument;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.TaskScheduler;
+import one.microstream.reference.Lazy;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Replays the {@link ChangeJournal} of a primary onto the graph of a read-only replica.
+ *
+ * <p>The replica storage is a copy of the primary storage, hence holds the same MicroStream
+ * object identifiers as the journal up to the snapshot sequence. Journaled objects are resolved
+ * by identifier, from the replica storage or among the objects created by the replay, and
+ * updated in memory: the replica never commits, so that its storage remains the snapshot and
+ * the identifiers keep matching. The changes of a record are applied in two passes, the
+ * unknown objects and lists being created before any change is applied, since a change may
+ * reference objects created by a later one of the same record. Changes are idempotent, a
+ * snapshot may be replayed from an earlier sequence than the one it holds.
+ *
+ * <p>The objects created by the replay are only weakly held by identifier, as long as the
+ * replica graph references them. The snapshot objects changed by the replay are held until
+ * removed or until the replica restarts from a fresher snapshot, at most as many as the
+ * snapshot holds.
+ *
+ * <p>Records are applied by batches of at most {@link ReplicaConfigurationProperties#getBatchSize()}
+ * records, each batch within an exclusive write of the whole graph as per the
+ * {@link GraphConcurrencyStrategy}, followed by a {@link StorageCommitEvent} keeping the
+ * indexes and caches up to date.
+ *
+ * <p>The replication lag is the time elapsed since the replica was last known to be up to date
+ * with the primary: the time of the last poll finding no new record, or the commit time of the
+ * last applied record while catching up.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+@Requires(property = ReplicaConfigurationProperties.PREFIX + ".enabled", value = "true")
+public class JournalReplayer {
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalReplayer.class);
+
+    /**
+     * The default storage manager, the source of the replayed commit events.
+     */
+    private final EmbeddedStorageManager storageManager;
+
+    /**
+     * The root graph partitions, resolving the object identifiers.
+     */
+    private final GraphPartitions partitions;
+
+    /**
+     * The graph types by name.
+     */
+    private final Map<String, GraphType<?>> types = new HashMap<>();
+
+    /**
+     * The graph concurrency strategy.
+     */
+    private final GraphConcurrencyStrategy concurrencyStrategy;
+
+    /**
+     * Publishes the replayed commit events.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The graph version, bumped upon each applied batch.
+     */
+    private final GraphVersion graphVersion;
+
+    /**
+     * Parses the journal records.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The replica configuration.
+     */
+    private final ReplicaConfigurationProperties configuration;
+
+    /**
+     * The task scheduler polling the journal.
+     */
+    private final TaskScheduler taskScheduler;
+
+    /**
+     * The primary journal directory.
+     */
+    private final Path journalDirectory;
+
+    /**
+     * The primary journal cursor, positioned after the last read record, {@code null} once
+     * rewound after a failure.
+     */
+    private JournalCursor cursor;
+
+    /**
+     * The sequence of the last applied record.
+     */
+    private volatile long sequence;
+
+    /**
+     * The objects created by the replay, by partition and object identifier.
+     */
+    private final List<Map<Long, CreatedReference>> created = new ArrayList<>();
+
+    /**
+     * The references to the collected created objects, expunged after each applied batch.
+     */
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
+    /**
+     * The replica storage objects changed by the replay, held so that reloading them through a
+     * cleared lazy reference resolves the changed instances from the object registry.
+     */
+    private final Set<Object> pinned = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * The number of applied records.
+     */
+    private volatile long appliedRecords;
+
+    /**
+     * The epoch millis the replica was last known to be up to date at, {@code 0} until the first poll.
+     */
+    private volatile long upToDateMillis;
+
+    /**
+     * The last replay failure, {@code null} if the last poll succeeded.
+     */
+    private volatile Exception failure;
+
+    /**
+     * The scheduled polls, {@code null} until started.
+     */
+    private ScheduledFuture<?> schedule;
+
+    public JournalReplayer(EmbeddedStorageManager storageManager,
+                           GraphPartitions partitions,
+                           GraphModel graphModel,
+                           GraphConcurrencyStrategy concurrencyStrategy,
+                           ApplicationEventPublisher eventPublisher,
+                           GraphVersion graphVersion,
+                           ObjectMapper objectMapper,
+                           ReplicaConfigurationProperties configuration,
+                           @Named(TaskExecutors.SCHEDULED) TaskScheduler taskScheduler) {
+        if (configuration.getJournalDirectory() == null) {
+            throw new IllegalStateException("MicroStream replica journal directory must be configured");
+        }
+        this.storageManager = storageManager;
+        this.partitions = partitions;
+        this.concurrencyStrategy = concurrencyStrategy;
+        this.eventPublisher = eventPublisher;
+        this.graphVersion = graphVersion;
+        this.objectMapper = objectMapper;
+        this.configuration = configuration;
+        this.taskScheduler = taskScheduler;
+        graphModel.getTypes().forEach(type -> types.put(type.getName(), type));
+        for (int partition = 0; partition < partitions.getCount(); partition++) {
+            created.add(new HashMap<>());
+        }
+        this.journalDirectory = Paths.get(configuration.getJournalDirectory());
+        this.sequence = configuration.getSequence();
+        try {
+            this.cursor = new JournalCursor(journalDirectory, sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open MicroStream primary journal in '" + journalDirectory + "'", e);
+        }
+    }
+
+    /**
+     * @return the sequence of the last applied journal record
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return the number of journal records applied since startup
+     */
+    public long getAppliedRecords() {
+        return appliedRecords;
+    }
+
+    /**
+     * @return the time elapsed since the replica was last known to be up to date with the primary
+     */
+    public Duration getLag() {
+        return Duration.ofMillis(Math.max(0, System.currentTimeMillis() - upToDateMillis));
+    }
+
+    /**
+     * @return whether the replication lag exceeds the configured maximum
+     */
+    public boolean isLagging() {
+        return getLag().compareTo(configuration.getMaxLag()) > 0;
+    }
+
+    /**
+     * @return the last replay failure, {@code null} if the last poll succeeded
+     */
+    public Exception getFailure() {
+        return failure;
+    }
+
+    /**
+     * Catches up with the primary journal then polls it at the configured interval.
+     */
+    synchronized void start() {
+        final long start = System.nanoTime();
+        final long from = sequence;
+        poll();
+        if (failure != null) {
+            throw new IllegalStateException("MicroStream replica failed to catch up with the primary journal", failure);
+        }
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("MicroStream replica caught up from journal record {} to {} in {} ms", from,
+                    sequence, (System.nanoTime() - start) / 1_000_000);
+        }
+        schedule = taskScheduler.scheduleWithFixedDelay(
+                configuration.getPollInterval(),
+                configuration.getPollInterval(),
+                this::poll
+        );
+    }
+
+    /**
+     * Applies the journal records written since the last poll.
+     */
+    synchronized void poll() {
+        try {
+            if (cursor == null) {
+                cursor = new JournalCursor(journalDirectory, sequence);
+            }
+            final List<JournalRecord> batch = new ArrayList<>();
+            while (true) {
+                final long readMillis = System.currentTimeMillis();
+                final JournalRecord record = cursor.next();
+                if (record != null) {
+                    batch.add(record);
+                }
+                if (record == null || batch.size() >= configuration.getBatchSize()) {
+                    final long timestamp = apply(batch);
+                    if (record == null) {
+                        upToDateMillis = readMillis;
+                        break;
+                    }
+                    // catching up, as fresh as the primary when it committed the last applied record
+                    upToDateMillis = timestamp;
+                    batch.clear();
+                }
+            }
+            failure = null;
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            LOGGER.error("MicroStream replica failed to apply the journal records following {}: {}", sequence,
+                    e.getMessage(), e);
+            // the records following the last applied one are read again upon next poll
+            if (cursor != null) {
+                cursor.close();
+                cursor = null;
+            }
+        }
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (schedule != null) {
+            schedule.cancel(false);
+        }
+        if (cursor != null) {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Applies the given records within a single exclusive graph write.
+     *
+     * @param batch the records
+     * @return the commit time of the last record, {@code 0} if none
+     */
+    private long apply(List<JournalRecord> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        final List<Object> stored = new ArrayList<>();
+        final List<Object> removed = new ArrayList<>();
+        final long timestamp = concurrencyStrategy.writeAll(() -> {
+            long last = 0;
+            for (JournalRecord record : batch) {
+                last = apply(record, stored, removed);
+            }
+            return last;
+        });
+        appliedRecords += batch.size();
+        sequence = batch.get(batch.size() - 1).getSequence();
+        expunge();
+        graphVersion.increment();
+        // listeners walk the replayed changes, still excluding writers
+        concurrencyStrategy.readAll(() -> {
+            eventPublisher.publishEvent(new StorageCommitEvent(storageManager, stored, removed));
+            return null;
+        });
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Replayed {} journal record(s) up to {}", batch.size(), batch.get(batch.size() - 1).getSequence());
+        }
+        return timestamp;
+    }
+
+    /**
+     * Applies the changes of the given record.
+     *
+     * @param record  the journal record
+     * @param stored  the changed objects
+     * @param removed the removed objects
+     * @return the record commit time
+     */
+    private long apply(JournalRecord record, List<Object> stored, List<Object> removed) {
+        final JsonNode document;
+        try {
+            document = objectMapper.readTree(record.getPayload());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot parse MicroStream journal record " + record.getSequence(), e);
+        }
+        // the created objects are held until applied, lists being journaled before the new objects they hold
+        final List<Object> creations = new ArrayList<>();
+        for (JsonNode change : document.path("changes")) {
+            if (!"remove".equals(change.path("op").asText())) {
+                final Object creation = create(record, partition(record, change), change);
+                if (creation != null) {
+                    creations.add(creation);
+                }
+            }
+        }
+        for (JsonNode change : document.path("changes")) {
+            final int partition = partition(record, change);
+            final long objectId = change.path("objectId").asLong();
+            final String type = change.path("type").asText();
+            if ("remove".equals(change.path("op").asText())) {
+                final Object instance = resolve(partition, objectId);
+                created.get(partition).remove(objectId);
+                if (instance != null) {
+                    pinned.remove(instance);
+                    removed.add(instance);
+                }
+            } else if (ChangeJournal.LIST_TYPE.equals(type)) {
+                stored.add(applyList(partition, objectId, change));
+            } else {
+                stored.add(applyObject(partition, objectId, graphType(record, type), change.path("fields")));
+            }
+        }
+        Reference.reachabilityFence(creations);
+        return document.path("timestamp").asLong();
+    }
+
+    /**
+     * Creates the object or list of the given store change if unknown.
+     *
+     * @param record    the journal record
+     * @param partition the partition holding the object
+     * @param change    the store change
+     * @return the created object, {@code null} if already known
+     */
+    private Object create(JournalRecord record, int partition, JsonNode change) {
+        final long objectId = change.path("objectId").asLong();
+        if (resolve(partition, objectId) != null) {
+            return null;
+        }
+        final String type = change.path("type").asText();
+        if (ChangeJournal.LIST_TYPE.equals(type)) {
+            final List<Object> list = new ArrayList<>();
+            register(partition, objectId, list);
+            return list;
+        }
+        return instantiate(partition, objectId, graphType(record, type), change.path("fields"));
+    }
+
+    /**
+     * Returns the partition targeted by the given change.
+     *
+     * @param record the journal record
+     * @param change the change
+     * @return the partition index
+     */
+    private int partition(JournalRecord record, JsonNode change) {
+        final int partition = change.path("partition").asInt();
+        if (partition >= partitions.getCount()) {
+            throw new IllegalStateException("MicroStream journal record " + record.getSequence()
+                    + " targets partition " + partition + " while the replica has " + partitions.getCount());
+        }
+        return partition;
+    }
+
+    /**
+     * Returns the graph type of the given name.
+     *
+     * @param record the journal record
+     * @param type   the type name
+     * @return the graph type
+     */
+    private GraphType<?> graphType(JournalRecord record, String type) {
+        final GraphType<?> graphType = types.get(type);
+        if (graphType == null) {
+            throw new IllegalStateException("MicroStream journal record " + record.getSequence()
+                    + " holds the unknown type " + type);
+        }
+        return graphType;
+    }
+
+    /**
+     * Applies a list change, replacing all its elements or appending the new ones.
+     *
+     * @param partition the partition holding the list
+     * @param objectId  the list object identifier
+     * @param change    the list change
+     * @return the changed list
+     */
+    @SuppressWarnings("unchecked")
+    private Collection<Object> applyList(int partition, long objectId, JsonNode change) {
+        final Object resolved = resolve(partition, objectId);
+        final Collection<Object> list;
+        if (resolved instanceof Collection) {
+            list = (Collection<Object>) resolved;
+            hold(partition, objectId, list);
+        } else {
+            list = new ArrayList<>();
+            register(partition, objectId, list);
+        }
+        if (change.has("elements")) {
+            list.clear();
+            for (JsonNode element : change.path("elements")) {
+                final Object instance = element.asLong() == 0 ? null : resolve(partition, element.asLong());
+                list.add(instance);
+            }
+        } else {
+            for (JsonNode element : change.path("appended")) {
+                final Object instance = resolve(partition, element.asLong());
+                // appends replayed twice are ignored
+                if (instance != null && list.stream().noneMatch(existing -> existing == instance)) {
+                    list.add(instance);
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Applies an object change, creating the object if unknown.
+     *
+     * @param partition the partition holding the object
+     * @param objectId  the object identifier
+     * @param type      the object graph type
+     * @param fields    the changed field values
+     * @param <B>       the bean type
+     * @return the changed object
+     */
+    private <B> B applyObject(int partition, long objectId, GraphType<B> type, JsonNode fields) {
+        final BeanIntrospection<B> introspection = BeanIntrospection.getIntrospection(type.getBeanType());
+        final Object resolved = resolve(partition, objectId);
+        final B bean;
+        if (type.getBeanType().isInstance(resolved)) {
+            bean = type.getBeanType().cast(resolved);
+            hold(partition, objectId, bean);
+        } else {
+            bean = instantiate(partition, objectId, type, fields);
+        }
+        final Iterator<Map.Entry<String, JsonNode>> values = fields.fields();
+        while (values.hasNext()) {
+            final Map.Entry<String, JsonNode> value = values.next();
+            final GraphField<B, ?> field = type.getField(value.getKey()).orElse(null);
+            final BeanProperty<B, Object> property = introspection.getProperty(value.getKey()).orElse(null);
+            if (field != null && property != null && !property.isReadOnly()) {
+                property.set(bean, value(partition, field, property.asArgument(), value.getValue()));
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Instantiates an object created by the replay, from the journaled values of its
+     * constructor arguments. The references to objects not created yet are set once they are.
+     *
+     * @param partition the partition holding the object
+     * @param objectId  the object identifier
+     * @param type      the object graph type
+     * @param fields    the journaled field values
+     * @param <B>       the bean type
+     * @return the created object
+     */
+    private <B> B instantiate(int partition, long objectId, GraphType<B> type, JsonNode fields) {
+        final BeanIntrospection<B> introspection = BeanIntrospection.getIntrospection(type.getBeanType());
+        final Argument<?>[] constructorArguments = introspection.getConstructorArguments();
+        final Object[] arguments = new Object[constructorArguments.length];
+        for (int i = 0; i < constructorArguments.length; i++) {
+            final Argument<?> argument = constructorArguments[i];
+            final GraphField<B, ?> field = type.getField(argument.getName()).orElse(null);
+            arguments[i] = field == null || !fields.has(argument.getName())
+                    ? emptyValue(argument)
+                    : value(partition, field, argument, fields.get(argument.getName()));
+        }
+        final B bean = introspection.instantiate(arguments);
+        register(partition, objectId, bean);
+        return bean;
+    }
+
+    /**
+     * Converts the given journaled value to a value of the given property or constructor
+     * argument: the scalar value converted to the argument type or the referenced object.
+     *
+     * @param partition the partition holding the bean
+     * @param field     the graph field
+     * @param argument  the property or constructor argument
+     * @param node      the journaled value
+     * @return the value
+     */
+    private Object value(int partition, GraphField<?, ?> field, Argument<?> argument, JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        final boolean lazy = Lazy.class.equals(argument.getType());
+        final Argument<?> subject = lazy ? argument.getFirstTypeParameter().orElse(Argument.OBJECT_ARGUMENT) : argument;
+        Object value;
+        if (field.getKind() == GraphField.Kind.OBJECT) {
+            value = resolve(partition, node.asLong());
+            if (value instanceof List && Set.class.isAssignableFrom(subject.getType())) {
+                // lists created by the replay are array lists
+                value = new LinkedHashSet<>((List<?>) value);
+                register(partition, node.asLong(), value);
+            }
+        } else if (node.isArray() && subject.isContainerType()) {
+            final Argument<?> elementArgument = subject.getFirstTypeParameter().orElse(Argument.OBJECT_ARGUMENT);
+            final List<Object> elements = new ArrayList<>();
+            for (JsonNode element : node) {
+                elements.add(element.isNull() ? null : convert(element, elementArgument));
+            }
+            value = Set.class.isAssignableFrom(subject.getType()) ? new LinkedHashSet<>(elements) : elements;
+        } else {
+            value = convert(node, subject);
+        }
+        return lazy && value != null ? Lazy.Reference(value) : value;
+    }
+
+    /**
+     * Converts the given journaled scalar value to the given type.
+     *
+     * @param node     the journaled value
+     * @param argument the target type
+     * @return the converted value
+     */
+    private Object convert(JsonNode node, Argument<?> argument) {
+        final Object value;
+        try {
+            value = objectMapper.treeToValue(node, Object.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read journaled value " + node, e);
+        }
+        if (Instant.class.equals(argument.getType())) {
+            try {
+                return Instant.parse(String.valueOf(value));
+            } catch (DateTimeParseException e) {
+                throw new IllegalStateException("Cannot convert journaled value '" + value + "' to Instant", e);
+            }
+        }
+        return ConversionService.SHARED.convert(value, argument)
+                .orElseThrow(() -> new IllegalStateException("Cannot convert journaled value '" + value + "' to "
+                        + argument.getType().getSimpleName()));
+    }
+
+    /**
+     * Resolves the object of the given identifier, among the objects created by the replay
+     * first, then from the replica storage.
+     *
+     * @param partition the partition holding the object
+     * @param objectId  the object identifier
+     * @return the object or {@code null} if unknown
+     */
+    private Object resolve(int partition, long objectId) {
+        final CreatedReference reference = created.get(partition).get(objectId);
+        final Object instance = reference == null ? null : reference.get();
+        if (instance != null) {
+            return instance;
+        }
+        final EmbeddedStorageManager partitionStorageManager = partitions.getStorageManagers().get(partition);
+        try {
+            return partitionStorageManager.persistenceManager().getObject(objectId);
+        } catch (RuntimeException e) {
+            // not part of the snapshot
+            if (LOGGER.isTraceEnabled()) {
+                LOGGER.trace("Object {} of partition {} not found: {}", objectId, partition, e.getMessage());
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Holds the given replica storage object changed by the replay.
+     *
+     * @param partition the partition holding the object
+     * @param objectId  the object identifier
+     * @param instance  the changed object
+     */
+    private void hold(int partition, long objectId, Object instance) {
+        final CreatedReference reference = created.get(partition).get(objectId);
+        if (reference == null || reference.get() != instance) {
+            pinned.add(instance);
+        }
+    }
+
+    /**
+     * Registers the given object created by the replay.
+     *
+     * @param partition the partition holding the object
+     * @param objectId  the object identifier
+     * @param instance  the created object
+     */
+    private void register(int partition, long objectId, Object instance) {
+        created.get(partition).put(objectId, new CreatedReference(partition, objectId, instance, collected));
+    }
+
+    /**
+     * Forgets the collected objects created by the replay, no longer referenced by the graph.
+     */
+    private void expunge() {
+        Reference<?> reference;
+        while ((reference = collected.poll()) != null) {
+            final CreatedReference expunged = (CreatedReference) reference;
+            created.get(expunged.partition).remove(expunged.objectId, expunged);
+        }
+    }
+
+    /**
+     * Returns the value of a constructor argument absent from the journaled fields.
+     *
+     * @param argument the constructor argument
+     * @return the default value of primitives, {@code null} otherwise
+     */
+    private static Object emptyValue(Argument<?> argument) {
+        if (!argument.getType().isPrimitive()) {
+            return null;
+        }
+        if (boolean.class.equals(argument.getType())) {
+            return false;
+        }
+        if (char.class.equals(argument.getType())) {
+            return '\0';
+        }
+        return ConversionService.SHARED.convert(0, argument).orElse(null);
+    }
+
+    /**
+     * A weak reference to an object created by the replay.
+     */
+    private static final class CreatedReference extends WeakReference<Object> {
+
+        private final int partition;
+        private final long objectId;
+
+        CreatedReference(int partition, long objectId, Object instance, ReferenceQueue<Object> queue) {
+            super(instance, queue);
+            this.partition = partition;
+            this.objectId = objectId;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.tmarwen.micronaut.microstream.journal;
+
+import com.github.tmarwen.micronaut.microstream.configuration.JournalConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.configuration.ReplicaConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.runtime.StartupTask;
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Requires;
+
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+/**
+ * Factory of the {@link StartupTask} seeding the {@link ChangeJournal} once the graph indexes
+ * are built, so that no commit goes unjournaled once the storage is ready, and of the one
+ * catching a replica up with the primary journal once the graph is warmed up.
+ *
+ * @since 1.0.0
+ */
+@Factory
+public class JournalStartupTasks {
+
+    @Bean
+    @Singleton
+    @Named("journal")
+    @Requires(property = JournalConfigurationProperties.PREFIX + ".enabled", value = "true")
+    public StartupTask journalStartupTask(Provider<ChangeJournal> changeJournal) {
+        return StartupTask.of("journal", 150, changeJournal::get);
+    }
+
+    @Bean
+    @Singleton
+    @Named("replica")
+    @Requires(property = ReplicaConfigurationProperties.PREFIX + ".enabled", value = "true")
+    public StartupTask replicaStartupTask(Provider<JournalReplayer> journalReplayer) {
+        return StartupTask.of("replica", 400, () -> journalReplayer.get().start());
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.tmarwen.micronaut.microstream.management;
+
+import com.github.tmarwen.micronaut.microstream.configuration.ReplicaConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.journal.JournalReplayer;
+import com.github.tmarwen.micronaut.microstream.runtime.StorageStartup;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.health.HealthStatus;
+import io.micronaut.management.health.indicator.AbstractHealthIndicator;
+import io.micronaut.management.health.indicator.HealthIndicator;
+
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Health indicator of a read-only replica, {@code UP} while the replication lag does not exceed
+ * the configured maximum. It reports {@code DOWN} until the {@link StorageStartup}, catching the
+ * replica up with the primary journal, completed, and while replaying the journal fails.
+ *
+ * <p>The details report the sequence of the last applied journal record along with the current
+ * and maximum replication lags.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+@Requires(classes = HealthIndicator.class)
+@Requires(property = ReplicaConfigurationProperties.PREFIX + ".enabled", value = "true")
+public class ReplicaHealthIndicator extends AbstractHealthIndicator<Map<String, Object>> {
+
+    /**
+     * The health indicator name.
+     */
+    private static final String NAME = "microstream-replica";
+
+    /**
+     * The journal replayer, resolved once the storage startup completed.
+     */
+    private final Provider<JournalReplayer> journalReplayer;
+
+    /**
+     * The storage startup.
+     */
+    private final StorageStartup storageStartup;
+
+    /**
+     * The replica configuration.
+     */
+    private final ReplicaConfigurationProperties configuration;
+
+    public ReplicaHealthIndicator(Provider<JournalReplayer> journalReplayer,
+                                  StorageStartup storageStartup,
+                                  ReplicaConfigurationProperties configuration) {
+        this.journalReplayer = journalReplayer;
+        this.storageStartup = storageStartup;
+        this.configuration = configuration;
+    }
+
+    @Override
+    protected Map<String, Object> getHealthInformation() {
+        final Map<String, Object> details = new LinkedHashMap<>();
+        if (!storageStartup.isReady()) {
+            healthStatus = HealthStatus.DOWN;
+            details.put("ready", false);
+            return details;
+        }
+        final JournalReplayer journalReplayer = this.journalReplayer.get();
+        final Exception failure = journalReplayer.getFailure();
+        healthStatus = failure == null && !journalReplayer.isLagging() ? HealthStatus.UP : HealthStatus.DOWN;
+        details.put("sequence", journalReplayer.getSequence());
+        details.put("appliedRecords", journalReplayer.getAppliedRecords());
+        details.put("lagMillis", journalReplayer.getLag().toMillis());
+        details.put("maxLagMillis", configuration.getMaxLag().toMillis());
+        if (failure != null) {
+            details.put("error", String.valueOf(failure.getMessage()));
+        }
+        return details;
+    }
+
+    @Override
+    protected String getName() {
+        return NAME;
+    }
+}
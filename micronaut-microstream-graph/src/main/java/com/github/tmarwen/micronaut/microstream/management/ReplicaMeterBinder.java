@@ -0,0 +1,71 @@
+package com.github.tmarwen.micronaut.microstream.management;
+
+import com.github.tmarwen.micronaut.microstream.configuration.ReplicaConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.journal.JournalReplayer;
+import com.github.tmarwen.micronaut.microstream.runtime.StorageStartup;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.context.annotation.Requires;
+
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds the read-only replica meters:
+ * <ul>
+ * <li>{@code microstream.replica.lag}, the replication lag;</li>
+ * <li>{@code microstream.replica.sequence}, the sequence of the last applied journal record;</li>
+ * <li>{@code microstream.replica.records}, the applied journal records count.</li>
+ * </ul>
+ *
+ * <p>Meters read {@code NaN} until the {@link StorageStartup} completed.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+@Requires(classes = MeterBinder.class)
+@Requires(property = ReplicaConfigurationProperties.PREFIX + ".enabled", value = "true")
+public class ReplicaMeterBinder implements MeterBinder {
+
+    /**
+     * The journal replayer, resolved once the storage startup completed.
+     */
+    private final Provider<JournalReplayer> journalReplayer;
+
+    /**
+     * The storage startup.
+     */
+    private final StorageStartup storageStartup;
+
+    public ReplicaMeterBinder(Provider<JournalReplayer> journalReplayer, StorageStartup storageStartup) {
+        this.journalReplayer = journalReplayer;
+        this.storageStartup = storageStartup;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TimeGauge.builder("microstream.replica.lag", this, TimeUnit.MILLISECONDS,
+                binder -> binder.isReady() ? binder.journalReplayer.get().getLag().toMillis() : Double.NaN)
+                .description("MicroStream replica lag behind the primary journal")
+                .register(registry);
+        Gauge.builder("microstream.replica.sequence", this,
+                binder -> binder.isReady() ? binder.journalReplayer.get().getSequence() : Double.NaN)
+                .description("MicroStream replica last applied journal record sequence")
+                .register(registry);
+        FunctionCounter.builder("microstream.replica.records", this,
+                binder -> binder.isReady() ? binder.journalReplayer.get().getAppliedRecords() : 0)
+                .description("MicroStream replica applied journal records")
+                .register(registry);
+    }
+
+    /**
+     * @return whether the replica caught up with the primary journal at startup
+     */
+    private boolean isReady() {
+        return storageStartup.isReady();
+    }
+}
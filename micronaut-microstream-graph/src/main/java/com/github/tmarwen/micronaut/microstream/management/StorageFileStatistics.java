@@ -0,0 +1,80 @@
+package com.github.tmarwen.micronaut.microstream.management;
+
+import com.github.tmarwen.micronaut.microstream.runtime.StorageStartup;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import one.microstream.storage.types.StorageRawFileStatistics;
+
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot of the MicroStream storage file statistics shared by the storage meters and health
+ * indicator. Statistics are gathered by all the storage channels, they are computed at most
+ * once per {@link #STATISTICS_TTL_NANOS} whatever the number of readers, and only once the
+ * {@link StorageStartup} completed.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+public class StorageFileStatistics {
+
+    /**
+     * The time-to-live of the storage file statistics, in nanoseconds.
+     */
+    private static final long STATISTICS_TTL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * The storage manager, resolved once the storage startup completed.
+     */
+    private final Provider<EmbeddedStorageManager> storageManager;
+
+    /**
+     * The storage startup.
+     */
+    private final StorageStartup storageStartup;
+
+    /**
+     * The last computed file statistics.
+     */
+    private volatile StorageRawFileStatistics statistics;
+
+    /**
+     * The {@link System#nanoTime()} of the last file statistics computation.
+     */
+    private volatile long statisticsTime;
+
+    public StorageFileStatistics(Provider<EmbeddedStorageManager> storageManager, StorageStartup storageStartup) {
+        this.storageManager = storageManager;
+        this.storageStartup = storageStartup;
+    }
+
+    /**
+     * Returns the file statistics, computing them again if outdated.
+     *
+     * @return the file statistics or {@code null} if the storage is not started or running
+     */
+    public StorageRawFileStatistics get() {
+        final StorageRawFileStatistics current = statistics;
+        if (current != null && System.nanoTime() - statisticsTime <= STATISTICS_TTL_NANOS) {
+            return current;
+        }
+        synchronized (this) {
+            // computed by a concurrent reader meanwhile
+            if (statistics != null && System.nanoTime() - statisticsTime <= STATISTICS_TTL_NANOS) {
+                return statistics;
+            }
+            if (!storageStartup.isReady()) {
+                return null;
+            }
+            final EmbeddedStorageManager storageManager = this.storageManager.get();
+            if (!storageManager.isRunning()) {
+                return null;
+            }
+            final StorageRawFileStatistics computed = storageManager.createStorageStatistics();
+            statisticsTime = System.nanoTime();
+            statistics = computed;
+            return computed;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.tmarwen.micronaut.microstream.management;
+
+import com.github.tmarwen.micronaut.microstream.configuration.MicroStreamConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.runtime.StorageMetrics;
+import com.github.tmarwen.micronaut.microstream.runtime.StorageStartup;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.health.HealthStatus;
+import io.micronaut.management.health.indicator.AbstractHealthIndicator;
+import io.micronaut.management.health.indicator.HealthIndicator;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import one.microstream.storage.types.StorageRawFileStatistics;
+
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Health indicator of the MicroStream storage, {@code UP} while the storage manager runs.
+ * It reports {@code DOWN} until the {@link StorageStartup} completed, without waiting for the
+ * storage to load, so that readiness follows the startup while liveness is unaffected.
+ *
+ * <p>The details report the data files count and the total and live data sizes of each
+ * channel. A live data ratio below the configured data file dissolve ratio is flagged as
+ * {@code fragmented}: the housekeeping is lagging behind the writes. They are read from the
+ * {@link StorageFileStatistics} snapshot, up to its time-to-live old, instead of being gathered
+ * by the storage channels on each health check.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+@Requires(classes = HealthIndicator.class)
+public class StorageHealthIndicator extends AbstractHealthIndicator<Map<String, Object>> {
+
+    /**
+     * The health indicator name.
+     */
+    private static final String NAME = "microstream";
+
+    /**
+     * The storage manager, resolved once the storage startup completed.
+     */
+    private final Provider<EmbeddedStorageManager> storageManager;
+
+    /**
+     * The storage startup.
+     */
+    private final StorageStartup storageStartup;
+
+    /**
+     * The storage file statistics.
+     */
+    private final StorageFileStatistics fileStatistics;
+
+    /**
+     * The storage metrics.
+     */
+    private final StorageMetrics storageMetrics;
+
+    /**
+     * The live data ratio below which data files get dissolved.
+     */
+    private final double dissolveRatio;
+
+    public StorageHealthIndicator(Provider<EmbeddedStorageManager> storageManager,
+                                  StorageStartup storageStartup,
+                                  StorageFileStatistics fileStatistics,
+                                  StorageMetrics storageMetrics,
+                                  MicroStreamConfigurationProperties configuration) {
+        this.storageManager = storageManager;
+        this.storageStartup = storageStartup;
+        this.fileStatistics = fileStatistics;
+        this.storageMetrics = storageMetrics;
+        this.dissolveRatio = configuration.getDataFileDissolveRatio();
+    }
+
+    @Override
+    protected Map<String, Object> getHealthInformation() {
+        final Map<String, Object> details = new LinkedHashMap<>();
+        if (!storageStartup.isReady()) {
+            healthStatus = HealthStatus.DOWN;
+            details.put("ready", false);
+            details.put("phases", storageStartup.getPhases());
+            if (storageStartup.getFailure() != null) {
+                details.put("error", String.valueOf(storageStartup.getFailure().getMessage()));
+            }
+            return details;
+        }
+        final StorageRawFileStatistics statistics = storageManager.get().isRunning() ? fileStatistics.get() : null;
+        if (statistics == null) {
+            healthStatus = HealthStatus.DOWN;
+            details.put("running", false);
+            return details;
+        }
+        healthStatus = HealthStatus.UP;
+        final double liveRatio = statistics.totalDataLength() == 0
+                ? 1.0
+                : (double) statistics.liveDataLength() / statistics.totalDataLength();
+        details.put("running", true);
+        details.put("files", statistics.fileCount());
+        details.put("totalDataLength", statistics.totalDataLength());
+        details.put("liveDataLength", statistics.liveDataLength());
+        details.put("liveRatio", liveRatio);
+        details.put("fragmented", liveRatio < dissolveRatio);
+        final List<Map<String, Object>> channels = new ArrayList<>();
+        for (StorageRawFileStatistics.ChannelStatistics channel : statistics.channelStatistics().values()) {
+            final Map<String, Object> channelDetails = new LinkedHashMap<>();
+            channelDetails.put("channel", channel.channelIndex());
+            channelDetails.put("files", channel.fileCount());
+            channelDetails.put("totalDataLength", channel.totalDataLength());
+            channelDetails.put("liveDataLength", channel.liveDataLength());
+            channels.add(channelDetails);
+        }
+        details.put("channels", channels);
+        details.put("commits", storageMetrics.getCommits());
+        details.put("startMillis", storageMetrics.getStartNanos() / 1_000_000);
+        return details;
+    }
+
+    @Override
+    protected String getName() {
+        return NAME;
+    }
+}
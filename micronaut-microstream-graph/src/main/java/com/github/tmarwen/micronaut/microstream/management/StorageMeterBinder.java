@@ -0,0 +1,119 @@
+package com.github.tmarwen.micronaut.microstream.management;
+
+import com.github.tmarwen.micronaut.microstream.configuration.MicroStreamConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.runtime.StorageMetrics;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.context.annotation.Requires;
+import one.microstream.storage.types.StorageRawFileStatistics;
+
+import javax.inject.Singleton;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Binds the MicroStream storage meters:
+ * <ul>
+ * <li>{@code microstream.storage.commits}, the commit count and durations;</li>
+ * <li>{@code microstream.storage.housekeeping}, the explicitly issued garbage collection, file
+ * check and cache check runs count and durations;</li>
+ * <li>{@code microstream.storage.start}, the storage start and root load duration;</li>
+ * <li>{@code microstream.storage.files}, {@code microstream.storage.data.total} and
+ * {@code microstream.storage.data.live}, the data files count and total and live data sizes
+ * of each storage channel, tagged by {@code channel}.</li>
+ * </ul>
+ *
+ * <p>Storage file statistics are read from the {@link StorageFileStatistics} snapshot, shared
+ * with the storage health indicator.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+@Requires(classes = MeterBinder.class)
+public class StorageMeterBinder implements MeterBinder {
+
+    /**
+     * The storage file statistics.
+     */
+    private final StorageFileStatistics fileStatistics;
+
+    /**
+     * The storage metrics.
+     */
+    private final StorageMetrics storageMetrics;
+
+    /**
+     * The storage channels count.
+     */
+    private final int channelCount;
+
+    public StorageMeterBinder(StorageFileStatistics fileStatistics,
+                              StorageMetrics storageMetrics,
+                              MicroStreamConfigurationProperties configuration) {
+        this.fileStatistics = fileStatistics;
+        this.storageMetrics = storageMetrics;
+        this.channelCount = configuration.getChannelCount();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionTimer.builder("microstream.storage.commits", storageMetrics,
+                StorageMetrics::getCommits, StorageMetrics::getCommitNanos, TimeUnit.NANOSECONDS)
+                .description("MicroStream storage commits")
+                .register(registry);
+        FunctionTimer.builder("microstream.storage.housekeeping", storageMetrics,
+                StorageMetrics::getHousekeepingRuns, StorageMetrics::getHousekeepingNanos, TimeUnit.NANOSECONDS)
+                .description("MicroStream explicitly issued housekeeping runs")
+                .register(registry);
+        TimeGauge.builder("microstream.storage.start", storageMetrics, TimeUnit.NANOSECONDS,
+                StorageMetrics::getStartNanos)
+                .description("MicroStream storage start and root load duration")
+                .register(registry);
+        for (int channel = 0; channel < channelCount; channel++) {
+            final int index = channel;
+            channelGauge(registry, "microstream.storage.files", "files", index,
+                    statistics -> statistics.fileCount());
+            channelGauge(registry, "microstream.storage.data.total", "bytes", index,
+                    statistics -> statistics.totalDataLength());
+            channelGauge(registry, "microstream.storage.data.live", "bytes", index,
+                    statistics -> statistics.liveDataLength());
+        }
+    }
+
+    /**
+     * Registers a gauge of the file statistics of the given channel.
+     *
+     * @param registry the meter registry
+     * @param name     the gauge name
+     * @param unit     the gauge base unit
+     * @param channel  the channel index
+     * @param value    reads the gauge value from the channel statistics
+     */
+    private void channelGauge(MeterRegistry registry,
+                              String name,
+                              String unit,
+                              int channel,
+                              ToDoubleFunction<StorageRawFileStatistics.ChannelStatistics> value) {
+        Gauge.builder(name, this, binder -> {
+            final StorageRawFileStatistics.ChannelStatistics statistics = binder.channelStatistics(channel);
+            return statistics == null ? Double.NaN : value.applyAsDouble(statistics);
+        })
+                .tag("channel", String.valueOf(channel))
+                .baseUnit(unit)
+                .register(registry);
+    }
+
+    /**
+     * Returns the file statistics of the given channel.
+     *
+     * @param channel the channel index
+     * @return the channel statistics or {@code null} if the storage is not started or running
+     */
+    private StorageRawFileStatistics.ChannelStatistics channelStatistics(int channel) {
+        final StorageRawFileStatistics statistics = fileStatistics.get();
+        return statistics == null ? null : statistics.channelStatistics().get(channel);
+    }
+}
@@ -0,0 +1,148 @@
+package com.github.tmarwen.micronaut.microstream.model;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+
+/**
+ * Compile-time generated accessor and {@link DataFetcher} for a single graph type property.
+ *
+ * <p>Each property gets its own generated subclass calling the bean getter directly so that
+ * field resolution goes through a monomorphic call site instead of a generic property lookup.
+ *
+ * <p>Properties declared as MicroStream {@link one.microstream.reference.Lazy} references are
+ * described by their subject type: {@link #read(Object)} resolves the reference while
+ * {@link #reference(Object)} gives access to the reference itself.
+ *
+ * @param <B> the declaring bean type
+ * @param <V> the property value type
+ * @since 1.0.0
+ */
+public abstract class GraphField<B, V> implements DataFetcher<V> {
+
+    /**
+     * The property name.
+     */
+    private final String name;
+
+    /**
+     * The GraphQL type name of the property (or of its elements if it is a list).
+     */
+    private final String typeName;
+
+    /**
+     * Whether the property references a graph type or a scalar.
+     */
+    private final Kind kind;
+
+    /**
+     * Whether the property is a container of elements.
+     */
+    private final boolean list;
+
+    /**
+     * Whether the list property is exposed as a paginated connection.
+     */
+    private final boolean connection;
+
+    /**
+     * Whether the property is the range index key of its declaring type.
+     */
+    private final boolean rangeIndexed;
+
+    /**
+     * Whether the property is declared as a {@link one.microstream.reference.Lazy} reference.
+     */
+    private final boolean lazy;
+
+    protected GraphField(String name,
+                         String typeName,
+                         Kind kind,
+                         boolean list,
+                         boolean connection,
+                         boolean rangeIndexed,
+                         boolean lazy) {
+        this.name = name;
+        this.typeName = typeName;
+        this.kind = kind;
+        this.list = list;
+        this.connection = connection;
+        this.rangeIndexed = rangeIndexed;
+        this.lazy = lazy;
+    }
+
+    /**
+     * Reads the property value from the given {@code bean}, loading it if it is an unloaded
+     * lazy reference.
+     *
+     * @param bean the declaring bean instance
+     * @return the property value
+     */
+    public abstract V read(B bean);
+
+    /**
+     * Reads the property value from the given {@code bean} on behalf of a GraphQL request,
+     * the lazy references loaded on the way are tracked for release upon request completion.
+     *
+     * @param bean        the declaring bean instance
+     * @param environment the data fetching environment
+     * @return the property value
+     */
+    public V read(B bean, DataFetchingEnvironment environment) {
+        return read(bean);
+    }
+
+    /**
+     * Reads the raw property value from the given {@code bean}, i.e. the lazy reference
+     * itself for lazy properties.
+     *
+     * @param bean the declaring bean instance
+     * @return the raw property value
+     */
+    public Object reference(B bean) {
+        return read(bean);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public boolean isList() {
+        return list;
+    }
+
+    public boolean isConnection() {
+        return connection;
+    }
+
+    public boolean isRangeIndexed() {
+        return rangeIndexed;
+    }
+
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Graph field kinds.
+     */
+    public enum Kind {
+
+        /**
+         * A GraphQL scalar value.
+         */
+        SCALAR,
+
+        /**
+         * A reference to another graph type.
+         */
+        OBJECT
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.tmarwen.micronaut.microstream.model;
+
+import java.util.List;
+
+/**
+ * Compile-time generated description of a MicroStream graph.
+ *
+ * <p>Implementations are written by the {@code MicroStreamRootTypeVisitor} for each
+ * {@link com.github.tmarwen.micronaut.microstream.annotation.Root} type and registered
+ * as services so that the runtime does not need to walk the bean introspections upon
+ * startup.
+ *
+ * @since 1.0.0
+ */
+public interface GraphModel {
+
+    /**
+     * Returns the type of the graph root entity.
+     *
+     * @return the root entity type
+     */
+    Class<?> getRootType();
+
+    /**
+     * Returns all the graph types reachable from the root entity, the root type included.
+     *
+     * @return the graph types
+     */
+    List<GraphType<?>> getTypes();
+
+    /**
+     * Returns the graph type describing the root entity.
+     *
+     * @return the root graph type
+     */
+    default GraphType<?> getRoot() {
+        return getTypes().stream()
+                .filter(GraphType::isRoot)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No root type found in graph model " + getClass()));
+    }
+}
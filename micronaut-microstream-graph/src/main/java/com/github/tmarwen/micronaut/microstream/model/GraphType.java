@@ -0,0 +1,113 @@
+package com.github.tmarwen.micronaut.microstream.model;
+
+import com.github.tmarwen.micronaut.microstream.annotation.Indexed;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Compile-time resolved description of a MicroStream graph type.
+ *
+ * @param <B> the bean type
+ * @since 1.0.0
+ */
+public final class GraphType<B> {
+
+    /**
+     * The GraphQL type name.
+     */
+    private final String name;
+
+    /**
+     * The described bean type.
+     */
+    private final Class<B> beanType;
+
+    /**
+     * Whether this type is the graph root entity.
+     */
+    private final boolean root;
+
+    /**
+     * Whether this type is indexed by its identifier.
+     */
+    private final boolean indexed;
+
+    /**
+     * The type fields in declaration order.
+     */
+    private final List<GraphField<B, ?>> fields;
+
+    public GraphType(String name, Class<B> beanType, boolean root, List<GraphField<B, ?>> fields) {
+        this(name, beanType, root, false, fields);
+    }
+
+    public GraphType(String name, Class<B> beanType, boolean root, boolean indexed, List<GraphField<B, ?>> fields) {
+        this.name = name;
+        this.beanType = beanType;
+        this.root = root;
+        this.indexed = indexed;
+        this.fields = Collections.unmodifiableList(fields);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<B> getBeanType() {
+        return beanType;
+    }
+
+    public boolean isRoot() {
+        return root;
+    }
+
+    public boolean isIndexed() {
+        return indexed;
+    }
+
+    public List<GraphField<B, ?>> getFields() {
+        return fields;
+    }
+
+    /**
+     * Returns the identifier field of an indexed type.
+     *
+     * @return the identifier field
+     * @throws IllegalStateException if the type is not indexed
+     */
+    public GraphField<B, ?> getIdField() {
+        if (!indexed) {
+            throw new IllegalStateException("Graph type " + name + " is not indexed");
+        }
+        return getField(Indexed.ID_PROPERTY)
+                .orElseThrow(() -> new IllegalStateException("No identifier field found on graph type " + name));
+    }
+
+    /**
+     * Returns the range indexed field of this type.
+     *
+     * @return the range indexed field, if any
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<GraphField<B, Instant>> getRangeField() {
+        return fields.stream()
+                .filter(GraphField::isRangeIndexed)
+                .map(field -> (GraphField<B, Instant>) field)
+                .findFirst();
+    }
+
+    /**
+     * Returns the field with the given {@code name}.
+     *
+     * @param name the field name
+     * @return the field, if any
+     */
+    public Optional<GraphField<B, ?>> getField(String name) {
+        return fields.stream()
+                .filter(field -> field.getName().equals(name))
+                .findFirst();
+    }
+}
@@ -0,0 +1,159 @@
+package com.github.tmarwen.micronaut.microstream.model;
+
+import one.microstream.reference.Lazy;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+
+/**
+ * Walks object graphs along the properties described by a {@link GraphModel}.
+ *
+ * <p>The walk is iterative (no recursion depth limit) and visits each instance at most once.
+ * Iterable values, such as stored graph lists, are expanded to their elements. Unloaded
+ * {@link Lazy} references are not followed: walking never pulls stored data into memory.
+ *
+ * @since 1.0.0
+ */
+public final class GraphWalker {
+
+    /**
+     * Graph types by bean type.
+     */
+    private final Map<Class<?>, GraphType<?>> types = new HashMap<>();
+
+    public GraphWalker(GraphModel graphModel) {
+        graphModel.getTypes().forEach(type -> types.put(type.getBeanType(), type));
+    }
+
+    /**
+     * Returns the graph type of the given instance.
+     *
+     * @param instance the graph instance
+     * @return the graph type or {@code null} if the instance is not part of the graph model
+     */
+    public GraphType<?> typeOf(Object instance) {
+        return instance == null ? null : types.get(instance.getClass());
+    }
+
+    /**
+     * Walks the graph reachable from the given {@code start} objects.
+     *
+     * @param start   the objects to start walking from
+     * @param visitor the visitor called for each reached graph instance
+     * @param descend predicate telling whether the properties of a visited instance should be walked
+     */
+    public void walk(Iterable<?> start,
+                     BiConsumer<GraphType<?>, Object> visitor,
+                     BiPredicate<GraphType<?>, Object> descend) {
+        walk(start, visitor, descend, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Walks the graph reachable from the given {@code start} objects, reaching at most {@code limit}
+     * objects, lists included: once the limit is reached, iterables are no longer expanded and only
+     * the prefix of an iterable fitting within the limit is. Iterables modified while expanded are
+     * expanded up to the modification, so that a bounded walk may sample a graph being written to.
+     *
+     * @param start   the objects to start walking from
+     * @param visitor the visitor called for each reached graph instance
+     * @param descend predicate telling whether the properties of a visited instance should be walked
+     * @param limit   the maximum number of reached objects
+     */
+    public void walk(Iterable<?> start,
+                     BiConsumer<GraphType<?>, Object> visitor,
+                     BiPredicate<GraphType<?>, Object> descend,
+                     int limit) {
+        final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Deque<Object> pending = new ArrayDeque<>();
+        int remaining = push(pending, start, limit);
+        while (!pending.isEmpty()) {
+            final Object instance = pending.pop();
+            if (!visited.add(instance)) {
+                continue;
+            }
+            if (instance instanceof Iterable) {
+                remaining = push(pending, (Iterable<?>) instance, remaining);
+                continue;
+            }
+            final GraphType<?> type = typeOf(instance);
+            if (type == null) {
+                continue;
+            }
+            final boolean walkProperties = descend.test(type, instance);
+            visitor.accept(type, instance);
+            if (walkProperties) {
+                remaining = pushProperties(pending, type, instance, remaining);
+            }
+        }
+    }
+
+    /**
+     * Pushes the object-valued property values of the given instance.
+     *
+     * @param pending   the pending instances
+     * @param type      the instance graph type
+     * @param instance  the graph instance
+     * @param remaining the number of objects that may still be pushed
+     * @param <B>       the bean type
+     * @return the number of objects that may still be pushed
+     */
+    private <B> int pushProperties(Deque<Object> pending, GraphType<B> type, Object instance, int remaining) {
+        final B bean = type.getBeanType().cast(instance);
+        for (GraphField<B, ?> field : type.getFields()) {
+            if (remaining <= 0) {
+                break;
+            }
+            if (field.getKind() == GraphField.Kind.OBJECT) {
+                final Object value = field.reference(bean);
+                remaining -= push(pending, value instanceof Lazy ? ((Lazy<?>) value).peek() : value);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Pushes the elements of the given iterable, up to the given number of objects and to the
+     * first concurrent modification of the iterable.
+     *
+     * @param pending   the pending instances
+     * @param elements  the elements to push
+     * @param remaining the number of objects that may still be pushed
+     * @return the number of objects that may still be pushed
+     */
+    private static int push(Deque<Object> pending, Iterable<?> elements, int remaining) {
+        try {
+            final Iterator<?> iterator = elements.iterator();
+            while (remaining > 0 && iterator.hasNext()) {
+                remaining -= push(pending, iterator.next());
+            }
+        } catch (ConcurrentModificationException | NoSuchElementException e) {
+            // the iterable was modified concurrently, its remaining elements are skipped
+        }
+        return remaining;
+    }
+
+    /**
+     * Pushes the given value, ignoring {@code null}s.
+     *
+     * @param pending the pending instances
+     * @param value   the value to push
+     * @return the number of pushed objects
+     */
+    private static int push(Deque<Object> pending, Object value) {
+        if (value == null) {
+            return 0;
+        }
+        pending.push(value);
+        return 1;
+    }
+}
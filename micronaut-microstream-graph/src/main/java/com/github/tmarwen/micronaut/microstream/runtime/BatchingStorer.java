@@ -0,0 +1,209 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import com.github.tmarwen.micronaut.microstream.configuration.BatchingStorerConfigurationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind storer coalescing the objects to store into batched commits.
+ *
+ * <p>Objects are queued and committed through the {@link GraphStorer} by a dedicated thread,
+ * as soon as {@link BatchingStorerConfigurationProperties#getMaxBatchSize()} distinct objects
+ * are pending or {@link BatchingStorerConfigurationProperties#getFlushInterval()} elapsed since
+ * the oldest pending one was queued. An object queued several times within a batch is stored
+ * once. Callers are blocked while the queue is full.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+public class BatchingStorer {
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingStorer.class);
+
+    /**
+     * The graph storer performing the commits.
+     */
+    private final GraphStorer graphStorer;
+
+    /**
+     * The pending store requests.
+     */
+    private final BlockingQueue<Request> queue;
+
+    /**
+     * The maximum number of objects per commit.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * The flush interval, in nanoseconds.
+     */
+    private final long flushIntervalNanos;
+
+    /**
+     * The commit thread.
+     */
+    private final Thread flusher;
+
+    /**
+     * Whether the storer has been closed.
+     */
+    private volatile boolean closed;
+
+    public BatchingStorer(GraphStorer graphStorer, BatchingStorerConfigurationProperties configuration) {
+        if (configuration.getMaxBatchSize() < 1 || configuration.getQueueCapacity() < 1) {
+            throw new IllegalArgumentException("Batching storer batch size and queue capacity must be positive");
+        }
+        this.graphStorer = graphStorer;
+        this.queue = new ArrayBlockingQueue<>(configuration.getQueueCapacity());
+        this.maxBatchSize = configuration.getMaxBatchSize();
+        this.flushIntervalNanos = configuration.getFlushInterval().toNanos();
+        this.flusher = new Thread(this::run, "microstream-batching-storer");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Queues the given {@code instance} for storing, blocking while the queue is full.
+     *
+     * @param instance the object to store
+     * @return a future completed once the instance is committed
+     */
+    public CompletableFuture<Void> store(Object instance) {
+        if (instance == null) {
+            throw new IllegalArgumentException("Cannot store null instance");
+        }
+        return enqueue(new Request(instance));
+    }
+
+    /**
+     * Commits all the objects queued so far.
+     *
+     * @return a future completed once the queued objects are committed
+     */
+    public CompletableFuture<Void> flush() {
+        return enqueue(new Request(null));
+    }
+
+    /**
+     * Commits the pending objects and stops the commit thread.
+     */
+    @PreDestroy
+    public void close() {
+        if (closed) {
+            return;
+        }
+        final CompletableFuture<Void> flushed = flush();
+        closed = true;
+        flushed.join();
+        flusher.interrupt();
+    }
+
+    /**
+     * Queues the given request.
+     *
+     * @param request the store request
+     * @return the request future
+     */
+    private CompletableFuture<Void> enqueue(Request request) {
+        if (closed) {
+            throw new IllegalStateException("Batching storer is closed");
+        }
+        try {
+            queue.put(request);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for batching storer queue capacity", e);
+        }
+        return request.future;
+    }
+
+    /**
+     * The commit thread loop.
+     */
+    private void run() {
+        final List<Request> batch = new ArrayList<>();
+        final Set<Object> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<Object> instances = new ArrayList<>();
+        while (!closed || !queue.isEmpty()) {
+            try {
+                final Request first = queue.take();
+                final long deadline = System.nanoTime() + flushIntervalNanos;
+                Request request = first;
+                while (request != null) {
+                    batch.add(request);
+                    if (request.instance == null) {
+                        // explicit flush
+                        break;
+                    }
+                    if (distinct.add(request.instance)) {
+                        instances.add(request.instance);
+                    }
+                    if (instances.size() >= maxBatchSize) {
+                        break;
+                    }
+                    request = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                }
+            } catch (InterruptedException e) {
+                if (!closed) {
+                    LOGGER.warn("MicroStream batching storer interrupted, pending objects are committed");
+                }
+            }
+            commit(batch, instances);
+            batch.clear();
+            distinct.clear();
+            instances.clear();
+        }
+    }
+
+    /**
+     * Commits the given instances and completes their requests.
+     *
+     * @param batch     the store requests
+     * @param instances the distinct objects to store
+     */
+    private void commit(List<Request> batch, List<Object> instances) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            graphStorer.storeAll(instances);
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Batched {} store request(s) into a commit of {} object(s)", batch.size(), instances.size());
+            }
+            batch.forEach(request -> request.future.complete(null));
+        } catch (RuntimeException e) {
+            LOGGER.error("Error committing batch of {} object(s) to MicroStream storage", instances.size(), e);
+            batch.forEach(request -> request.future.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * A queued store request, a {@code null} instance requests a flush.
+     */
+    private static final class Request {
+
+        private final Object instance;
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Request(Object instance) {
+            this.instance = instance;
+        }
+    }
+}
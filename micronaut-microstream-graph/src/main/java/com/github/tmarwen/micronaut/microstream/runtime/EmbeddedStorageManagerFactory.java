@@ -2,27 +2,50 @@ package com.github.tmarwen.micronaut.microstream.runtime;
 
 import com.github.tmarwen.micronaut.microstream.annotation.Root;
 import com.github.tmarwen.micronaut.microstream.annotation.StorageManager;
+import com.github.tmarwen.micronaut.microstream.configuration.BackupConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.configuration.HousekeepingConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.configuration.MicroStreamConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.configuration.PartitionConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.configuration.ReplicaConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.configuration.StorageConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
 import io.micronaut.aop.InvocationContext;
 import io.micronaut.context.ApplicationContext;
 import io.micronaut.context.Qualifier;
 import io.micronaut.context.annotation.Bean;
 import io.micronaut.context.annotation.Context;
+import io.micronaut.context.annotation.EachBean;
 import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Parameter;
+import io.micronaut.context.annotation.Primary;
 import io.micronaut.context.annotation.Requires;
 import io.micronaut.core.beans.BeanIntrospection;
-import io.micronaut.core.beans.BeanIntrospector;
 import io.micronaut.core.type.Argument;
 import io.micronaut.inject.BeanDefinition;
 import io.micronaut.inject.qualifiers.Qualifiers;
+import one.microstream.afs.nio.NioFileSystem;
 import one.microstream.storage.types.EmbeddedStorage;
 import one.microstream.storage.types.EmbeddedStorageManager;
+import one.microstream.storage.types.Storage;
+import one.microstream.storage.types.StorageBackupSetup;
+import one.microstream.storage.types.StorageConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static com.github.tmarwen.micronaut.microstream.annotation.StorageManager.ROOT_MEMBER;
 
@@ -33,6 +56,17 @@ import static com.github.tmarwen.micronaut.microstream.annotation.StorageManager
  * configuration and usually does not require any other configuration injection by the
  * user.
  *
+ * <p>The default storage manager is the primary one, holding the {@link Root} type not bound to
+ * any named storage manager. Named storage managers, configured under
+ * {@code microstream.storages.<name>}, hold the root type bound to them through
+ * {@link StorageManager} and are qualified by their name.
+ *
+ * <p>When partitioned, the default root graph is spread over the default storage manager and
+ * the additional partition storages of the {@link GraphPartitions}.
+ *
+ * <p>The empty storages of a read-only replica are bootstrapped from the configured snapshot of
+ * the primary storages.
+ *
  * @since 1.0.0
  */
 @Factory
@@ -43,10 +77,116 @@ public class EmbeddedStorageManagerFactory {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddedStorageManagerFactory.class);
 
+    /**
+     * The background housekeeping interval of the storages housekept by the {@link HousekeepingScheduler}.
+     */
+    private static final Duration SCHEDULED_BACKGROUND_INTERVAL = Duration.ofHours(1);
+
+    /**
+     * The background housekeeping time budget, in nanoseconds, of the storages housekept by the
+     * {@link HousekeepingScheduler}, the smallest one accepted by the storage engine.
+     */
+    private static final long SCHEDULED_BACKGROUND_TIME_BUDGET_NANOS = 1L;
+
+    @Bean(preDestroy = "shutdown")
+    @Singleton
+    @Primary
+    public EmbeddedStorageManager embeddedStorageManager(MicroStreamConfigurationProperties configuration,
+                                                         BackupConfigurationProperties backupConfiguration,
+                                                         ReplicaConfigurationProperties replicaConfiguration,
+                                                         HousekeepingConfigurationProperties housekeepingConfiguration,
+                                                         GraphModel graphModel,
+                                                         GraphVersion graphVersion,
+                                                         StorageMetrics storageMetrics) {
+        if (backupConfiguration.isRestore()) {
+            restore(configuration, backupConfiguration, graphModel);
+        }
+        if (replicaConfiguration.isEnabled()) {
+            bootstrap(replicaConfiguration.getSnapshotDirectory(), configuration.getStorageDirectory(),
+                    backupConfiguration.getRestoreThreads(), configuration, graphModel);
+        }
+        return start(graphModel, storageConfiguration(
+                configuration,
+                configuration.getStorageDirectory(),
+                configuration.getChannelCount(),
+                backupConfiguration.getDirectory(),
+                housekeepingConfiguration.isEnabled()
+        ), graphVersion, storageMetrics);
+    }
+
+    @EachBean(StorageConfigurationProperties.class)
+    @Bean(preDestroy = "shutdown")
+    public EmbeddedStorageManager namedStorageManager(StorageConfigurationProperties storageConfiguration,
+                                                      @Parameter GraphModel graphModel,
+                                                      MicroStreamConfigurationProperties configuration,
+                                                      GraphVersion graphVersion) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Creating MicroStream storage manager '{}'", storageConfiguration.getName());
+        }
+        // named storages commits and housekeeping are not accounted in the default storage metrics
+        final StorageMetrics storageMetrics = new StorageMetrics();
+        return start(graphModel, storageConfiguration(
+                configuration,
+                storageConfiguration.getStorageDirectory(),
+                storageConfiguration.getChannelCount(),
+                null,
+                false
+        ), graphVersion, storageMetrics);
+    }
+
     @Bean(preDestroy = "shutdown")
     @Singleton
-    public EmbeddedStorageManager embeddedStorageManager() {
-        final Class<?> rootType = getRootType();
+    public GraphPartitions graphPartitions(EmbeddedStorageManager storageManager,
+                                           PartitionConfigurationProperties partitionConfiguration,
+                                           MicroStreamConfigurationProperties configuration,
+                                           BackupConfigurationProperties backupConfiguration,
+                                           ReplicaConfigurationProperties replicaConfiguration,
+                                           GraphModel graphModel,
+                                           GraphVersion graphVersion) {
+        final int count = partitionConfiguration.getCount();
+        if (count < 1) {
+            throw new IllegalArgumentException("MicroStream partition count must be positive, got " + count);
+        }
+        final List<EmbeddedStorageManager> storageManagers = new ArrayList<>(count);
+        storageManagers.add(storageManager);
+        // the additional partitions load their roots in parallel
+        storageManagers.addAll(IntStream.range(1, count).parallel().mapToObj(partition -> {
+            final String storageDirectory = configuration.getStorageDirectory() + "-partition-" + partition;
+            if (replicaConfiguration.isEnabled() && replicaConfiguration.getSnapshotDirectory() != null) {
+                bootstrap(replicaConfiguration.getSnapshotDirectory() + "-partition-" + partition, storageDirectory,
+                        backupConfiguration.getRestoreThreads(), configuration, graphModel);
+            }
+            final StorageMetrics storageMetrics = new StorageMetrics();
+            return start(graphModel, storageConfiguration(
+                    configuration,
+                    storageDirectory,
+                    configuration.getChannelCount(),
+                    null,
+                    false
+            ), graphVersion, storageMetrics);
+        }).collect(Collectors.toList()));
+        try {
+            return new GraphPartitions(storageManagers, graphModel, partitionConfiguration.getFields());
+        } catch (RuntimeException e) {
+            storageManagers.subList(1, count).forEach(EmbeddedStorageManager::shutdown);
+            throw e;
+        }
+    }
+
+    /**
+     * Starts the storage holding the root entity of the given graph model.
+     *
+     * @param graphModel           the graph model
+     * @param storageConfiguration the storage engine configuration
+     * @param graphVersion         the graph version
+     * @param storageMetrics       the storage metrics
+     * @return the started storage manager
+     */
+    private EmbeddedStorageManager start(GraphModel graphModel,
+                                         StorageConfiguration storageConfiguration,
+                                         GraphVersion graphVersion,
+                                         StorageMetrics storageMetrics) {
+        final Class<?> rootType = graphModel.getRootType();
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("MicroStream @Root entity {} retrieved successfully", rootType);
         }
@@ -54,24 +194,182 @@ public class EmbeddedStorageManagerFactory {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Creating 'EmbeddedStorageManager' for configured root type");
         }
-        return EmbeddedStorage.start(rootIntrospection.instantiate());
+        final long start = System.nanoTime();
+        final EmbeddedStorageManager storageManager = EmbeddedStorage.Foundation(storageConfiguration)
+                .createEmbeddedStorageManager(rootIntrospection.instantiate())
+                .start();
+        storageMetrics.recordStart(System.nanoTime() - start);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("MicroStream storage of {} started in {} ms", rootType, storageMetrics.getStartNanos() / 1_000_000);
+        }
+        // track commits so that values derived from the graph can be invalidated
+        return InstrumentedStorageManager.wrap(storageManager, graphVersion, storageMetrics);
     }
 
     /**
-     * Resolves and returns the root entity type for the MicroStream graph.
+     * Builds the storage engine configuration from the given properties.
      *
-     * @return the type of the graph root entity
+     * @param configuration    the MicroStream configuration properties
+     * @param storageDirectory the directory holding the storage channel files
+     * @param channelCount     the number of storage channels
+     * @param backupDirectory  the continuous backup directory or {@code null}
+     * @param scheduled        whether the storage is housekept by the {@link HousekeepingScheduler}, in which
+     *                         case the background housekeeping of the storage channels is reduced to a minimum
+     * @return the storage configuration
      */
-    private Class<?> getRootType() {
+    private StorageConfiguration storageConfiguration(MicroStreamConfigurationProperties configuration,
+                                                      String storageDirectory,
+                                                      int channelCount,
+                                                      String backupDirectory,
+                                                      boolean scheduled) {
+        if (channelCount < 1 || Integer.bitCount(channelCount) != 1) {
+            throw new IllegalArgumentException("MicroStream channel count must be a power of two, got " + channelCount);
+        }
+        if (configuration.getDataFileMinimumSize() > configuration.getDataFileMaximumSize()) {
+            throw new IllegalArgumentException("MicroStream data file minimum size must not exceed the maximum size");
+        }
         if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Resolving MicroStream graph root type");
-        }
-        return BeanIntrospector.SHARED.findIntrospections(Root.class)
-                .stream()
-                .findFirst() // There should be only one @Root at this point
-                .map(BeanIntrospection::getBeanType)
-                .orElseThrow(() -> new IllegalStateException("Cannot resolve MicroStream root type." +
-                        " Make sure to mark '@Root' type and have annotation processing activated at compile time.")
-                );
+            LOGGER.debug("Configuring MicroStream storage in '{}' with {} channel(s)", storageDirectory, channelCount);
+        }
+        if (scheduled && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Reducing MicroStream background housekeeping of '{}' in favor of scheduled passes",
+                    storageDirectory);
+        }
+        final NioFileSystem fileSystem = NioFileSystem.New();
+        final StorageConfiguration.Builder<?> builder = Storage.ConfigurationBuilder();
+        if (backupDirectory != null) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Backing up MicroStream storage continuously to '{}'", backupDirectory);
+            }
+            builder.setBackupSetup(StorageBackupSetup.New(Storage.BackupFileProviderBuilder(fileSystem)
+                    .setDirectory(fileSystem.ensureDirectoryPath(backupDirectory))
+                    .createFileProvider()));
+        }
+        return builder
+                .setStorageFileProvider(Storage.FileProviderBuilder(fileSystem)
+                        .setDirectory(fileSystem.ensureDirectoryPath(storageDirectory))
+                        .createFileProvider())
+                .setChannelCountProvider(Storage.ChannelCountProvider(channelCount))
+                .setDataFileEvaluator(Storage.DataFileEvaluator(
+                        configuration.getDataFileMinimumSize(),
+                        configuration.getDataFileMaximumSize(),
+                        configuration.getDataFileDissolveRatio()))
+                .setEntityCacheEvaluator(Storage.EntityCacheEvaluator(
+                        configuration.getEntityCacheTimeout().toMillis(),
+                        configuration.getEntityCacheThreshold()))
+                .setHousekeepingController(scheduled
+                        ? Storage.HousekeepingController(
+                                SCHEDULED_BACKGROUND_INTERVAL.toMillis(),
+                                SCHEDULED_BACKGROUND_TIME_BUDGET_NANOS)
+                        : Storage.HousekeepingController(
+                                configuration.getHousekeepingInterval().toMillis(),
+                                configuration.getHousekeepingTimeBudget().toNanos()))
+                .createConfiguration();
+    }
+
+    /**
+     * Restores the storage directory from the backup directory.
+     *
+     * @param configuration       the MicroStream configuration properties
+     * @param backupConfiguration the backup configuration properties
+     * @param graphModel          the graph model
+     */
+    private void restore(MicroStreamConfigurationProperties configuration,
+                         BackupConfigurationProperties backupConfiguration,
+                         GraphModel graphModel) {
+        if (backupConfiguration.getDirectory() == null) {
+            throw new IllegalStateException("MicroStream backup directory must be configured to restore the storage");
+        }
+        try {
+            new StorageRestorer(backupConfiguration.getRestoreThreads()).restore(
+                    Paths.get(backupConfiguration.getDirectory()),
+                    Paths.get(configuration.getStorageDirectory()),
+                    restored -> verify(configuration, restored, graphModel.getRootType())
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot restore MicroStream storage from backup", e);
+        }
+    }
+
+    /**
+     * Bootstraps an empty replica storage directory from a snapshot of the primary storage.
+     *
+     * @param snapshotDirectory the snapshot directory, {@code null} if the storage directory holds it already
+     * @param storageDirectory  the replica storage directory
+     * @param threads           the number of files copied in parallel
+     * @param configuration     the MicroStream configuration properties
+     * @param graphModel        the graph model
+     */
+    private void bootstrap(String snapshotDirectory,
+                           String storageDirectory,
+                           int threads,
+                           MicroStreamConfigurationProperties configuration,
+                           GraphModel graphModel) {
+        final Path storagePath = Paths.get(storageDirectory);
+        try {
+            if (snapshotDirectory == null || !isEmpty(storagePath)) {
+                return;
+            }
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.info("Bootstrapping MicroStream replica storage '{}' from snapshot '{}'",
+                        storageDirectory, snapshotDirectory);
+            }
+            new StorageRestorer(threads).restore(Paths.get(snapshotDirectory), storagePath,
+                    restored -> verify(configuration, restored, graphModel.getRootType()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot bootstrap MicroStream replica storage from snapshot", e);
+        }
+    }
+
+    /**
+     * Verifies a restored storage by starting it, without any backup, and loading its root.
+     *
+     * @param configuration    the MicroStream configuration properties
+     * @param storageDirectory the restored storage directory
+     * @param rootType         the expected root type
+     * @throws IllegalStateException if the restored storage cannot be started or does not hold a root of the
+     *                               expected type
+     */
+    private void verify(MicroStreamConfigurationProperties configuration, Path storageDirectory, Class<?> rootType) {
+        final EmbeddedStorageManager storageManager;
+        try {
+            // no root instance is given so that a missing root is not replaced by an empty one
+            storageManager = EmbeddedStorage.Foundation(storageConfiguration(
+                    configuration,
+                    storageDirectory.toString(),
+                    configuration.getChannelCount(),
+                    null,
+                    false
+            )).createEmbeddedStorageManager().start();
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Restored MicroStream storage '" + storageDirectory
+                    + "' cannot be started: " + e.getMessage(), e);
+        }
+        try {
+            final Object root = storageManager.root();
+            if (!rootType.isInstance(root)) {
+                throw new IllegalStateException("Restored MicroStream storage '" + storageDirectory + "' does not hold a "
+                        + rootType.getName() + " root, found " + (root == null ? "none" : root.getClass().getName()));
+            }
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Restored MicroStream storage '{}' verified", storageDirectory);
+            }
+        } finally {
+            storageManager.shutdown();
+        }
+    }
+
+    /**
+     * @param directory the directory
+     * @return whether the given directory does not exist or holds no file
+     * @throws IOException if the directory cannot be listed
+     */
+    private static boolean isEmpty(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return true;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.findAny().isEmpty();
+        }
     }
 }
@@ -0,0 +1,50 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * A {@link GraphConcurrencyStrategy} guarding the whole graph with a single read/write lock:
+ * readers run concurrently while writers get exclusive access to the graph.
+ *
+ * @since 1.0.0
+ */
+public class GlobalLockConcurrencyStrategy implements GraphConcurrencyStrategy {
+
+    /**
+     * The graph lock.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public <T> T read(Object aggregate, Supplier<T> reader) {
+        return readAll(reader);
+    }
+
+    @Override
+    public <T> T write(Collection<?> aggregates, Supplier<T> writer) {
+        lock.writeLock().lock();
+        try {
+            return writer.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public <T> T writeAll(Supplier<T> writer) {
+        return write(null, writer);
+    }
+
+    @Override
+    public <T> T readAll(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Coordinates the concurrent access to the live object graph between readers, such as the
+ * GraphQL data fetchers, and mutators.
+ *
+ * <p>Access is coordinated per aggregate, the graph instance owning the read or mutated
+ * state: a reader of {@code thread.getMessages()} and a writer appending to it both refer to
+ * the {@code thread} aggregate. The lists held by the graph root are the exception: each one
+ * is guarded by its root {@link com.github.tmarwen.micronaut.microstream.model.GraphField}, so
+ * that the writers of distinct root lists do not contend on the root. Write sections are not
+ * reentrant and must not store, storing happens after the changes are made.
+ *
+ * @since 1.0.0
+ */
+public interface GraphConcurrencyStrategy {
+
+    /**
+     * Runs the given reader against the state of the given aggregate. The reader may be run
+     * more than once and must therefore be free of side effects, it should copy out the
+     * state it needs instead of returning live mutable structures.
+     *
+     * @param aggregate the read aggregate
+     * @param reader    the reader
+     * @param <T>       the read value type
+     * @return the read value
+     */
+    <T> T read(Object aggregate, Supplier<T> reader);
+
+    /**
+     * Runs the given writer with exclusive access to the given aggregates.
+     *
+     * @param aggregates the mutated aggregates
+     * @param writer     the writer
+     * @param <T>        the result type
+     * @return the writer result
+     */
+    <T> T write(Collection<?> aggregates, Supplier<T> writer);
+
+    /**
+     * Runs the given reader with shared access to the whole graph, excluding all writers.
+     * Used to commit and walk stored changes.
+     *
+     * @param reader the reader
+     * @param <T>    the read value type
+     * @return the read value
+     */
+    <T> T readAll(Supplier<T> reader);
+
+    /**
+     * Runs the given writer with exclusive access to the whole graph, excluding all readers
+     * and writers. Used to apply changes whose aggregates are unknown, such as the changes
+     * replayed by a replica.
+     *
+     * @param writer the writer
+     * @param <T>    the result type
+     * @return the writer result
+     */
+    <T> T writeAll(Supplier<T> writer);
+}
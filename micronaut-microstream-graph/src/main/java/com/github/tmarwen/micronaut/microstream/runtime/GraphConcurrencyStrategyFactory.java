@@ -0,0 +1,35 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import com.github.tmarwen.micronaut.microstream.configuration.ConcurrencyConfigurationProperties;
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+
+/**
+ * Factory of the configured {@link GraphConcurrencyStrategy}.
+ *
+ * @since 1.0.0
+ */
+@Factory
+public class GraphConcurrencyStrategyFactory {
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphConcurrencyStrategyFactory.class);
+
+    @Bean
+    @Singleton
+    public GraphConcurrencyStrategy graphConcurrencyStrategy(ConcurrencyConfigurationProperties configuration) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Using {} graph concurrency strategy", configuration.getStrategy());
+        }
+        if (configuration.getStrategy() == ConcurrencyConfigurationProperties.Strategy.GLOBAL) {
+            return new GlobalLockConcurrencyStrategy();
+        }
+        return new StripedConcurrencyStrategy(configuration.getStripes());
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import com.github.tmarwen.micronaut.microstream.annotation.StorageManager;
+import com.github.tmarwen.micronaut.microstream.configuration.StorageConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
+import com.github.tmarwen.micronaut.microstream.model.GraphWalker;
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.EachBean;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Primary;
+import io.micronaut.core.io.service.ServiceDefinition;
+import io.micronaut.core.io.service.SoftServiceLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+
+/**
+ * Factory exposing the compile-time generated {@link GraphModel}s and their helpers as beans.
+ *
+ * <p>The model held by the default storage manager is the primary one, the models of the
+ * named storage managers are qualified by the storage manager name.
+ *
+ * @since 1.0.0
+ */
+@Factory
+public class GraphModelFactory {
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphModelFactory.class);
+
+    @Bean
+    @Singleton
+    @Primary
+    public GraphModel graphModel() {
+        return loadGraphModel(StorageManager.DEFAULT_NAME);
+    }
+
+    @EachBean(StorageConfigurationProperties.class)
+    public GraphModel namedGraphModel(StorageConfigurationProperties configuration) {
+        return loadGraphModel(configuration.getName());
+    }
+
+    @Bean
+    @Singleton
+    public GraphWalker graphWalker(GraphModel graphModel) {
+        return new GraphWalker(graphModel);
+    }
+
+    /**
+     * Loads the graph model held by the given storage manager.
+     *
+     * @param storageName the storage manager name
+     * @return the graph model
+     */
+    private GraphModel loadGraphModel(String storageName) {
+        for (ServiceDefinition<GraphModel> definition : SoftServiceLoader.load(GraphModel.class)) {
+            if (definition.isPresent()) {
+                final GraphModel graphModel = definition.load();
+                if (!storageName.equals(storageNameOf(graphModel.getRootType()))) {
+                    continue;
+                }
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("MicroStream graph model {} loaded for root {} of storage manager '{}'",
+                            definition.getName(), graphModel.getRootType(), storageName);
+                }
+                return graphModel;
+            }
+        }
+        throw new IllegalStateException("Cannot resolve MicroStream graph model of storage manager '" + storageName
+                + "'. Make sure to mark '@Root' type and have annotation processing activated at compile time.");
+    }
+
+    /**
+     * Resolves the name of the storage manager holding the given root type, from the
+     * {@link StorageManager} annotated types registered as services at compile time.
+     *
+     * @param rootType the graph root type
+     * @return the storage manager name, the default one if the root type is not bound
+     */
+    private String storageNameOf(Class<?> rootType) {
+        for (ServiceDefinition<StorageManager> definition : SoftServiceLoader.load(StorageManager.class)) {
+            if (!definition.isPresent()) {
+                continue;
+            }
+            final StorageManager storageManager;
+            try {
+                storageManager = Class.forName(definition.getName(), false, rootType.getClassLoader())
+                        .getAnnotation(StorageManager.class);
+            } catch (ClassNotFoundException e) {
+                continue;
+            }
+            if (storageManager != null && storageManager.root() == rootType) {
+                return storageManager.name();
+            }
+        }
+        return StorageManager.DEFAULT_NAME;
+    }
+}
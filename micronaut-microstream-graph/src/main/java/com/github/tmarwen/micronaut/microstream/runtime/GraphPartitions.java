@@ -0,0 +1,376 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
+import com.github.tmarwen.micronaut.microstream.model.GraphType;
+import one.microstream.persistence.types.Storer;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * The local storages the default root graph is partitioned across.
+ *
+ * <p>Each partition is a storage of its own, holding its own root instance. The elements of
+ * the partitioned root lists, the aggregates, are routed to a partition by the hash of their
+ * identifier, while the other root fields are held by the first partition, i.e. the default
+ * storage manager. The objects reachable from an aggregate are stored along with it.
+ *
+ * <p>As a storage cannot reference the objects of another one, the graphs reachable from the
+ * root fields must not share any type when one of them is partitioned: a shared instance would
+ * get persisted as a copy in each partition referencing it. This is checked upon creation.
+ *
+ * <p>Each partition commits on its own thread so that a commit spanning several partitions
+ * writes them in parallel. Commits are atomic per partition only.
+ *
+ * @since 1.0.0
+ */
+public final class GraphPartitions {
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphPartitions.class);
+
+    /**
+     * The storage managers of the partitions, the default one first.
+     */
+    private final List<EmbeddedStorageManager> storageManagers;
+
+    /**
+     * The identifier fields of the partitioned types, by bean type.
+     */
+    private final Map<Class<?>, GraphField<?, ?>> idFields = new HashMap<>();
+
+    /**
+     * The partitioned root list fields.
+     */
+    private final Set<GraphField<?, ?>> partitionedFields = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * The commit thread of each partition, empty if not partitioned.
+     */
+    private final List<ExecutorService> committers = new ArrayList<>();
+
+    GraphPartitions(List<EmbeddedStorageManager> storageManagers, GraphModel graphModel, List<String> fields) {
+        this.storageManagers = Collections.unmodifiableList(new ArrayList<>(storageManagers));
+        if (storageManagers.size() < 2) {
+            return;
+        }
+        final GraphType<?> rootType = graphModel.getRoot();
+        final Set<String> unknownFields = new HashSet<>(fields);
+        for (GraphField<?, ?> field : rootType.getFields()) {
+            unknownFields.remove(field.getName());
+            if (!fields.isEmpty() && !fields.contains(field.getName())) {
+                continue;
+            }
+            final GraphType<?> elementType = field.isList() ? typeNamed(graphModel, field.getTypeName()) : null;
+            if (elementType != null && elementType.isIndexed()) {
+                idFields.put(elementType.getBeanType(), elementType.getIdField());
+            } else if (!fields.isEmpty()) {
+                throw new IllegalArgumentException("Partitioned root field '" + field.getName()
+                        + "' must be a list of an @Indexed type");
+            }
+        }
+        if (!unknownFields.isEmpty()) {
+            throw new IllegalArgumentException("Unknown partitioned root field(s) " + unknownFields);
+        }
+        // all the root lists of a partitioned type are partitioned
+        for (GraphField<?, ?> field : rootType.getFields()) {
+            final GraphType<?> elementType = field.isList() ? typeNamed(graphModel, field.getTypeName()) : null;
+            if (elementType != null && idFields.containsKey(elementType.getBeanType())) {
+                partitionedFields.add(field);
+            }
+        }
+        checkDisjoint(graphModel, rootType);
+        for (int partition = 0; partition < storageManagers.size(); partition++) {
+            final String name = "microstream-partition-" + partition;
+            committers.add(Executors.newSingleThreadExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            }));
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("MicroStream root graph partitioned across {} storages by {}", storageManagers.size(),
+                    partitionedFields.stream().map(GraphField::getName).collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * @return whether the root graph is partitioned across several storages
+     */
+    public boolean isPartitioned() {
+        return storageManagers.size() > 1;
+    }
+
+    /**
+     * @return the number of partitions
+     */
+    public int getCount() {
+        return storageManagers.size();
+    }
+
+    /**
+     * @return the storage managers of the partitions, the default one first
+     */
+    public List<EmbeddedStorageManager> getStorageManagers() {
+        return storageManagers;
+    }
+
+    /**
+     * @return the root instances of the partitions, the default one first
+     */
+    public List<Object> getRoots() {
+        final List<Object> roots = new ArrayList<>(storageManagers.size());
+        for (EmbeddedStorageManager storageManager : storageManagers) {
+            roots.add(storageManager.root());
+        }
+        return roots;
+    }
+
+    /**
+     * Returns whether the elements of the given root field are partitioned.
+     *
+     * @param field the root field
+     * @return {@code true} if the field elements are spread over the partitions
+     */
+    public boolean isPartitioned(GraphField<?, ?> field) {
+        return partitionedFields.contains(field);
+    }
+
+    /**
+     * Returns the partition of the given aggregate identifier.
+     *
+     * @param key the aggregate identifier
+     * @return the partition index
+     */
+    public int partitionOf(long key) {
+        // spread sequential identifiers evenly
+        return Math.floorMod(Long.hashCode(key * 0x9E3779B97F4A7C15L), storageManagers.size());
+    }
+
+    /**
+     * Returns the partition the given instance is routed to: the partition of its identifier
+     * for the partitioned types, the first partition otherwise.
+     *
+     * @param instance the graph instance
+     * @return the partition index
+     */
+    @SuppressWarnings("unchecked")
+    public int partitionOf(Object instance) {
+        final GraphField<Object, ?> idField = (GraphField<Object, ?>) idFields.get(instance.getClass());
+        if (idField == null) {
+            return 0;
+        }
+        final Object id = idField.read(instance);
+        return id == null ? 0 : partitionOf(((Number) id).longValue());
+    }
+
+    /**
+     * Returns the root instance of the partition the given instance is routed to.
+     *
+     * @param instance the graph instance
+     * @return the partition root
+     */
+    public Object rootOf(Object instance) {
+        return storageManagers.get(partitionOf(instance)).root();
+    }
+
+    /**
+     * Returns the partition whose storage holds the given object.
+     *
+     * @param instance the object
+     * @return the partition index, {@code -1} if the object is not stored yet
+     */
+    public int holderOf(Object instance) {
+        for (int partition = 0; partition < storageManagers.size(); partition++) {
+            if (objectIdOf(partition, instance) > 0) {
+                return partition;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the object identifier of the given object within the storage of the given
+     * partition. Identifiers are only unique within a partition.
+     *
+     * @param partition the partition index
+     * @param instance  the object
+     * @return the object identifier, {@code 0} if the object is not stored by the partition
+     */
+    public long objectIdOf(int partition, Object instance) {
+        return Math.max(0, storageManagers.get(partition).persistenceManager().objectRegistry().lookupObjectId(instance));
+    }
+
+    /**
+     * Commits the given objects to the partitions holding them. Objects not stored yet are
+     * committed along with the stored objects referencing them, or routed otherwise.
+     *
+     * @param instances the objects to store
+     */
+    void commit(Collection<?> instances) {
+        final Map<Integer, List<Object>> routed = new TreeMap<>();
+        final List<Object> unregistered = new ArrayList<>();
+        for (Object instance : instances) {
+            final int partition = holderOf(instance);
+            if (partition < 0) {
+                unregistered.add(instance);
+            } else {
+                routed.computeIfAbsent(partition, key -> new ArrayList<>()).add(instance);
+            }
+        }
+        commitAll(routed);
+        routed.clear();
+        for (Object instance : unregistered) {
+            // new objects referenced by the committed ones have been stored along with them
+            if (holderOf(instance) < 0) {
+                routed.computeIfAbsent(partitionOf(instance), key -> new ArrayList<>()).add(instance);
+            }
+        }
+        commitAll(routed);
+    }
+
+    /**
+     * Shuts the partitions down, the default storage manager excepted.
+     */
+    void shutdown() {
+        committers.forEach(ExecutorService::shutdown);
+        for (int partition = 1; partition < storageManagers.size(); partition++) {
+            storageManagers.get(partition).shutdown();
+        }
+    }
+
+    /**
+     * Commits the given objects of each partition, concurrently if several partitions are
+     * involved.
+     *
+     * @param routed the objects to store by partition
+     */
+    private void commitAll(Map<Integer, List<Object>> routed) {
+        if (routed.isEmpty()) {
+            return;
+        }
+        if (routed.size() == 1) {
+            final Map.Entry<Integer, List<Object>> entry = routed.entrySet().iterator().next();
+            commit(storageManagers.get(entry.getKey()), entry.getValue());
+            return;
+        }
+        final Map<Integer, Future<?>> commits = new LinkedHashMap<>();
+        routed.forEach((partition, objects) -> commits.put(partition, committers.get(partition).submit(
+                () -> commit(storageManagers.get(partition), objects)
+        )));
+        for (Map.Entry<Integer, Future<?>> commit : commits.entrySet()) {
+            try {
+                commit.getValue().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while committing MicroStream partition " + commit.getKey(), e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("MicroStream partition " + commit.getKey() + " commit failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Checks that the graphs reachable from the root fields do not share any type when one of
+     * them is partitioned.
+     *
+     * @param graphModel the graph model
+     * @param rootType   the root graph type
+     */
+    private void checkDisjoint(GraphModel graphModel, GraphType<?> rootType) {
+        final Map<String, Set<String>> reachable = new LinkedHashMap<>();
+        for (GraphField<?, ?> field : rootType.getFields()) {
+            if (field.getKind() == GraphField.Kind.OBJECT) {
+                reachable.computeIfAbsent(field.getTypeName(), typeName -> reachableTypes(graphModel, typeName));
+            }
+        }
+        reachable.forEach((typeName, types) -> reachable.forEach((otherName, otherTypes) -> {
+            if (typeName.equals(otherName) || !(isPartitionedType(graphModel, typeName)
+                    || isPartitionedType(graphModel, otherName))) {
+                return;
+            }
+            final Set<String> shared = new TreeSet<>(types);
+            shared.retainAll(otherTypes);
+            if (!shared.isEmpty()) {
+                throw new IllegalStateException("MicroStream partitioned graphs of " + typeName + " and " + otherName
+                        + " share the type(s) " + shared + ": shared instances would be copied to each partition"
+                        + " referencing them, reference them by identifier instead or partition other root fields");
+            }
+        }));
+    }
+
+    /**
+     * Returns the names of the types reachable from the given one, itself included.
+     *
+     * @param graphModel the graph model
+     * @param typeName   the type name
+     * @return the reachable type names
+     */
+    private static Set<String> reachableTypes(GraphModel graphModel, String typeName) {
+        final Set<String> reachable = new HashSet<>();
+        final Deque<String> pending = new ArrayDeque<>();
+        pending.push(typeName);
+        while (!pending.isEmpty()) {
+            final String name = pending.pop();
+            final GraphType<?> type = typeNamed(graphModel, name);
+            if (type == null || type.isRoot() || !reachable.add(name)) {
+                continue;
+            }
+            for (GraphField<?, ?> field : type.getFields()) {
+                if (field.getKind() == GraphField.Kind.OBJECT) {
+                    pending.push(field.getTypeName());
+                }
+            }
+        }
+        return reachable;
+    }
+
+    private boolean isPartitionedType(GraphModel graphModel, String typeName) {
+        final GraphType<?> type = typeNamed(graphModel, typeName);
+        return type != null && idFields.containsKey(type.getBeanType());
+    }
+
+    private static GraphType<?> typeNamed(GraphModel graphModel, String typeName) {
+        return graphModel.getTypes().stream()
+                .filter(type -> type.getName().equals(typeName))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Stores the given objects within a single commit of the given storage.
+     *
+     * @param storageManager the partition storage manager
+     * @param objects        the objects to store
+     */
+    private static void commit(EmbeddedStorageManager storageManager, List<Object> objects) {
+        final Storer storer = storageManager.createStorer();
+        for (Object instance : objects) {
+            storer.store(instance);
+        }
+        storer.commit();
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import com.github.tmarwen.micronaut.microstream.configuration.ReplicaConfigurationProperties;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import one.microstream.persistence.types.Storer;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Stores graph objects to the MicroStream storage within a single storer commit.
+ *
+ * <p>Graph changes should be stored through this bean rather than directly through the
+ * {@link EmbeddedStorageManager} so that a {@link StorageCommitEvent} is published to keep
+ * the graph dependent structures, such as indexes, up to date.
+ *
+ * <p>Commits run with shared access to the whole graph as per the {@link GraphConcurrencyStrategy}:
+ * concurrent readers proceed while writers wait for the commit to complete.
+ *
+ * <p>When the root graph is partitioned, objects are committed to the {@link GraphPartitions}
+ * holding them.
+ *
+ * <p>The graph of a read-only replica only changes by replaying the primary journal, storing
+ * is rejected.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+public class GraphStorer {
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphStorer.class);
+
+    /**
+     * The storage manager.
+     */
+    private final EmbeddedStorageManager storageManager;
+
+    /**
+     * The root graph partitions, {@code null} if the graph is held by the storage manager only.
+     */
+    private final GraphPartitions partitions;
+
+    /**
+     * The commit events publisher.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The graph concurrency strategy.
+     */
+    private final GraphConcurrencyStrategy concurrencyStrategy;
+
+    /**
+     * Whether the graph is a read-only replica.
+     */
+    private final boolean readOnly;
+
+    public GraphStorer(EmbeddedStorageManager storageManager,
+                       ApplicationEventPublisher eventPublisher,
+                       GraphConcurrencyStrategy concurrencyStrategy) {
+        this(storageManager, null, eventPublisher, concurrencyStrategy, null);
+    }
+
+    @Inject
+    public GraphStorer(EmbeddedStorageManager storageManager,
+                       GraphPartitions partitions,
+                       ApplicationEventPublisher eventPublisher,
+                       GraphConcurrencyStrategy concurrencyStrategy,
+                       ReplicaConfigurationProperties replicaConfiguration) {
+        this.readOnly = replicaConfiguration != null && replicaConfiguration.isEnabled();
+        this.storageManager = storageManager;
+        this.partitions = partitions != null && partitions.isPartitioned() ? partitions : null;
+        this.eventPublisher = eventPublisher;
+        this.concurrencyStrategy = concurrencyStrategy;
+    }
+
+    /**
+     * Stores the given {@code instance}.
+     *
+     * @param instance the object to store
+     */
+    public void store(Object instance) {
+        storeAll(Collections.singletonList(instance));
+    }
+
+    /**
+     * Stores the given {@code instances} within a single commit.
+     *
+     * @param instances the objects to store
+     */
+    public void storeAll(Object... instances) {
+        storeAll(Arrays.asList(instances));
+    }
+
+    /**
+     * Stores the given {@code instances} within a single commit.
+     *
+     * @param instances the objects to store
+     */
+    public void storeAll(Collection<?> instances) {
+        storeAll(instances, Collections.emptyList());
+    }
+
+    /**
+     * Stores the given {@code instances} within a single commit, notifying the removal of
+     * the given {@code removed} objects.
+     *
+     * <p>The removed objects must have been detached from the graph by the stored changes.
+     *
+     * @param instances the objects to store
+     * @param removed   the objects removed from the graph
+     * @throws IllegalStateException if the graph is a read-only replica
+     */
+    public void storeAll(Collection<?> instances, Collection<?> removed) {
+        if (readOnly) {
+            throw new IllegalStateException("MicroStream replica graph is read-only");
+        }
+        if (instances.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+        concurrencyStrategy.readAll(() -> {
+            if (partitions != null) {
+                partitions.commit(instances);
+            } else {
+                final Storer storer = storageManager.createStorer();
+                for (Object instance : instances) {
+                    storer.store(instance);
+                }
+                storer.commit();
+            }
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Committed {} object(s) to MicroStream storage", instances.size());
+            }
+            // listeners walk the stored changes, still excluding writers
+            eventPublisher.publishEvent(
+                    new StorageCommitEvent(storageManager, new ArrayList<>(instances), new ArrayList<>(removed))
+            );
+            return null;
+        });
+    }
+}
@@ -0,0 +1,153 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import graphql.GraphQLContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects the graph changes of a GraphQL request so that they are persisted within a single
+ * {@link GraphStorer} commit.
+ *
+ * <p>The unit of work is bound to the request {@link GraphQLContext}. An object registered
+ * several times is stored once. Identified objects created within the unit of work are
+ * resolvable by identifier until committed, since they are indexed by the commit.
+ *
+ * @since 1.0.0
+ */
+public final class GraphUnitOfWork {
+
+    /**
+     * The objects to store, in registration order.
+     */
+    private final List<Object> stored = new ArrayList<>();
+
+    /**
+     * The objects removed from the graph, in registration order.
+     */
+    private final List<Object> removed = new ArrayList<>();
+
+    /**
+     * Identity set of the registered objects.
+     */
+    private final Set<Object> registered = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * The identified objects created within the unit of work, by type and identifier.
+     */
+    private final Map<Class<?>, Map<Long, Object>> created = new HashMap<>();
+
+    /**
+     * The actions run once the changes are committed, successfully or not.
+     */
+    private final List<Runnable> completions = new ArrayList<>();
+
+    /**
+     * Binds a new unit of work to the given context.
+     *
+     * @param context the GraphQL context
+     * @return the bound unit of work
+     */
+    public static GraphUnitOfWork bind(GraphQLContext context) {
+        final GraphUnitOfWork unitOfWork = new GraphUnitOfWork();
+        context.put(GraphUnitOfWork.class, unitOfWork);
+        return unitOfWork;
+    }
+
+    /**
+     * Returns the unit of work bound to the given context.
+     *
+     * @param context the GraphQL context, may be of any type
+     * @return the unit of work or {@code null}
+     */
+    public static GraphUnitOfWork of(Object context) {
+        if (context instanceof GraphQLContext) {
+            return ((GraphQLContext) context).get(GraphUnitOfWork.class);
+        }
+        return null;
+    }
+
+    /**
+     * Registers the given object to be stored.
+     *
+     * @param instance the changed object
+     */
+    public synchronized void store(Object instance) {
+        if (registered.add(instance)) {
+            stored.add(instance);
+        }
+    }
+
+    /**
+     * Registers the given new identified object to be stored.
+     *
+     * @param type     the object graph type
+     * @param id       the object identifier
+     * @param instance the created object
+     * @param release  the action releasing the identifier once the changes are committed
+     */
+    public synchronized void create(Class<?> type, long id, Object instance, Runnable release) {
+        created.computeIfAbsent(type, key -> new HashMap<>()).put(id, instance);
+        completions.add(release);
+        store(instance);
+    }
+
+    /**
+     * Returns the object of the given type and identifier created within the unit of work.
+     *
+     * @param type the object graph type
+     * @param id   the object identifier
+     * @return the created object or {@code null}
+     */
+    public synchronized Object created(Class<?> type, long id) {
+        final Map<Long, Object> instances = created.get(type);
+        return instances == null ? null : instances.get(id);
+    }
+
+    /**
+     * Registers the given object as removed from the graph.
+     *
+     * @param instance the removed object
+     */
+    public synchronized void remove(Object instance) {
+        removed.add(instance);
+        for (Map<Long, Object> instances : created.values()) {
+            instances.values().removeIf(createdInstance -> createdInstance == instance);
+        }
+    }
+
+    /**
+     * Returns whether changes are pending.
+     *
+     * @return {@code true} if there is nothing to commit
+     */
+    public synchronized boolean isEmpty() {
+        return stored.isEmpty() && removed.isEmpty();
+    }
+
+    /**
+     * Commits the pending changes through the given storer.
+     *
+     * @param graphStorer the graph storer
+     */
+    public synchronized void commit(GraphStorer graphStorer) {
+        if (isEmpty()) {
+            return;
+        }
+        try {
+            graphStorer.storeAll(stored, removed);
+        } finally {
+            stored.clear();
+            removed.clear();
+            registered.clear();
+            created.clear();
+            completions.forEach(Runnable::run);
+            completions.clear();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import javax.inject.Singleton;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counter of the stored graph, incremented upon each commit through the
+ * {@link one.microstream.storage.types.EmbeddedStorageManager} bean.
+ *
+ * <p>Values derived from the graph can be tagged with the version they were computed at and
+ * be considered current as long as the version did not change.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+public class GraphVersion {
+
+    /**
+     * The current version.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Returns the current graph version.
+     *
+     * @return the current version
+     */
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Increments the graph version.
+     *
+     * @return the new version
+     */
+    public long increment() {
+        return version.incrementAndGet();
+    }
+}
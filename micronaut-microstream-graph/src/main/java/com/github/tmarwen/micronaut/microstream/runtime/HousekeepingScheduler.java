@@ -0,0 +1,198 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import com.github.tmarwen.micronaut.microstream.configuration.HousekeepingConfigurationProperties;
+import io.micronaut.context.annotation.Context;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.TaskScheduler;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Named;
+import javax.inject.Provider;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Runs time-budgeted storage housekeeping passes on the Micronaut scheduler.
+ *
+ * <p>Each pass issues a garbage collection, then a file check, then a cache check, each one
+ * within what is left of the pass time budget. The budget shrinks linearly from
+ * {@link HousekeepingConfigurationProperties#getTimeBudget()} without load down to
+ * {@link HousekeepingConfigurationProperties#getMinimumTimeBudget()} at
+ * {@link HousekeepingConfigurationProperties#getPeakRequests()} in-flight requests, and is
+ * raised to {@link HousekeepingConfigurationProperties#getOffPeakTimeBudget()} within the
+ * off-peak windows. Passes are skipped until the {@link StorageStartup} completed.
+ *
+ * <p>The background housekeeping of the default storage channels is then reduced to a minimum
+ * by the {@link EmbeddedStorageManagerFactory}, so that it does not compete with the passes, and
+ * {@code microstream.housekeeping-interval} and {@code microstream.housekeeping-time-budget} only
+ * apply to the named and partition storages.
+ *
+ * @since 1.0.0
+ */
+@Context
+@Requires(property = HousekeepingConfigurationProperties.PREFIX + ".enabled", value = "true")
+public class HousekeepingScheduler {
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(HousekeepingScheduler.class);
+
+    /**
+     * The storage manager, resolved once the storage startup completed.
+     */
+    private final Provider<EmbeddedStorageManager> storageManager;
+
+    /**
+     * The storage startup.
+     */
+    private final StorageStartup storageStartup;
+
+    /**
+     * The request load.
+     */
+    private final RequestLoad requestLoad;
+
+    /**
+     * The housekeeping configuration.
+     */
+    private final HousekeepingConfigurationProperties configuration;
+
+    /**
+     * The off-peak windows.
+     */
+    private final List<Window> offPeakWindows = new ArrayList<>();
+
+    /**
+     * The scheduled passes.
+     */
+    private final ScheduledFuture<?> schedule;
+
+    public HousekeepingScheduler(Provider<EmbeddedStorageManager> storageManager,
+                                 StorageStartup storageStartup,
+                                 RequestLoad requestLoad,
+                                 HousekeepingConfigurationProperties configuration,
+                                 @Named(TaskExecutors.SCHEDULED) TaskScheduler taskScheduler) {
+        this.storageManager = storageManager;
+        this.storageStartup = storageStartup;
+        this.requestLoad = requestLoad;
+        this.configuration = configuration;
+        configuration.getOffPeakWindows().forEach(window -> offPeakWindows.add(Window.parse(window)));
+        this.schedule = taskScheduler.scheduleWithFixedDelay(
+                configuration.getInterval(),
+                configuration.getInterval(),
+                this::run
+        );
+    }
+
+    /**
+     * Runs a housekeeping pass.
+     */
+    void run() {
+        if (!storageStartup.isReady()) {
+            return;
+        }
+        final EmbeddedStorageManager storageManager = this.storageManager.get();
+        if (!storageManager.isRunning()) {
+            return;
+        }
+        final long budget = timeBudgetNanos(LocalTime.now(), requestLoad.getInFlight());
+        final long deadline = System.nanoTime() + budget;
+        try {
+            final boolean collected = storageManager.issueGarbageCollection(budget);
+            final boolean checked = storageManager.issueFileCheck(remaining(deadline));
+            final boolean cached = storageManager.issueCacheCheck(remaining(deadline));
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Housekeeping pass within {} us: gc {}, file check {}, cache check {}",
+                        budget / 1_000, completion(collected), completion(checked), completion(cached));
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Storage housekeeping pass failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Computes the time budget of a pass.
+     *
+     * @param time     the local time of the pass
+     * @param inFlight the number of in-flight requests
+     * @return the pass time budget, in nanoseconds
+     */
+    long timeBudgetNanos(LocalTime time, int inFlight) {
+        for (Window window : offPeakWindows) {
+            if (window.contains(time)) {
+                return configuration.getOffPeakTimeBudget().toNanos();
+            }
+        }
+        final long maximum = configuration.getTimeBudget().toNanos();
+        final long minimum = Math.min(configuration.getMinimumTimeBudget().toNanos(), maximum);
+        final double load = Math.min(1.0, (double) inFlight / Math.max(1, configuration.getPeakRequests()));
+        return minimum + (long) ((maximum - minimum) * (1.0 - load));
+    }
+
+    @PreDestroy
+    void close() {
+        schedule.cancel(false);
+    }
+
+    /**
+     * Returns the time left until the given deadline.
+     *
+     * @param deadline the {@link System#nanoTime()} deadline
+     * @return the remaining nanoseconds, {@code 0} if past the deadline
+     */
+    private static long remaining(long deadline) {
+        return Math.max(0L, deadline - System.nanoTime());
+    }
+
+    private static String completion(boolean complete) {
+        return complete ? "complete" : "partial";
+    }
+
+    /**
+     * A daily local time window, possibly spanning midnight.
+     */
+    private static final class Window {
+
+        private final LocalTime start;
+
+        private final LocalTime end;
+
+        private Window(LocalTime start, LocalTime end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Parses a {@code HH:mm-HH:mm} window.
+         *
+         * @param window the window text
+         * @return the window
+         */
+        static Window parse(String window) {
+            final String[] bounds = window.split("-");
+            try {
+                if (bounds.length == 2) {
+                    return new Window(LocalTime.parse(bounds[0].trim()), LocalTime.parse(bounds[1].trim()));
+                }
+            } catch (DateTimeParseException e) {
+                // reported below
+            }
+            throw new IllegalArgumentException("Invalid off-peak window '" + window + "', expected HH:mm-HH:mm");
+        }
+
+        boolean contains(LocalTime time) {
+            if (start.isBefore(end)) {
+                return !time.isBefore(start) && time.isBefore(end);
+            }
+            return !time.isBefore(start) || time.isBefore(end);
+        }
+    }
+}
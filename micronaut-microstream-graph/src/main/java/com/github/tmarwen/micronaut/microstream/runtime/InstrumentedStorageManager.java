@@ -0,0 +1,109 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import one.microstream.persistence.types.Storer;
+import one.microstream.storage.types.EmbeddedStorageManager;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Decorates an {@link EmbeddedStorageManager} so that every commit, either through its
+ * {@code store} methods or through the {@link Storer}s it creates, increments the
+ * {@link GraphVersion} and is recorded in the {@link StorageMetrics}, along with the
+ * garbage collection, file check and cache check runs it is issued.
+ *
+ * @since 1.0.0
+ */
+final class InstrumentedStorageManager implements InvocationHandler {
+
+    /**
+     * The decorated storage manager or storer.
+     */
+    private final Object target;
+
+    /**
+     * The graph version.
+     */
+    private final GraphVersion graphVersion;
+
+    /**
+     * The storage metrics.
+     */
+    private final StorageMetrics storageMetrics;
+
+    private InstrumentedStorageManager(Object target, GraphVersion graphVersion, StorageMetrics storageMetrics) {
+        this.target = target;
+        this.graphVersion = graphVersion;
+        this.storageMetrics = storageMetrics;
+    }
+
+    /**
+     * Decorates the given storage manager.
+     *
+     * @param storageManager the storage manager
+     * @param graphVersion   the graph version
+     * @param storageMetrics the storage metrics
+     * @return the instrumented storage manager
+     */
+    static EmbeddedStorageManager wrap(EmbeddedStorageManager storageManager,
+                                       GraphVersion graphVersion,
+                                       StorageMetrics storageMetrics) {
+        return (EmbeddedStorageManager) Proxy.newProxyInstance(
+                EmbeddedStorageManager.class.getClassLoader(),
+                new Class<?>[]{EmbeddedStorageManager.class},
+                new InstrumentedStorageManager(storageManager, graphVersion, storageMetrics)
+        );
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        final String name = method.getName();
+        final boolean commit = "commit".equals(name)
+                || (target instanceof EmbeddedStorageManager && name.startsWith("store"));
+        final boolean housekeeping = target instanceof EmbeddedStorageManager && isHousekeeping(name);
+        final long start = commit || housekeeping ? System.nanoTime() : 0L;
+        final Object result = invoke(target, method, args);
+        if (result instanceof Storer && method.getReturnType().isInterface() && name.startsWith("create")) {
+            return Proxy.newProxyInstance(
+                    Storer.class.getClassLoader(),
+                    new Class<?>[]{method.getReturnType()},
+                    new InstrumentedStorageManager(result, graphVersion, storageMetrics)
+            );
+        }
+        if (commit) {
+            storageMetrics.recordCommit(System.nanoTime() - start);
+            graphVersion.increment();
+        } else if (housekeeping) {
+            storageMetrics.recordHousekeeping(System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    /**
+     * @param name the storage manager method name
+     * @return whether the method issues a garbage collection, a file check or a cache check
+     */
+    private static boolean isHousekeeping(String name) {
+        return name.startsWith("issue")
+                && (name.endsWith("GarbageCollection") || name.endsWith("FileCheck") || name.endsWith("CacheCheck"));
+    }
+
+    /**
+     * Invokes the given method on the given target, unwrapping the thrown exceptions.
+     *
+     * @param target the target
+     * @param method the method
+     * @param args   the method arguments
+     * @return the method result
+     * @throws Throwable the exception thrown by the method
+     */
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
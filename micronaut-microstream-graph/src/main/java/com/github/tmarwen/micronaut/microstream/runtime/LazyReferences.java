@@ -0,0 +1,75 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import one.microstream.reference.Lazy;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Helpers for MicroStream {@link Lazy} references.
+ *
+ * @since 1.0.0
+ */
+public final class LazyReferences {
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LazyReferences.class);
+
+    private LazyReferences() {
+    }
+
+    /**
+     * Loads the subjects of all the unloaded {@link Lazy} references among the given
+     * {@code values} within a single storage request.
+     *
+     * <p>The loaded instances get registered within the persistence object registry so that
+     * subsequent {@link Lazy#get()} calls on the given references resolve without further
+     * storage access. As the registry only weakly references them, the caller must hold on
+     * to the returned instances until the references are resolved.
+     *
+     * @param storageManager the storage manager
+     * @param values         the values, non lazy ones are ignored
+     * @return the prefetched instances
+     */
+    public static List<Object> prefetch(EmbeddedStorageManager storageManager, Collection<?> values) {
+        final long[] objectIds = new long[values.size()];
+        int count = 0;
+        for (Object value : values) {
+            if (value instanceof Lazy.Default && !((Lazy<?>) value).isLoaded()) {
+                final long objectId = ((Lazy.Default<?>) value).objectId();
+                if (objectId > 0) {
+                    objectIds[count++] = objectId;
+                }
+            }
+        }
+        if (count < 2) {
+            // nothing to coalesce
+            return Collections.emptyList();
+        }
+        final List<Object> loaded = new ArrayList<>(count);
+        storageManager.persistenceManager().collect(loaded::add, Arrays.copyOf(objectIds, count));
+        if (LOGGER.isTraceEnabled()) {
+            LOGGER.trace("Prefetched {} lazy reference(s) in a single storage request", count);
+        }
+        return loaded;
+    }
+
+    /**
+     * Returns the subject of the given value if it is a {@link Lazy} reference or the value
+     * itself otherwise.
+     *
+     * @param value the value
+     * @return the unwrapped value
+     */
+    public static Object unwrap(Object value) {
+        return value instanceof Lazy ? Lazy.get((Lazy<?>) value) : value;
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import graphql.GraphQLContext;
+import graphql.schema.DataFetchingEnvironment;
+import one.microstream.reference.Lazy;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Tracks the MicroStream {@link Lazy} references loaded while executing a GraphQL request so
+ * that they can be cleared once the request completes.
+ *
+ * <p>The tracker is bound to the request {@link GraphQLContext}, requests executed without
+ * tracker leave the loaded references to the MicroStream lazy reference manager.
+ *
+ * @since 1.0.0
+ */
+public final class LazyTracker {
+
+    /**
+     * The references loaded by the request.
+     */
+    private final Queue<Lazy<?>> loaded = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Binds a new tracker to the given context.
+     *
+     * @param context the GraphQL context
+     * @return the bound tracker
+     */
+    public static LazyTracker bind(GraphQLContext context) {
+        final LazyTracker tracker = new LazyTracker();
+        context.put(LazyTracker.class, tracker);
+        return tracker;
+    }
+
+    /**
+     * Returns the tracker bound to the given context.
+     *
+     * @param context the GraphQL context, may be of any type
+     * @return the tracker or {@code null}
+     */
+    public static LazyTracker of(Object context) {
+        if (context instanceof GraphQLContext) {
+            return ((GraphQLContext) context).get(LazyTracker.class);
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the given reference, tracking it if it gets loaded.
+     *
+     * @param environment the data fetching environment
+     * @param reference   the lazy reference
+     * @param <T>         the reference subject type
+     * @return the reference subject
+     */
+    public static <T> T resolve(DataFetchingEnvironment environment, Lazy<T> reference) {
+        if (reference == null) {
+            return null;
+        }
+        if (!reference.isLoaded()) {
+            final LazyTracker tracker = of(environment.getContext());
+            if (tracker != null) {
+                tracker.track(reference);
+            }
+        }
+        return reference.get();
+    }
+
+    /**
+     * Tracks the given reference as loaded by the request.
+     *
+     * @param reference the lazy reference
+     */
+    public void track(Lazy<?> reference) {
+        loaded.add(reference);
+    }
+
+    /**
+     * Clears all the stored references loaded by the request.
+     *
+     * @return the number of cleared references
+     */
+    public int release() {
+        int released = 0;
+        Lazy<?> reference;
+        while ((reference = loaded.poll()) != null) {
+            // never clear references whose subject would be lost
+            if (reference.isStored()) {
+                reference.clear();
+                released++;
+            }
+        }
+        return released;
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import com.github.tmarwen.micronaut.microstream.configuration.StorageConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.index.GraphIndexes;
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
+import com.github.tmarwen.micronaut.microstream.model.GraphWalker;
+import io.micronaut.context.annotation.EachBean;
+import io.micronaut.context.annotation.Parameter;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import one.microstream.storage.types.EmbeddedStorageManager;
+
+/**
+ * A named MicroStream storage manager along with the graph it holds, its indexes and its
+ * storer.
+ *
+ * <p>Changes of the graph of a named storage manager should be stored through its own
+ * {@link #getGraphStorer() storer} so that its indexes are kept up to date.
+ *
+ * @since 1.0.0
+ */
+@EachBean(StorageConfigurationProperties.class)
+public class NamedStorage implements ApplicationEventListener<StorageCommitEvent> {
+
+    /**
+     * The storage manager name.
+     */
+    private final String name;
+
+    /**
+     * The graph model of the storage manager root.
+     */
+    private final GraphModel graphModel;
+
+    /**
+     * The named storage manager.
+     */
+    private final EmbeddedStorageManager storageManager;
+
+    /**
+     * The walker of the storage manager graph.
+     */
+    private final GraphWalker graphWalker;
+
+    /**
+     * The indexes of the storage manager graph.
+     */
+    private final GraphIndexes graphIndexes;
+
+    /**
+     * Stores to the named storage manager.
+     */
+    private final GraphStorer graphStorer;
+
+    public NamedStorage(StorageConfigurationProperties configuration,
+                        @Parameter GraphModel graphModel,
+                        @Parameter EmbeddedStorageManager storageManager,
+                        GraphConcurrencyStrategy concurrencyStrategy,
+                        ApplicationEventPublisher eventPublisher) {
+        this.name = configuration.getName();
+        this.graphModel = graphModel;
+        this.storageManager = storageManager;
+        this.graphWalker = new GraphWalker(graphModel);
+        this.graphIndexes = new GraphIndexes(storageManager, graphModel, graphWalker, eventPublisher);
+        this.graphStorer = new GraphStorer(storageManager, eventPublisher, concurrencyStrategy);
+    }
+
+    @Override
+    public void onApplicationEvent(StorageCommitEvent event) {
+        // the indexes ignore the commits of the other storage managers
+        graphIndexes.onApplicationEvent(event);
+    }
+
+    /**
+     * @return the storage manager name
+     */
+    public String getName() {
+        return name;
+    }
+
+    public GraphModel getGraphModel() {
+        return graphModel;
+    }
+
+    public EmbeddedStorageManager getStorageManager() {
+        return storageManager;
+    }
+
+    public GraphWalker getGraphWalker() {
+        return graphWalker;
+    }
+
+    public GraphIndexes getGraphIndexes() {
+        return graphIndexes;
+    }
+
+    public GraphStorer getGraphStorer() {
+        return graphStorer;
+    }
+}
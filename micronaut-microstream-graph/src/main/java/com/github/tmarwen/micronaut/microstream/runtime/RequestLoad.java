@@ -0,0 +1,40 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import javax.inject.Singleton;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gauge of the requests being served against the graph, used to yield background work to
+ * the request load.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+public class RequestLoad {
+
+    /**
+     * The in-flight requests count.
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Records the start of a request.
+     */
+    public void enter() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Records the completion of a request.
+     */
+    public void exit() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * @return the number of requests being served
+     */
+    public int getInFlight() {
+        return Math.max(0, inFlight.get());
+    }
+}
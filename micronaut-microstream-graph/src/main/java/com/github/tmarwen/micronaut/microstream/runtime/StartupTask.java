@@ -0,0 +1,50 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import io.micronaut.core.order.Ordered;
+
+/**
+ * A phase of the {@link StorageStartup}, run once the storage started in the order of the
+ * tasks. Tasks should resolve the beans they initialize lazily, e.g. through a
+ * {@link javax.inject.Provider}, so that they are only created by the startup.
+ *
+ * @since 1.0.0
+ */
+public interface StartupTask extends Ordered {
+
+    /**
+     * @return the phase name, as reported in the startup timings
+     */
+    String getName();
+
+    /**
+     * Runs the phase.
+     */
+    void run();
+
+    /**
+     * Creates a startup task.
+     *
+     * @param name  the phase name
+     * @param order the phase order
+     * @param task  the phase
+     * @return the startup task
+     */
+    static StartupTask of(String name, int order, Runnable task) {
+        return new StartupTask() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public void run() {
+                task.run();
+            }
+
+            @Override
+            public int getOrder() {
+                return order;
+            }
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import io.micronaut.context.event.ApplicationEvent;
+import one.microstream.storage.types.EmbeddedStorageManager;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Event published once objects have been committed to the MicroStream storage through
+ * the {@link GraphStorer}.
+ *
+ * @since 1.0.0
+ */
+public class StorageCommitEvent extends ApplicationEvent {
+
+    /**
+     * The explicitly stored objects.
+     */
+    private final List<Object> objects;
+
+    /**
+     * The objects removed from the graph.
+     */
+    private final List<Object> removed;
+
+    public StorageCommitEvent(EmbeddedStorageManager storageManager, List<Object> objects) {
+        this(storageManager, objects, Collections.emptyList());
+    }
+
+    public StorageCommitEvent(EmbeddedStorageManager storageManager, List<Object> objects, List<Object> removed) {
+        super(storageManager);
+        this.objects = Collections.unmodifiableList(objects);
+        this.removed = Collections.unmodifiableList(removed);
+    }
+
+    @Override
+    public EmbeddedStorageManager getSource() {
+        return (EmbeddedStorageManager) super.getSource();
+    }
+
+    /**
+     * Returns the objects explicitly handed to the storer. Following MicroStream storing
+     * semantics, the commit also persisted the not yet stored instances they reference.
+     *
+     * @return the stored objects
+     */
+    public List<Object> getObjects() {
+        return objects;
+    }
+
+    /**
+     * Returns the objects removed from the graph by the commit, i.e. detached from their
+     * referencing instances which were stored. Their storage space is reclaimed by the
+     * storage garbage collection once they are no longer reachable.
+     *
+     * @return the removed objects
+     */
+    public List<Object> getRemoved() {
+        return removed;
+    }
+}
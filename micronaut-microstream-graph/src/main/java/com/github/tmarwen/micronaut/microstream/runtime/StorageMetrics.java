@@ -0,0 +1,88 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import javax.inject.Singleton;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the operations run by the storage engine, recorded by the
+ * {@link one.microstream.storage.types.EmbeddedStorageManager} bean.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+public class StorageMetrics {
+
+    /**
+     * The commits count.
+     */
+    private final LongAdder commits = new LongAdder();
+
+    /**
+     * The total commits duration, in nanoseconds.
+     */
+    private final LongAdder commitNanos = new LongAdder();
+
+    /**
+     * The issued housekeeping runs count.
+     */
+    private final LongAdder housekeepingRuns = new LongAdder();
+
+    /**
+     * The total issued housekeeping runs duration, in nanoseconds.
+     */
+    private final LongAdder housekeepingNanos = new LongAdder();
+
+    /**
+     * The storage start and root load duration, in nanoseconds.
+     */
+    private volatile long startNanos;
+
+    void recordCommit(long nanos) {
+        commits.increment();
+        commitNanos.add(nanos);
+    }
+
+    void recordHousekeeping(long nanos) {
+        housekeepingRuns.increment();
+        housekeepingNanos.add(nanos);
+    }
+
+    void recordStart(long nanos) {
+        startNanos = nanos;
+    }
+
+    /**
+     * @return the number of commits, through {@code store} calls or storers
+     */
+    public long getCommits() {
+        return commits.sum();
+    }
+
+    /**
+     * @return the total duration of the commits, in nanoseconds
+     */
+    public long getCommitNanos() {
+        return commitNanos.sum();
+    }
+
+    /**
+     * @return the number of explicitly issued garbage collection, file check and cache check runs
+     */
+    public long getHousekeepingRuns() {
+        return housekeepingRuns.sum();
+    }
+
+    /**
+     * @return the total duration of the explicitly issued housekeeping runs, in nanoseconds
+     */
+    public long getHousekeepingNanos() {
+        return housekeepingNanos.sum();
+    }
+
+    /**
+     * @return the duration of the storage start, including the root load, in nanoseconds
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+}
@@ -0,0 +1,208 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Restores a storage directory from a MicroStream backup directory.
+ *
+ * <p>The backup mirrors the storage layout, one directory per channel, so that restoring
+ * amounts to copying its files. Files are copied in parallel, largest first. The restored
+ * storage is then handed to a verification, typically starting it and loading its root, and
+ * the restored files are deleted if it fails so that the restore can be retried.
+ *
+ * @since 1.0.0
+ */
+final class StorageRestorer {
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(StorageRestorer.class);
+
+    /**
+     * The number of files restored in parallel.
+     */
+    private final int threads;
+
+    StorageRestorer(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Restore threads count must be positive, got " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Restores the given storage directory, which must not hold any file, from the given
+     * backup directory.
+     *
+     * @param backupDirectory  the backup directory
+     * @param storageDirectory the storage directory
+     * @param verification     the verification of the restored storage directory, throwing if
+     *                         the restored storage is not usable
+     * @return the number of restored bytes
+     * @throws IOException if a file cannot be restored
+     */
+    long restore(Path backupDirectory, Path storageDirectory, Consumer<Path> verification) throws IOException {
+        if (!Files.isDirectory(backupDirectory)) {
+            throw new IllegalStateException("MicroStream backup directory '" + backupDirectory + "' does not exist");
+        }
+        if (Files.isDirectory(storageDirectory) && !files(storageDirectory).isEmpty()) {
+            throw new IllegalStateException("MicroStream storage directory '" + storageDirectory
+                    + "' is not empty, clear it to restore the backup");
+        }
+        final long start = System.nanoTime();
+        final List<Path> files = files(backupDirectory);
+        // largest files first so that the last copies to start are the shortest
+        files.sort(Comparator.comparingLong(StorageRestorer::size).reversed());
+        final long bytes;
+        try {
+            bytes = copy(files, backupDirectory, storageDirectory);
+            verification.accept(storageDirectory);
+        } catch (IOException | RuntimeException e) {
+            discard(storageDirectory);
+            throw e;
+        }
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("MicroStream storage restored from '{}': {} file(s), {} byte(s) in {} ms",
+                    backupDirectory, files.size(), bytes, (System.nanoTime() - start) / 1_000_000);
+        }
+        return bytes;
+    }
+
+    /**
+     * Copies the given backup files in parallel.
+     *
+     * @param files            the backup files
+     * @param backupDirectory  the backup directory
+     * @param storageDirectory the storage directory
+     * @return the number of copied bytes
+     * @throws IOException if a file cannot be copied
+     */
+    private long copy(List<Path> files, Path backupDirectory, Path storageDirectory) throws IOException {
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(threads, Math.max(1, files.size())),
+                new RestoreThreadFactory()
+        );
+        long bytes = 0;
+        try {
+            final List<Future<Long>> copies = new ArrayList<>();
+            for (Path file : files) {
+                final Path target = storageDirectory.resolve(backupDirectory.relativize(file).toString());
+                copies.add(executor.submit(() -> copy(file, target)));
+            }
+            for (Future<Long> copy : copies) {
+                bytes += copy.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("MicroStream storage restore interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("MicroStream storage restore failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            // the pending copies must not outlive a failed restore, whose files are discarded
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Copies the given file.
+     *
+     * @param source the backup file
+     * @param target the restored file
+     * @return the number of copied bytes
+     * @throws IOException if the file cannot be copied
+     */
+    private static long copy(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Files.copy(source, target);
+        return Files.size(target);
+    }
+
+    /**
+     * Deletes the files restored in the given storage directory, leaving the directory itself.
+     *
+     * @param storageDirectory the storage directory
+     */
+    private static void discard(Path storageDirectory) {
+        if (!Files.isDirectory(storageDirectory)) {
+            return;
+        }
+        if (LOGGER.isWarnEnabled()) {
+            LOGGER.warn("Discarding the MicroStream storage restored in '{}'", storageDirectory);
+        }
+        try (Stream<Path> paths = Files.walk(storageDirectory)) {
+            final List<Path> restored = paths.filter(path -> !path.equals(storageDirectory))
+                    .sorted(Comparator.reverseOrder())
+                    .collect(Collectors.toList());
+            for (Path path : restored) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Cannot discard the MicroStream storage restored in '{}': {}", storageDirectory, e.getMessage());
+        }
+    }
+
+    /**
+     * Lists the regular files within the given directory tree.
+     *
+     * @param directory the directory
+     * @return the files
+     * @throws IOException if the directory cannot be walked
+     */
+    private static List<Path> files(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile).collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates named daemon restore threads.
+     */
+    private static final class RestoreThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, "microstream-restore-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
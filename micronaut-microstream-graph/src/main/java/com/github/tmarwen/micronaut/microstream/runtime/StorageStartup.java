@@ -0,0 +1,154 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import com.github.tmarwen.micronaut.microstream.configuration.StartupConfigurationProperties;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.context.event.StartupEvent;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts the storage then runs the {@link StartupTask}s, such as the graph indexes and the
+ * GraphQL schema builds, once the application context started, logging the duration of each
+ * phase.
+ *
+ * <p>In background mode, the phases run on a dedicated thread so that the application
+ * completes its startup, and answers liveness probes, while the root graph loads; readiness
+ * is reported once all the phases completed.
+ *
+ * @since 1.0.0
+ */
+@Singleton
+public class StorageStartup implements ApplicationEventListener<StartupEvent> {
+
+    /**
+     * The shared logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(StorageStartup.class);
+
+    /**
+     * The storage phase name.
+     */
+    private static final String STORAGE_PHASE = "storage";
+
+    /**
+     * The storage manager.
+     */
+    private final Provider<EmbeddedStorageManager> storageManager;
+
+    /**
+     * The startup tasks, in order.
+     */
+    private final List<StartupTask> tasks;
+
+    /**
+     * The startup configuration.
+     */
+    private final StartupConfigurationProperties configuration;
+
+    /**
+     * The completed phases durations, in milliseconds.
+     */
+    private final Map<String, Long> phases = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * Whether all the phases completed.
+     */
+    private volatile boolean ready;
+
+    /**
+     * The startup failure, if any.
+     */
+    private volatile Throwable failure;
+
+    public StorageStartup(Provider<EmbeddedStorageManager> storageManager,
+                          List<StartupTask> tasks,
+                          StartupConfigurationProperties configuration) {
+        this.storageManager = storageManager;
+        this.tasks = tasks;
+        this.configuration = configuration;
+    }
+
+    @Override
+    public void onApplicationEvent(StartupEvent event) {
+        if (!configuration.isBackground()) {
+            start();
+            return;
+        }
+        final Thread thread = new Thread(() -> {
+            try {
+                start();
+            } catch (RuntimeException e) {
+                LOGGER.error("MicroStream background startup failed", e);
+            }
+        }, "microstream-startup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return whether the storage and graph startup completed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return the startup failure or {@code null}
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return the durations of the completed startup phases, in milliseconds
+     */
+    public Map<String, Long> getPhases() {
+        synchronized (phases) {
+            return new LinkedHashMap<>(phases);
+        }
+    }
+
+    /**
+     * Runs the startup phases.
+     */
+    private void start() {
+        final long start = System.nanoTime();
+        try {
+            phase(STORAGE_PHASE, storageManager::get);
+            for (StartupTask task : tasks) {
+                phase(task.getName(), task::run);
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        }
+        ready = true;
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("MicroStream startup completed in {} ms {}", (System.nanoTime() - start) / 1_000_000, getPhases());
+        }
+    }
+
+    /**
+     * Runs and times a startup phase.
+     *
+     * @param name  the phase name
+     * @param phase the phase
+     */
+    private void phase(String name, Runnable phase) {
+        final long start = System.nanoTime();
+        phase.run();
+        final long millis = (System.nanoTime() - start) / 1_000_000;
+        phases.put(name, millis);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("MicroStream startup phase '{}' completed in {} ms", name, millis);
+        }
+    }
+}
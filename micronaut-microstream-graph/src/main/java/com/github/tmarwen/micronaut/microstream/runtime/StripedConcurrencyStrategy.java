@@ -0,0 +1,136 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import java.util.Collection;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * A {@link GraphConcurrencyStrategy} guarding the aggregates with a fixed set of
+ * {@link StampedLock}s, each aggregate being mapped to a stripe by identity hash.
+ *
+ * <p>Reads are first attempted optimistically, without locking, then retried under the
+ * stripe read lock if a writer intervened. Writers lock their stripes in ascending order so
+ * that overlapping write sections cannot deadlock.
+ *
+ * @since 1.0.0
+ */
+public class StripedConcurrencyStrategy implements GraphConcurrencyStrategy {
+
+    /**
+     * The lock stripes.
+     */
+    private final StampedLock[] stripes;
+
+    /**
+     * The stripe index mask.
+     */
+    private final int mask;
+
+    /**
+     * @param stripes the number of stripes, rounded up to a power of two
+     */
+    public StripedConcurrencyStrategy(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Stripes count must be positive, got " + stripes);
+        }
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = new StampedLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new StampedLock();
+        }
+        this.mask = size - 1;
+    }
+
+    @Override
+    public <T> T read(Object aggregate, Supplier<T> reader) {
+        final StampedLock lock = stripes[stripe(aggregate)];
+        final long optimisticStamp = lock.tryOptimisticRead();
+        if (optimisticStamp != 0L) {
+            try {
+                final T value = reader.get();
+                if (lock.validate(optimisticStamp)) {
+                    return value;
+                }
+            } catch (RuntimeException e) {
+                // failures caused by a concurrent write are retried under lock
+                if (lock.validate(optimisticStamp)) {
+                    throw e;
+                }
+            }
+        }
+        final long stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public <T> T write(Collection<?> aggregates, Supplier<T> writer) {
+        final int[] indexes = aggregates.stream()
+                .mapToInt(this::stripe)
+                .distinct()
+                .sorted()
+                .toArray();
+        final long[] stamps = new long[indexes.length];
+        int locked = 0;
+        try {
+            for (; locked < indexes.length; locked++) {
+                stamps[locked] = stripes[indexes[locked]].writeLock();
+            }
+            return writer.get();
+        } finally {
+            while (--locked >= 0) {
+                stripes[indexes[locked]].unlockWrite(stamps[locked]);
+            }
+        }
+    }
+
+    @Override
+    public <T> T readAll(Supplier<T> reader) {
+        final long[] stamps = new long[stripes.length];
+        int locked = 0;
+        try {
+            for (; locked < stripes.length; locked++) {
+                stamps[locked] = stripes[locked].readLock();
+            }
+            return reader.get();
+        } finally {
+            while (--locked >= 0) {
+                stripes[locked].unlockRead(stamps[locked]);
+            }
+        }
+    }
+
+    @Override
+    public <T> T writeAll(Supplier<T> writer) {
+        final long[] stamps = new long[stripes.length];
+        int locked = 0;
+        try {
+            // ascending order, as the other writers
+            for (; locked < stripes.length; locked++) {
+                stamps[locked] = stripes[locked].writeLock();
+            }
+            return writer.get();
+        } finally {
+            while (--locked >= 0) {
+                stripes[locked].unlockWrite(stamps[locked]);
+            }
+        }
+    }
+
+    /**
+     * Returns the stripe index of the given aggregate.
+     *
+     * @param aggregate the aggregate
+     * @return the stripe index
+     */
+    private int stripe(Object aggregate) {
+        final int hash = System.identityHashCode(aggregate);
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
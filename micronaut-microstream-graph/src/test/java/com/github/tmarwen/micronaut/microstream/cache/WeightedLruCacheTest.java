@@ -0,0 +1,69 @@
+package com.github.tmarwen.micronaut.microstream.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class WeightedLruCacheTest {
+
+    private final WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, (key, value) -> value.length());
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntriesBeyondTheMaximumWeight() {
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        // touching a makes b the least recently used entry
+        Assertions.assertEquals("aaaa", cache.get("a"));
+        cache.put("c", "cccc");
+        Assertions.assertNull(cache.get("b"));
+        Assertions.assertEquals("aaaa", cache.get("a"));
+        Assertions.assertEquals("cccc", cache.get("c"));
+        Assertions.assertEquals(8, cache.weight());
+        Assertions.assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void evictsAsManyEntriesAsNeeded() {
+        cache.put("a", "aaa");
+        cache.put("b", "bbb");
+        cache.put("c", "ccc");
+        cache.put("d", "dddddddd");
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertEquals(8, cache.weight());
+        Assertions.assertEquals(3, cache.evictionCount());
+    }
+
+    @Test
+    void replacingAnEntryUpdatesTheWeight() {
+        cache.put("a", "aaaaaaaa");
+        cache.put("a", "a");
+        Assertions.assertEquals(1, cache.weight());
+        Assertions.assertEquals(0, cache.evictionCount());
+    }
+
+    @Test
+    void entriesHeavierThanTheCacheAreNotCached() {
+        cache.put("a", "aaa");
+        cache.put("a", "aaaaaaaaaaaa");
+        Assertions.assertNull(cache.get("a"));
+        Assertions.assertEquals(0, cache.weight());
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    void computeIfAbsentCachesNonNullValues() {
+        Assertions.assertEquals("xx", cache.computeIfAbsent("x", key -> key + key));
+        Assertions.assertEquals("xx", cache.computeIfAbsent("x", key -> "other"));
+        Assertions.assertNull(cache.computeIfAbsent("y", key -> null));
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertEquals(1, cache.hitCount());
+        Assertions.assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    void invalidateAllClearsTheWeight() {
+        cache.put("a", "aaa");
+        cache.invalidateAll();
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(0, cache.weight());
+    }
+}
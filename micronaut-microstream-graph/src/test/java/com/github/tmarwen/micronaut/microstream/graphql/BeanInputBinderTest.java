@@ -0,0 +1,230 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.index.GraphIndexes;
+import com.github.tmarwen.micronaut.microstream.index.HashIndex;
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
+import com.github.tmarwen.micronaut.microstream.model.GraphType;
+import com.github.tmarwen.micronaut.microstream.model.GraphWalker;
+import com.github.tmarwen.micronaut.microstream.runtime.GlobalLockConcurrencyStrategy;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphStorer;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphUnitOfWork;
+import com.github.tmarwen.micronaut.microstream.runtime.StorageCommitEvent;
+import graphql.schema.DataFetchingEnvironment;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import io.micronaut.core.annotation.Introspected;
+import one.microstream.persistence.types.Storer;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+class BeanInputBinderTest {
+
+    private static final GraphField<Board, Object> BOARD_CARDS = field("cards", "Card", GraphField.Kind.OBJECT,
+            true, Board::getCards);
+
+    private static final GraphField<Card, Object> CARD_ID = field("id", "ID", GraphField.Kind.SCALAR,
+            false, Card::getId);
+
+    private static final GraphField<Card, Object> CARD_TITLE = field("title", "String", GraphField.Kind.SCALAR,
+            false, Card::getTitle);
+
+    private static final GraphField<Card, Object> CARD_PARENT = field("parent", "Card", GraphField.Kind.OBJECT,
+            false, Card::getParent);
+
+    private final AtomicBoolean failCommits = new AtomicBoolean();
+
+    private GraphIndexes graphIndexes;
+
+    private HashIndex<Card> index;
+
+    private BeanInputBinder<Card> binder;
+
+    private GraphStorer graphStorer;
+
+    @BeforeEach
+    void setUp() {
+        final Storer storer = Mockito.mock(Storer.class, invocation -> {
+            if ("commit".equals(invocation.getMethod().getName()) && failCommits.get()) {
+                throw new IllegalStateException("storage failure");
+            }
+            return invocation.getMethod().getReturnType() == long.class ? 0L : null;
+        });
+        final EmbeddedStorageManager storageManager = Mockito.mock(EmbeddedStorageManager.class);
+        Mockito.doReturn(new Board()).when(storageManager).root();
+        Mockito.doReturn(storer).when(storageManager).createStorer();
+        final GraphType<Card> cardType = new GraphType<>("Card", Card.class, false, true,
+                Arrays.asList(CARD_ID, CARD_TITLE, CARD_PARENT));
+        final GraphModel graphModel = new GraphModel() {
+
+            @Override
+            public Class<?> getRootType() {
+                return Board.class;
+            }
+
+            @Override
+            public List<GraphType<?>> getTypes() {
+                return Arrays.asList(
+                        new GraphType<>("Board", Board.class, true, Collections.singletonList(BOARD_CARDS)),
+                        cardType
+                );
+            }
+        };
+        // the storer commits are delivered to the indexes
+        final AtomicReference<GraphIndexes> indexes = new AtomicReference<>();
+        final ApplicationEventPublisher eventPublisher = event -> {
+            if (event instanceof StorageCommitEvent) {
+                indexes.get().onApplicationEvent((StorageCommitEvent) event);
+            }
+        };
+        graphIndexes = new GraphIndexes(storageManager, graphModel, new GraphWalker(graphModel), eventPublisher);
+        indexes.set(graphIndexes);
+        index = graphIndexes.getIndex(Card.class).orElseGet(() -> Assertions.fail("Card not indexed"));
+        binder = new BeanInputBinder<>(cardType, graphIndexes);
+        graphStorer = new GraphStorer(storageManager, eventPublisher, new GlobalLockConcurrencyStrategy());
+    }
+
+    @Test
+    void reservesTheGivenIdentifiersUntilCommitted() {
+        final GraphUnitOfWork first = new GraphUnitOfWork();
+        final Card five = binder.create(input("id", 5L, "title", "five"), first);
+
+        final GraphUnitOfWork second = new GraphUnitOfWork();
+        final IllegalArgumentException error = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> binder.create(input("id", 5L, "title", "other"), second));
+        Assertions.assertEquals("Card with identifier '5' already exists", error.getMessage());
+        Assertions.assertEquals(Long.valueOf(6), binder.create(input("title", "six"), second).getId());
+
+        first.commit(graphStorer);
+        second.commit(graphStorer);
+        Assertions.assertSame(five, index.get(5));
+        Assertions.assertEquals("six", index.get(6).getTitle());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> binder.create(input("id", 5L), new GraphUnitOfWork()));
+    }
+
+    @Test
+    void resolvesTheInstancesCreatedWithinTheUnitOfWork() {
+        final GraphUnitOfWork unitOfWork = new GraphUnitOfWork();
+        final Card parent = binder.create(input("title", "parent"), unitOfWork);
+        Assertions.assertSame(parent, BeanInputBinder.lookup(index, String.valueOf(parent.getId()), unitOfWork));
+
+        final Card child = binder.create(input("title", "child", "parentId", parent.getId()), unitOfWork);
+        Assertions.assertSame(parent, child.getParent());
+        binder.update(child, input("title", "renamed"), unitOfWork);
+        Assertions.assertEquals("renamed", child.getTitle());
+
+        unitOfWork.remove(child);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> BeanInputBinder.lookup(index, child.getId(), unitOfWork));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> BeanInputBinder.lookup(index, parent.getId(), new GraphUnitOfWork()));
+
+        unitOfWork.commit(graphStorer);
+        Assertions.assertSame(parent, BeanInputBinder.lookup(index, parent.getId(), new GraphUnitOfWork()));
+        Assertions.assertNull(unitOfWork.created(Card.class, parent.getId()));
+    }
+
+    @Test
+    void releasesTheIdentifiersOfFailedCommits() {
+        final GraphUnitOfWork unitOfWork = new GraphUnitOfWork();
+        binder.create(input("id", 7L), unitOfWork);
+        failCommits.set(true);
+        Assertions.assertThrows(IllegalStateException.class, () -> unitOfWork.commit(graphStorer));
+        Assertions.assertTrue(unitOfWork.isEmpty());
+        Assertions.assertNull(index.get(7));
+
+        failCommits.set(false);
+        final GraphUnitOfWork retry = new GraphUnitOfWork();
+        final Card card = binder.create(input("id", 7L), retry);
+        retry.commit(graphStorer);
+        Assertions.assertSame(card, index.get(7));
+    }
+
+    private static Map<String, Object> input(Object... entries) {
+        final Map<String, Object> input = new HashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            input.put((String) entries[i], entries[i + 1]);
+        }
+        return input;
+    }
+
+    private static <B> GraphField<B, Object> field(String name,
+                                                   String typeName,
+                                                   GraphField.Kind kind,
+                                                   boolean list,
+                                                   Function<B, Object> reader) {
+        return new GraphField<B, Object>(name, typeName, kind, list, false, false, false) {
+
+            @Override
+            public Object read(B bean) {
+                return reader.apply(bean);
+            }
+
+            @Override
+            public Object get(DataFetchingEnvironment environment) {
+                return read(environment.<B>getSource());
+            }
+        };
+    }
+
+    @Introspected
+    public static final class Board {
+
+        private List<Card> cards = new ArrayList<>();
+
+        public List<Card> getCards() {
+            return cards;
+        }
+
+        public void setCards(List<Card> cards) {
+            this.cards = cards;
+        }
+    }
+
+    @Introspected
+    public static final class Card {
+
+        private Long id;
+
+        private String title;
+
+        private Card parent;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public Card getParent() {
+            return parent;
+        }
+
+        public void setParent(Card parent) {
+            this.parent = parent;
+        }
+    }
+}
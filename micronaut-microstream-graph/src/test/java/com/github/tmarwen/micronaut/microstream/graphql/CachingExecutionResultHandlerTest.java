@@ -0,0 +1,112 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.configuration.GraphQLConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphVersion;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import io.micronaut.configuration.graphql.GraphQLJsonSerializer;
+import io.micronaut.core.async.publisher.Publishers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+class CachingExecutionResultHandlerTest {
+
+    private final GraphVersion graphVersion = new GraphVersion();
+
+    private final List<Object> serialized = new ArrayList<>();
+
+    private final GraphQLJsonSerializer jsonSerializer = new GraphQLJsonSerializer() {
+
+        @Override
+        public String serialize(Object object) {
+            serialized.add(object);
+            return String.valueOf(object);
+        }
+
+        @Override
+        public <T> T deserialize(String json, Class<T> type) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private final QueryResultCache resultCache = resultCache();
+
+    private final CachingExecutionResultHandler handler = new CachingExecutionResultHandler(jsonSerializer, resultCache);
+
+    @Test
+    void cachesTheSerializedCacheableResults() {
+        final ExecutionResult result = new CachingGraphQLInvocation.CacheableResult(
+                data("general"), "query", graphVersion.current());
+
+        final String json = handle(result);
+        Assertions.assertEquals(json, resultCache.get("query"));
+        Assertions.assertEquals(1, serialized.size());
+    }
+
+    @Test
+    void writesTheCachedResultsAsIs() {
+        final String json = "{\"data\":{\"name\":\"general\"}}";
+
+        Assertions.assertEquals(json, handle(new CachingGraphQLInvocation.CachedResult(json, jsonSerializer)));
+        Assertions.assertTrue(serialized.isEmpty());
+    }
+
+    @Test
+    void skipsTheStaleAndUncacheableResults() {
+        final long version = graphVersion.current();
+        graphVersion.increment();
+        handle(new CachingGraphQLInvocation.CacheableResult(data("general"), "stale", version));
+        handle(data("random"));
+
+        Assertions.assertNull(resultCache.get("stale"));
+        Assertions.assertEquals(0, resultCache.getResults().size());
+        Assertions.assertEquals(2, serialized.size());
+    }
+
+    private String handle(ExecutionResult result) {
+        final Publisher<String> publisher = handler.handleExecutionResult(Publishers.just(result));
+        final List<String> jsons = new ArrayList<>();
+        publisher.subscribe(new Subscriber<String>() {
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(String json) {
+                jsons.add(json);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                Assertions.fail(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        Assertions.assertEquals(1, jsons.size());
+        return jsons.get(0);
+    }
+
+    private static ExecutionResult data(String name) {
+        final Map<String, Object> data = Collections.singletonMap("name", name);
+        return ExecutionResultImpl.newExecutionResult().data(data).build();
+    }
+
+    private QueryResultCache resultCache() {
+        final GraphQLConfigurationProperties configuration = new GraphQLConfigurationProperties();
+        configuration.setResultCacheMaxWeight(1024);
+        return new QueryResultCache(configuration, graphVersion);
+    }
+}
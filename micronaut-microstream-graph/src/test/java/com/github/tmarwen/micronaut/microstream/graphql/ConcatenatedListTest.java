@@ -0,0 +1,42 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+class ConcatenatedListTest {
+
+    @Test
+    void concatenatesTheListsInOrder() {
+        final List<String> view = new ConcatenatedList<>(Arrays.asList(
+                Collections.emptyList(),
+                Arrays.asList("a", "b"),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                Collections.singletonList("c"),
+                Arrays.asList("d", "e", "f"),
+                Collections.emptyList()
+        ));
+        Assertions.assertEquals(6, view.size());
+        Assertions.assertEquals(Arrays.asList("a", "b", "c", "d", "e", "f"), new ArrayList<>(view));
+        Assertions.assertEquals("c", view.get(2));
+        Assertions.assertEquals("d", view.get(3));
+        Assertions.assertEquals(Arrays.asList("c", "d"), view.subList(2, 4));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> view.get(6));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> view.get(-1));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> view.add("g"));
+    }
+
+    @Test
+    void readsThePartitionListsInPlace() {
+        final List<String> first = new ArrayList<>(Arrays.asList("a", "b"));
+        final List<String> view = new ConcatenatedList<>(Arrays.asList(first, Collections.singletonList("c")));
+        first.set(1, "B");
+        Assertions.assertEquals("B", view.get(1));
+        Assertions.assertTrue(new ConcatenatedList<>(Collections.<List<String>>emptyList()).isEmpty());
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.runtime.GlobalLockConcurrencyStrategy;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphConcurrencyStrategy;
+import com.github.tmarwen.micronaut.microstream.runtime.StripedConcurrencyStrategy;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingEnvironmentImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ConcurrentDataFetcherTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void loadsLazyListsOutsideOfTheReadSectionWithGlobalLock() throws Exception {
+        loadsLazyListsOutsideOfTheReadSection(new GlobalLockConcurrencyStrategy());
+    }
+
+    @Test
+    void loadsLazyListsOutsideOfTheReadSectionWithStripes() throws Exception {
+        loadsLazyListsOutsideOfTheReadSection(new StripedConcurrencyStrategy(16));
+    }
+
+    @Test
+    void guardsRootListsByTheirAggregateWithGlobalLock() throws Exception {
+        guardsRootListsByTheirAggregate(new GlobalLockConcurrencyStrategy());
+    }
+
+    @Test
+    void guardsRootListsByTheirAggregateWithStripes() throws Exception {
+        guardsRootListsByTheirAggregate(new StripedConcurrencyStrategy(16));
+    }
+
+    @Test
+    void copiesTheFetchedCollections() throws Exception {
+        final List<String> messages = new ArrayList<>(Collections.singletonList("hello"));
+        final ConcurrentDataFetcher fetcher = new ConcurrentDataFetcher(
+                environment -> messages, null, new StripedConcurrencyStrategy(16), null);
+
+        final Object fetched = fetcher.get(environment(new Object()));
+        messages.add("world");
+        Assertions.assertEquals(Collections.singletonList("hello"), fetched);
+    }
+
+    private void loadsLazyListsOutsideOfTheReadSection(GraphConcurrencyStrategy strategy) throws Exception {
+        final Object thread = new Object();
+        final List<String> messages = new ArrayList<>();
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch loaded = new CountDownLatch(1);
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ConcurrentDataFetcher fetcher = new ConcurrentDataFetcher(
+                environment -> messages,
+                environment -> {
+                    loads.incrementAndGet();
+                    loaded.countDown();
+                    return null;
+                },
+                strategy,
+                null
+        );
+        final Future<?> writer = executor.submit(() -> strategy.write(Collections.singletonList(thread), () -> {
+            writing.countDown();
+            await(release);
+            messages.add("hello");
+            return null;
+        }));
+        Assertions.assertTrue(writing.await(5, TimeUnit.SECONDS));
+        final Future<Object> reader = executor.submit(() -> fetcher.get(environment(thread)));
+
+        // the load proceeds while the writer holds the aggregate
+        Assertions.assertTrue(loaded.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        writer.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(Collections.singletonList("hello"), reader.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    private void guardsRootListsByTheirAggregate(GraphConcurrencyStrategy strategy) throws Exception {
+        final Object channels = new Object();
+        final List<String> names = new ArrayList<>(Arrays.asList("general", "random"));
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ConcurrentDataFetcher fetcher = new ConcurrentDataFetcher(environment -> names, null, strategy, channels);
+        final Future<?> writer = executor.submit(() -> strategy.write(Collections.singletonList(channels), () -> {
+            writing.countDown();
+            await(release);
+            // a torn read would see the list emptied
+            names.clear();
+            names.add("news");
+            return null;
+        }));
+        Assertions.assertTrue(writing.await(5, TimeUnit.SECONDS));
+        final Future<Object> reader = executor.submit(() -> fetcher.get(environment(null)));
+
+        release.countDown();
+        writer.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(Collections.singletonList("news"), reader.get(5, TimeUnit.SECONDS));
+    }
+
+    private static DataFetchingEnvironment environment(Object source) {
+        return DataFetchingEnvironmentImpl.newDataFetchingEnvironment()
+                .source(source)
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
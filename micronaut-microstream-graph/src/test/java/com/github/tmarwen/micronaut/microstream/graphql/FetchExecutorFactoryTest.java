@@ -0,0 +1,47 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.configuration.GraphQLConfigurationProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+class FetchExecutorFactoryTest {
+
+    @Test
+    void rejectsTheFetchesBeyondTheQueueCapacity() throws Exception {
+        final GraphQLConfigurationProperties configuration = new GraphQLConfigurationProperties();
+        configuration.setFetchExecution(GraphQLConfigurationProperties.FetchExecution.POOL);
+        configuration.setFetchThreads(1);
+        configuration.setFetchQueueCapacity(1);
+        final ExecutorService executor = new FetchExecutorFactory().fetchExecutor(configuration);
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                running.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            Assertions.assertTrue(running.await(5, TimeUnit.SECONDS));
+            executor.execute(() -> { });
+
+            // the rejected fetch never runs, neither on the pool nor on the requesting thread
+            final Thread[] ranOn = new Thread[1];
+            Assertions.assertThrows(RejectedExecutionException.class,
+                    () -> executor.execute(() -> ranOn[0] = Thread.currentThread()));
+            release.countDown();
+            executor.shutdown();
+            Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            Assertions.assertNull(ranOn[0]);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.configuration.GraphQLConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.configuration.ReplicaConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.configuration.StorageConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.index.GraphIndexes;
+import com.github.tmarwen.micronaut.microstream.index.RangeIndexes;
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
+import com.github.tmarwen.micronaut.microstream.model.GraphType;
+import com.github.tmarwen.micronaut.microstream.model.GraphWalker;
+import com.github.tmarwen.micronaut.microstream.runtime.GlobalLockConcurrencyStrategy;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphConcurrencyStrategy;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphPartitions;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphStorer;
+import com.github.tmarwen.micronaut.microstream.runtime.NamedStorage;
+import com.github.tmarwen.micronaut.microstream.runtime.TestGraphPartitions;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.preparsed.NoOpPreparsedDocumentProvider;
+import graphql.schema.DataFetchingEnvironment;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+class GraphQLFactoryTest {
+
+    private static final GraphField<Chat, Object> CHAT_CHANNELS = field("channels", "Channel", GraphField.Kind.OBJECT,
+            true, Chat::getChannels);
+
+    private static final GraphField<Channel, Object> CHANNEL_ID = field("id", "ID", GraphField.Kind.SCALAR,
+            false, Channel::getId);
+
+    private static final GraphField<Channel, Object> CHANNEL_NAME = field("name", "String", GraphField.Kind.SCALAR,
+            false, Channel::getName);
+
+    private static final GraphField<Profiles, Object> PROFILES_USERS = field("users", "User", GraphField.Kind.OBJECT,
+            true, Profiles::getUsers);
+
+    private static final GraphField<User, Object> USER_ID = field("id", "ID", GraphField.Kind.SCALAR,
+            false, User::getId);
+
+    private static final GraphField<User, Object> USER_LOGIN = field("login", "String", GraphField.Kind.SCALAR,
+            false, User::getLogin);
+
+    private final ApplicationEventPublisher eventPublisher = event -> { };
+
+    private final GraphConcurrencyStrategy concurrencyStrategy = new GlobalLockConcurrencyStrategy();
+
+    private final GraphModel chatModel = model(
+            new GraphType<>("Chat", Chat.class, true, Collections.singletonList(CHAT_CHANNELS)),
+            new GraphType<>("Channel", Channel.class, false, true, Arrays.asList(CHANNEL_ID, CHANNEL_NAME))
+    );
+
+    private final GraphModel profilesModel = model(
+            new GraphType<>("Profiles", Profiles.class, true, Collections.singletonList(PROFILES_USERS)),
+            new GraphType<>("User", User.class, false, true, Arrays.asList(USER_ID, USER_LOGIN))
+    );
+
+    @Test
+    void mergesTheNamedStoragesIntoTheSchema() {
+        final Chat chat = new Chat();
+        chat.channels = Collections.singletonList(new Channel(1L, "general"));
+        final Profiles profiles = new Profiles();
+        profiles.users = Arrays.asList(new User(1L, "ada"), new User(2L, "alan"));
+
+        final GraphQL graphQL = graphQL(chat, namedStorage("profiles", profilesModel, profiles));
+        final ExecutionResult result = graphQL.execute("{ channels { name } profiles { users { login } }"
+                + " channelById(id: 1) { name } userById(id: 2) { login } }");
+        Assertions.assertEquals(Collections.emptyList(), result.getErrors());
+        final Map<String, Object> expected = new HashMap<>();
+        expected.put("channels", Collections.singletonList(Collections.singletonMap("name", "general")));
+        expected.put("profiles", Collections.singletonMap("users", Arrays.asList(
+                Collections.singletonMap("login", "ada"),
+                Collections.singletonMap("login", "alan")
+        )));
+        expected.put("channelById", Collections.singletonMap("name", "general"));
+        expected.put("userById", Collections.singletonMap("login", "alan"));
+        Assertions.assertEquals(expected, result.getData());
+    }
+
+    @Test
+    void rejectsTheNamedStoragesCollidingWithAQueryField() {
+        final IllegalStateException error = Assertions.assertThrows(IllegalStateException.class,
+                () -> graphQL(new Chat(), namedStorage("channels", profilesModel, new Profiles())));
+        Assertions.assertEquals(
+                "MicroStream storage manager 'channels' conflicts with the query field of the same name",
+                error.getMessage()
+        );
+    }
+
+    @Test
+    void rejectsTheNamedStorageTypesCollidingWithAnotherStorageType() {
+        final GraphModel homonymModel = model(
+                new GraphType<>("Profiles", Profiles.class, true, Collections.singletonList(PROFILES_USERS)),
+                new GraphType<>("Channel", User.class, false, false, Arrays.asList(USER_ID, USER_LOGIN))
+        );
+        final IllegalStateException error = Assertions.assertThrows(IllegalStateException.class,
+                () -> graphQL(new Chat(), namedStorage("profiles", homonymModel, new Profiles())));
+        Assertions.assertTrue(error.getMessage().startsWith("Type Channel of MicroStream storage manager 'profiles'"),
+                error.getMessage());
+    }
+
+    private GraphQL graphQL(Chat chat, NamedStorage namedStorage) {
+        final EmbeddedStorageManager storageManager = storageManager(chat);
+        final GraphPartitions partitions = TestGraphPartitions.of(Collections.singletonList(storageManager), chatModel);
+        final GraphWalker graphWalker = new GraphWalker(chatModel);
+        final GraphQLConfigurationProperties configuration = new GraphQLConfigurationProperties();
+        configuration.setMutations(false);
+        configuration.setSubscriptions(false);
+        configuration.setBatchLoading(false);
+        return new GraphQLFactory(configuration, new RangeIndexes(), concurrencyStrategy, null).graphQL(
+                storageManager,
+                partitions,
+                chatModel,
+                new GraphIndexes(storageManager, partitions, chatModel, graphWalker, eventPublisher),
+                graphWalker,
+                new GraphStorer(storageManager, partitions, eventPublisher, concurrencyStrategy, null),
+                new ReplicaConfigurationProperties(),
+                NoOpPreparsedDocumentProvider.INSTANCE,
+                new GraphChangePublisher(),
+                Collections.singletonList(namedStorage),
+                Collections.emptyList()
+        );
+    }
+
+    private NamedStorage namedStorage(String name, GraphModel graphModel, Object root) {
+        return new NamedStorage(new StorageConfigurationProperties(name), graphModel, storageManager(root),
+                concurrencyStrategy, eventPublisher);
+    }
+
+    private static EmbeddedStorageManager storageManager(Object root) {
+        final EmbeddedStorageManager storageManager = Mockito.mock(EmbeddedStorageManager.class);
+        Mockito.doReturn(root).when(storageManager).root();
+        return storageManager;
+    }
+
+    private static GraphModel model(GraphType<?> root, GraphType<?> type) {
+        return new GraphModel() {
+
+            @Override
+            public Class<?> getRootType() {
+                return root.getBeanType();
+            }
+
+            @Override
+            public List<GraphType<?>> getTypes() {
+                return Arrays.asList(root, type);
+            }
+        };
+    }
+
+    private static <B> GraphField<B, Object> field(String name,
+                                                   String typeName,
+                                                   GraphField.Kind kind,
+                                                   boolean list,
+                                                   Function<B, Object> reader) {
+        return new GraphField<B, Object>(name, typeName, kind, list, false, false, false) {
+
+            @Override
+            public Object read(B bean) {
+                return reader.apply(bean);
+            }
+
+            @Override
+            public Object get(DataFetchingEnvironment environment) {
+                return read(environment.<B>getSource());
+            }
+        };
+    }
+
+    public static final class Chat {
+
+        private List<Channel> channels = Collections.emptyList();
+
+        public List<Channel> getChannels() {
+            return channels;
+        }
+    }
+
+    public static final class Channel {
+
+        private final Long id;
+
+        private final String name;
+
+        Channel(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    public static final class Profiles {
+
+        private List<User> users = Collections.emptyList();
+
+        public List<User> getUsers() {
+            return users;
+        }
+    }
+
+    public static final class User {
+
+        private final Long id;
+
+        private final String login;
+
+        User(Long id, String login) {
+            this.id = id;
+            this.login = login;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getLogin() {
+            return login;
+        }
+    }
+}
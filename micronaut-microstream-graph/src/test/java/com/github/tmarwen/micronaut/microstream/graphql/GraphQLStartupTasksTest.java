@@ -0,0 +1,99 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import graphql.GraphQL;
+import graphql.Scalars;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLNonNull;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class GraphQLStartupTasksTest {
+
+    private final AtomicInteger channelFetches = new AtomicInteger();
+
+    private final AtomicInteger nameFetches = new AtomicInteger();
+
+    private final AtomicInteger requiredFetches = new AtomicInteger();
+
+    @Test
+    void warmsUpTheQueryFieldsOnTheFirstListElements() {
+        final List<Channel> channels = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            channels.add(new Channel("channel-" + i));
+        }
+
+        new GraphQLStartupTasks().warmUpStartupTask(() -> graphQL(channels)).run();
+        Assertions.assertEquals(2, channelFetches.get());
+        // a single element of each list completed
+        Assertions.assertEquals(2, nameFetches.get());
+        Assertions.assertEquals(0, requiredFetches.get());
+    }
+
+    private GraphQL graphQL(List<Channel> channels) {
+        final GraphQLObjectType channelType = GraphQLObjectType.newObject()
+                .name("Channel")
+                .field(GraphQLFieldDefinition.newFieldDefinition().name("name").type(Scalars.GraphQLString))
+                .build();
+        final GraphQLObjectType queryType = GraphQLObjectType.newObject()
+                .name("Query")
+                .field(GraphQLFieldDefinition.newFieldDefinition()
+                        .name("channels")
+                        .type(GraphQLList.list(channelType)))
+                .field(GraphQLFieldDefinition.newFieldDefinition()
+                        .name("asyncChannels")
+                        .type(GraphQLList.list(channelType)))
+                .field(GraphQLFieldDefinition.newFieldDefinition()
+                        .name("channel")
+                        .argument(GraphQLArgument.newArgument()
+                                .name("id")
+                                .type(GraphQLNonNull.nonNull(Scalars.GraphQLID)))
+                        .type(channelType))
+                .build();
+        final GraphQLCodeRegistry codeRegistry = GraphQLCodeRegistry.newCodeRegistry()
+                .dataFetcher(FieldCoordinates.coordinates("Query", "channels"), environment -> {
+                    channelFetches.incrementAndGet();
+                    return channels;
+                })
+                .dataFetcher(FieldCoordinates.coordinates("Query", "asyncChannels"), environment -> {
+                    channelFetches.incrementAndGet();
+                    return CompletableFuture.completedFuture(channels);
+                })
+                .dataFetcher(FieldCoordinates.coordinates("Query", "channel"), environment -> {
+                    requiredFetches.incrementAndGet();
+                    return null;
+                })
+                .dataFetcher(FieldCoordinates.coordinates("Channel", "name"), environment -> {
+                    nameFetches.incrementAndGet();
+                    return environment.<Channel>getSource().getName();
+                })
+                .build();
+        return GraphQL.newGraphQL(GraphQLSchema.newSchema()
+                .query(queryType)
+                .codeRegistry(codeRegistry)
+                .build()).build();
+    }
+
+    public static final class Channel {
+
+        private final String name;
+
+        Channel(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.index.GraphChangeEvent;
+import com.github.tmarwen.micronaut.microstream.index.GraphIndexes;
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
+import com.github.tmarwen.micronaut.microstream.model.GraphType;
+import com.github.tmarwen.micronaut.microstream.model.GraphWalker;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingEnvironmentImpl;
+import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.GraphQLObjectType;
+import io.micronaut.core.annotation.Introspected;
+import io.reactivex.Flowable;
+import io.reactivex.subscribers.TestSubscriber;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+class GraphSubscriptionsTest {
+
+    private static final GraphField<Chat, Object> CHAT_CHANNELS = field("channels", "Channel", GraphField.Kind.OBJECT,
+            true, Chat::getChannels);
+
+    private static final GraphField<Channel, Object> CHANNEL_ID = field("id", "ID", GraphField.Kind.SCALAR,
+            false, Channel::getId);
+
+    private static final GraphField<Message, Object> MESSAGE_ID = field("id", "ID", GraphField.Kind.SCALAR,
+            false, Message::getId);
+
+    private static final GraphField<Message, Object> MESSAGE_CHANNEL = field("channel", "Channel",
+            GraphField.Kind.OBJECT, false, Message::getChannel);
+
+    private static final String SUBSCRIPTION_TYPE = "Subscription";
+
+    private final GraphChangePublisher changePublisher = new GraphChangePublisher();
+
+    private final Channel general = channel(1L);
+
+    private final Channel random = channel(2L);
+
+    private GraphIndexes graphIndexes;
+
+    private GraphModel graphModel;
+
+    @BeforeEach
+    void setUp() {
+        final Chat chat = new Chat();
+        chat.channels = Arrays.asList(general, random);
+        final EmbeddedStorageManager storageManager = Mockito.mock(EmbeddedStorageManager.class);
+        Mockito.doReturn(chat).when(storageManager).root();
+        graphModel = new GraphModel() {
+
+            @Override
+            public Class<?> getRootType() {
+                return Chat.class;
+            }
+
+            @Override
+            public List<GraphType<?>> getTypes() {
+                return Arrays.asList(
+                        new GraphType<>("Chat", Chat.class, true, Collections.singletonList(CHAT_CHANNELS)),
+                        new GraphType<>("Channel", Channel.class, false, true, Collections.singletonList(CHANNEL_ID)),
+                        new GraphType<>("Message", Message.class, false, true,
+                                Arrays.asList(MESSAGE_ID, MESSAGE_CHANNEL))
+                );
+            }
+        };
+        graphIndexes = new GraphIndexes(storageManager, graphModel, new GraphWalker(graphModel), event -> { });
+    }
+
+    @Test
+    void filtersTheAddedInstancesOnTheirReferences() {
+        final TestSubscriber<Message> filtered = subscribe(16, Collections.singletonMap("channelId", "1")).test();
+        final TestSubscriber<Message> all = subscribe(16, Collections.emptyMap()).test();
+        final Message first = message(10L, general);
+        final Message second = message(11L, random);
+        final Message third = message(12L, general);
+
+        publish(first, second, general, third);
+        filtered.awaitCount(2);
+        all.awaitCount(3);
+        filtered.assertValues(first, third);
+        all.assertValues(first, second, third);
+    }
+
+    @Test
+    void dropsTheOldestInstancesBeyondTheBufferSize() {
+        final TestSubscriber<Message> subscriber = subscribe(2, Collections.emptyMap()).test(0);
+        final Message[] messages = new Message[5];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = message(i, general);
+        }
+
+        publish((Object[]) messages);
+        subscriber.assertNoValues();
+        subscriber.request(Long.MAX_VALUE);
+        subscriber.awaitCount(3);
+        // the instance prefetched for delivery and the last buffered ones
+        subscriber.assertValues(messages[0], messages[3], messages[4]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Flowable<Message> subscribe(int bufferSize, Map<String, Object> arguments) {
+        final GraphQLObjectType.Builder subscriptionBuilder = GraphQLObjectType.newObject().name(SUBSCRIPTION_TYPE);
+        final GraphQLCodeRegistry.Builder codeRegistryBuilder = GraphQLCodeRegistry.newCodeRegistry();
+        new GraphSubscriptions(graphModel, graphIndexes, changePublisher, bufferSize)
+                .process(subscriptionBuilder, codeRegistryBuilder, SUBSCRIPTION_TYPE);
+        final GraphQLObjectType subscriptionType = subscriptionBuilder.build();
+        final DataFetcher<?> dataFetcher = codeRegistryBuilder.build()
+                .getDataFetcher(subscriptionType, subscriptionType.getFieldDefinition("messageAdded"));
+        final DataFetchingEnvironment environment = DataFetchingEnvironmentImpl.newDataFetchingEnvironment()
+                .arguments(arguments)
+                .build();
+        try {
+            return (Flowable<Message>) dataFetcher.get(environment);
+        } catch (Exception e) {
+            return Assertions.fail(e);
+        }
+    }
+
+    private void publish(Object... added) {
+        changePublisher.onApplicationEvent(new GraphChangeEvent(graphIndexes, Arrays.asList(added),
+                Collections.emptyList()));
+    }
+
+    private static Channel channel(long id) {
+        final Channel channel = new Channel();
+        channel.id = id;
+        return channel;
+    }
+
+    private static Message message(long id, Channel channel) {
+        final Message message = new Message();
+        message.id = id;
+        message.channel = channel;
+        return message;
+    }
+
+    private static <B> GraphField<B, Object> field(String name,
+                                                   String typeName,
+                                                   GraphField.Kind kind,
+                                                   boolean list,
+                                                   Function<B, Object> reader) {
+        return new GraphField<B, Object>(name, typeName, kind, list, false, false, false) {
+
+            @Override
+            public Object read(B bean) {
+                return reader.apply(bean);
+            }
+
+            @Override
+            public Object get(DataFetchingEnvironment environment) {
+                return read(environment.<B>getSource());
+            }
+        };
+    }
+
+    @Introspected
+    public static final class Chat {
+
+        private List<Channel> channels = Collections.emptyList();
+
+        public List<Channel> getChannels() {
+            return channels;
+        }
+    }
+
+    @Introspected
+    public static final class Channel {
+
+        private Long id;
+
+        public Long getId() {
+            return id;
+        }
+    }
+
+    @Introspected
+    public static final class Message {
+
+        private Long id;
+
+        private Channel channel;
+
+        public Long getId() {
+            return id;
+        }
+
+        public Channel getChannel() {
+            return channel;
+        }
+    }
+}
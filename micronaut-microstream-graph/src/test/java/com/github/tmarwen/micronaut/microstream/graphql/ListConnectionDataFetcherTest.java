@@ -0,0 +1,91 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import graphql.relay.Connection;
+import graphql.relay.Edge;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingEnvironmentImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class ListConnectionDataFetcherTest {
+
+    private final List<Integer> elements = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+
+    private final ListConnectionDataFetcher<Integer> fetcher =
+            new ListConnectionDataFetcher<>(environment -> elements, 3, 5);
+
+    @Test
+    void cursorsEncodeTheElementIndex() {
+        final String cursor = ListConnectionDataFetcher.encode(42).getValue();
+        Assertions.assertFalse(cursor.contains("42"), "cursors are opaque");
+        Assertions.assertEquals(42, ListConnectionDataFetcher.decode(cursor));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ListConnectionDataFetcher.decode("42"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ListConnectionDataFetcher.decode("%%%"));
+    }
+
+    @Test
+    void firstPageUsesTheDefaultPageSize() throws Exception {
+        final Connection<Integer> connection = fetcher.get(environment(arguments()));
+        Assertions.assertEquals("[0, 1, 2]", nodes(connection));
+        Assertions.assertFalse(connection.getPageInfo().isHasPreviousPage());
+        Assertions.assertTrue(connection.getPageInfo().isHasNextPage());
+    }
+
+    @Test
+    void pagesForwardAfterTheEndCursor() throws Exception {
+        final Connection<Integer> first = fetcher.get(environment(arguments("first", 4)));
+        Assertions.assertEquals("[0, 1, 2, 3]", nodes(first));
+        final String endCursor = first.getPageInfo().getEndCursor().getValue();
+        final Connection<Integer> next = fetcher.get(environment(arguments("first", 4, "after", endCursor)));
+        Assertions.assertEquals("[4, 5, 6, 7]", nodes(next));
+        Assertions.assertTrue(next.getPageInfo().isHasPreviousPage());
+        Assertions.assertTrue(next.getPageInfo().isHasNextPage());
+        Assertions.assertEquals(next.getEdges().get(0).getCursor().getValue(),
+                next.getPageInfo().getStartCursor().getValue());
+    }
+
+    @Test
+    void pagesBackwardBeforeTheStartCursor() throws Exception {
+        final String before = ListConnectionDataFetcher.encode(8).getValue();
+        final Connection<Integer> connection = fetcher.get(environment(arguments("last", 2, "before", before)));
+        Assertions.assertEquals("[6, 7]", nodes(connection));
+        Assertions.assertTrue(connection.getPageInfo().isHasNextPage());
+    }
+
+    @Test
+    void pageSizeIsBounded() throws Exception {
+        Assertions.assertEquals("[0, 1, 2, 3, 4]", nodes(fetcher.get(environment(arguments("first", 100)))));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> fetcher.get(environment(arguments("first", -1))));
+    }
+
+    @Test
+    void pagingPastTheEndIsEmpty() throws Exception {
+        final String after = ListConnectionDataFetcher.encode(9).getValue();
+        final Connection<Integer> connection = fetcher.get(environment(arguments("first", 2, "after", after)));
+        Assertions.assertTrue(connection.getEdges().isEmpty());
+        Assertions.assertNull(connection.getPageInfo().getStartCursor());
+        Assertions.assertFalse(connection.getPageInfo().isHasNextPage());
+    }
+
+    private static Map<String, Object> arguments(Object... namesAndValues) {
+        final Map<String, Object> arguments = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            arguments.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return arguments;
+    }
+
+    private static DataFetchingEnvironment environment(Map<String, Object> arguments) {
+        return DataFetchingEnvironmentImpl.newDataFetchingEnvironment().arguments(arguments).build();
+    }
+
+    private static String nodes(Connection<Integer> connection) {
+        return connection.getEdges().stream().map(Edge::getNode).collect(Collectors.toList()).toString();
+    }
+}
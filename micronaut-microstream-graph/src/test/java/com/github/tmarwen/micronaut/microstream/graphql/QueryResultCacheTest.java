@@ -0,0 +1,49 @@
+package com.github.tmarwen.micronaut.microstream.graphql;
+
+import com.github.tmarwen.micronaut.microstream.configuration.GraphQLConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphVersion;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class QueryResultCacheTest {
+
+    private final GraphVersion graphVersion = new GraphVersion();
+
+    @Test
+    void servesTheResultsUntilTheGraphChanges() {
+        final QueryResultCache cache = cache(1024);
+        cache.put("{ channels { name } }", graphVersion.current(), "{\"data\":{}}");
+        Assertions.assertEquals("{\"data\":{}}", cache.get("{ channels { name } }"));
+
+        graphVersion.increment();
+        Assertions.assertNull(cache.get("{ channels { name } }"));
+    }
+
+    @Test
+    void skipsTheResultsComputedBeforeTheLastChange() {
+        final QueryResultCache cache = cache(1024);
+        final long version = graphVersion.current();
+        // committed while the query was executing
+        graphVersion.increment();
+        cache.put("{ channels { name } }", version, "{\"data\":{}}");
+        Assertions.assertNull(cache.get("{ channels { name } }"));
+        Assertions.assertEquals(0, cache.getResults().size());
+    }
+
+    @Test
+    void weighsTheKeysAndResults() {
+        final QueryResultCache cache = cache(10);
+        cache.put("a", graphVersion.current(), "aaaa");
+        cache.put("b", graphVersion.current(), "bbbb");
+        Assertions.assertEquals(10, cache.getResults().weight());
+        cache.put("c", graphVersion.current(), "cccc");
+        Assertions.assertNull(cache.get("a"));
+        Assertions.assertEquals("cccc", cache.get("c"));
+    }
+
+    private QueryResultCache cache(long maxWeight) {
+        final GraphQLConfigurationProperties configuration = new GraphQLConfigurationProperties();
+        configuration.setResultCacheMaxWeight(maxWeight);
+        return new QueryResultCache(configuration, graphVersion);
+    }
+}
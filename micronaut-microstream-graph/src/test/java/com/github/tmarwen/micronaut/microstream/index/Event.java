@@ -0,0 +1,47 @@
+package com.github.tmarwen.micronaut.microstream.index;
+
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import graphql.schema.DataFetchingEnvironment;
+
+import java.time.Instant;
+
+/**
+ * Range indexed test bean.
+ */
+final class Event {
+
+    /**
+     * The range index key field.
+     */
+    static final GraphField<Event, Instant> AT = new GraphField<Event, Instant>(
+            "at", "DateTime", GraphField.Kind.SCALAR, false, false, true, false) {
+
+        @Override
+        public Instant read(Event bean) {
+            return bean.at;
+        }
+
+        @Override
+        public Instant get(DataFetchingEnvironment environment) {
+            return read(environment.<Event>getSource());
+        }
+    };
+
+    final String name;
+
+    Instant at;
+
+    Event(String name, Instant at) {
+        this.name = name;
+        this.at = at;
+    }
+
+    static Event at(String name, long epochSecond) {
+        return new Event(name, Instant.ofEpochSecond(epochSecond));
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.tmarwen.micronaut.microstream.index;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+class LongObjectHashMapTest {
+
+    @Test
+    void putGetRemove() {
+        final LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        Assertions.assertNull(map.put(1, "one"));
+        Assertions.assertEquals("one", map.put(1, "uno"));
+        Assertions.assertEquals("uno", map.get(1));
+        Assertions.assertNull(map.get(2));
+        Assertions.assertEquals(1, map.size());
+        Assertions.assertEquals("uno", map.remove(1));
+        Assertions.assertNull(map.remove(1));
+        Assertions.assertNull(map.get(1));
+        Assertions.assertEquals(0, map.size());
+    }
+
+    @Test
+    void removalShiftsBackTheFollowingProbedEntries() {
+        final LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+        // fill close to the load factor so that probe sequences overlap
+        final int count = 38;
+        for (long key = 0; key < count; key++) {
+            map.put(key, key);
+        }
+        for (long key = 0; key < count; key += 2) {
+            Assertions.assertEquals(Long.valueOf(key), map.remove(key));
+        }
+        for (long key = 0; key < count; key++) {
+            Assertions.assertEquals(key % 2 == 0 ? null : key, map.get(key), "key " + key);
+        }
+        Assertions.assertEquals(count / 2, map.size());
+    }
+
+    @Test
+    void behavesAsAHashMapUnderRandomUpdates() {
+        final Random random = new Random(42);
+        final LongObjectHashMap<Integer> map = new LongObjectHashMap<>();
+        final Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            final long key = random.nextInt(500) - 250;
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                Assertions.assertEquals(expected.put(key, i), map.put(key, i));
+            }
+            if (i % 1000 == 0) {
+                map.clear();
+                expected.clear();
+            }
+        }
+        Assertions.assertEquals(expected.size(), map.size());
+        for (long key = -250; key < 250; key++) {
+            Assertions.assertEquals(expected.get(key), map.get(key), "key " + key);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.tmarwen.micronaut.microstream.index;
+
+import com.github.tmarwen.micronaut.microstream.runtime.StorageCommitEvent;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.github.tmarwen.micronaut.microstream.index.SortedListIndexTest.names;
+import static com.github.tmarwen.micronaut.microstream.index.SortedListIndexTest.second;
+
+class RangeIndexesTest {
+
+    private final RangeIndexes rangeIndexes = new RangeIndexes();
+
+    @Test
+    void eachListGetsItsOwnIndex() {
+        final List<Event> first = new ArrayList<>(Arrays.asList(Event.at("b", 20), Event.at("a", 10)));
+        final List<Event> second = new ArrayList<>(Collections.singletonList(Event.at("c", 30)));
+        Assertions.assertEquals("[a, b]", names(rangeIndexes.range(first, Event.AT, null, null)));
+        Assertions.assertEquals("[c]", names(rangeIndexes.range(second, Event.AT, null, null)));
+        Assertions.assertEquals("[a]", names(rangeIndexes.range(first, Event.AT, null, second(15))));
+    }
+
+    @Test
+    void storedListsAreVerifiedUponNextQuery() {
+        final List<Event> list = new ArrayList<>(Arrays.asList(Event.at("a", 10), Event.at("b", 20)));
+        rangeIndexes.range(list, Event.AT, null, null);
+        list.set(0, Event.at("c", 30));
+        rangeIndexes.onApplicationEvent(new StorageCommitEvent(Mockito.mock(EmbeddedStorageManager.class), Collections.singletonList(list)));
+        Assertions.assertEquals("[b, c]", names(rangeIndexes.range(list, Event.AT, null, null)));
+    }
+}
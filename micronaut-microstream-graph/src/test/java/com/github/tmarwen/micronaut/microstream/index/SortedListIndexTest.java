@@ -0,0 +1,79 @@
+package com.github.tmarwen.micronaut.microstream.index;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class SortedListIndexTest {
+
+    private final SortedListIndex<Event> index = new SortedListIndex<>(Event.AT);
+
+    @Test
+    void rangeReturnsTheElementsWithinBoundsInKeyOrder() {
+        final List<Event> list = new ArrayList<>(Arrays.asList(
+                Event.at("c", 30), Event.at("a", 10), new Event("none", null), Event.at("b", 20), Event.at("d", 40)
+        ));
+        Assertions.assertEquals("[a, b, c, d]", names(index.range(list, null, null)));
+        Assertions.assertEquals("[b, c]", names(index.range(list, second(20), second(30))));
+        Assertions.assertEquals("[b, c, d]", names(index.range(list, second(15), null)));
+        Assertions.assertEquals("[a]", names(index.range(list, null, second(19))));
+        Assertions.assertEquals("[]", names(index.range(list, second(31), second(39))));
+    }
+
+    @Test
+    void equalKeysKeepTheListOrder() {
+        final List<Event> list = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            list.add(Event.at("e" + i, i % 2));
+        }
+        final List<Event> range = index.range(list, second(1), second(1));
+        Assertions.assertEquals(50, range.size());
+        for (int i = 0; i < range.size(); i++) {
+            Assertions.assertEquals("e" + (2 * i + 1), range.get(i).name);
+        }
+    }
+
+    @Test
+    void appendedElementsAreMergedWithoutChangingEarlierViews() {
+        final List<Event> list = new ArrayList<>(Arrays.asList(Event.at("a", 10), Event.at("c", 30)));
+        final List<Event> before = index.range(list, null, null);
+        list.add(Event.at("d", 40));
+        list.add(Event.at("b", 20));
+        Assertions.assertEquals("[a, b, c, d]", names(index.range(list, null, null)));
+        Assertions.assertEquals("[a, c]", names(before));
+        list.add(Event.at("e", 50));
+        Assertions.assertEquals("[d, e]", names(index.range(list, second(35), null)));
+    }
+
+    @Test
+    void nonAppendChangesRebuildTheIndex() {
+        final List<Event> list = new ArrayList<>(Arrays.asList(Event.at("a", 10), Event.at("b", 20), Event.at("c", 30)));
+        index.range(list, null, null);
+        list.remove(0);
+        Assertions.assertEquals("[b, c]", names(index.range(list, null, null)));
+        // same length, only detected once invalidated
+        list.get(0).at = second(40);
+        index.invalidate();
+        Assertions.assertEquals("[c, b]", names(index.range(list, null, null)));
+    }
+
+    @Test
+    void epochNanosSaturates() {
+        Assertions.assertEquals(1_000_000_001L, SortedListIndex.epochNanos(Instant.ofEpochSecond(1, 1)));
+        Assertions.assertEquals(Long.MAX_VALUE, SortedListIndex.epochNanos(Instant.MAX));
+        Assertions.assertEquals(Long.MIN_VALUE, SortedListIndex.epochNanos(Instant.MIN));
+    }
+
+    static Instant second(long epochSecond) {
+        return Instant.ofEpochSecond(epochSecond);
+    }
+
+    static String names(List<Event> events) {
+        return events.stream().map(event -> event.name).collect(Collectors.joining(", ", "[", "]"));
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.tmarwen.micronaut.microstream.journal;
+
+import com.github.tmarwen.micronaut.microstream.configuration.JournalConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.configuration.MicroStreamConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
+import com.github.tmarwen.micronaut.microstream.model.GraphType;
+import com.github.tmarwen.micronaut.microstream.model.GraphWalker;
+import com.github.tmarwen.micronaut.microstream.runtime.TestGraphPartitions;
+import graphql.schema.DataFetchingEnvironment;
+import io.micronaut.core.annotation.Introspected;
+import one.microstream.persistence.types.PersistenceManager;
+import one.microstream.persistence.types.PersistenceObjectRegistry;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+class ChangeJournalTest {
+
+    private static final GraphField<Channel, Object> CHANNEL_NAME = field("name", "String", GraphField.Kind.SCALAR,
+            false, Channel::getName);
+
+    @TempDir
+    Path directory;
+
+    private final Channel general = new Channel();
+
+    @Test
+    void startsANewJournalWithABaseline() throws IOException {
+        general.setName("general");
+        journal().close();
+        Assertions.assertEquals(Collections.singletonList("general"), names());
+    }
+
+    @Test
+    void catchesUpAJournalNotClosed() throws IOException {
+        general.setName("general");
+        journal().close();
+        // committed but not journaled before the application stopped
+        general.setName("news");
+        Files.createFile(directory.resolve("journal.open"));
+
+        final ChangeJournal journal = journal();
+        Assertions.assertEquals(2, journal.getLastSequence());
+        journal.close();
+        Assertions.assertEquals(2, names().size());
+        Assertions.assertEquals("news", names().get(1));
+    }
+
+    @Test
+    void appendsNothingToAJournalClosedUpToDate() throws IOException {
+        general.setName("general");
+        journal().close();
+        final ChangeJournal journal = journal();
+        Assertions.assertEquals(1, journal.getLastSequence());
+        journal.close();
+        Assertions.assertFalse(Files.exists(directory.resolve("journal.open")));
+    }
+
+    private ChangeJournal journal() {
+        final Map<Object, Long> objectIds = new IdentityHashMap<>();
+        objectIds.put(general, 42L);
+        final PersistenceObjectRegistry objectRegistry = Mockito.mock(PersistenceObjectRegistry.class,
+                invocation -> "lookupObjectId".equals(invocation.getMethod().getName())
+                        ? objectIds.getOrDefault(invocation.getArgument(0), -1L)
+                        : null);
+        final PersistenceManager<?> persistenceManager = Mockito.mock(PersistenceManager.class);
+        Mockito.doReturn(objectRegistry).when(persistenceManager).objectRegistry();
+        final EmbeddedStorageManager storageManager = Mockito.mock(EmbeddedStorageManager.class);
+        Mockito.doReturn(persistenceManager).when(storageManager).persistenceManager();
+        Mockito.doReturn(general).when(storageManager).root();
+        final GraphModel graphModel = new GraphModel() {
+
+            @Override
+            public Class<?> getRootType() {
+                return Channel.class;
+            }
+
+            @Override
+            public List<GraphType<?>> getTypes() {
+                return Collections.singletonList(
+                        new GraphType<>("Channel", Channel.class, true, Collections.singletonList(CHANNEL_NAME)));
+            }
+        };
+        final JournalConfigurationProperties configuration = new JournalConfigurationProperties();
+        configuration.setDirectory(directory.toString());
+        configuration.setSegmentSize(4096);
+        return new ChangeJournal(
+                storageManager,
+                TestGraphPartitions.of(Collections.singletonList(storageManager), graphModel),
+                new GraphWalker(graphModel),
+                new MicroStreamConfigurationProperties(),
+                configuration
+        );
+    }
+
+    private List<String> names() throws IOException {
+        final List<String> names = new ArrayList<>();
+        try (JournalCursor cursor = new JournalCursor(directory, 0)) {
+            JournalRecord record;
+            while ((record = cursor.next()) != null) {
+                final String json = record.getJson();
+                final int start = json.indexOf("\"name\":\"") + 8;
+                names.add(json.substring(start, json.indexOf('"', start)));
+            }
+        }
+        return names;
+    }
+
+    private static <B> GraphField<B, Object> field(String name,
+                                                   String typeName,
+                                                   GraphField.Kind kind,
+                                                   boolean list,
+                                                   Function<B, Object> reader) {
+        return new GraphField<B, Object>(name, typeName, kind, list, false, false, false) {
+
+            @Override
+            public Object read(B bean) {
+                return reader.apply(bean);
+            }
+
+            @Override
+            public Object get(DataFetchingEnvironment environment) {
+                return read(environment.<B>getSource());
+            }
+        };
+    }
+
+    @Introspected
+    public static final class Channel {
+
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.tmarwen.micronaut.microstream.journal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+class JournalCursorTest {
+
+    private static final int SEGMENT_SIZE = 64;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void tailsTheRecordsAsTheyAreAppended() throws IOException {
+        try (JournalCursor cursor = new JournalCursor(directory.resolve("journal"), 0);
+             JournalFile file = new JournalFile(directory.resolve("journal"), SEGMENT_SIZE, 0)) {
+            Assertions.assertNull(cursor.next());
+            file.append(JournalFileTest.payload(1));
+            final JournalRecord first = cursor.next();
+            Assertions.assertEquals(1, first.getSequence());
+            Assertions.assertEquals("{\"i\": 1}", first.getJson());
+            Assertions.assertNull(cursor.next());
+            for (int i = 2; i <= 7; i++) {
+                file.append(JournalFileTest.payload(i));
+            }
+            for (int i = 2; i <= 7; i++) {
+                Assertions.assertEquals(i, cursor.next().getSequence());
+            }
+            Assertions.assertNull(cursor.next());
+            Assertions.assertEquals(7, cursor.getSequence());
+            file.append(JournalFileTest.payload(8));
+            Assertions.assertEquals(8, cursor.next().getSequence());
+        }
+    }
+
+    @Test
+    void resumesAfterTheHandledRecords() throws IOException {
+        append(8);
+        for (long sequence = 0; sequence <= 8; sequence++) {
+            try (JournalCursor cursor = new JournalCursor(directory, sequence)) {
+                for (long next = sequence + 1; next <= 8; next++) {
+                    final JournalRecord record = cursor.next();
+                    Assertions.assertEquals(next, record.getSequence());
+                    Assertions.assertArrayEquals(JournalFileTest.payload((int) next), record.getPayload());
+                }
+                Assertions.assertNull(cursor.next());
+            }
+        }
+    }
+
+    @Test
+    void readsOnASegmentFollowedByAnotherOneWithoutEnd() throws IOException {
+        append(4);
+        // the writer published the next segment without ending the first one
+        final MappedByteBuffer first = JournalFile.map(directory.resolve(JournalFile.segmentName(1)),
+                FileChannel.MapMode.READ_WRITE, SEGMENT_SIZE);
+        first.putInt(3 * 20, 0);
+        try (JournalCursor cursor = new JournalCursor(directory, 0)) {
+            for (int i = 1; i <= 4; i++) {
+                Assertions.assertEquals(i, cursor.next().getSequence());
+            }
+            Assertions.assertNull(cursor.next());
+        }
+    }
+
+    @Test
+    void failsOnRecordsDeletedByTheRetention() throws IOException {
+        try (JournalFile file = new JournalFile(directory, SEGMENT_SIZE, 1)) {
+            for (int i = 1; i <= 3; i++) {
+                file.append(JournalFileTest.payload(i));
+            }
+            try (JournalCursor cursor = new JournalCursor(directory, 0)) {
+                for (int i = 1; i <= 3; i++) {
+                    Assertions.assertEquals(i, cursor.next().getSequence());
+                }
+                for (int i = 4; i <= 7; i++) {
+                    file.append(JournalFileTest.payload(i));
+                }
+                final IllegalStateException failure = Assertions.assertThrows(IllegalStateException.class, cursor::next);
+                Assertions.assertTrue(failure.getMessage().startsWith("MicroStream journal records 4 to 6 were deleted"),
+                        failure.getMessage());
+            }
+            Assertions.assertThrows(IllegalStateException.class, () -> new JournalCursor(directory, 2));
+            try (JournalCursor cursor = new JournalCursor(directory, 6)) {
+                Assertions.assertEquals(7, cursor.next().getSequence());
+            }
+        }
+    }
+
+    private void append(int count) throws IOException {
+        try (JournalFile file = new JournalFile(directory, SEGMENT_SIZE, 0)) {
+            for (int i = 1; i <= count; i++) {
+                file.append(JournalFileTest.payload(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.tmarwen.micronaut.microstream.journal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class JournalFileTest {
+
+    private static final int SEGMENT_SIZE = 64;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rollsToANewSegmentOnceTheCurrentOneIsFullAndEndsIt() throws IOException {
+        try (JournalFile file = new JournalFile(directory, SEGMENT_SIZE, 0)) {
+            for (int i = 1; i <= 5; i++) {
+                Assertions.assertEquals(i, file.append(payload(i)));
+            }
+        }
+        // three 20 bytes records per 64 bytes segment
+        Assertions.assertEquals(List.of(JournalFile.segmentName(1), JournalFile.segmentName(4)), names());
+        final MappedByteBuffer first = JournalFile.map(directory.resolve(JournalFile.segmentName(1)),
+                FileChannel.MapMode.READ_ONLY, SEGMENT_SIZE);
+        Assertions.assertEquals(8, first.getInt(0));
+        Assertions.assertEquals(3, first.getLong(2 * 20 + Integer.BYTES));
+        Assertions.assertEquals(JournalFile.END_OF_SEGMENT, first.getInt(3 * 20));
+    }
+
+    @Test
+    void recoversAfterTheLastRecord() throws IOException {
+        try (JournalFile file = new JournalFile(directory, SEGMENT_SIZE, 0)) {
+            for (int i = 1; i <= 4; i++) {
+                file.append(payload(i));
+            }
+        }
+        try (JournalFile file = new JournalFile(directory, SEGMENT_SIZE, 0)) {
+            Assertions.assertEquals(4, file.getLastSequence());
+            Assertions.assertEquals(5, file.append(payload(5)));
+            Assertions.assertEquals(6, file.append(payload(6)));
+            Assertions.assertEquals(7, file.append(payload(7)));
+        }
+        Assertions.assertEquals(List.of(JournalFile.segmentName(1), JournalFile.segmentName(4),
+                JournalFile.segmentName(7)), names());
+        Assertions.assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), read(0));
+    }
+
+    @Test
+    void recoversAnEndedLastSegmentByRolling() throws IOException {
+        try (JournalFile file = new JournalFile(directory, SEGMENT_SIZE, 0)) {
+            file.append(payload(1));
+        }
+        // the writer stopped after ending the segment, before publishing the next one
+        final MappedByteBuffer segment = JournalFile.map(directory.resolve(JournalFile.segmentName(1)),
+                FileChannel.MapMode.READ_WRITE, SEGMENT_SIZE);
+        segment.putInt(20, JournalFile.END_OF_SEGMENT);
+        Files.write(directory.resolve("segment42.tmp"), new byte[SEGMENT_SIZE]);
+        try (JournalFile file = new JournalFile(directory, SEGMENT_SIZE, 0)) {
+            Assertions.assertEquals(1, file.getLastSequence());
+            Assertions.assertEquals(2, file.append(payload(2)));
+        }
+        Assertions.assertEquals(List.of(JournalFile.segmentName(1), JournalFile.segmentName(2)), names());
+        Assertions.assertTrue(Files.notExists(directory.resolve("segment42.tmp")));
+        Assertions.assertEquals(List.of(1L, 2L), read(0));
+    }
+
+    @Test
+    void recoveryEndsASegmentFollowedByAnotherOne() throws IOException {
+        try (JournalFile file = new JournalFile(directory, SEGMENT_SIZE, 0)) {
+            file.append(payload(1));
+        }
+        // the segment of the next record was published without ending the previous one
+        Files.write(directory.resolve(JournalFile.segmentName(2)), new byte[SEGMENT_SIZE]);
+        try (JournalFile file = new JournalFile(directory, SEGMENT_SIZE, 0)) {
+            Assertions.assertEquals(1, file.getLastSequence());
+            Assertions.assertEquals(2, file.append(payload(2)));
+        }
+        final MappedByteBuffer first = JournalFile.map(directory.resolve(JournalFile.segmentName(1)),
+                FileChannel.MapMode.READ_ONLY, SEGMENT_SIZE);
+        Assertions.assertEquals(JournalFile.END_OF_SEGMENT, first.getInt(20));
+        Assertions.assertEquals(List.of(1L, 2L), read(0));
+    }
+
+    @Test
+    void retainsTheMostRecentSegments() throws IOException {
+        try (JournalFile file = new JournalFile(directory, SEGMENT_SIZE, 2)) {
+            for (int i = 1; i <= 9; i++) {
+                file.append(payload(i));
+            }
+        }
+        Assertions.assertEquals(List.of(JournalFile.segmentName(4), JournalFile.segmentName(7)), names());
+        Assertions.assertEquals(List.of(4L, 5L, 6L, 7L, 8L, 9L), read(3));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new JournalFile(directory, SEGMENT_SIZE, -1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new JournalFile(directory, JournalFile.HEADER_SIZE, 0));
+    }
+
+    @Test
+    void appendsRecordsLargerThanTheSegmentSize() throws IOException {
+        try (JournalFile file = new JournalFile(directory, SEGMENT_SIZE, 0)) {
+            file.append(payload(1));
+            file.append(new byte[100]);
+            file.append(payload(3));
+        }
+        Assertions.assertEquals(List.of(JournalFile.segmentName(1), JournalFile.segmentName(2),
+                JournalFile.segmentName(3)), names());
+        Assertions.assertEquals(List.of(1L, 2L, 3L), read(0));
+    }
+
+    static byte[] payload(int i) {
+        return String.format("{\"i\":%2d}", i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private List<String> names() throws IOException {
+        return JournalFile.segments(directory).stream()
+                .map(segment -> segment.getFileName().toString())
+                .collect(Collectors.toList());
+    }
+
+    private List<Long> read(long sequence) throws IOException {
+        try (JournalCursor cursor = new JournalCursor(directory, sequence)) {
+            final List<Long> sequences = new ArrayList<>();
+            JournalRecord record;
+            while ((record = cursor.next()) != null) {
+                sequences.add(record.getSequence());
+            }
+            return sequences;
+        }
+    }
+}
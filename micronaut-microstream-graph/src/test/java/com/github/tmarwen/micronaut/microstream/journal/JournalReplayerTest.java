@@ -0,0 +1,210 @@
+package com.github.tmarwen.micronaut.microstream.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tmarwen.micronaut.microstream.configuration.ReplicaConfigurationProperties;
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
+import com.github.tmarwen.micronaut.microstream.model.GraphType;
+import com.github.tmarwen.micronaut.microstream.runtime.GlobalLockConcurrencyStrategy;
+import com.github.tmarwen.micronaut.microstream.runtime.GraphVersion;
+import com.github.tmarwen.micronaut.microstream.runtime.StorageCommitEvent;
+import com.github.tmarwen.micronaut.microstream.runtime.TestGraphPartitions;
+import graphql.schema.DataFetchingEnvironment;
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.scheduling.TaskScheduler;
+import one.microstream.persistence.types.PersistenceManager;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+class JournalReplayerTest {
+
+    private static final GraphField<Channel, Object> CHANNEL_NAME = field("name", "String", GraphField.Kind.SCALAR,
+            false, Channel::getName);
+
+    private static final GraphField<Channel, Object> CHANNEL_POSTS = field("posts", "Post", GraphField.Kind.OBJECT,
+            true, Channel::getPosts);
+
+    private static final GraphField<Post, Object> POST_TEXT = field("text", "String", GraphField.Kind.SCALAR,
+            false, Post::getText);
+
+    private static final GraphField<Post, Object> POST_CHANNEL = field("channel", "Channel", GraphField.Kind.OBJECT,
+            false, Post::getChannel);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendsTheObjectsCreatedAfterTheirList() throws IOException {
+        final Channel general = new Channel();
+        general.setName("general");
+        final Post first = new Post();
+        first.setText("first");
+        first.setChannel(general);
+        general.getPosts().add(first);
+        final Map<Long, Object> snapshot = new HashMap<>();
+        snapshot.put(42L, general);
+        snapshot.put(51L, general.getPosts());
+        snapshot.put(100L, first);
+        final List<StorageCommitEvent> events = new ArrayList<>();
+        try (JournalFile file = new JournalFile(directory, 4096, 0)) {
+            // as journaled upon a post commit: the list first, then the new post it holds
+            file.append(record(
+                    "{'op':'store','partition':0,'objectId':51,'type':'List','appended':[1234]}",
+                    "{'op':'store','partition':0,'objectId':1234,'type':'Post','fields':{'text':'Hi','channel':42}}"
+            ));
+            // a new channel with a new list of new posts
+            file.append(record(
+                    "{'op':'store','partition':0,'objectId':52,'type':'List','elements':[1235]}",
+                    "{'op':'store','partition':0,'objectId':1235,'type':'Post','fields':{'text':'Hello','channel':43}}",
+                    "{'op':'store','partition':0,'objectId':43,'type':'Channel','fields':{'name':'news','posts':52}}"
+            ));
+            // replayed twice
+            file.append(record(
+                    "{'op':'store','partition':0,'objectId':51,'type':'List','appended':[1234]}"
+            ));
+        }
+        final JournalReplayer replayer = replayer(snapshot, events);
+        replayer.poll();
+        Assertions.assertNull(replayer.getFailure());
+        Assertions.assertEquals(3, replayer.getSequence());
+
+        Assertions.assertEquals(2, general.getPosts().size());
+        final Post hi = general.getPosts().get(1);
+        Assertions.assertEquals("Hi", hi.getText());
+        Assertions.assertSame(general, hi.getChannel());
+
+        Assertions.assertEquals(1, events.size());
+        final Channel news = (Channel) events.get(0).getObjects().stream()
+                .filter(Channel.class::isInstance)
+                .findFirst()
+                .orElseGet(() -> Assertions.fail("news channel not replayed"));
+        Assertions.assertEquals("news", news.getName());
+        Assertions.assertEquals(1, news.getPosts().size());
+        Assertions.assertEquals("Hello", news.getPosts().get(0).getText());
+        Assertions.assertSame(news, news.getPosts().get(0).getChannel());
+    }
+
+    private JournalReplayer replayer(Map<Long, Object> snapshot, List<StorageCommitEvent> events) {
+        final PersistenceManager<?> persistenceManager = Mockito.mock(PersistenceManager.class,
+                invocation -> "getObject".equals(invocation.getMethod().getName())
+                        ? snapshot.get(invocation.<Long>getArgument(0))
+                        : null);
+        final EmbeddedStorageManager storageManager = Mockito.mock(EmbeddedStorageManager.class);
+        Mockito.doReturn(persistenceManager).when(storageManager).persistenceManager();
+        final GraphModel graphModel = new GraphModel() {
+
+            @Override
+            public Class<?> getRootType() {
+                return Channel.class;
+            }
+
+            @Override
+            public List<GraphType<?>> getTypes() {
+                return Arrays.asList(
+                        new GraphType<>("Channel", Channel.class, false, Arrays.asList(CHANNEL_NAME, CHANNEL_POSTS)),
+                        new GraphType<>("Post", Post.class, false, Arrays.asList(POST_TEXT, POST_CHANNEL))
+                );
+            }
+        };
+        final ReplicaConfigurationProperties configuration = new ReplicaConfigurationProperties();
+        configuration.setJournalDirectory(directory.toString());
+        return new JournalReplayer(
+                storageManager,
+                TestGraphPartitions.of(Collections.singletonList(storageManager), graphModel),
+                graphModel,
+                new GlobalLockConcurrencyStrategy(),
+                event -> events.add((StorageCommitEvent) event),
+                new GraphVersion(),
+                new ObjectMapper(),
+                configuration,
+                Mockito.mock(TaskScheduler.class)
+        );
+    }
+
+    private static byte[] record(String... changes) {
+        return ("{'timestamp':1618317000000,'changes':[" + String.join(",", changes) + "]}")
+                .replace('\'', '"')
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static <B> GraphField<B, Object> field(String name,
+                                                   String typeName,
+                                                   GraphField.Kind kind,
+                                                   boolean list,
+                                                   Function<B, Object> reader) {
+        return new GraphField<B, Object>(name, typeName, kind, list, false, false, false) {
+
+            @Override
+            public Object read(B bean) {
+                return reader.apply(bean);
+            }
+
+            @Override
+            public Object get(DataFetchingEnvironment environment) {
+                return read(environment.<B>getSource());
+            }
+        };
+    }
+
+    @Introspected
+    public static final class Channel {
+
+        private String name;
+
+        private List<Post> posts = new ArrayList<>();
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<Post> getPosts() {
+            return posts;
+        }
+
+        public void setPosts(List<Post> posts) {
+            this.posts = posts;
+        }
+    }
+
+    @Introspected
+    public static final class Post {
+
+        private String text;
+
+        private Channel channel;
+
+        public String getText() {
+            return text;
+        }
+
+        public void setText(String text) {
+            this.text = text;
+        }
+
+        public Channel getChannel() {
+            return channel;
+        }
+
+        public void setChannel(Channel channel) {
+            this.channel = channel;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.tmarwen.micronaut.microstream.model;
+
+import graphql.schema.DataFetchingEnvironment;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+class GraphWalkerTest {
+
+    private static final GraphField<Board, Object> BOARD_CARDS = field("cards", "Card", true, Board::getCards);
+
+    private static final GraphField<Card, Object> CARD_PARENT = field("parent", "Card", false, Card::getParent);
+
+    private final GraphWalker walker = new GraphWalker(new GraphModel() {
+
+        @Override
+        public Class<?> getRootType() {
+            return Board.class;
+        }
+
+        @Override
+        public List<GraphType<?>> getTypes() {
+            return Arrays.asList(
+                    new GraphType<>("Board", Board.class, true, Collections.singletonList(BOARD_CARDS)),
+                    new GraphType<>("Card", Card.class, false, Collections.singletonList(CARD_PARENT))
+            );
+        }
+    });
+
+    @Test
+    void walksTheWholeGraphOnce() {
+        final Board board = board(100);
+        board.getCards().forEach(card -> card.parent = board.getCards().get(0));
+
+        final List<Object> visited = new ArrayList<>();
+        walker.walk(Collections.singletonList(board), (type, instance) -> visited.add(instance),
+                (type, instance) -> true);
+        Assertions.assertEquals(101, visited.size());
+        Assertions.assertSame(board, visited.get(0));
+    }
+
+    @Test
+    void expandsOnlyAPrefixOfTheListsWithinTheLimit() {
+        final Board board = board(1_000);
+        final int[] iterated = {0};
+        board.cards = new ArrayList<Card>(board.getCards()) {
+
+            @Override
+            public Iterator<Card> iterator() {
+                final Iterator<Card> iterator = super.iterator();
+                return new Iterator<Card>() {
+
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Card next() {
+                        iterated[0]++;
+                        return iterator.next();
+                    }
+                };
+            }
+        };
+
+        final List<Object> visited = new ArrayList<>();
+        walker.walk(Collections.singletonList(board), (type, instance) -> visited.add(instance),
+                (type, instance) -> true, 10);
+        // the board, its list and 8 of its cards
+        Assertions.assertEquals(9, visited.size());
+        Assertions.assertEquals(8, iterated[0]);
+    }
+
+    @Test
+    void stopsExpandingListsModifiedConcurrently() {
+        final Board board = board(10);
+        final List<Object> visited = new ArrayList<>();
+        walker.walk(Collections.singletonList(board), (type, instance) -> {
+            visited.add(instance);
+            if (instance instanceof Card) {
+                board.getCards().add(new Card());
+            }
+        }, (type, instance) -> true, 100);
+        Assertions.assertTrue(visited.size() > 1);
+        Assertions.assertTrue(visited.size() <= 11);
+    }
+
+    private static Board board(int size) {
+        final Board board = new Board();
+        for (int i = 0; i < size; i++) {
+            board.getCards().add(new Card());
+        }
+        return board;
+    }
+
+    private static <B> GraphField<B, Object> field(String name,
+                                                   String typeName,
+                                                   boolean list,
+                                                   Function<B, Object> reader) {
+        return new GraphField<B, Object>(name, typeName, GraphField.Kind.OBJECT, list, false, false, false) {
+
+            @Override
+            public Object read(B bean) {
+                return reader.apply(bean);
+            }
+
+            @Override
+            public Object get(DataFetchingEnvironment environment) {
+                return read(environment.<B>getSource());
+            }
+        };
+    }
+
+    static final class Board {
+
+        private List<Card> cards = new ArrayList<>();
+
+        List<Card> getCards() {
+            return cards;
+        }
+    }
+
+    static final class Card {
+
+        private Card parent;
+
+        Card getParent() {
+            return parent;
+        }
+    }
+}
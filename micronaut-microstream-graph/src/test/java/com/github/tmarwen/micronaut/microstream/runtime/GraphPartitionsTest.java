@@ -0,0 +1,196 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import com.github.tmarwen.micronaut.microstream.model.GraphField;
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
+import com.github.tmarwen.micronaut.microstream.model.GraphType;
+import graphql.schema.DataFetchingEnvironment;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+class GraphPartitionsTest {
+
+    private static final GraphField<Device, Object> DEVICE_ID = field("id", "ID", GraphField.Kind.SCALAR, false,
+            device -> device.id);
+
+    private static final GraphField<Device, Object> READINGS = field("readings", "Reading", GraphField.Kind.OBJECT,
+            true, device -> device.readings);
+
+    private static final GraphField<Site, Object> SITE_ID = field("id", "ID", GraphField.Kind.SCALAR, false,
+            site -> site.id);
+
+    private static final GraphField<Site, Object> DEVICES_OF_SITE = field("devices", "Device", GraphField.Kind.OBJECT,
+            true, site -> Collections.emptyList());
+
+    private static final GraphField<Telemetry, Object> DEVICES = field("devices", "Device", GraphField.Kind.OBJECT,
+            true, telemetry -> telemetry.devices);
+
+    private static final GraphField<Telemetry, Object> SITES = field("sites", "Site", GraphField.Kind.OBJECT,
+            true, telemetry -> telemetry.sites);
+
+    @Test
+    void routesTheAggregatesByIdentifier() {
+        final GraphPartitions partitions = partitions(4, model(false), Collections.singletonList("devices"));
+        try {
+            Assertions.assertTrue(partitions.isPartitioned());
+            Assertions.assertEquals(4, partitions.getCount());
+            Assertions.assertTrue(partitions.isPartitioned(DEVICES));
+            Assertions.assertFalse(partitions.isPartitioned(SITES));
+            final int[] counts = new int[4];
+            for (long id = 1; id <= 4000; id++) {
+                final int partition = partitions.partitionOf(new Device(id));
+                Assertions.assertEquals(partitions.partitionOf(id), partition);
+                counts[partition]++;
+            }
+            for (int count : counts) {
+                Assertions.assertTrue(count > 800 && count < 1200, "unbalanced partitions " + Arrays.toString(counts));
+            }
+            // the other types and the aggregates without identifier are held by the default storage
+            Assertions.assertEquals(0, partitions.partitionOf(new Site(7L)));
+            Assertions.assertEquals(0, partitions.partitionOf(new Device(null)));
+            Assertions.assertEquals(0, partitions.partitionOf(new Reading()));
+        } finally {
+            partitions.shutdown();
+        }
+    }
+
+    @Test
+    void partitionsAllTheIndexedRootListsByDefault() {
+        final GraphPartitions partitions = partitions(2, model(false), Collections.emptyList());
+        try {
+            Assertions.assertTrue(partitions.isPartitioned(DEVICES));
+            Assertions.assertTrue(partitions.isPartitioned(SITES));
+            Assertions.assertEquals(partitions.partitionOf(7L), partitions.partitionOf(new Site(7L)));
+        } finally {
+            partitions.shutdown();
+        }
+    }
+
+    @Test
+    void aSingleStorageIsNotPartitioned() {
+        final GraphPartitions partitions = partitions(1, model(false), Collections.singletonList("devices"));
+        Assertions.assertFalse(partitions.isPartitioned());
+        Assertions.assertFalse(partitions.isPartitioned(DEVICES));
+        Assertions.assertEquals(0, partitions.partitionOf(new Device(42L)));
+    }
+
+    @Test
+    void rejectsGraphsSharingTypesWithAPartitionedOne() {
+        final IllegalStateException failure = Assertions.assertThrows(IllegalStateException.class,
+                () -> partitions(2, model(true), Collections.singletonList("devices")));
+        Assertions.assertTrue(failure.getMessage().contains("[Device, Reading]"), failure.getMessage());
+    }
+
+    @Test
+    void rejectsInvalidPartitionedFields() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> partitions(2, model(false), Collections.singletonList("unknown")));
+        final GraphType<Telemetry> root = new GraphType<>("Telemetry", Telemetry.class, true,
+                Arrays.asList(DEVICES, SITES));
+        final GraphModel unindexed = model(root, new GraphType<>("Device", Device.class, false,
+                Arrays.asList(DEVICE_ID, READINGS)), site(false), reading());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> partitions(2, unindexed, Collections.singletonList("devices")));
+    }
+
+    private static GraphPartitions partitions(int count, GraphModel graphModel, List<String> fields) {
+        final List<EmbeddedStorageManager> storageManagers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            storageManagers.add(Mockito.mock(EmbeddedStorageManager.class));
+        }
+        return new GraphPartitions(storageManagers, graphModel, fields);
+    }
+
+    /**
+     * @param sitesReferenceDevices whether sites reference devices, sharing the partitioned type
+     * @return the telemetry graph model
+     */
+    private static GraphModel model(boolean sitesReferenceDevices) {
+        final GraphType<Telemetry> root = new GraphType<>("Telemetry", Telemetry.class, true,
+                Arrays.asList(DEVICES, SITES));
+        final GraphType<Device> device = new GraphType<>("Device", Device.class, false, true,
+                Arrays.asList(DEVICE_ID, READINGS));
+        return model(root, device, site(sitesReferenceDevices), reading());
+    }
+
+    private static GraphType<Site> site(boolean referencesDevices) {
+        return new GraphType<>("Site", Site.class, false, true, referencesDevices
+                ? Arrays.asList(SITE_ID, DEVICES_OF_SITE)
+                : Collections.singletonList(SITE_ID));
+    }
+
+    private static GraphType<Reading> reading() {
+        return new GraphType<>("Reading", Reading.class, false, Collections.emptyList());
+    }
+
+    private static GraphModel model(GraphType<?>... types) {
+        return new GraphModel() {
+
+            @Override
+            public Class<?> getRootType() {
+                return Telemetry.class;
+            }
+
+            @Override
+            public List<GraphType<?>> getTypes() {
+                return Arrays.asList(types);
+            }
+        };
+    }
+
+    private static <B> GraphField<B, Object> field(String name,
+                                                   String typeName,
+                                                   GraphField.Kind kind,
+                                                   boolean list,
+                                                   Function<B, Object> reader) {
+        return new GraphField<B, Object>(name, typeName, kind, list, false, false, false) {
+
+            @Override
+            public Object read(B bean) {
+                return reader.apply(bean);
+            }
+
+            @Override
+            public Object get(DataFetchingEnvironment environment) {
+                return read(environment.<B>getSource());
+            }
+        };
+    }
+
+    private static final class Telemetry {
+
+        final List<Device> devices = new ArrayList<>();
+
+        final List<Site> sites = new ArrayList<>();
+    }
+
+    private static final class Device {
+
+        final Long id;
+
+        final List<Reading> readings = new ArrayList<>();
+
+        Device(Long id) {
+            this.id = id;
+        }
+    }
+
+    private static final class Site {
+
+        final Long id;
+
+        Site(Long id) {
+            this.id = id;
+        }
+    }
+
+    private static final class Reading {
+    }
+}
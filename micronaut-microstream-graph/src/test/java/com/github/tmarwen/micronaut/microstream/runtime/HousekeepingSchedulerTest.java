@@ -0,0 +1,65 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import com.github.tmarwen.micronaut.microstream.configuration.HousekeepingConfigurationProperties;
+import io.micronaut.scheduling.TaskScheduler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+class HousekeepingSchedulerTest {
+
+    private static final LocalTime NOON = LocalTime.of(12, 0);
+
+    @Test
+    void timeBudgetShrinksWithTheRequestLoad() {
+        final HousekeepingScheduler scheduler = scheduler(Collections.emptyList());
+        Assertions.assertEquals(Duration.ofMillis(50).toNanos(), scheduler.timeBudgetNanos(NOON, 0));
+        Assertions.assertEquals(Duration.ofMillis(50).toNanos() - Duration.ofMillis(49).toNanos() / 2,
+                scheduler.timeBudgetNanos(NOON, 32));
+        Assertions.assertEquals(Duration.ofMillis(1).toNanos(), scheduler.timeBudgetNanos(NOON, 64));
+        Assertions.assertEquals(Duration.ofMillis(1).toNanos(), scheduler.timeBudgetNanos(NOON, 1000));
+    }
+
+    @Test
+    void timeBudgetIsRaisedWithinOffPeakWindows() {
+        final HousekeepingScheduler scheduler = scheduler(Collections.singletonList("01:00-05:00"));
+        final long offPeak = Duration.ofMillis(500).toNanos();
+        Assertions.assertEquals(offPeak, scheduler.timeBudgetNanos(LocalTime.of(1, 0), 64));
+        Assertions.assertEquals(offPeak, scheduler.timeBudgetNanos(LocalTime.of(4, 59), 0));
+        Assertions.assertEquals(Duration.ofMillis(1).toNanos(), scheduler.timeBudgetNanos(LocalTime.of(5, 0), 64));
+        Assertions.assertEquals(Duration.ofMillis(1).toNanos(), scheduler.timeBudgetNanos(LocalTime.of(0, 59), 64));
+    }
+
+    @Test
+    void offPeakWindowsMaySpanMidnight() {
+        final HousekeepingScheduler scheduler = scheduler(Arrays.asList("22:00-02:00", " 12:30 - 13:00 "));
+        final long offPeak = Duration.ofMillis(500).toNanos();
+        Assertions.assertEquals(offPeak, scheduler.timeBudgetNanos(LocalTime.of(23, 30), 64));
+        Assertions.assertEquals(offPeak, scheduler.timeBudgetNanos(LocalTime.of(1, 0), 64));
+        Assertions.assertEquals(offPeak, scheduler.timeBudgetNanos(LocalTime.of(12, 45), 64));
+        Assertions.assertEquals(Duration.ofMillis(1).toNanos(), scheduler.timeBudgetNanos(LocalTime.of(2, 0), 64));
+        Assertions.assertEquals(Duration.ofMillis(1).toNanos(), scheduler.timeBudgetNanos(NOON, 64));
+    }
+
+    @Test
+    void invalidOffPeakWindowsAreRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> scheduler(Collections.singletonList("01:00")));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> scheduler(Collections.singletonList("1am-5am")));
+    }
+
+    private static HousekeepingScheduler scheduler(List<String> offPeakWindows) {
+        final HousekeepingConfigurationProperties configuration = new HousekeepingConfigurationProperties();
+        configuration.setEnabled(true);
+        configuration.setOffPeakWindows(offPeakWindows);
+        return new HousekeepingScheduler(() -> null, null, new RequestLoad(), configuration,
+                Mockito.mock(TaskScheduler.class));
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class StorageRestorerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restoresTheBackupFilesThenVerifiesThem() throws IOException {
+        final Path backup = backup();
+        final Path storage = directory.resolve("storage");
+        final List<Path> verified = new ArrayList<>();
+        final long bytes = new StorageRestorer(2).restore(backup, storage, verified::add);
+        Assertions.assertEquals(4096 + 5 + 7, bytes);
+        Assertions.assertEquals(List.of(storage), verified);
+        Assertions.assertEquals(files(backup), files(storage));
+        for (Path file : files(backup)) {
+            Assertions.assertArrayEquals(Files.readAllBytes(backup.resolve(file)), Files.readAllBytes(storage.resolve(file)));
+        }
+    }
+
+    @Test
+    void failedVerificationDiscardsTheRestoredFiles() throws IOException {
+        final Path backup = backup();
+        final Path storage = directory.resolve("storage");
+        final IllegalStateException failure = Assertions.assertThrows(IllegalStateException.class,
+                () -> new StorageRestorer(2).restore(backup, storage, restored -> {
+                    throw new IllegalStateException("no root");
+                }));
+        Assertions.assertEquals("no root", failure.getMessage());
+        Assertions.assertTrue(Files.isDirectory(storage));
+        Assertions.assertTrue(files(storage).isEmpty());
+        Assertions.assertEquals(4096 + 5 + 7, new StorageRestorer(1).restore(backup, storage, restored -> {
+        }));
+    }
+
+    @Test
+    void restoresOnlyIntoAnEmptyStorageDirectory() throws IOException {
+        final Path backup = backup();
+        final Path storage = Files.createDirectories(directory.resolve("storage"));
+        Files.write(storage.resolve("channel_0.dat"), new byte[]{1});
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> new StorageRestorer(1).restore(backup, storage, restored -> Assertions.fail("restored")));
+        Assertions.assertArrayEquals(new byte[]{1}, Files.readAllBytes(storage.resolve("channel_0.dat")));
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> new StorageRestorer(1).restore(directory.resolve("missing"), directory.resolve("other"),
+                        restored -> Assertions.fail("restored")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new StorageRestorer(0));
+    }
+
+    private Path backup() throws IOException {
+        final Path backup = directory.resolve("backup");
+        Files.createDirectories(backup.resolve("channel_0"));
+        Files.createDirectories(backup.resolve("channel_1"));
+        final byte[] data = new byte[4096];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        Files.write(backup.resolve("channel_0").resolve("channel_0_1.dat"), data);
+        Files.write(backup.resolve("channel_1").resolve("channel_1_1.dat"), "hello".getBytes(StandardCharsets.UTF_8));
+        Files.write(backup.resolve("ObjectId.oid"), "1000042".getBytes(StandardCharsets.UTF_8));
+        return backup;
+    }
+
+    private static List<Path> files(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile).map(root::relativize).sorted().collect(Collectors.toList());
+        }
+    }
+}
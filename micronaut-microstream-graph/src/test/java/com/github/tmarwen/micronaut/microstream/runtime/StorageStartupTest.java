@@ -0,0 +1,91 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import com.github.tmarwen.micronaut.microstream.configuration.StartupConfigurationProperties;
+import io.micronaut.context.BeanContext;
+import io.micronaut.context.event.StartupEvent;
+import one.microstream.storage.types.EmbeddedStorageManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class StorageStartupTest {
+
+    private final EmbeddedStorageManager storageManager = Mockito.mock(EmbeddedStorageManager.class);
+
+    private final List<String> ran = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void runsAndTimesThePhasesInOrder() {
+        final StorageStartup startup = startup(false, task("indexes", 100), task("schema", 200));
+
+        startup.onApplicationEvent(new StartupEvent(Mockito.mock(BeanContext.class)));
+        Assertions.assertTrue(startup.isReady());
+        Assertions.assertNull(startup.getFailure());
+        Assertions.assertEquals(Arrays.asList("storage", "indexes", "schema"), ran);
+        Assertions.assertEquals(Arrays.asList("storage", "indexes", "schema"),
+                new ArrayList<>(startup.getPhases().keySet()));
+    }
+
+    @Test
+    void reportsTheFailedPhase() {
+        final IllegalStateException failure = new IllegalStateException("schema failure");
+        final StorageStartup startup = startup(false, task("indexes", 100), StartupTask.of("schema", 200, () -> {
+            throw failure;
+        }));
+
+        Assertions.assertSame(failure, Assertions.assertThrows(IllegalStateException.class,
+                () -> startup.onApplicationEvent(new StartupEvent(Mockito.mock(BeanContext.class)))));
+        Assertions.assertFalse(startup.isReady());
+        Assertions.assertSame(failure, startup.getFailure());
+        Assertions.assertEquals(Arrays.asList("storage", "indexes"), new ArrayList<>(startup.getPhases().keySet()));
+    }
+
+    @Test
+    void runsThePhasesInTheBackground() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        final StorageStartup startup = startup(true, StartupTask.of("indexes", 100, () -> {
+            await(release);
+            ran.add("indexes");
+        }), StartupTask.of("done", 200, done::countDown));
+
+        startup.onApplicationEvent(new StartupEvent(Mockito.mock(BeanContext.class)));
+        Assertions.assertFalse(startup.isReady());
+        release.countDown();
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 500 && !startup.isReady(); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(startup.isReady());
+        Assertions.assertEquals(Arrays.asList("storage", "indexes"), ran);
+    }
+
+    private StorageStartup startup(boolean background, StartupTask... tasks) {
+        final StartupConfigurationProperties configuration = new StartupConfigurationProperties();
+        configuration.setBackground(background);
+        return new StorageStartup(() -> {
+            ran.add("storage");
+            return storageManager;
+        }, Arrays.asList(tasks), configuration);
+    }
+
+    private StartupTask task(String name, int order) {
+        return StartupTask.of(name, order, () -> ran.add(name));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.tmarwen.micronaut.microstream.runtime;
+
+import com.github.tmarwen.micronaut.microstream.model.GraphModel;
+import one.microstream.storage.types.EmbeddedStorageManager;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Creates graph partitions for the tests of the other packages.
+ */
+public final class TestGraphPartitions {
+
+    private TestGraphPartitions() {
+    }
+
+    /**
+     * @param storageManagers the storage manager of each partition
+     * @param graphModel      the graph model
+     * @return the graph partitions of the default root lists
+     */
+    public static GraphPartitions of(List<EmbeddedStorageManager> storageManagers, GraphModel graphModel) {
+        return new GraphPartitions(storageManagers, graphModel, Collections.emptyList());
+    }
+}